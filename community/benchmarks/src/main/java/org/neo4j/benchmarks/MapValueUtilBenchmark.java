@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.utils.MapValueUtil;
+
+/**
+ * Conversion of maps between their JSON representation, plain java maps and {@link MapValue}.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class MapValueUtilBenchmark
+{
+    @Param( {"1", "16", "256"} )
+    public int entries;
+
+    private MapValue map;
+    private Map<String,Object> objects;
+    private String json;
+    private byte[] utf8;
+
+    @Setup
+    public void setup()
+    {
+        map = PropertyPayloads.map( entries );
+        objects = map.asObjectCopy();
+        json = MapValueUtil.stringifyMap( objects );
+        utf8 = json.getBytes( StandardCharsets.UTF_8 );
+    }
+
+    @Benchmark
+    public Map<String,Object> parseMap()
+    {
+        return MapValueUtil.parseMap( json );
+    }
+
+    @Benchmark
+    public Map<String,Object> parseMapFromUtf8()
+    {
+        return MapValueUtil.parseMap( utf8, 0, utf8.length );
+    }
+
+    @Benchmark
+    public String stringifyMap()
+    {
+        return MapValueUtil.stringifyMap( objects );
+    }
+
+    @Benchmark
+    public MapValue mapValueFromString()
+    {
+        return Values.mapValue( json );
+    }
+
+    @Benchmark
+    public MapValue mapValueFromMap()
+    {
+        return Values.mapValue( objects );
+    }
+
+    @Benchmark
+    public MapValue mapValueFromUtf8()
+    {
+        return Values.mapValue( utf8, 0, utf8.length );
+    }
+
+    @Benchmark
+    public byte[] utf8Map()
+    {
+        return MapValueUtil.utf8Map( map );
+    }
+}
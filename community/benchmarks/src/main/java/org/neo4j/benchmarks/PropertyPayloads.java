@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks;
+
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DateTimeValue;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+/**
+ * Property values of a given kind and payload size, generated from a fixed seed so that every benchmark run
+ * sees the same data. The kinds are picked to cover every {@code PropertyType}: depending on the size a
+ * {@link Kind#STRING} ends up as a short string or in the dynamic string store, and likewise for arrays and maps.
+ */
+public final class PropertyPayloads
+{
+    public enum Kind
+    {
+        BOOL,
+        BYTE,
+        SHORT,
+        CHAR,
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        STRING,
+        ARRAY,
+        POINT,
+        TEMPORAL,
+        MAP
+    }
+
+    private static final long SEED = 42;
+
+    private PropertyPayloads()
+    {
+    }
+
+    /**
+     * @param kind the kind of value to create.
+     * @param size number of characters for strings, number of elements for arrays and number of entries for maps.
+     * Ignored for scalar kinds.
+     * @return the value.
+     */
+    public static Value value( Kind kind, int size )
+    {
+        Random random = new Random( SEED );
+        switch ( kind )
+        {
+        case BOOL:
+            return Values.booleanValue( random.nextBoolean() );
+        case BYTE:
+            return Values.byteValue( (byte) random.nextInt() );
+        case SHORT:
+            return Values.shortValue( (short) random.nextInt() );
+        case CHAR:
+            return Values.charValue( (char) ('a' + random.nextInt( 26 )) );
+        case INT:
+            return Values.intValue( random.nextInt() );
+        case LONG:
+            return Values.longValue( random.nextLong() );
+        case FLOAT:
+            return Values.floatValue( random.nextFloat() );
+        case DOUBLE:
+            return Values.doubleValue( random.nextDouble() );
+        case STRING:
+            return Values.stringValue( string( random, size ) );
+        case ARRAY:
+            long[] array = new long[size];
+            for ( int i = 0; i < size; i++ )
+            {
+                array[i] = random.nextLong();
+            }
+            return Values.longArray( array );
+        case POINT:
+            return Values.pointValue( CoordinateReferenceSystem.WGS84, random.nextDouble() * 180 - 90, random.nextDouble() * 90 );
+        case TEMPORAL:
+            return DateTimeValue.datetime( random.nextInt( Integer.MAX_VALUE ), random.nextInt( 1_000_000_000 ), ZoneOffset.UTC );
+        case MAP:
+            return map( random, size );
+        default:
+            throw new IllegalArgumentException( "Unknown kind " + kind );
+        }
+    }
+
+    /**
+     * A document of {@code size} entries, where every fourth entry is a nested map of three entries and the
+     * rest are strings, numbers and arrays, roughly what a JSON document stored in a property looks like.
+     */
+    public static MapValue map( int size )
+    {
+        return map( new Random( SEED ), size );
+    }
+
+    private static MapValue map( Random random, int size )
+    {
+        MapValueBuilder builder = new MapValueBuilder( size );
+        for ( int i = 0; i < size; i++ )
+        {
+            String key = "key" + i;
+            switch ( i % 4 )
+            {
+            case 0:
+                builder.add( key, Values.stringValue( string( random, 16 ) ) );
+                break;
+            case 1:
+                builder.add( key, Values.longValue( random.nextLong() ) );
+                break;
+            case 2:
+                builder.add( key, Values.stringArray( string( random, 8 ), string( random, 8 ) ) );
+                break;
+            default:
+                MapValueBuilder nested = new MapValueBuilder( 3 );
+                nested.add( "name", Values.stringValue( string( random, 12 ) ) );
+                nested.add( "count", Values.intValue( random.nextInt() ) );
+                nested.add( "score", Values.doubleValue( random.nextDouble() ) );
+                builder.add( key, nested.build() );
+            }
+        }
+        return builder.build();
+    }
+
+    private static String string( Random random, int length )
+    {
+        char[] chars = new char[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            chars[i] = (char) ('a' + random.nextInt( 26 ));
+        }
+        return new String( chars );
+    }
+}
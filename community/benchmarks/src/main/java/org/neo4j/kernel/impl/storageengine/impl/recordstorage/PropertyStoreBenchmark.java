@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.benchmarks.PropertyPayloads;
+import org.neo4j.benchmarks.PropertyPayloads.Kind;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.impl.muninn.StandalonePageCacheFactory;
+import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.id.DefaultIdGeneratorFactory;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.logging.NullLogProvider;
+import org.neo4j.unsafe.batchinsert.internal.DirectRecordAccessSet;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.helpers.collection.Iterators.iterator;
+
+/**
+ * Encoding of values into property blocks and reading them back through the {@link RecordPropertyCursor},
+ * for every kind of value and across payload sizes so that values end up both inlined and in the dynamic stores.
+ * Lives in the record storage package since the property cursor isn't public.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class PropertyStoreBenchmark
+{
+    private static final int KEY = 0;
+
+    @Param
+    public Kind kind;
+
+    @Param( {"8", "256", "4096"} )
+    public int size;
+
+    private File storeDir;
+    private FileSystemAbstraction fs;
+    private PageCache pageCache;
+    private NeoStores neoStores;
+    private PropertyStore propertyStore;
+    private RecordPropertyCursor cursor;
+    private PropertyBlock block;
+    private Value value;
+    private long propertyId;
+
+    @Setup
+    public void setup() throws IOException
+    {
+        storeDir = Files.createTempDirectory( "property-store-benchmark" ).toFile();
+        fs = new DefaultFileSystemAbstraction();
+        pageCache = StandalonePageCacheFactory.createPageCache( fs );
+        neoStores = new StoreFactory( storeDir, Config.defaults(), new DefaultIdGeneratorFactory( fs ), pageCache, fs,
+                NullLogProvider.getInstance(), EmptyVersionContextSupplier.EMPTY ).openAllNeoStores( true );
+        propertyStore = neoStores.getPropertyStore();
+        value = PropertyPayloads.value( kind, size );
+        block = new PropertyBlock();
+
+        PropertyCreator creator = new PropertyCreator( propertyStore, new PropertyTraverser() );
+        DirectRecordAccessSet access = new DirectRecordAccessSet( neoStores );
+        propertyId = creator.createPropertyChain( neoStores.getNodeStore().newRecord(),
+                iterator( creator.encodePropertyValue( KEY, value ) ), access.getPropertyRecords() );
+        access.close();
+        cursor = new RecordPropertyCursor( propertyStore );
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        cursor.close();
+        neoStores.close();
+        pageCache.close();
+        fs.close();
+        FileUtils.deleteRecursively( storeDir );
+    }
+
+    /**
+     * Values that don't fit in the property record get records allocated from the dynamic stores, but nothing is
+     * written to them, so this measures the encoding alone.
+     */
+    @Benchmark
+    public PropertyBlock encodeValue()
+    {
+        propertyStore.encodeValue( block, KEY, value );
+        return block;
+    }
+
+    @Benchmark
+    public Value readValue()
+    {
+        cursor.init( propertyId );
+        cursor.next();
+        return cursor.propertyValue();
+    }
+
+    /**
+     * Values like maps are decoded lazily, hashing them visits the whole value so that the full decoding cost
+     * is measured as well.
+     */
+    @Benchmark
+    public int readAndHashValue()
+    {
+        cursor.init( propertyId );
+        cursor.next();
+        return cursor.propertyValue().hashCode();
+    }
+}
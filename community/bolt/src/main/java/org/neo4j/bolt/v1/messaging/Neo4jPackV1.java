@@ -26,7 +26,6 @@ import java.time.LocalTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import org.neo4j.bolt.messaging.StructType;
@@ -158,12 +157,6 @@ public class Neo4jPackV1 implements Neo4jPack
             packMapHeader( size );
         }
 
-        @Override
-        public void writeMap( HashMap<String, Object> map )
-        {
-            // TODO: Figure out implementation
-        }
-
         @Override
         public void endMap()
         {
@@ -40,7 +40,9 @@ import org.neo4j.values.storable.TextArray;
 import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.UTF8StringValue;
 import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValueBuilder;
 import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.virtual.PathValue;
 import org.neo4j.values.virtual.VirtualValues;
 
@@ -130,6 +132,27 @@ public class Neo4jPackV1Test
         assertThat( unpackedMap, equalTo( ALICE.properties() ) );
     }
 
+    @Test
+    public void shouldPackAndUnpackNestedMapProperty() throws IOException
+    {
+        // Given
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "city", stringValue( "Malmö" ) );
+        address.add( "zip", longValue( 21119 ) );
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "address", address.build() );
+        document.add( "name", stringValue( "Alice" ) );
+        MapValue map = document.build();
+
+        // When
+        AnyValue unpacked = unpacked( packed( map ) );
+        AnyValue unpackedEncoded = unpacked( packed( MapValueEncoding.decode( MapValueEncoding.encode( map ) ) ) );
+
+        // Then
+        assertThat( unpacked, equalTo( map ) );
+        assertThat( unpackedEncoded, equalTo( map ) );
+    }
+
     @Test
     public void shouldFailWhenTryingToPackAndUnpackMapContainingNullKeys() throws IOException
     {
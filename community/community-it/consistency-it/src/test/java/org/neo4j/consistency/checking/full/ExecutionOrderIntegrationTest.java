@@ -455,5 +455,11 @@ public class ExecutionOrderIntegrationTest
         {
             return access.rawPropertyChain( firstId );
         }
+
+        @Override
+        public Iterator<DynamicRecord> rawStringChain( long firstId )
+        {
+            return access.rawStringChain( firstId );
+        }
     }
 }
@@ -19,15 +19,26 @@
  */
 package org.neo4j.consistency.checking;
 
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.neo4j.consistency.report.ConsistencyReport;
 import org.neo4j.consistency.store.DirectRecordReference;
 import org.neo4j.consistency.store.RecordAccess;
+import org.neo4j.kernel.impl.store.AbstractDynamicStore;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.ShortMap;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 
 public class PropertyRecordCheck
         implements RecordCheck<PropertyRecord, ConsistencyReport.PropertyConsistencyReport>
@@ -79,6 +90,22 @@ public class PropertyRecordCheck
             case ARRAY:
                 engine.comparativeCheck( records.array( block.getSingleValueLong() ), DynamicReference.array( block ) );
                 break;
+            case MAP:
+                if ( !ShortMap.isShortMap( block.getSingleValueBlock() ) )
+                {
+                    // maps that don't fit in the property record are stored in the string store
+                    engine.comparativeCheck( records.string( block.getSingleValueLong() ), DynamicReference.map( block ) );
+                    break;
+                }
+                try
+                {
+                    decodeFully( ShortMap.decode( block ) );
+                }
+                catch ( Exception e )
+                {
+                    engine.report().invalidPropertyValue( block );
+                }
+                break;
             default:
                 try
                 {
@@ -93,6 +120,20 @@ public class PropertyRecordCheck
         }
     }
 
+    /**
+     * Map values are decoded lazily, so visit every value, also in nested maps, to have all of it decoded.
+     */
+    private static void decodeFully( MapValue map )
+    {
+        map.foreach( ( key, value ) ->
+        {
+            if ( value instanceof MapValue )
+            {
+                decodeFully( (MapValue) value );
+            }
+        } );
+    }
+
     public enum PropertyField implements
             RecordField<PropertyRecord, ConsistencyReport.PropertyConsistencyReport>,
             ComparativeRecordChecker<PropertyRecord, PropertyRecord, ConsistencyReport.PropertyConsistencyReport>
@@ -252,6 +293,66 @@ public class PropertyRecordCheck
             };
         }
 
+        /**
+         * The chain itself is checked along with all other string store records, this also checks that the
+         * bytes in the chain decode to a map.
+         */
+        public static DynamicReference map( PropertyBlock block )
+        {
+            return new DynamicReference( block )
+            {
+                @Override
+                public void checkReference( PropertyRecord record, DynamicRecord referred,
+                        CheckerEngine<PropertyRecord,ConsistencyReport.PropertyConsistencyReport> engine, RecordAccess records )
+                {
+                    super.checkReference( record, referred, engine, records );
+                    if ( referred.inUse() && referred.getLength() > 0 )
+                    {
+                        checkDecodable( engine, records );
+                    }
+                }
+
+                private void checkDecodable( CheckerEngine<PropertyRecord,ConsistencyReport.PropertyConsistencyReport> engine,
+                        RecordAccess records )
+                {
+                    List<DynamicRecord> chain = new ArrayList<>();
+                    MutableLongSet seen = new LongHashSet();
+                    Iterator<DynamicRecord> iterator = records.rawStringChain( block.getSingleValueLong() );
+                    while ( iterator.hasNext() )
+                    {
+                        DynamicRecord dynamicRecord = iterator.next();
+                        if ( !dynamicRecord.inUse() || !seen.add( dynamicRecord.getId() ) )
+                        {
+                            // broken or circular chains are reported when checking the string store
+                            return;
+                        }
+                        chain.add( dynamicRecord );
+                    }
+                    try
+                    {
+                        decodeFully( MapValueEncoding.decode(
+                                AbstractDynamicStore.readFullByteArrayFromHeavyRecords( chain, PropertyType.MAP ).other() ) );
+                    }
+                    catch ( Exception e )
+                    {
+                        engine.report().invalidPropertyValue( block );
+                    }
+                }
+
+                @Override
+                void notUsed( ConsistencyReport.PropertyConsistencyReport report, DynamicRecord value )
+                {
+                    report.stringNotInUse( block, value );
+                }
+
+                @Override
+                void empty( ConsistencyReport.PropertyConsistencyReport report, DynamicRecord value )
+                {
+                    report.stringEmpty( block, value );
+                }
+            };
+        }
+
         public static DynamicReference array( PropertyBlock block )
         {
             return new DynamicReference( block )
@@ -47,6 +47,7 @@ import org.neo4j.consistency.store.RecordAccess;
 import org.neo4j.helpers.progress.ProgressListener;
 import org.neo4j.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.ShortMap;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.NeoStoreRecord;
@@ -221,7 +222,7 @@ class OwnerCheck implements CheckDecorator
                 {
                     for ( PropertyBlock block : record )
                     {
-                        RecordType type = recordType( block.forceGetType() );
+                        RecordType type = recordType( block );
                         if ( type != null )
                         {
                             ConcurrentMap<Long, DynamicOwner> dynamicOwners = dynamics.get( type );
@@ -243,8 +244,9 @@ class OwnerCheck implements CheckDecorator
         };
     }
 
-    private RecordType recordType( PropertyType type )
+    private RecordType recordType( PropertyBlock block )
     {
+        PropertyType type = block.forceGetType();
         if ( type == null )
         {
             return null;
@@ -256,6 +258,9 @@ class OwnerCheck implements CheckDecorator
             return STRING_PROPERTY;
         case ARRAY:
             return ARRAY_PROPERTY;
+        case MAP:
+            // maps are stored in the string store, unless inlined in the property record
+            return ShortMap.isShortMap( block.getSingleValueBlock() ) ? null : STRING_PROPERTY;
         default:
             return null;
         }
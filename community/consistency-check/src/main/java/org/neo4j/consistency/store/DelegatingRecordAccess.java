@@ -72,6 +72,12 @@ public class DelegatingRecordAccess implements RecordAccess
         return delegate.rawPropertyChain( firstId );
     }
 
+    @Override
+    public Iterator<DynamicRecord> rawStringChain( long firstId )
+    {
+        return delegate.rawStringChain( firstId );
+    }
+
     @Override
     public RecordReference<RelationshipTypeTokenRecord> relationshipType( int id )
     {
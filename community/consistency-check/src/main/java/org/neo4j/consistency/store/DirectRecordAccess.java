@@ -103,6 +103,28 @@ public class DirectRecordAccess implements RecordAccess
         };
     }
 
+    @Override
+    public Iterator<DynamicRecord> rawStringChain( final long firstId )
+    {
+        return new PrefetchingIterator<DynamicRecord>()
+        {
+            private long next = firstId;
+
+            @Override
+            protected DynamicRecord fetchNextOrNull()
+            {
+                if ( Record.NO_NEXT_BLOCK.is( next ) )
+                {
+                    return null;
+                }
+
+                DynamicRecord record = referenceTo( access.getStringStore(), next ).record();
+                next = record.getNextBlock();
+                return record;
+            }
+        };
+    }
+
     @Override
     public RecordReference<RelationshipTypeTokenRecord> relationshipType( int id )
     {
@@ -69,6 +69,8 @@ public interface RecordAccess
 
     Iterator<PropertyRecord> rawPropertyChain( long firstId );
 
+    Iterator<DynamicRecord> rawStringChain( long firstId );
+
     boolean shouldCheck( long id, MultiPassStore store );
 
     CacheAccess cacheAccess();
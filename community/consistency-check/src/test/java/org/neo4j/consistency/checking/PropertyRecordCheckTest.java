@@ -29,13 +29,21 @@ import java.time.ZoneOffset;
 import org.neo4j.consistency.report.ConsistencyReport;
 import org.neo4j.kernel.impl.store.GeometryType;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.ShortMap;
 import org.neo4j.kernel.impl.store.TemporalType;
 import org.neo4j.kernel.impl.store.format.standard.StandardFormatSettings;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+import static org.junit.Assert.assertTrue;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -416,4 +424,98 @@ public class PropertyRecordCheckTest
         verify( report ).arrayEmpty( block, value );
         verifyNoMoreInteractions( report );
     }
+
+    @Test
+    public void shouldNotReportAnythingForValidMapRecord()
+    {
+        // given
+        PropertyRecord property = inUse( new PropertyRecord( 42 ) );
+        PropertyKeyTokenRecord key = add( inUse( new PropertyKeyTokenRecord( 6 ) ) );
+        DynamicRecord value = add( inUse( map( new DynamicRecord( 1001 ), MapValueEncoding.encode( document() ) ) ) );
+        PropertyBlock block = propertyBlock( key, PropertyType.MAP, value.getId() );
+        property.addPropertyBlock( block );
+
+        // when
+        ConsistencyReport.PropertyConsistencyReport report = check( property );
+
+        // then
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportMapRecordThatCannotBeDecoded()
+    {
+        // given
+        PropertyRecord property = inUse( new PropertyRecord( 42 ) );
+        PropertyKeyTokenRecord key = add( inUse( new PropertyKeyTokenRecord( 6 ) ) );
+        byte[] bytes = MapValueEncoding.encode( document() );
+        byte[] truncated = new byte[bytes.length / 2];
+        System.arraycopy( bytes, 0, truncated, 0, truncated.length );
+        DynamicRecord value = add( inUse( map( new DynamicRecord( 1001 ), truncated ) ) );
+        PropertyBlock block = propertyBlock( key, PropertyType.MAP, value.getId() );
+        property.addPropertyBlock( block );
+
+        // when
+        ConsistencyReport.PropertyConsistencyReport report = check( property );
+
+        // then
+        verify( report ).invalidPropertyValue( block );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldReportMapRecordNotInUse()
+    {
+        // given
+        PropertyRecord property = inUse( new PropertyRecord( 42 ) );
+        PropertyKeyTokenRecord key = add( inUse( new PropertyKeyTokenRecord( 6 ) ) );
+        DynamicRecord value = add( notInUse( map( new DynamicRecord( 1001 ), MapValueEncoding.encode( document() ) ) ) );
+        PropertyBlock block = propertyBlock( key, PropertyType.MAP, value.getId() );
+        property.addPropertyBlock( block );
+
+        // when
+        ConsistencyReport.PropertyConsistencyReport report = check( property );
+
+        // then
+        verify( report ).stringNotInUse( block, value );
+        verifyNoMoreInteractions( report );
+    }
+
+    @Test
+    public void shouldNotReportAnythingForValidShortMap()
+    {
+        // given
+        PropertyRecord property = inUse( new PropertyRecord( 42 ) );
+        PropertyKeyTokenRecord key = add( inUse( new PropertyKeyTokenRecord( 6 ) ) );
+        PropertyBlock block = new PropertyBlock();
+        MapValueBuilder map = new MapValueBuilder();
+        map.add( "a", Values.intValue( 1 ) );
+        assertTrue( ShortMap.encode( key.getIntId(), MapValueEncoding.encode( map.build() ), block, PropertyType.getPayloadSize() ) );
+        property.addPropertyBlock( block );
+
+        // when
+        ConsistencyReport.PropertyConsistencyReport report = check( property );
+
+        // then
+        verifyNoMoreInteractions( report );
+    }
+
+    private static MapValue document()
+    {
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "city", Values.stringValue( "Malmö" ) );
+        address.add( "zip", Values.intValue( 21119 ) );
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "name", Values.stringValue( "Alistair" ) );
+        document.add( "address", address.build() );
+        return document.build();
+    }
+
+    private static DynamicRecord map( DynamicRecord record, byte[] data )
+    {
+        record.setType( PropertyType.MAP.intValue() );
+        record.setData( data );
+        record.setNextBlock( Record.NO_NEXT_BLOCK.intValue() );
+        return record;
+    }
 }
@@ -332,7 +332,7 @@ public class RecordAccessStub implements RecordAccess
         else if ( newRecord instanceof DynamicRecord )
         {
             DynamicRecord dyn = (DynamicRecord) newRecord;
-            if ( dyn.getType() == PropertyType.STRING )
+            if ( dyn.getType() == PropertyType.STRING || dyn.getType() == PropertyType.MAP )
             {
                 add( strings, (DynamicRecord) oldRecord, dyn );
             }
@@ -385,7 +385,7 @@ public class RecordAccessStub implements RecordAccess
         else if ( record instanceof DynamicRecord )
         {
             DynamicRecord dyn = (DynamicRecord) record;
-            if ( dyn.getType() == PropertyType.STRING )
+            if ( dyn.getType() == PropertyType.STRING || dyn.getType() == PropertyType.MAP )
             {
                 addString( dyn );
             }
@@ -495,6 +495,27 @@ public class RecordAccessStub implements RecordAccess
         };
     }
 
+    @Override
+    public Iterator<DynamicRecord> rawStringChain( final long firstId )
+    {
+        return new PrefetchingIterator<DynamicRecord>()
+        {
+            private long next = firstId;
+
+            @Override
+            protected DynamicRecord fetchNextOrNull()
+            {
+                if ( Record.NO_NEXT_BLOCK.is( next ) )
+                {
+                    return null;
+                }
+                DynamicRecord record = reference( strings, next, Version.LATEST ).record();
+                next = record.getNextBlock();
+                return record;
+            }
+        };
+    }
+
     @Override
     public RecordReference<RelationshipTypeTokenRecord> relationshipType( int id )
     {
@@ -33,6 +33,7 @@ import org.neo4j.values.storable.DateValue;
 import org.neo4j.values.storable.DurationValue;
 import org.neo4j.values.storable.LocalDateTimeValue;
 import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.TimeValue;
 import org.neo4j.values.storable.Values;
@@ -107,6 +108,7 @@ public class Extractors
     private final LocalTimeExtractor localTime;
     private final LocalDateTimeExtractor localDateTime;
     private final DurationExtractor duration;
+    private final MapExtractor map;
 
     public Extractors( char arrayDelimiter )
     {
@@ -169,6 +171,7 @@ public class Extractors
             add( localTime = new LocalTimeExtractor() );
             add( localDateTime = new LocalDateTimeExtractor() );
             add( duration = new DurationExtractor() );
+            add( map = new MapExtractor() );
         }
         catch ( IllegalAccessException e )
         {
@@ -311,6 +314,11 @@ public class Extractors
         return duration;
     }
 
+    public MapExtractor map()
+    {
+        return map;
+    }
+
     private abstract static class AbstractExtractor<T> implements Extractor<T>
     {
         private final String name;
@@ -1181,6 +1189,34 @@ public class Extractors
         public static final String NAME = "Duration";
     }
 
+    /**
+     * Extracts a nested map from its JSON representation, f.ex. <code>{"city":"Malmö","zip":21120}</code>.
+     * The map is handed out in its {@link MapValueEncoding binary encoding} so that the encoding work happens here,
+     * in the parallel parsing of the input, rather than where the property records are written.
+     */
+    public static class MapExtractor extends AbstractSingleAnyValueExtractor
+    {
+        MapExtractor()
+        {
+            super( NAME );
+        }
+
+        @Override
+        protected boolean extract0( char[] data, int offset, int length, CSVHeaderInformation optionalData )
+        {
+            value = MapValueEncoding.decode( MapValueEncoding.encode( Values.mapValue( new String( data, offset, length ) ) ) );
+            return true;
+        }
+
+        @Override
+        public AnyValue value()
+        {
+            return value;
+        }
+
+        public static final String NAME = "Map";
+    }
+
     private static final Supplier<ZoneId> inUTC = () -> UTC;
 
     private static long extractLong( char[] data, int originalOffset, int fullLength )
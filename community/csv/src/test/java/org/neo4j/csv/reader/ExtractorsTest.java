@@ -23,6 +23,7 @@ import org.junit.jupiter.api.Test;
 
 import org.neo4j.csv.reader.Extractors.IntExtractor;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.MapValue;
 import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Values;
 
@@ -138,6 +139,22 @@ class ExtractorsTest
         assertEquals( value, extractor.value );
     }
 
+    @Test
+    void shouldExtractMap()
+    {
+        // GIVEN
+        Extractors extractors = new Extractors( ',' );
+        MapValue value = Values.mapValue( "{\"name\":\"Malmö\",\"address\":{\"zip\":21120},\"tags\":[\"a\",\"b\"]}" );
+
+        // WHEN
+        char[] asChars = "{\"tags\":[\"a\",\"b\"],\"address\":{\"zip\":21120},\"name\":\"Malmö\"}".toCharArray();
+        Extractor<?> extractor = extractors.valueOf( "map" );
+        extractor.extract( asChars, 0, asChars.length, false );
+
+        // THEN
+        assertEquals( value, extractor.value() );
+    }
+
     @Test
     void shouldExtractNegativeInt()
     {
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v3_5.planner
 
 import org.neo4j.cypher.internal.compiler.v3_5.phases._
+import org.neo4j.cypher.internal.compiler.v3_5.planner.logical.plans.AsPropertyPath
 import org.opencypher.v9_0.ast.Query
 import org.opencypher.v9_0.frontend.phases.CompilationPhaseTracer.CompilationPhase.AST_REWRITE
 import org.opencypher.v9_0.frontend.phases.{BaseState, VisitorPhase}
@@ -33,6 +34,9 @@ object ResolveTokens extends VisitorPhase[PlannerContext, BaseState] {
     ast.fold(()) {
       case token: PropertyKeyName =>
         _ => resolvePropertyKeyName(token.name)
+      // the dotted name of a path inside a map property, which is only ever used to find path indexes on it
+      case AsPropertyPath(flattened) =>
+        _ => resolvePropertyKeyName(flattened.propertyKey.name)
       case token: LabelName =>
         _ => resolveLabelName(token.name)
       case token: RelTypeName =>
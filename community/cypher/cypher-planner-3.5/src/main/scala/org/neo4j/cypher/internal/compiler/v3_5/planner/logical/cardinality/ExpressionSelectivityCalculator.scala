@@ -29,7 +29,7 @@ import org.neo4j.cypher.internal.planner.v3_5.spi.GraphStatistics._
 import org.neo4j.cypher.internal.v3_5.logical.plans.PrefixRange
 import org.opencypher.v9_0.ast.semantics.SemanticTable
 import org.opencypher.v9_0.expressions._
-import org.opencypher.v9_0.util.{Cardinality, LabelId, Selectivity}
+import org.opencypher.v9_0.util.{Cardinality, LabelId, Rewriter, Selectivity, topDown}
 
 trait Expression2Selectivity {
   def apply(exp: Expression)(implicit semanticTable: SemanticTable, selections: Selections): Selectivity
@@ -37,7 +37,14 @@ trait Expression2Selectivity {
 
 case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: SelectivityCombiner) extends Expression2Selectivity {
 
-  def apply(exp: Expression)(implicit semanticTable: SemanticTable, selections: Selections): Selectivity = exp match {
+  def apply(exp: Expression)(implicit semanticTable: SemanticTable, selections: Selections): Selectivity =
+    calculate(exp, Map.empty)
+
+  /*
+   * paths maps the dotted property keys that paths inside map properties were flattened to, to the keys of the path
+   */
+  private def calculate(exp: Expression, paths: Map[PropertyKeyName, Seq[String]])
+                       (implicit semanticTable: SemanticTable, selections: Selections): Selectivity = exp match {
     // WHERE a:Label
     case HasLabels(_, label :: Nil) =>
       calculateSelectivityForLabel(semanticTable.id(label))
@@ -48,47 +55,54 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // SubPredicate(sub, super)
     case partial: PartialPredicate[_] =>
-      apply(partial.coveredPredicate)
+      calculate(partial.coveredPredicate, paths)
+
+    // WHERE x.map.key ..., estimated as a predicate on the path `map.key`, see calculateSelectivityForPropertyPath
+    case _ if exp.treeExists { case AsPropertyPath(_) => true } =>
+      val flattenedPaths = exp.findByAllClass[Property].collect {
+        case property@AsPropertyPath(flattened) => flattened.propertyKey -> AsPropertyPath.keys(property)
+      }
+      calculate(exp.endoRewrite(flattenPropertyPaths), paths ++ flattenedPaths)
 
     // WHERE x.prop =/IN ...
     case AsPropertySeekable(seekable) =>
-      calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, selections, seekable.propertyKey)
+      calculateSelectivityForPropertyEquality(seekable.name, seekable.args.sizeHint, selections, seekable.propertyKey, paths)
 
     // WHERE x.prop STARTS WITH 'prefix'
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(PrefixRange(StringLiteral(prefix)), _, _, _)) =>
-      calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, Some(prefix))
+      calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, Some(prefix), paths)
 
     // WHERE x.prop STARTS WITH expression
     case AsStringRangeSeekable(seekable@PrefixRangeSeekable(_:PrefixRange[_], _, _, _)) =>
-      calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, None)
+      calculateSelectivityForSubstringSargable(seekable.name, selections, seekable.propertyKey, None, paths)
 
     // WHERE x.prop CONTAINS 'substring'
     case Contains(Property(Variable(name), propertyKey), StringLiteral(substring)) =>
-      calculateSelectivityForSubstringSargable(name, selections, propertyKey, Some(substring))
+      calculateSelectivityForSubstringSargable(name, selections, propertyKey, Some(substring), paths)
 
     // WHERE x.prop CONTAINS expression
     case Contains(Property(Variable(name), propertyKey), expr) =>
-      calculateSelectivityForSubstringSargable(name, selections, propertyKey, None)
+      calculateSelectivityForSubstringSargable(name, selections, propertyKey, None, paths)
 
     // WHERE x.prop ENDS WITH 'substring'
     case EndsWith(Property(Variable(name), propertyKey), StringLiteral(substring)) =>
-      calculateSelectivityForSubstringSargable(name, selections, propertyKey, Some(substring))
+      calculateSelectivityForSubstringSargable(name, selections, propertyKey, Some(substring), paths)
 
     // WHERE x.prop ENDS WITH expression
     case EndsWith(Property(Variable(name), propertyKey), expr) =>
-      calculateSelectivityForSubstringSargable(name, selections, propertyKey, None)
+      calculateSelectivityForSubstringSargable(name, selections, propertyKey, None, paths)
 
     // WHERE x.prop <, <=, >=, > that could benefit from an index
     case AsValueRangeSeekable(seekable) =>
-      calculateSelectivityForValueRangeSeekable(seekable, selections)
+      calculateSelectivityForValueRangeSeekable(seekable, selections, paths)
 
       // WHERE distance(p.prop, otherPoint) <, <= number that could benefit from an index
     case AsDistanceSeekable(seekable) =>
-      calculateSelectivityForPointDistanceSeekable(seekable, selections)
+      calculateSelectivityForPointDistanceSeekable(seekable, selections, paths)
 
     // WHERE has(x.prop)
     case AsPropertyScannable(scannable) =>
-      calculateSelectivityForPropertyExistence(scannable.name, selections, scannable.propertyKey)
+      calculateSelectivityForPropertyExistence(scannable.name, selections, scannable.propertyKey, paths)
 
     // Implicit relation uniqueness predicates
     case Not(Equals(lhs: Variable, rhs: Variable))
@@ -97,10 +111,10 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
     // WHERE NOT [...]
     case Not(inner) =>
-      apply(inner).negate
+      calculate(inner, paths).negate
 
     case Ors(expressions) =>
-      val selectivities = expressions.toIndexedSeq.map(apply)
+      val selectivities = expressions.toIndexedSeq.map(calculate(_, paths))
       combiner.orTogetherSelectivities(selectivities).get // We can trust the AST to never have empty ORs
 
     // WHERE id(x) =/IN [...]
@@ -119,6 +133,10 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
       GraphStatistics.DEFAULT_PREDICATE_SELECTIVITY
   }
 
+  private val flattenPropertyPaths = topDown(Rewriter.lift {
+    case AsPropertyPath(flattened) => flattened
+  })
+
   def areRelationships(semanticTable: SemanticTable, lhs: Variable, rhs: Variable): Boolean = {
     val l = semanticTable.isRelationship(lhs)
     val r = semanticTable.isRelationship(rhs)
@@ -138,12 +156,17 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   private def calculateSelectivityForPropertyEquality(variable: String,
                                                       sizeHint: Option[Int],
                                                       selections: Selections,
-                                                      propertyKey: PropertyKeyName)
+                                                      propertyKey: PropertyKeyName,
+                                                      paths: Map[PropertyKeyName, Seq[String]])
                                                      (implicit semanticTable: SemanticTable): Selectivity = {
     val labels = selections.labelsOnNode(variable)
     val indexSelectivities = labels.toIndexedSeq.flatMap {
       labelName =>
         (semanticTable.id(labelName), semanticTable.id(propertyKey)) match {
+          case (Some(labelId), _) if paths.contains(propertyKey) =>
+            calculateSelectivityForPropertyPath(labelId, propertyKey, paths(propertyKey))(
+              stats.indexSelectivity, stats.propertyPathSelectivity)
+
           case (Some(labelId), Some(propertyKeyId)) =>
             val descriptor = IndexDescriptor(labelId, propertyKeyId)
             val selectivities: Option[Selectivity] = stats.indexSelectivity(descriptor)
@@ -164,7 +187,8 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   private def calculateSelectivityForSubstringSargable(variable: String,
                                                    selections: Selections,
                                                    propertyKey: PropertyKeyName,
-                                                   prefix: Option[String])
+                                                   prefix: Option[String],
+                                                   paths: Map[PropertyKeyName, Seq[String]])
                                                   (implicit semanticTable: SemanticTable): Selectivity = {
     /*
      * c = DEFAULT_RANGE_SEEK_FACTOR
@@ -175,7 +199,7 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
      * s in (0,1) = (1 - e) * f
      * return min(x, e + s in (0,1))
      */
-    val equality = math.BigDecimal.valueOf(calculateSelectivityForPropertyEquality(variable, None, selections, propertyKey).factor)
+    val equality = math.BigDecimal.valueOf(calculateSelectivityForPropertyEquality(variable, None, selections, propertyKey, paths).factor)
     val prefixLength = math.BigDecimal.valueOf(prefix match {
       case Some(n) => n.length + 1
       case None => DEFAULT_PREFIX_LENGTH
@@ -186,16 +210,17 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     val result = Selectivity.of(equality.add(slack).doubleValue()).get
 
     //we know for sure we are no worse than a propertyExistence check
-    val existence = calculateSelectivityForPropertyExistence(variable, selections, propertyKey)
+    val existence = calculateSelectivityForPropertyExistence(variable, selections, propertyKey, paths)
     if (existence < result) existence else result
   }
 
   private def calculateSelectivityForValueRangeSeekable(seekable: InequalityRangeSeekable,
-                                                        selections: Selections)
+                                                        selections: Selections,
+                                                        paths: Map[PropertyKeyName, Seq[String]])
                                                        (implicit semanticTable: SemanticTable): Selectivity = {
     val name = seekable.ident.name
     val propertyKeyName = seekable.expr.property.propertyKey
-    val equalitySelectivity = calculateSelectivityForPropertyEquality(name, Some(1), selections, propertyKeyName).factor
+    val equalitySelectivity = calculateSelectivityForPropertyEquality(name, Some(1), selections, propertyKeyName, paths).factor
 
     val equality = math.BigDecimal.valueOf(equalitySelectivity)
     val factor = math.BigDecimal.valueOf(DEFAULT_RANGE_SEEK_FACTOR)
@@ -211,11 +236,12 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   }
 
   private def calculateSelectivityForPointDistanceSeekable(seekable: PointDistanceSeekable,
-                                                        selections: Selections)
+                                                        selections: Selections,
+                                                        paths: Map[PropertyKeyName, Seq[String]])
                                                        (implicit semanticTable: SemanticTable): Selectivity = {
     val name = seekable.ident.name
     val propertyKeyName = seekable.propertyKeyName
-    val equalitySelectivity = calculateSelectivityForPropertyEquality(name, Some(1), selections, propertyKeyName)
+    val equalitySelectivity = calculateSelectivityForPropertyEquality(name, Some(1), selections, propertyKeyName, paths)
 
     // the selectivity for equality equals the center of the circle for which we're querying
     val equality = math.BigDecimal.valueOf(equalitySelectivity.factor)
@@ -231,12 +257,17 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
 
   private def calculateSelectivityForPropertyExistence(variable: String,
                                                       selections: Selections,
-                                                      propertyKey: PropertyKeyName)
+                                                      propertyKey: PropertyKeyName,
+                                                      paths: Map[PropertyKeyName, Seq[String]])
                                                      (implicit semanticTable: SemanticTable): Selectivity = {
     val labels = selections.labelsOnNode(variable)
     val indexPropertyExistsSelectivities = labels.toIndexedSeq.flatMap {
       labelName =>
         (semanticTable.id(labelName), semanticTable.id(propertyKey)) match {
+          case (Some(labelId), _) if paths.contains(propertyKey) =>
+            calculateSelectivityForPropertyPath(labelId, propertyKey, paths(propertyKey))(
+              stats.indexPropertyExistsSelectivity, stats.propertyPathExistsSelectivity)
+
           case (Some(labelId), Some(propertyKeyId)) =>
             val descriptor = IndexDescriptor(labelId, propertyKeyId)
             val selectivity: Option[Selectivity] = stats.indexPropertyExistsSelectivity(descriptor)
@@ -250,4 +281,17 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     val result = combiner.orTogetherSelectivities(indexPropertyExistsSelectivities).getOrElse(DEFAULT_PROPERTY_SELECTIVITY)
     result
   }
+
+  /*
+   * A path inside a map property is estimated through the statistics of a path index on its dotted property key when
+   * there is one, and else through sampling if the path is configured for it. Without either there is no estimate,
+   * since a missing dotted property key only means that there is no path index, not that there are no values.
+   */
+  private def calculateSelectivityForPropertyPath(labelId: LabelId, propertyKey: PropertyKeyName, path: Seq[String])
+                                                 (fromIndex: IndexDescriptor => Option[Selectivity],
+                                                  fromSample: (LabelId, Seq[String]) => Option[Selectivity])
+                                                 (implicit semanticTable: SemanticTable): Option[Selectivity] =
+    semanticTable.id(propertyKey)
+      .flatMap(propertyKeyId => fromIndex(IndexDescriptor(labelId, Seq(propertyKeyId), isPropertyPath = true)))
+      .orElse(fromSample(labelId, path))
 }
@@ -222,3 +222,38 @@ case class ExplicitlyPropertyScannable(expr: FunctionInvocation, ident: LogicalV
 
 case class ImplicitlyPropertyScannable[+T <: Expression](expr: PartialPredicate[T], ident: LogicalVariable, property: LogicalProperty)
   extends Scannable[PartialPredicate[T]]
+
+/*
+ * n.address.zip is the value at `zip` in the map property `address` of n. A path index on the property key named
+ * `address.zip` indexes exactly that value, so n.address.zip can be planned and estimated as n.`address.zip` against
+ * path indexes.
+ */
+object AsPropertyPath {
+  /*
+   * Whether a path index reads the property key with the given name as a path inside a map property.
+   */
+  def isPath(propertyKeyName: String): Boolean = {
+    val keys = propertyKeyName.split("\\.", -1)
+    keys.length > 1 && keys.forall(_.nonEmpty)
+  }
+
+  def unapply(v: Any): Option[Property] = v match {
+    case property@Property(_: Property, _) =>
+      path(property).map { case (variable, keys) =>
+        Property(variable, PropertyKeyName(keys.mkString("."))(property.propertyKey.position))(property.position)
+      }
+    case _ =>
+      None
+  }
+
+  /*
+   * The keys of the path a chained property access reads, starting with the map property.
+   */
+  def keys(property: Property): Seq[String] = path(property).map(_._2).getOrElse(Seq.empty)
+
+  private def path(expression: Expression): Option[(LogicalVariable, List[String])] = expression match {
+    case Property(variable: LogicalVariable, key) => Some((variable, List(key.name)))
+    case Property(map, key) => path(map).map { case (variable, keys) => (variable, keys :+ key.name) }
+    case _ => None
+  }
+}
@@ -30,7 +30,7 @@ import org.neo4j.cypher.internal.v3_5.logical.plans._
 import org.opencypher.v9_0.ast._
 import org.opencypher.v9_0.ast.semantics.SemanticTable
 import org.opencypher.v9_0.expressions._
-import org.opencypher.v9_0.util.LabelId
+import org.opencypher.v9_0.util.{LabelId, PropertyKeyId, Rewriter, topDown}
 
 abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFromExpressions {
 
@@ -55,7 +55,8 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
     else {
       val arguments: Set[LogicalVariable] = qg.argumentIds.map(n => Variable(n)(null))
       val plannables: Set[IndexPlannableExpression] = predicates.collect(
-        indexPlannableExpression(qg.argumentIds, arguments, qg.hints.toSet))
+        indexPlannableExpression(qg.argumentIds, arguments, qg.hints.toSet)) ++
+        propertyPathPlannables(predicates, qg.argumentIds, arguments, qg.hints.toSet, context)
       val result = plannables.map(_.name).flatMap { name =>
         val idName = name
         val labelPredicates = labelPredicateMap.getOrElse(idName, Set.empty)
@@ -126,7 +127,7 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
 
     val queryExpression: QueryExpression[Expression] = mergeQueryExpressionsToSingleOne(plannables)
 
-    val propertyKeyTokens = plannables.map(p => p.propertyKeyName).map(n => PropertyKeyToken(n, semanticTable.id(n).head))
+    val propertyKeyTokens = plannables.map(p => PropertyKeyToken(p.propertyKeyName, p.propertyKeyId(semanticTable).head))
     val entryConstructor: (Seq[Expression], Seq[Expression]) => LogicalPlan =
       constructPlan(idName, LabelToken(labelName, labelId), propertyKeyTokens, queryExpression, hint, argumentIds, context)
 
@@ -183,10 +184,39 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
       IndexPlannableExpression(seekable.name, keyName, predicate, queryExpression, hints, argumentIds, solvesPredicate = false)
   }
 
+  /*
+   * A path index on a property key named like `address.zip` indexes the value at `zip` in the map property `address`.
+   * Predicates on n.address.zip are planned as if they were on a property with the dotted name, when such a property
+   * key exists, but it is still the original predicate that is solved by the index seek. Such plannables carry the id
+   * of the dotted property key, and are only ever matched against path indexes.
+   */
+  private def propertyPathPlannables(predicates: Set[Expression],
+                                     argumentIds: Set[String],
+                                     arguments: Set[LogicalVariable],
+                                     hints: Set[Hint],
+                                     context: LogicalPlanningContext)
+                                    (implicit labelPredicateMap: Map[String, Set[HasLabels]]): Set[IndexPlannableExpression] = {
+    val flattenPropertyPaths = topDown(Rewriter.lift {
+      case property@Property(_: Property, _) => flattenedPropertyPath(property, context).getOrElse(property)
+    })
+    predicates.flatMap { predicate =>
+      val flattened = predicate.endoRewrite(flattenPropertyPaths)
+      if (flattened == predicate)
+        None
+      else
+        for (plannable <- indexPlannableExpression(argumentIds, arguments, hints).lift(flattened);
+             id <- context.planContext.getOptPropertyKeyId(plannable.propertyKeyName.name))
+          yield plannable.copy(propertyPredicate = predicate, pathPropertyKeyId = Some(PropertyKeyId(id)))
+    }
+  }
+
+  private def flattenedPropertyPath(property: Property, context: LogicalPlanningContext): Option[Property] =
+    AsPropertyPath.unapply(property).filter(flattened => context.planContext.getOptPropertyKeyId(flattened.propertyKey.name).isDefined)
+
   private def plannablesForIndex(indexDescriptor: IndexDescriptor, plannables: Set[IndexPlannableExpression])
                                 (implicit semanticTable: SemanticTable): Option[Seq[IndexPlannableExpression]] = {
     val foundPredicates: Seq[IndexPlannableExpression] = indexDescriptor.properties.flatMap { propertyKeyId =>
-      plannables find (p => semanticTable.id(p.propertyKeyName).contains(propertyKeyId))
+      plannables find (p => p.propertyKeyId.contains(propertyKeyId) && readsAsIndexed(indexDescriptor, p))
     }
 
     // Currently we only support using the composite index if ALL properties are specified, but this could be generalized
@@ -196,6 +226,16 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
       None
   }
 
+  /*
+   * A path index reads its dotted property keys as paths inside maps, and all other indexes read them as properties,
+   * so a predicate on n.address.zip can only use the former and a predicate on n.`address.zip` only the latter.
+   */
+  private def readsAsIndexed(indexDescriptor: IndexDescriptor, plannable: IndexPlannableExpression): Boolean =
+    if (plannable.pathPropertyKeyId.isDefined)
+      indexDescriptor.isPropertyPath
+    else
+      !indexDescriptor.isPropertyPath || !AsPropertyPath.isPath(plannable.propertyKeyName.name)
+
   private def isSupportedByCurrentIndexes(foundPredicates: Seq[IndexPlannableExpression]) = {
     // We currently only support range queries against single prop indexes
     foundPredicates.length == 1 ||
@@ -208,6 +248,10 @@ abstract class AbstractIndexSeekLeafPlanner extends LeafPlanner with LeafPlanFro
 
   case class IndexPlannableExpression(name: String, propertyKeyName: PropertyKeyName,
                                       propertyPredicate: Expression, queryExpression: QueryExpression[Expression],
-                                      hints: Set[Hint], argumentIds: Set[String], solvesPredicate: Boolean)
-                                     (implicit labelPredicateMap: Map[String, Set[HasLabels]])
+                                      hints: Set[Hint], argumentIds: Set[String], solvesPredicate: Boolean,
+                                      pathPropertyKeyId: Option[PropertyKeyId] = None)
+                                     (implicit labelPredicateMap: Map[String, Set[HasLabels]]) {
+    def propertyKeyId(implicit semanticTable: SemanticTable): Option[PropertyKeyId] =
+      pathPropertyKeyId.orElse(semanticTable.id(propertyKeyName))
+  }
 }
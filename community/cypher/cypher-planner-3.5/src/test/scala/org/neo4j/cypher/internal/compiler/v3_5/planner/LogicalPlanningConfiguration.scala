@@ -35,6 +35,7 @@ trait LogicalPlanningConfiguration {
   def graphStatistics: GraphStatistics
   def indexes: Set[(String, Seq[String])]
   def uniqueIndexes: Set[(String, Seq[String])]
+  def pathIndexes: Set[(String, Seq[String])]
   def labelCardinality: Map[String, Cardinality]
   def knownLabels: Set[String]
   def labelsById: Map[Int, String]
@@ -51,6 +52,7 @@ class DelegatingLogicalPlanningConfiguration(val parent: LogicalPlanningConfigur
   override def graphStatistics = parent.graphStatistics
   override def indexes = parent.indexes
   override def uniqueIndexes = parent.uniqueIndexes
+  override def pathIndexes = parent.pathIndexes
   override def labelCardinality = parent.labelCardinality
   override def knownLabels = parent.knownLabels
   override def labelsById = parent.labelsById
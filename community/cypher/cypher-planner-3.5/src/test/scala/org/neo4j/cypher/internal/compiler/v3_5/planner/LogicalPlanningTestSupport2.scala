@@ -35,7 +35,7 @@ import org.opencypher.v9_0.rewriting.rewriters._
 import org.opencypher.v9_0.frontend.phases._
 import org.opencypher.v9_0.ast.semantics.SemanticTable
 import org.neo4j.cypher.internal.ir.v3_5._
-import org.neo4j.cypher.internal.planner.v3_5.spi.{GraphStatistics, IDPPlannerName, IndexDescriptor}
+import org.neo4j.cypher.internal.planner.v3_5.spi.{GraphStatistics, IDPPlannerName, IndexDescriptor, IndexLimitation}
 import org.opencypher.v9_0.rewriting.RewriterStepSequencer.newPlain
 import org.opencypher.v9_0.util.attribution.{Attribute, Attributes}
 import org.opencypher.v9_0.util.test_helpers.{CypherFunSuite, CypherTestSupport}
@@ -119,7 +119,9 @@ trait LogicalPlanningTestSupport2 extends CypherTestSupport with AstConstruction
         if (config.indexes((labelName, propertyKeys)) || config.uniqueIndexes((labelName, propertyKeys)))
           Some(IndexDescriptor(
             semanticTable.resolvedLabelNames(labelName).id,
-            propertyKeys.map(semanticTable.resolvedPropertyKeyNames(_).id)
+            propertyKeys.map(semanticTable.resolvedPropertyKeyNames(_).id),
+            Set.empty[IndexLimitation],
+            config.pathIndexes((labelName, propertyKeys))
           ))
         else
           None
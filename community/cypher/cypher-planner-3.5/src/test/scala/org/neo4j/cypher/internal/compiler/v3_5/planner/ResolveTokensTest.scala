@@ -77,6 +77,20 @@ class ResolveTokensTest extends CypherFunSuite {
     }
   }
 
+  parseTest("match (n) where n.doc.status = 'ACTIVE' return *") { query =>
+    implicit val semanticTable = SemanticTable()
+    val planContext = mock[PlanContext]
+    when(planContext.getOptPropertyKeyId("doc")).thenReturn(Some(12))
+    when(planContext.getOptPropertyKeyId("status")).thenReturn(None)
+    when(planContext.getOptPropertyKeyId("doc.status")).thenReturn(Some(13))
+
+    ResolveTokens.resolve(query)(semanticTable, planContext)
+
+    semanticTable.id(PropertyKeyName("doc")(null)) should equal(Some(PropertyKeyId(12)))
+    semanticTable.id(PropertyKeyName("status")(null)) should equal(None)
+    semanticTable.id(PropertyKeyName("doc.status")(null)) should equal(Some(PropertyKeyId(13)))
+  }
+
   parseTest("match (n) where n:Resolved return *") { query =>
     implicit val semanticTable = SemanticTable()
     val planContext = mock[PlanContext]
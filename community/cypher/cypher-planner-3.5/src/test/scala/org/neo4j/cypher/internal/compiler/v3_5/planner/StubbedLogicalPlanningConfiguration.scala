@@ -50,6 +50,7 @@ class StubbedLogicalPlanningConfiguration(val parent: LogicalPlanningConfigurati
 
   var indexes: Set[(String, Seq[String])] = Set.empty
   var uniqueIndexes: Set[(String, Seq[String])] = Set.empty
+  var pathIndexes: Set[(String, Seq[String])] = Set.empty
 
   lazy val labelsById: Map[Int, String] = (indexes ++ uniqueIndexes).map(_._1).zipWithIndex.map(_.swap).toMap
 
@@ -61,6 +62,11 @@ class StubbedLogicalPlanningConfiguration(val parent: LogicalPlanningConfigurati
     uniqueIndexes = uniqueIndexes + (label -> properties)
   }
 
+  def pathIndexOn(label: String, properties: String*) {
+    indexOn(label, properties: _*)
+    pathIndexes = pathIndexes + (label -> properties)
+  }
+
   def costModel() = cost.orElse(parent.costModel())
 
   def cardinalityModel(queryGraphCardinalityModel: QueryGraphCardinalityModel, evaluator: ExpressionEvaluator): CardinalityModel = {
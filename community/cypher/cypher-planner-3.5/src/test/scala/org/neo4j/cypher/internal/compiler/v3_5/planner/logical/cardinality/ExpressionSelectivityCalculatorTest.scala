@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v3_5.planner.logical.cardinality
 
-import org.mockito.Mockito.when
+import org.mockito.Mockito.{never, verify, when}
 import org.opencypher.v9_0.util.symbols._
 import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
 import org.opencypher.v9_0.util._
@@ -32,6 +32,8 @@ import org.opencypher.v9_0.expressions._
 class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstructionTestSupport {
 
   val index = IndexDescriptor(LabelId(0), PropertyKeyId(0))
+  val pathIndex = index.copy(isPropertyPath = true)
+  val n_doc_status = Property(Property(varFor("n"), PropertyKeyName("doc")(pos))(pos), PropertyKeyName("status")(pos))(pos)
 
   test("Should consider parameter expressions when calculating index selectivity") {
     implicit val semanticTable = SemanticTable()
@@ -51,6 +53,62 @@ class ExpressionSelectivityCalculatorTest extends CypherFunSuite with AstConstru
     result.factor should equal (0.92 +- 0.01)
   }
 
+  test("Should use the path index on a map property path when calculating selectivity of a nested property") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("Page", index.label)
+    semanticTable.resolvedPropertyKeyNames.put("doc.status", index.property)
+
+    implicit val selections = Selections(Set(Predicate(Set("n"), HasLabels(varFor("n"), Seq(LabelName("Page")_))_)))
+
+    val stats = mock[GraphStatistics]
+    when(stats.nodesAllCardinality()).thenReturn(1000.0)
+    when(stats.indexSelectivity(pathIndex)).thenReturn(Some(Selectivity.of(0.25d).get))
+
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+
+    val result = calculator(Equals(n_doc_status, StringLiteral("ACTIVE")_)_)
+
+    result.factor should equal(0.25)
+    verify(stats, never()).indexSelectivity(index)
+  }
+
+  test("Should sample a map property path without a path index when calculating selectivity of a nested property") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("Page", index.label)
+    semanticTable.resolvedPropertyKeyNames.put("doc.status", index.property)
+
+    implicit val selections = Selections(Set(Predicate(Set("n"), HasLabels(varFor("n"), Seq(LabelName("Page")_))_)))
+
+    val stats = mock[GraphStatistics]
+    when(stats.nodesAllCardinality()).thenReturn(1000.0)
+    when(stats.indexSelectivity(pathIndex)).thenReturn(None)
+    when(stats.propertyPathSelectivity(index.label, Seq("doc", "status"))).thenReturn(Some(Selectivity.of(0.05d).get))
+    when(stats.indexPropertyExistsSelectivity(pathIndex)).thenReturn(None)
+    when(stats.propertyPathExistsSelectivity(index.label, Seq("doc", "status"))).thenReturn(Some(Selectivity.of(0.5d).get))
+
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+
+    calculator(Equals(n_doc_status, StringLiteral("ACTIVE")_)_).factor should equal(0.05)
+    calculator(FunctionInvocation(FunctionName("exists")_, n_doc_status)_).factor should equal(0.5)
+  }
+
+  test("Should use default selectivity for a nested property without path index or sampling") {
+    implicit val semanticTable = SemanticTable()
+    semanticTable.resolvedLabelNames.put("Page", index.label)
+
+    implicit val selections = Selections(Set(Predicate(Set("n"), HasLabels(varFor("n"), Seq(LabelName("Page")_))_)))
+
+    val stats = mock[GraphStatistics]
+    when(stats.nodesAllCardinality()).thenReturn(1000.0)
+    when(stats.propertyPathSelectivity(index.label, Seq("doc", "status"))).thenReturn(None)
+
+    val calculator = ExpressionSelectivityCalculator(stats, IndependenceCombiner)
+
+    val result = calculator(Equals(n_doc_status, StringLiteral("ACTIVE")_)_)
+
+    result.factor should equal(GraphStatistics.DEFAULT_EQUALITY_SELECTIVITY.factor)
+  }
+
   test("Should peek inside sub predicates") {
     implicit val semanticTable = SemanticTable()
     semanticTable.resolvedLabelNames.put("Page", LabelId(0))
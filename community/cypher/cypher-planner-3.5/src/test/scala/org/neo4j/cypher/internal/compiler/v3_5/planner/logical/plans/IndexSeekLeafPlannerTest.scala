@@ -96,6 +96,55 @@ class IndexSeekLeafPlannerTest extends CypherFunSuite with LogicalPlanningTestSu
     }
   }
 
+  test("index seek on a path inside a map property when there is a path index on the dotted property key") {
+    new given {
+      val nestedProperty: Expression = Property(Property(varFor("n"), PropertyKeyName("address") _) _, PropertyKeyName("zip") _) _
+      qg = queryGraph(In(nestedProperty, ListLiteral(Seq(lit42)) _) _, hasLabels)
+
+      pathIndexOn("Awesome", "address.zip")
+    }.withLogicalPlanningContext { (cfg, ctx, solveds, cardinalities) =>
+      // when
+      val semanticTableBefore = ctx.semanticTable.resolvedPropertyKeyNames.toMap
+      val resultPlans = indexSeekLeafPlanner(cfg.qg, ctx, solveds, cardinalities)
+
+      // then
+      resultPlans should beLike {
+        case Seq(NodeIndexSeek(`idName`, _, Seq(PropertyKeyToken("address.zip", _)), SingleQueryExpression(`lit42`), _)) => ()
+      }
+      ctx.semanticTable.resolvedPropertyKeyNames.toMap should equal(semanticTableBefore)
+    }
+  }
+
+  test("does not plan index seek on a path inside a map property when the index on the dotted property key is not a path index") {
+    new given {
+      val nestedProperty: Expression = Property(Property(varFor("n"), PropertyKeyName("address") _) _, PropertyKeyName("zip") _) _
+      qg = queryGraph(In(nestedProperty, ListLiteral(Seq(lit42)) _) _, hasLabels)
+
+      indexOn("Awesome", "address.zip")
+    }.withLogicalPlanningContext { (cfg, ctx, solveds, cardinalities) =>
+      // when
+      val resultPlans = indexSeekLeafPlanner(cfg.qg, ctx, solveds, cardinalities)
+
+      // then
+      resultPlans shouldBe empty
+    }
+  }
+
+  test("does not plan index seek on a property with a dotted name when the index on it is a path index") {
+    new given {
+      val dottedProperty: Expression = Property(varFor("n"), PropertyKeyName("address.zip") _) _
+      qg = queryGraph(In(dottedProperty, ListLiteral(Seq(lit42)) _) _, hasLabels)
+
+      pathIndexOn("Awesome", "address.zip")
+    }.withLogicalPlanningContext { (cfg, ctx, solveds, cardinalities) =>
+      // when
+      val resultPlans = indexSeekLeafPlanner(cfg.qg, ctx, solveds, cardinalities)
+
+      // then
+      resultPlans shouldBe empty
+    }
+  }
+
   test("index scan when there is a composite index on two properties") {
     new given {
       val inCollectionValue2 = In(property2, ListLiteral(Seq(lit6))_)_
@@ -77,6 +77,38 @@ public final class CompiledCursorUtils
         return Values.NO_VALUE;
     }
 
+    /**
+     * Fetches the value at a path inside a map property of a node, without decoding the rest of the map
+     *
+     * @param read The current Read instance
+     * @param nodeCursor The node cursor to use
+     * @param node The id of the node
+     * @param propertyCursor The property cursor to use
+     * @param prop The id of the map property to start from
+     * @param path The keys to follow inside the map property
+     * @return The value at the end of the path
+     * @throws EntityNotFoundException If the node cannot be find.
+     */
+    public static Value nodeGetPropertyPath( Read read, NodeCursor nodeCursor, long node, PropertyCursor propertyCursor,
+            int prop, String[] path ) throws EntityNotFoundException
+    {
+        if ( prop == StatementConstants.NO_SUCH_PROPERTY_KEY )
+        {
+            return Values.NO_VALUE;
+        }
+        singleNode( read, nodeCursor, node );
+        nodeCursor.properties( propertyCursor );
+        while ( propertyCursor.next() )
+        {
+            if ( propertyCursor.propertyKey() == prop )
+            {
+                return propertyValueAt( propertyCursor, path );
+            }
+        }
+
+        return Values.NO_VALUE;
+    }
+
     /**
      * Checks if given node has a given label.
      *
@@ -151,6 +183,38 @@ public final class CompiledCursorUtils
         return Values.NO_VALUE;
     }
 
+    /**
+     * Fetches the value at a path inside a map property of a relationship, without decoding the rest of the map
+     *
+     * @param read The current Read instance
+     * @param relationship The relationship cursor to use
+     * @param node The id of the relationship
+     * @param propertyCursor The property cursor to use
+     * @param prop The id of the map property to start from
+     * @param path The keys to follow inside the map property
+     * @return The value at the end of the path
+     * @throws EntityNotFoundException If the relationship cannot be find.
+     */
+    public static Value relationshipGetPropertyPath( Read read, RelationshipScanCursor relationship, long node,
+            PropertyCursor propertyCursor, int prop, String[] path ) throws EntityNotFoundException
+    {
+        if ( prop == StatementConstants.NO_SUCH_PROPERTY_KEY )
+        {
+            return Values.NO_VALUE;
+        }
+        singleRelationship( read, relationship, node );
+        relationship.properties( propertyCursor );
+        while ( propertyCursor.next() )
+        {
+            if ( propertyCursor.propertyKey() == prop )
+            {
+                return propertyValueAt( propertyCursor, path );
+            }
+        }
+
+        return Values.NO_VALUE;
+    }
+
     public static RelationshipSelectionCursor nodeGetRelationships( Read read, CursorFactory cursors, NodeCursor node,
             long nodeId,
             Direction direction )
@@ -158,6 +222,26 @@ public final class CompiledCursorUtils
         return nodeGetRelationships( read, cursors, node, nodeId, direction, null );
     }
 
+    private static Value propertyValueAt( PropertyCursor propertyCursor, String[] path )
+    {
+        Value value = propertyCursor.propertyValue( path );
+        if ( value != null )
+        {
+            return value;
+        }
+        // the path passes through something that is not a map, e.g. a temporal or a point, look it up key by key
+        Object current = propertyCursor.propertyValue();
+        for ( String key : path )
+        {
+            if ( current == Values.NO_VALUE )
+            {
+                return Values.NO_VALUE;
+            }
+            current = CompiledConversionUtils.mapGetProperty( current, key );
+        }
+        return (Value) current;
+    }
+
     private static void singleNode( Read read, NodeCursor nodeCursor, long node ) throws EntityNotFoundException
     {
         read.singleNode( node, nodeCursor );
@@ -109,12 +109,6 @@ class ParameterConverter implements AnyValueWriter<RuntimeException>
         stack.push( new MapWriter( size ) );
     }
 
-    @Override
-    public void writeMap( HashMap<String, Object> map ) throws RuntimeException
-    {
-        // TODO: Provide implementation
-    }
-
     @Override
     public void endMap()
     {
@@ -44,8 +44,7 @@ class PlanStalenessCaller[EXECUTABLE_QUERY](clock: Clock,
     val reusability = reusabilityInfo(cachedExecutableQuery, transactionalContext)
     reusability match {
       case MaybeReusable(ref) if ref.fingerprint.nonEmpty =>
-        val ktx = transactionalContext.kernelTransaction()
-        staleness(ref, TransactionBoundGraphStatistics(ktx.dataRead, ktx.schemaRead))
+        staleness(ref, TransactionBoundGraphStatistics(transactionalContext))
 
       case FineToReuse => NotStale
       case NeedsReplan(x) => Stale(x)
@@ -304,6 +304,12 @@ class ExceptionTranslatingQueryContext(val inner: QueryContext) extends QueryCon
     override def getProperty(id: Long, propertyKeyId: Int): Value =
       translateException(inner.getProperty(id, propertyKeyId))
 
+    override def getPropertyPath(id: Long, propertyKeyId: Int, path: Array[String]): Value =
+      translateException(inner.getPropertyPath(id, propertyKeyId, path))
+
+    override def getPropertyMapKeys(id: Long, propertyKeyId: Int, path: Array[String]): Either[Array[String], AnyValue] =
+      translateException(inner.getPropertyMapKeys(id, propertyKeyId, path))
+
     override def hasProperty(id: Long, propertyKeyId: Int): Boolean =
       translateException(inner.hasProperty(id, propertyKeyId))
 
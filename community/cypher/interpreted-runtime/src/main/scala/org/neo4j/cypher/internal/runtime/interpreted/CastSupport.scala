@@ -21,7 +21,6 @@ package org.neo4j.cypher.internal.runtime.interpreted
 
 import java.time._
 import java.time.temporal.TemporalAmount
-import java.util
 
 import org.opencypher.v9_0.util.CypherTypeException
 import org.neo4j.graphdb.spatial.Point
@@ -203,8 +202,6 @@ object CastSupport {
 
     override def beginMap(size: Int): Unit = fail()
 
-    override def writeMap(map: util.HashMap[String, AnyRef]): Unit = fail()
-
     override def endMap(): Unit = fail()
 
     override def beginList(size: Int): Unit = _array = java.lang.reflect.Array.newInstance(typ, size)
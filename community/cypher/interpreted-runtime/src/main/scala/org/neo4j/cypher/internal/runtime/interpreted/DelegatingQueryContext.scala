@@ -287,6 +287,12 @@ class DelegatingOperations[T](protected val inner: Operations[T]) extends Operat
 
   override def getProperty(obj: Long, propertyKeyId: Int): Value = singleDbHit(inner.getProperty(obj, propertyKeyId))
 
+  override def getPropertyPath(obj: Long, propertyKeyId: Int, path: Array[String]): Value =
+    singleDbHit(inner.getPropertyPath(obj, propertyKeyId, path))
+
+  override def getPropertyMapKeys(obj: Long, propertyKeyId: Int, path: Array[String]): Either[Array[String], AnyValue] =
+    singleDbHit(inner.getPropertyMapKeys(obj, propertyKeyId, path))
+
   override def hasProperty(obj: Long, propertyKeyId: Int): Boolean = singleDbHit(inner.hasProperty(obj, propertyKeyId))
 
   override def propertyKeyIds(obj: Long): Iterator[Int] = singleDbHit(inner.propertyKeyIds(obj))
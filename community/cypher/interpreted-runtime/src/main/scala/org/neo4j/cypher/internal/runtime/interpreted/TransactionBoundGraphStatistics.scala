@@ -21,26 +21,41 @@ package org.neo4j.cypher.internal.runtime.interpreted
 
 import org.neo4j.cypher.internal.planner.v3_5.spi.{GraphStatistics, IndexDescriptor, StatisticsCompletingGraphStatistics}
 import org.opencypher.v9_0.util.{Cardinality, LabelId, RelTypeId, Selectivity}
-import org.neo4j.internal.kernel.api.{Read, SchemaRead}
+import org.neo4j.internal.kernel.api.{CursorFactory, IndexReference, Read, SchemaRead, TokenRead}
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
+import org.neo4j.kernel.api.index.PropertyPaths
+import org.neo4j.kernel.configuration.Config
+import org.neo4j.kernel.impl.api.index.sampling.PropertyPathSampler
 import org.neo4j.kernel.impl.query.TransactionalContext
 
+import scala.collection.mutable
+
 object TransactionBoundGraphStatistics {
-  def apply(transactionalContext: TransactionalContext): StatisticsCompletingGraphStatistics =
-    apply(transactionalContext.kernelTransaction().dataRead(), transactionalContext.kernelTransaction().schemaRead())
+  def apply(transactionalContext: TransactionalContext): StatisticsCompletingGraphStatistics = {
+    val ktx = transactionalContext.kernelTransaction()
+    val config = transactionalContext.graph().getDependencyResolver.resolveDependency(classOf[Config])
+    apply(ktx.dataRead(), ktx.schemaRead(), ktx.tokenRead(), ktx.cursors(), new PropertyPathSampler(config))
+  }
 
   def apply(read: Read, schemaRead: SchemaRead): StatisticsCompletingGraphStatistics =
-    new StatisticsCompletingGraphStatistics(new BaseTransactionBoundGraphStatistics(read, schemaRead))
+    apply(read, schemaRead, null, null, PropertyPathSampler.NONE)
+
+  def apply(read: Read, schemaRead: SchemaRead, tokenRead: TokenRead, cursors: CursorFactory,
+            sampler: PropertyPathSampler): StatisticsCompletingGraphStatistics =
+    new StatisticsCompletingGraphStatistics(new BaseTransactionBoundGraphStatistics(read, schemaRead, tokenRead, cursors, sampler))
+
+  private class BaseTransactionBoundGraphStatistics(read: Read, schemaRead: SchemaRead, tokenRead: TokenRead,
+                                                    cursors: CursorFactory, sampler: PropertyPathSampler)
+    extends GraphStatistics with IndexDescriptorCompatibility {
 
-  private class BaseTransactionBoundGraphStatistics(read: Read, schemaRead: SchemaRead) extends GraphStatistics with IndexDescriptorCompatibility {
+    private val propertyPathSamples = mutable.Map.empty[(LabelId, Seq[String]), Option[PropertyPathSampler.Sample]]
 
     def indexSelectivity(index: IndexDescriptor): Option[Selectivity] =
       try {
         val labeledNodes = read.countsForNodeWithoutTxState( index.label ).toDouble
 
         // Probability of any node with the given label, to have a property with a given value
-        val indexEntrySelectivity = schemaRead.indexUniqueValuesSelectivity(
-          schemaRead.indexReferenceUnchecked(index.label, index.properties.map(_.id):_*))
+        val indexEntrySelectivity = schemaRead.indexUniqueValuesSelectivity(indexReference(index))
         val frequencyOfNodesWithSameValue = 1.0 / indexEntrySelectivity
         val indexSelectivity = frequencyOfNodesWithSameValue / labeledNodes
 
@@ -55,7 +70,7 @@ object TransactionBoundGraphStatistics {
         val labeledNodes = read.countsForNodeWithoutTxState( index.label ).toDouble
 
         // Probability of any node with the given label, to have a given property
-        val indexSize = schemaRead.indexSize(schemaRead.indexReferenceUnchecked(index.label, index.properties.map(_.id):_*))
+        val indexSize = schemaRead.indexSize(indexReference(index))
         val indexSelectivity = indexSize / labeledNodes
 
         Selectivity.of(indexSelectivity)
@@ -64,6 +79,29 @@ object TransactionBoundGraphStatistics {
         case e: IndexNotFoundKernelException => None
       }
 
+    override def propertyPathSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] =
+      propertyPathSample(label, path).flatMap(sample => Selectivity.of(sample.valueSelectivity()))
+
+    override def propertyPathExistsSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] =
+      propertyPathSample(label, path).flatMap(sample => Selectivity.of(sample.existsSelectivity()))
+
+    /*
+     * A path index reads its dotted property keys as paths inside map properties, and all other indexes read them as
+     * properties, so the statistics of an index only answer for the kind of index that is asked for.
+     */
+    private def indexReference(index: IndexDescriptor): IndexReference = {
+      val reference = schemaRead.index(index.label, index.properties.map(_.id):_*)
+      if (reference == IndexReference.NO_INDEX || PropertyPaths.isPathIndex(reference) != index.isPropertyPath)
+        throw new IndexNotFoundKernelException(s"No ${if (index.isPropertyPath) "path " else ""}index found for $index")
+      reference
+    }
+
+    private def propertyPathSample(label: LabelId, path: Seq[String]): Option[PropertyPathSampler.Sample] =
+      if (!sampler.isSampled(path.toArray))
+        None
+      else
+        propertyPathSamples.getOrElseUpdate((label, path), Option(sampler.sample(read, tokenRead, cursors, label.id, path.toArray)))
+
     def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality =
       atLeastOne(read.countsForNodeWithoutTxState(labelId))
 
@@ -28,6 +28,7 @@ import org.neo4j.internal.kernel.api.exceptions.KernelException
 import org.neo4j.internal.kernel.api.procs.Neo4jTypes.AnyType
 import org.neo4j.internal.kernel.api.procs.{DefaultParameterValue, Neo4jTypes}
 import org.neo4j.internal.kernel.api.{IndexReference, InternalIndexState, procs}
+import org.neo4j.kernel.api.index.PropertyPaths
 import org.neo4j.kernel.api.schema.SchemaDescriptorFactory
 import org.neo4j.kernel.api.schema.index.CapableIndexDescriptor
 import org.neo4j.procedure.Mode
@@ -39,8 +40,7 @@ import scala.collection.JavaConverters._
 
 object TransactionBoundPlanContext {
   def apply(tc: TransactionalContextWrapper, logger: InternalNotificationLogger) =
-    new TransactionBoundPlanContext(tc, logger, InstrumentedGraphStatistics(TransactionBoundGraphStatistics(tc.dataRead,
-                                                                                                            tc.schemaRead),
+    new TransactionBoundPlanContext(tc, logger, InstrumentedGraphStatistics(TransactionBoundGraphStatistics(tc.tc),
       new MutableGraphStatisticsSnapshot()))
 }
 
@@ -85,8 +85,9 @@ class TransactionBoundPlanContext(tc: TransactionalContextWrapper, logger: Inter
     tc.schemaRead.indexGetState(reference) match {
       case InternalIndexState.ONLINE =>
         reference match {
-          case cir: CapableIndexDescriptor => Some(IndexDescriptor(cir.label(), cir.properties(), cir.limitations().map(kernelToCypher).toSet))
-          case _ => Some(IndexDescriptor(reference.label(), reference.properties()))
+          case cir: CapableIndexDescriptor =>
+            Some(IndexDescriptor(cir.label(), cir.properties(), cir.limitations().map(kernelToCypher).toSet, PropertyPaths.isPathIndex(cir)))
+          case _ => Some(IndexDescriptor(reference.label(), reference.properties(), Set.empty[IndexLimitation], PropertyPaths.isPathIndex(reference)))
         }
       case _ => None
     }
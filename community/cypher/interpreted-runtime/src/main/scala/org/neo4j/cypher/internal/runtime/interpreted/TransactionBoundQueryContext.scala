@@ -439,6 +439,40 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
       }
     }
 
+    override def getPropertyPath(id: Long, propertyKeyId: Int, path: Array[String]): Value = {
+      val node = nodeCursor
+      reads().singleNode(id, node)
+      if (!node.next()) {
+        if (isDeletedInThisTx(id)) throw new EntityNotFoundException(
+          s"Node with id $id has been deleted in this transaction")
+        else Values.NO_VALUE
+      } else {
+        val property = propertyCursor
+        node.properties(property)
+        while (property.next()) {
+          if (property.propertyKey() == propertyKeyId) return property.propertyValue(path)
+        }
+        Values.NO_VALUE
+      }
+    }
+
+    override def getPropertyMapKeys(id: Long, propertyKeyId: Int, path: Array[String]): Either[Array[String], AnyValue] = {
+      val node = nodeCursor
+      reads().singleNode(id, node)
+      if (!node.next()) {
+        if (isDeletedInThisTx(id)) throw new EntityNotFoundException(
+          s"Node with id $id has been deleted in this transaction")
+        else Right(Values.NO_VALUE)
+      } else {
+        val property = propertyCursor
+        node.properties(property)
+        while (property.next()) {
+          if (property.propertyKey() == propertyKeyId) return mapKeysOrValue(property, path)
+        }
+        Right(Values.NO_VALUE)
+      }
+    }
+
     override def hasProperty(id: Long, propertyKey: Int): Boolean = {
       val node = nodeCursor
       reads().singleNode(id, node)
@@ -550,6 +584,40 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
       }
     }
 
+    override def getPropertyPath(id: Long, propertyKeyId: Int, path: Array[String]): Value = {
+      val relationship = relationshipScanCursor
+      reads().singleRelationship(id, relationship)
+      if (!relationship.next()) {
+        if (isDeletedInThisTx(id)) throw new EntityNotFoundException(
+          s"Relationship with id $id has been deleted in this transaction")
+        else Values.NO_VALUE
+      } else {
+        val property = propertyCursor
+        relationship.properties(property)
+        while (property.next()) {
+          if (property.propertyKey() == propertyKeyId) return property.propertyValue(path)
+        }
+        Values.NO_VALUE
+      }
+    }
+
+    override def getPropertyMapKeys(id: Long, propertyKeyId: Int, path: Array[String]): Either[Array[String], AnyValue] = {
+      val relationship = relationshipScanCursor
+      reads().singleRelationship(id, relationship)
+      if (!relationship.next()) {
+        if (isDeletedInThisTx(id)) throw new EntityNotFoundException(
+          s"Relationship with id $id has been deleted in this transaction")
+        else Right(Values.NO_VALUE)
+      } else {
+        val property = propertyCursor
+        relationship.properties(property)
+        while (property.next()) {
+          if (property.propertyKey() == propertyKeyId) return mapKeysOrValue(property, path)
+        }
+        Right(Values.NO_VALUE)
+      }
+    }
+
     override def hasProperty(id: Long, propertyKey: Int): Boolean = {
       val relationship = relationshipScanCursor
       reads().singleRelationship(id, relationship)
@@ -1026,6 +1094,20 @@ sealed class TransactionBoundQueryContext(val transactionalContext: Transactiona
     cursor
   }
 
+  /**
+    * The keys of the map at `path` in the property under `property`, or the value there if it is not a map, or null if
+    * the path passes through a value that is not a map.
+    */
+  private def mapKeysOrValue(property: PropertyCursor, path: Array[String]): Either[Array[String], AnyValue] = {
+    val keys = property.mapKeys(path)
+    if (keys != null) Left(keys)
+    else if (path.isEmpty) Right(property.propertyValue())
+    else {
+      val value = property.propertyValue(path)
+      if (value == null) null else Right(value)
+    }
+  }
+
 
   abstract class CursorIterator[T] extends Iterator[T] {
     private var _next: T = fetchNext()
@@ -69,7 +69,7 @@ object CommunityExpressionConverter extends ExpressionConverter {
         case e: ast.Pow => commandexpressions.Pow(self.toCommandExpression(e.lhs), self.toCommandExpression(e.rhs))
         case e: ast.FunctionInvocation => toCommandExpression(e.function, e, self)
         case e: ast.CountStar => commandexpressions.CountStar()
-        case e: ast.Property => toCommandProperty(e, self)
+        case e: ast.Property => toCommandPropertyPath(e, self)
         case e: ast.Parameter => toCommandParameter(e)
         case e: ast.CaseExpression => caseExpression(e, self)
         case e: ast.PatternExpression =>
@@ -317,6 +317,17 @@ object CommunityExpressionConverter extends ExpressionConverter {
   private def toCommandProperty(e: ast.LogicalProperty, self: ExpressionConverters): commandexpressions.Property =
     commandexpressions.Property(self.toCommandExpression(e.map), PropertyKey(e.propertyKey.name))
 
+  /**
+    * Chained property access like `n.a.b.c` becomes one [[commandexpressions.NestedProperty]], so that the store only
+    * has to decode the leaf of the map property `n.a`.
+    */
+  private def toCommandPropertyPath(e: ast.Property, self: ExpressionConverters): CommandExpression =
+    PropertyPath.unapply(e) match {
+      case Some((root, first :: path)) if path.nonEmpty =>
+        commandexpressions.NestedProperty(self.toCommandExpression(root), PropertyKey(first.name), path.map(key => PropertyKey(key.name)))
+      case _ => toCommandProperty(e, self)
+    }
+
   private def toCommandExpression(expression: Option[ast.Expression], self: ExpressionConverters): Option[CommandExpression] =
     expression.map(self.toCommandExpression)
 
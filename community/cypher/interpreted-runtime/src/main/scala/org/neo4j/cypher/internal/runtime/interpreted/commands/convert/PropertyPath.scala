@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.convert
+
+import org.opencypher.v9_0.{expressions => ast}
+
+import scala.annotation.tailrec
+
+/**
+  * Splits chained property access like `n.a.b.c` into the expression it starts from, `n`, and the keys that are
+  * followed from there, `a, b, c`.
+  */
+object PropertyPath {
+  def unapply(expression: ast.Expression): Option[(ast.Expression, List[ast.PropertyKeyName])] = expression match {
+    case ast.Property(map, key) => Some(split(map, List(key)))
+    case _ => None
+  }
+
+  @tailrec
+  private def split(expression: ast.Expression, path: List[ast.PropertyKeyName]): (ast.Expression, List[ast.PropertyKeyName]) =
+    expression match {
+      case ast.Property(map, key) => split(map, key :: path)
+      case root => (root, path)
+    }
+}
@@ -24,10 +24,20 @@ import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
 import org.neo4j.cypher.internal.runtime.interpreted.IsMap
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
-import org.neo4j.values.virtual.ListValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.{ListValue, VirtualValues}
 
 case class KeysFunction(expr: Expression) extends NullInNullOutExpression(expr) {
 
+  override def apply(ctx: ExecutionContext, state: QueryState): AnyValue = expr match {
+    case e: StoredMapKeys => e.storedMapKeys(ctx, state) match {
+      case Left(keys) => VirtualValues.fromArray(Values.stringArray(keys: _*))
+      case Right(value) if value == Values.NO_VALUE => Values.NO_VALUE
+      case Right(value) => compute(value, ctx, state)
+    }
+    case _ => super.apply(ctx, state)
+  }
+
   override def compute(value: AnyValue, ctx: ExecutionContext, state: QueryState): ListValue = value match {
     case IsMap(map) => map(state.query).keys()
 
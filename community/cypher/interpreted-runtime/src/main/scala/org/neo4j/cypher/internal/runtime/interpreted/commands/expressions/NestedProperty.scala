@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+import org.neo4j.values.storable.Values
+import org.neo4j.values.virtual.{VirtualNodeValue, VirtualRelationshipValue}
+
+/**
+  * Chained property access like `n.a.b.c`. When `mapExpr` is a node or relationship the whole path is handed to the
+  * store, which only decodes the leaf of the map property `a`. Everything else is looked up one key at a time, exactly
+  * like nested [[Property]] expressions would.
+  */
+case class NestedProperty(mapExpr: Expression, propertyKey: KeyToken, path: Seq[KeyToken])
+  extends Expression with StoredMapKeys with Product with Serializable
+{
+  private val pathKeys = path.map(_.name).toArray
+
+  def apply(ctx: ExecutionContext, state: QueryState): AnyValue = lookup(mapExpr(ctx, state), state)
+
+  def storedMapKeys(ctx: ExecutionContext, state: QueryState): Either[Array[String], AnyValue] = {
+    val value = mapExpr(ctx, state)
+    val keysOrValue = StoredMapKeys.lookup(value, propertyKey, pathKeys, state)
+    if (keysOrValue != null) keysOrValue else Right(lookup(value, state))
+  }
+
+  private def lookup(value: AnyValue, state: QueryState): AnyValue = {
+    val leaf = value match {
+      case n: VirtualNodeValue =>
+        propertyKey.getOptId(state.query) match {
+          case None => Values.NO_VALUE
+          case Some(propId) => state.query.nodeOps.getPropertyPath(n.id(), propId, pathKeys)
+        }
+      case r: VirtualRelationshipValue =>
+        propertyKey.getOptId(state.query) match {
+          case None => Values.NO_VALUE
+          case Some(propId) => state.query.relationshipOps.getPropertyPath(r.id(), propId, pathKeys)
+        }
+      case _ => null
+    }
+    if (leaf != null) leaf
+    else (propertyKey +: path).foldLeft(value)((current, key) => Property.lookup(current, key, state))
+  }
+
+  def rewrite(f: (Expression) => Expression) =
+    f(NestedProperty(mapExpr.rewrite(f), propertyKey.rewrite(f), path.map(_.rewrite(f))))
+
+  override def children = Seq(mapExpr, propertyKey) ++ path
+
+  def arguments = Seq(mapExpr)
+
+  def symbolTableDependencies = mapExpr.symbolTableDependencies
+
+  override def toString = s"$mapExpr.${(propertyKey +: path).map(_.name).mkString(".")}"
+}
@@ -31,9 +31,29 @@ import org.neo4j.values.virtual.{VirtualNodeValue, VirtualRelationshipValue}
 import scala.util.{Failure, Success, Try}
 
 case class Property(mapExpr: Expression, propertyKey: KeyToken)
-  extends Expression with Product with Serializable
+  extends Expression with StoredMapKeys with Product with Serializable
 {
-  def apply(ctx: ExecutionContext, state: QueryState): AnyValue = mapExpr(ctx, state) match {
+  def apply(ctx: ExecutionContext, state: QueryState): AnyValue = Property.lookup(mapExpr(ctx, state), propertyKey, state)
+
+  def storedMapKeys(ctx: ExecutionContext, state: QueryState): Either[Array[String], AnyValue] = {
+    val entity = mapExpr(ctx, state)
+    val keysOrValue = StoredMapKeys.lookup(entity, propertyKey, state)
+    if (keysOrValue != null) keysOrValue else Right(Property.lookup(entity, propertyKey, state))
+  }
+
+  def rewrite(f: (Expression) => Expression) = f(Property(mapExpr.rewrite(f), propertyKey.rewrite(f)))
+
+  override def children = Seq(mapExpr, propertyKey)
+
+  def arguments = Seq(mapExpr)
+
+  def symbolTableDependencies = mapExpr.symbolTableDependencies
+
+  override def toString = s"$mapExpr.${propertyKey.name}"
+}
+
+object Property {
+  def lookup(value: AnyValue, propertyKey: KeyToken, state: QueryState): AnyValue = value match {
     case n if n == Values.NO_VALUE => Values.NO_VALUE
     case n: VirtualNodeValue =>
       propertyKey.getOptId(state.query) match {
@@ -54,14 +74,4 @@ case class Property(mapExpr: Expression, propertyKey: KeyToken)
     }
     case other => throw new CypherTypeException(s"Type mismatch: expected a map but was $other")
   }
-
-  def rewrite(f: (Expression) => Expression) = f(Property(mapExpr.rewrite(f), propertyKey.rewrite(f)))
-
-  override def children = Seq(mapExpr, propertyKey)
-
-  def arguments = Seq(mapExpr)
-
-  def symbolTableDependencies = mapExpr.symbolTableDependencies
-
-  override def toString = s"$mapExpr.${propertyKey.name}"
 }
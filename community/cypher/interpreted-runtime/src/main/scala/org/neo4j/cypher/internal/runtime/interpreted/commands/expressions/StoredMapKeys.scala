@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
+import org.neo4j.values.AnyValue
+import org.neo4j.values.virtual.{VirtualNodeValue, VirtualRelationshipValue}
+
+/**
+  * An expression reading a property, or a path inside a map property, that can read the keys of the map found there
+  * straight from the key directory it is stored with. Functions that only need the keys, like `keys(n.a.b)` and
+  * `exists(n.a.b.c)`, then don't decode any values.
+  */
+trait StoredMapKeys {
+  self: Expression =>
+
+  /**
+    * Evaluates this expression, reading only the keys if it evaluates to a map stored in a property.
+    *
+    * @return the keys of the map this expression evaluates to, in ascending order, on the left, or the value of the
+    *         expression on the right if it does not evaluate to a map stored in a property.
+    */
+  def storedMapKeys(ctx: ExecutionContext, state: QueryState): Either[Array[String], AnyValue]
+}
+
+object StoredMapKeys {
+  private val NoPath = Array.empty[String]
+
+  /**
+    * @return the keys of the map at `path` inside the property `propertyKey` of `entity`, or the value there if it is
+    *         not a map, or null if `entity` is not a node or relationship, or the property key does not exist, or the
+    *         path passes through a value that is not a map.
+    */
+  def lookup(entity: AnyValue, propertyKey: KeyToken, path: Array[String], state: QueryState): Either[Array[String], AnyValue] = entity match {
+    case n: VirtualNodeValue =>
+      propertyKey.getOptId(state.query).map(state.query.nodeOps.getPropertyMapKeys(n.id(), _, path)).orNull
+    case r: VirtualRelationshipValue =>
+      propertyKey.getOptId(state.query).map(state.query.relationshipOps.getPropertyMapKeys(r.id(), _, path)).orNull
+    case _ => null
+  }
+
+  def lookup(entity: AnyValue, propertyKey: KeyToken, state: QueryState): Either[Array[String], AnyValue] =
+    lookup(entity, propertyKey, NoPath, state)
+}
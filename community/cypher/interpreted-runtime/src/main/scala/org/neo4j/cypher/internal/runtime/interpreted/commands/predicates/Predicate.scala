@@ -19,12 +19,15 @@
  */
 package org.neo4j.cypher.internal.runtime.interpreted.commands.predicates
 
+import java.util
+
 import org.neo4j.cypher.InvalidSemanticsException
-import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, Literal}
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, Literal, StoredMapKeys}
 import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.cypher.internal.runtime.interpreted.{CastSupport, ExecutionContext, IsList, IsMap}
 import org.opencypher.v9_0.util.{CypherTypeException, NonEmptyList}
+import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.{BooleanValue, TextValue, Value, Values}
 import org.neo4j.values.virtual.{VirtualRelationshipValue, VirtualNodeValue}
 
@@ -150,7 +153,16 @@ case class True() extends Predicate {
 }
 
 case class PropertyExists(variable: Expression, propertyKey: KeyToken) extends Predicate {
-  def isMatch(m: ExecutionContext, state: QueryState): Option[Boolean] = variable(m, state) match {
+  def isMatch(m: ExecutionContext, state: QueryState): Option[Boolean] = variable match {
+    case e: StoredMapKeys => e.storedMapKeys(m, state) match {
+      // A key in a stored map never has a null value, so it exists if it is in the key directory
+      case Left(keys) => Some(util.Arrays.binarySearch(keys.asInstanceOf[Array[AnyRef]], propertyKey.name) >= 0)
+      case Right(value) => exists(value, state)
+    }
+    case _ => exists(variable(m, state), state)
+  }
+
+  private def exists(value: AnyValue, state: QueryState): Option[Boolean] = value match {
     case pc: VirtualNodeValue => Some(propertyKey.getOptId(state.query).exists(state.query.nodeOps.hasProperty(pc.id, _)))
     case pc: VirtualRelationshipValue => Some(
       propertyKey.getOptId(state.query).exists(state.query.relationshipOps.hasProperty(pc.id, _)))
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.runtime.interpreted.commands.expressions
+
+import org.mockito.ArgumentMatchers.{any, anyInt, anyLong}
+import org.mockito.Mockito._
+import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.PropertyExists
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.TokenType.PropertyKey
+import org.neo4j.cypher.internal.runtime.interpreted.{ExecutionContext, QueryStateHelper}
+import org.neo4j.cypher.internal.runtime.{Operations, QueryContext}
+import org.neo4j.values.storable.{DateValue, Values}
+import org.neo4j.values.virtual.{NodeValue, VirtualValues}
+import org.opencypher.v9_0.util.test_helpers.CypherFunSuite
+
+class NestedPropertyTest extends CypherFunSuite {
+
+  val qtx = mock[QueryContext]
+  val nodeOps = mock[Operations[NodeValue]]
+  implicit val state = QueryStateHelper.empty.withQueryContext(qtx)
+  val ctx = ExecutionContext.from("n" -> VirtualValues.node(0))
+
+  when(qtx.nodeOps).thenReturn(nodeOps)
+  when(qtx.getOptPropertyKeyId("address")).thenReturn(Some(1))
+  when(qtx.getOptPropertyKeyId("missing")).thenReturn(None)
+
+  test("should read the leaf of a node property through the store") {
+    when(nodeOps.getPropertyPath(0, 1, Array("city"))).thenReturn(Values.stringValue("Malmö"))
+
+    nested(Variable("n"), "address", "city") should equal(Values.stringValue("Malmö"))
+    verify(nodeOps, never()).getProperty(anyLong(), anyInt())
+  }
+
+  test("should look keys up one by one when the path does not only go through maps") {
+    when(nodeOps.getPropertyPath(0, 1, Array("year"))).thenReturn(null)
+    when(nodeOps.getProperty(0, 1)).thenReturn(DateValue.date(2018, 1, 1))
+
+    nested(Variable("n"), "address", "year") should equal(Values.longValue(2018))
+  }
+
+  test("should return null for unknown property keys") {
+    nested(Variable("n"), "missing", "city") should equal(Values.NO_VALUE)
+  }
+
+  test("should follow the path through literal maps") {
+    val map = LiteralMap(Map("address" -> LiteralMap(Map("city" -> Literal("Malmö")))))
+
+    nested(map, "address", "city") should equal(Values.stringValue("Malmö"))
+    nested(map, "address", "zip") should equal(Values.NO_VALUE)
+    nested(Null(), "address", "city") should equal(Values.NO_VALUE)
+  }
+
+  test("should read the keys of a map inside a node property from the store") {
+    when(nodeOps.getPropertyMapKeys(0, 1, Array("geo"))).thenReturn(Left(Array("lat", "lon")))
+
+    KeysFunction(nestedExpression(Variable("n"), "address", "geo"))(ctx, state) should equal(
+      VirtualValues.list(Values.stringValue("lat"), Values.stringValue("lon")))
+    verify(nodeOps, never()).getPropertyPath(anyLong(), anyInt(), any())
+    verify(nodeOps, never()).getProperty(anyLong(), anyInt())
+  }
+
+  test("should check that a key exists in a node property from the store") {
+    when(nodeOps.getPropertyMapKeys(0, 1, Array.empty[String])).thenReturn(Left(Array("city", "zip")))
+    val address = Property(Variable("n"), PropertyKey("address"))
+
+    PropertyExists(address, PropertyKey("city")).isMatch(ctx, state) should equal(Some(true))
+    PropertyExists(address, PropertyKey("street")).isMatch(ctx, state) should equal(Some(false))
+    verify(nodeOps, never()).getProperty(anyLong(), anyInt())
+  }
+
+  test("should use the value read with the keys when there is no map in the store") {
+    when(nodeOps.getPropertyMapKeys(0, 1, Array.empty[String])).thenReturn(Right(Values.NO_VALUE))
+
+    KeysFunction(Property(Variable("n"), PropertyKey("address")))(ctx, state) should equal(Values.NO_VALUE)
+    PropertyExists(Property(Variable("n"), PropertyKey("address")), PropertyKey("city")).isMatch(ctx, state) should equal(None)
+    verify(nodeOps, never()).getProperty(anyLong(), anyInt())
+  }
+
+  private def nested(mapExpr: Expression, propertyKey: String, path: String*) =
+    nestedExpression(mapExpr, propertyKey, path: _*)(ctx, state)
+
+  private def nestedExpression(mapExpr: Expression, propertyKey: String, path: String*) =
+    NestedProperty(mapExpr, PropertyKey(propertyKey), path.map(key => PropertyKey(key): KeyToken))
+}
@@ -62,6 +62,22 @@ trait GraphStatistics {
       indexPropertyExistsSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE has(x.prop)|
    */
   def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity]
+
+  /*
+      Probability of any node with the given label, to have a particular value at a path inside a map property,
+      estimated by sampling when the path is configured in cypher.statistics.map_paths
+
+      propertyPathSelectivity(:X, [map, key]) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.map.key = '*'|
+   */
+  def propertyPathSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] = None
+
+  /*
+      Probability of any node with the given label, to have a value at a path inside a map property,
+      estimated by sampling when the path is configured in cypher.statistics.map_paths
+
+      propertyPathExistsSelectivity(:X, [map, key]) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE has(x.map.key)|
+   */
+  def propertyPathExistsSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -77,6 +93,12 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
   override def indexPropertyExistsSelectivity(index: IndexDescriptor): Option[Selectivity] =
     delegate.indexPropertyExistsSelectivity(index)
 
+  override def propertyPathSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] =
+    delegate.propertyPathSelectivity(label, path)
+
+  override def propertyPathExistsSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] =
+    delegate.propertyPathExistsSelectivity(label, path)
+
   override def nodesAllCardinality(): Cardinality = delegate.nodesAllCardinality()
 }
 
@@ -30,6 +30,8 @@ object IndexDescriptor {
 
   def apply(label: Int, properties: Seq[Int]): IndexDescriptor = IndexDescriptor(LabelId(label), properties.map(PropertyKeyId))
   def apply(label: Int, properties: Seq[Int], limitations: Set[IndexLimitation]): IndexDescriptor = IndexDescriptor(LabelId(label), properties.map(PropertyKeyId), limitations)
+  def apply(label: Int, properties: Seq[Int], limitations: Set[IndexLimitation], isPropertyPath: Boolean): IndexDescriptor =
+    IndexDescriptor(LabelId(label), properties.map(PropertyKeyId), limitations, isPropertyPath)
 
   def apply(label: LabelId, property: PropertyKeyId): IndexDescriptor = IndexDescriptor(label, Seq(property))
   def apply(label: LabelId, property: PropertyKeyId, limitations: Set[IndexLimitation]): IndexDescriptor = IndexDescriptor(label, Seq(property), limitations)
@@ -37,7 +39,12 @@ object IndexDescriptor {
   implicit def toKernelEncode(properties: Seq[PropertyKeyId]): Array[Int] = properties.map(_.id).toArray
 }
 
-case class IndexDescriptor(label: LabelId, properties: Seq[PropertyKeyId], limitations: Set[IndexLimitation] = Set.empty[IndexLimitation]) {
+/*
+ * isPropertyPath tells whether this is a path index, which reads property keys named like `address.zip` as the path
+ * `zip` inside the map property `address`.
+ */
+case class IndexDescriptor(label: LabelId, properties: Seq[PropertyKeyId], limitations: Set[IndexLimitation] = Set.empty[IndexLimitation],
+                           isPropertyPath: Boolean = false) {
   def isComposite: Boolean = properties.length > 1
 
   def property: PropertyKeyId = if (isComposite) throw new IllegalArgumentException("Cannot get single property of multi-property index") else properties(0)
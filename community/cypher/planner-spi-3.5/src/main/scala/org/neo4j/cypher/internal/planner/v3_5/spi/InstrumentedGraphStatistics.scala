@@ -31,6 +31,8 @@ case object NodesAllCardinality extends StatisticsKey
 case class CardinalityByLabelsAndRelationshipType(lhs: Option[LabelId], relType: Option[RelTypeId], rhs: Option[LabelId]) extends StatisticsKey
 case class IndexSelectivity(index: IndexDescriptor) extends StatisticsKey
 case class IndexPropertyExistsSelectivity(index: IndexDescriptor) extends StatisticsKey
+case class PropertyPathSelectivity(label: LabelId, path: Seq[String]) extends StatisticsKey
+case class PropertyPathExistsSelectivity(label: LabelId, path: Seq[String]) extends StatisticsKey
 
 class MutableGraphStatisticsSnapshot(val map: mutable.Map[StatisticsKey, Double] = mutable.Map.empty) {
   def freeze: GraphStatisticsSnapshot = GraphStatisticsSnapshot(map.toMap)
@@ -52,6 +54,10 @@ case class GraphStatisticsSnapshot(statsValues: Map[StatisticsKey, Double] = Map
         instrumented.indexSelectivity(index)
       case IndexPropertyExistsSelectivity(index) =>
         instrumented.indexPropertyExistsSelectivity(index)
+      case PropertyPathSelectivity(label, path) =>
+        instrumented.propertyPathSelectivity(label, path)
+      case PropertyPathExistsSelectivity(label, path) =>
+        instrumented.propertyPathExistsSelectivity(label, path)
     }
     snapshot.freeze
   }
@@ -97,5 +103,17 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     selectivity
   }
 
+  override def propertyPathSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] = {
+    val selectivity = inner.propertyPathSelectivity(label, path)
+    snapshot.map.getOrElseUpdate(PropertyPathSelectivity(label, path), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
+  override def propertyPathExistsSelectivity(label: LabelId, path: Seq[String]): Option[Selectivity] = {
+    val selectivity = inner.propertyPathExistsSelectivity(label, path)
+    snapshot.map.getOrElseUpdate(PropertyPathExistsSelectivity(label, path), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
   override def nodesAllCardinality(): Cardinality = snapshot.map.getOrElseUpdate(NodesAllCardinality, inner.nodesAllCardinality().amount)
 }
@@ -261,6 +261,24 @@ trait Operations[T] {
 
   def getProperty(obj: Long, propertyKeyId: Int): Value
 
+  /**
+    * Reads the value at `path` inside the map property `propertyKeyId`, without decoding the rest of the map.
+    *
+    * @return the value at the end of the path, NO_VALUE if any key on the path is missing, or null if the path passes
+    *         through a value that is not a map, in which case the caller has to look the keys up one by one.
+    */
+  def getPropertyPath(obj: Long, propertyKeyId: Int, path: Array[String]): Value
+
+  /**
+    * Reads the keys of the map at `path` inside the map property `propertyKeyId` from its key directory, without
+    * decoding any values.
+    *
+    * @return the keys in ascending order on the left, or the value itself on the right if it is not a map, so that
+    *         the caller does not have to read the property again. Null if the path passes through a value that is not
+    *         a map, in which case the caller has to evaluate the path itself.
+    */
+  def getPropertyMapKeys(obj: Long, propertyKeyId: Int, path: Array[String]): Either[Array[String], AnyValue]
+
   def hasProperty(obj: Long, propertyKeyId: Int): Boolean
 
   def propertyKeyIds(obj: Long): Iterator[Int]
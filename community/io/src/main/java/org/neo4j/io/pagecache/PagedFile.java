@@ -59,9 +59,10 @@ public interface PagedFile extends AutoCloseable
      */
     int PF_NO_GROW = 1 << 2;
     /**
-     * Read-ahead hint for sequential forward scanning.
+     * Read-ahead hint for sequential forward scanning. Pages are read ahead of cursors that pin consecutive pages
+     * anyway, but with this flag the read-ahead starts from the second page, instead of after a number of pages.
      */
-    int PF_READ_AHEAD = 1 << 3; // TBD
+    int PF_READ_AHEAD = 1 << 3;
     /**
      * Do not load in the page if it is not loaded already. The methods {@link PageCursor#next()} and
      * {@link PageCursor#next(long)} will always return {@code true} for pages that are within the range of the file,
@@ -80,6 +81,13 @@ public interface PagedFile extends AutoCloseable
      * Flush pages more aggressively, after they have been dirtied by a write cursor.
      */
     int PF_EAGER_FLUSH = 1 << 6;
+    /**
+     * Never read ahead of this cursor, not even when it pins consecutive pages. This is for cursors that already know
+     * exactly which pages they want, and where reading more pages than that would only displace other pages.
+     * <p>
+     * This cannot be combined with {@link #PF_READ_AHEAD}.
+     */
+    int PF_NO_READ_AHEAD = 1 << 7;
 
     /**
      * Initiate an IO interaction with the contents of the paged file.
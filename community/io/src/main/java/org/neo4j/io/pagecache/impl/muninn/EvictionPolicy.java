@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+import static org.neo4j.util.FeatureToggles.getInteger;
+
+/**
+ * The EvictionPolicy decides which of the pages that the clock arms of the background eviction threads pass over,
+ * should be evicted. Each eviction thread keeps the state of its own clock arm in a {@link Sweep}.
+ * <p>
+ * All policies remember the file pages that were recently evicted, by a 4 byte fingerprint in a table with up to as
+ * many entries as there are pages in the cache. A page fault of a file page that is still in that table is a
+ * re-fault: the page was evicted, but then needed again soon after. Re-faults are reported to the
+ * {@link PageCacheTracer}, and are the number to watch when comparing how well the policies keep the working set
+ * in the cache.
+ */
+abstract class EvictionPolicy
+{
+    enum Type
+    {
+        /**
+         * Evict pages whose usage counter reaches zero, as the clock arm decrements it on every pass.
+         */
+        CLOCK,
+        /**
+         * Evict pages that have been used at most once since the clock arm last passed them, and only decrement the
+         * usage of the other pages when too few of such cold pages were found in the last revolution of the clock
+         * arm. Re-faulted pages start out hot. This way a scan through a large store evicts its own pages, rather
+         * than the working set.
+         */
+        SCAN_RESISTANT
+    }
+
+    final PageList pages;
+    private final PageCacheTracer pageCacheTracer;
+    private final int[] recentlyEvicted;
+    private final int recentlyEvictedMask;
+
+    EvictionPolicy( PageList pages, PageCacheTracer pageCacheTracer )
+    {
+        this.pages = pages;
+        this.pageCacheTracer = pageCacheTracer;
+        int capacity = Integer.highestOneBit( Math.max( pages.getPageCount(), 1 ) );
+        this.recentlyEvicted = new int[capacity];
+        this.recentlyEvictedMask = capacity - 1;
+    }
+
+    static EvictionPolicy create( Type type, PageList pages, PageCacheTracer pageCacheTracer )
+    {
+        switch ( type )
+        {
+        case CLOCK:
+            return new Clock( pages, pageCacheTracer );
+        case SCAN_RESISTANT:
+            return new ScanResistant( pages, pageCacheTracer );
+        default:
+            throw new IllegalArgumentException( "Unknown eviction policy " + type );
+        }
+    }
+
+    /**
+     * Create the state that one eviction thread keeps, as its clock arm sweeps over the given number of pages.
+     */
+    abstract Sweep sweep( int pageCount );
+
+    /**
+     * Called when a page that was bound to the given file page has been evicted.
+     */
+    final void evicted( int swapperId, long filePageId )
+    {
+        // This is intentionally left benignly racy; a lost update only means a re-fault that goes unnoticed.
+        long hash = hash( swapperId, filePageId );
+        recentlyEvicted[slot( hash )] = fingerprint( hash );
+    }
+
+    /**
+     * Called when the given file page has been faulted into the given page, while the page is still exclusively
+     * locked by the page fault.
+     */
+    final void faulted( long pageRef, int swapperId, long filePageId )
+    {
+        long hash = hash( swapperId, filePageId );
+        int slot = slot( hash );
+        if ( recentlyEvicted[slot] == fingerprint( hash ) )
+        {
+            recentlyEvicted[slot] = 0;
+            pageCacheTracer.refaults( 1 );
+            refaulted( pageRef );
+        }
+    }
+
+    void refaulted( long pageRef )
+    {
+    }
+
+    private static long hash( int swapperId, long filePageId )
+    {
+        // Swapper ids are 21 bits, and file page ids are at most 40 bits.
+        return ((filePageId << 21) | swapperId) * 0x9E3779B97F4A7C15L;
+    }
+
+    private int slot( long hash )
+    {
+        // The high bits of a multiplicative hash are the well mixed ones.
+        return (int) (hash >>> 34) & recentlyEvictedMask;
+    }
+
+    private static int fingerprint( long hash )
+    {
+        // Never 0, which marks an empty slot.
+        return (int) (hash >>> 2) | 1;
+    }
+
+    private static final class Clock extends EvictionPolicy
+    {
+        Clock( PageList pages, PageCacheTracer pageCacheTracer )
+        {
+            super( pages, pageCacheTracer );
+        }
+
+        @Override
+        Sweep sweep( int pageCount )
+        {
+            return new Sweep()
+            {
+                @Override
+                boolean shouldEvict( long pageRef )
+                {
+                    return pages.decrementUsage( pageRef );
+                }
+            };
+        }
+    }
+
+    private static final class ScanResistant extends EvictionPolicy
+    {
+        // The percentage of the pages that should be cold, before the usage of hot pages is no longer decremented.
+        private static final int coldPagePercentage = getInteger( EvictionPolicy.class, "coldPagePercentage", 25 );
+
+        ScanResistant( PageList pages, PageCacheTracer pageCacheTracer )
+        {
+            super( pages, pageCacheTracer );
+        }
+
+        @Override
+        Sweep sweep( int pageCount )
+        {
+            int coldPageTarget = Math.max( 1, (int) (pageCount * (long) coldPagePercentage / 100) );
+            return new Sweep()
+            {
+                private int coldPagesSeen;
+                private boolean coolHotPages = true;
+
+                @Override
+                boolean shouldEvict( long pageRef )
+                {
+                    if ( pages.getUsageCounter( pageRef ) <= 1 )
+                    {
+                        coldPagesSeen++;
+                        return pages.decrementUsage( pageRef );
+                    }
+                    if ( coolHotPages )
+                    {
+                        pages.decrementUsage( pageRef );
+                    }
+                    return false;
+                }
+
+                @Override
+                void revolution()
+                {
+                    coolHotPages = coldPagesSeen < coldPageTarget;
+                    coldPagesSeen = 0;
+                }
+            };
+        }
+
+        @Override
+        void refaulted( long pageRef )
+        {
+            // The pin that follows the page fault adds another use, which makes the page hot.
+            pages.incrementUsage( pageRef );
+        }
+    }
+
+    /**
+     * The state of one clock arm. Only ever used by the eviction thread that owns it.
+     */
+    abstract static class Sweep
+    {
+        /**
+         * Called by the eviction thread for every loaded page that the clock arm passes over.
+         * @return {@code true} if the page should be evicted.
+         */
+        abstract boolean shouldEvict( long pageRef );
+
+        /**
+         * Called by the eviction thread when the clock arm wraps around to the first page.
+         */
+        void revolution()
+        {
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+/**
+ * A contiguous range of the pages in the {@link PageList}, with its own freelist and its own background eviction
+ * thread. The page cache is partitioned into stripes, so that eviction can keep up on machines with many cores, and
+ * so that page faulting threads spread their freelist CAS operations over more than one memory location.
+ */
+final class EvictionStripe
+{
+    // The field offset to unsafely access the freelist field.
+    private static final long freelistOffset = UnsafeUtil.getFieldOffset( EvictionStripe.class, "freelist" );
+
+    final int firstPageId;
+    final int pageCount;
+    // Keep this many pages of this stripe free and ready for use in faulting.
+    final int keepFree;
+    final EvictionPolicy.Sweep sweep;
+
+    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
+    // Initially, the field is an AtomicInteger that counts from zero to the page count of the stripe, at which point
+    // all of the pages in the stripe have been put in use. Once this happens, the field is set to null to allow the
+    // eviction thread of the stripe to start its work. From that point on, the field will operate as a concurrent
+    // stack of FreePage objects. The eviction thread pushes newly freed FreePage objects onto the stack, and page
+    // faulting threads pops FreePage objects from the stack. The FreePage objects are single-use, to avoid running
+    // into the ABA-problem.
+    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
+    private volatile Object freelist;
+
+    // The thread that runs the eviction algorithm for this stripe. We unpark this when we've run out of
+    // free pages to grab.
+    volatile Thread evictionThread;
+    // True if the eviction thread is currently parked, without someone having
+    // signalled it to wake up. This is used as a weak guard for unparking the
+    // eviction thread, because calling unpark too much (from many page
+    // faulting threads) can cause contention on the locks protecting that
+    // threads scheduling meta-data in the OS kernel.
+    volatile boolean evictorParked;
+
+    EvictionStripe( int firstPageId, int pageCount, int keepFree, EvictionPolicy.Sweep sweep )
+    {
+        this.firstPageId = firstPageId;
+        this.pageCount = pageCount;
+        this.keepFree = keepFree;
+        this.sweep = sweep;
+        setFreelistHead( new AtomicInteger() );
+    }
+
+    Object getFreelistHead()
+    {
+        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+    }
+
+    boolean compareAndSetFreelistHead( Object expected, Object update )
+    {
+        return UnsafeUtil.compareAndSwapObject( this, freelistOffset, expected, update );
+    }
+
+    void setFreelistHead( Object newFreelistHead )
+    {
+        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+    }
+}
@@ -104,6 +104,23 @@ final class LatchMap
         return null;
     }
 
+    /**
+     * Like {@link #takeOrAwaitLatch(long)}, except {@code null} is returned right away, instead of waiting, if a latch
+     * is already installed for the given (or any colliding) identifier.
+     */
+    Latch tryTakeLatch( long identifier )
+    {
+        int index = index( identifier );
+        Latch latch = new Latch();
+        if ( getLatch( index ) == null && compareAndSetLatch( index, null, latch ) )
+        {
+            latch.latchMap = this;
+            latch.index = index;
+            return latch;
+        }
+        return null;
+    }
+
     private int index( long identifier )
     {
         return (int) (mix( identifier ) & faultLockMask);
@@ -27,7 +27,9 @@ import java.nio.file.OpenOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -113,12 +115,18 @@ public class MuninnPageCache implements PageCache
     // The amount of memory we need for every page, both its buffer and its meta-data.
     private static final int MEMORY_USE_PER_PAGE = PAGE_SIZE + PageList.META_DATA_BYTES_PER_PAGE;
 
-    // Keep this many pages free and ready for use in faulting.
+    // Keep this many pages free and ready for use in faulting, in every eviction stripe.
     // This will be truncated to be no more than half of the number of pages
-    // in the cache.
+    // in the stripe.
     private static final int pagesToKeepFree = getInteger(
             MuninnPageCache.class, "pagesToKeepFree", 30 );
 
+    // The number of eviction stripes, each with its own freelist and background eviction thread, unless the
+    // "evictionThreads" feature toggle says otherwise. The number is truncated so that no stripe has fewer than
+    // minimumPagesPerStripe pages.
+    private static final int defaultEvictionThreads = Math.max( 1, Runtime.getRuntime().availableProcessors() / 16 );
+    private static final int minimumPagesPerStripe = 512;
+
     // This is how many times that, during cooperative eviction, we'll iterate through the entire set of pages looking
     // for a page to evict, before we give up and throw CacheLiveLockException. This MUST be greater than 1.
     private static final int cooperativeEvictionLiveLockThreshold = getInteger(
@@ -129,10 +137,6 @@ public class MuninnPageCache implements PageCache
     private static final IOException oomException = new IOException(
             "OutOfMemoryError encountered in the page cache background eviction thread" );
 
-    // The field offset to unsafely access the freelist field.
-    private static final long freelistOffset =
-            UnsafeUtil.getFieldOffset( MuninnPageCache.class, "freelist" );
-
     // This is used as a poison-pill signal in the freelist, to inform any
     // page faulting thread that it is now no longer possible to queue up and
     // wait for more pages to be evicted, because the page cache has been shut
@@ -156,37 +160,28 @@ public class MuninnPageCache implements PageCache
     private final int pageCacheId;
     private final PageSwapperFactory swapperFactory;
     private final int cachePageSize;
-    private final int keepFree;
     private final PageCacheTracer pageCacheTracer;
     private final PageCursorTracerSupplier pageCursorTracerSupplier;
     private final VersionContextSupplier versionContextSupplier;
     final PageList pages;
+    final EvictionPolicy evictionPolicy;
+    // The pages are partitioned into stripes of contiguous page ids. Page faulting threads grab free pages from the
+    // stripe given by their thread id first, and only then from the other stripes.
+    final EvictionStripe[] stripes;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings( "unused" ) // This field is accessed via Unsafe.
-    private volatile Object freelist;
-
     // Linked list of mappings - guarded by synchronized(this)
     private volatile FileMapping mappedFiles;
 
-    // The thread that runs the eviction algorithm. We unpark this when we've run out of
-    // free pages to grab.
-    private volatile Thread evictionThread;
-    // True if the eviction thread is currently parked, without someone having
-    // signalled it to wake up. This is used as a weak guard for unparking the
-    // eviction thread, because calling unpark too much (from many page
-    // faulting threads) can cause contention on the locks protecting that
-    // threads scheduling meta-data in the OS kernel.
-    private volatile boolean evictorParked;
+    // The number of pages reserved for files, by their canonical path - guarded by synchronized(this)
+    private final Map<File,Integer> reservations = new HashMap<>();
+    // The mapped files that have a reservation, indexed by swapper id, so eviction can look them up from their pages.
+    // Writes guarded by synchronized(this).
+    private volatile MuninnPagedFile[] reservedFiles = new MuninnPagedFile[0];
+
     private volatile IOException evictorException;
 
     // Flag for when page cache is closed - writes guarded by synchronized(this), reads can be unsynchronized
@@ -278,7 +273,6 @@ public class MuninnPageCache implements PageCache
         this.pageCacheId = pageCacheIdCounter.incrementAndGet();
         this.swapperFactory = swapperFactory;
         this.cachePageSize = cachePageSize;
-        this.keepFree = Math.min( pagesToKeepFree, maxPages / 2 );
         this.pageCacheTracer = pageCacheTracer;
         this.pageCursorTracerSupplier = pageCursorTracerSupplier;
         this.versionContextSupplier = versionContextSupplier;
@@ -286,8 +280,26 @@ public class MuninnPageCache implements PageCache
         long alignment = swapperFactory.getRequiredBufferAlignment();
         this.victimPage = VictimPageReference.getVictimPage( cachePageSize, memoryTracker );
         this.pages = new PageList( maxPages, cachePageSize, memoryAllocator, new SwapperSet(), victimPage, alignment );
+        this.evictionPolicy = EvictionPolicy.create(
+                flag( MuninnPageCache.class, "evictionPolicy", EvictionPolicy.Type.CLOCK ), pages, pageCacheTracer );
+        this.stripes = createStripes( maxPages );
+    }
 
-        setFreelistHead( new AtomicInteger() );
+    private EvictionStripe[] createStripes( int maxPages )
+    {
+        int evictionThreads = getInteger( MuninnPageCache.class, "evictionThreads", defaultEvictionThreads );
+        int stripeCount = Math.max( 1, Math.min( evictionThreads, maxPages / minimumPagesPerStripe ) );
+        int stripeSize = maxPages / stripeCount;
+        EvictionStripe[] stripes = new EvictionStripe[stripeCount];
+        for ( int i = 0; i < stripeCount; i++ )
+        {
+            int firstPageId = i * stripeSize;
+            // The last stripe also gets the remainder of the pages.
+            int pageCount = i == stripeCount - 1 ? maxPages - firstPageId : stripeSize;
+            int keepFree = Math.min( pagesToKeepFree, pageCount / 2 );
+            stripes[i] = new EvictionStripe( firstPageId, pageCount, keepFree, evictionPolicy.sweep( pageCount ) );
+        }
+        return stripes;
     }
 
     private static void verifyHacks()
@@ -406,9 +418,14 @@ public class MuninnPageCache implements PageCache
                 pageCursorTracerSupplier,
                 versionContextSupplier,
                 createIfNotExists,
-                truncateExisting );
+                truncateExisting,
+                reservedPages( file ) );
         pagedFile.incrementRefCount();
         pagedFile.markDeleteOnClose( deleteOnClose );
+        if ( pagedFile.reservedPages > 0 )
+        {
+            setReservedFile( pagedFile.swapperId, pagedFile );
+        }
         current = new FileMapping( file, pagedFile );
         current.next = mappedFiles;
         mappedFiles = current;
@@ -483,7 +500,10 @@ public class MuninnPageCache implements PageCache
 
         try
         {
-            backgroundThreadExecutor.execute( new EvictionTask( this ) );
+            for ( EvictionStripe stripe : stripes )
+            {
+                backgroundThreadExecutor.execute( new EvictionTask( this, stripe ) );
+            }
         }
         catch ( Exception e )
         {
@@ -523,6 +543,11 @@ public class MuninnPageCache implements PageCache
                     }
                     pageCacheTracer.unmappedFile( current.file );
                     flushAndCloseWithoutFail( file );
+                    if ( file.reservedPages > 0 )
+                    {
+                        setReservedFile( file.swapperId, null );
+                        file.releaseReservation();
+                    }
                     break;
                 }
                 prev = current;
@@ -531,6 +556,83 @@ public class MuninnPageCache implements PageCache
         }
     }
 
+    private void setReservedFile( int swapperId, MuninnPagedFile file )
+    {
+        MuninnPagedFile[] files = reservedFiles;
+        if ( swapperId >= files.length )
+        {
+            files = Arrays.copyOf( files, swapperId + 1 );
+        }
+        else
+        {
+            files = files.clone();
+        }
+        files[swapperId] = file;
+        reservedFiles = files;
+    }
+
+    private int reservedPages( File file ) throws IOException
+    {
+        return reservations.isEmpty() ? 0 : reservations.getOrDefault( file.getCanonicalFile(), 0 );
+    }
+
+    /**
+     * Reserve the given number of pages of the cache for the given file, such as the {@code neostore.nodestore.db}
+     * of a database. The file is matched by its canonical path, so the reservation only applies to that one file,
+     * and not to files with the same name in other directories. The eviction threads leave the pages of such a file alone, for as long as the
+     * file has no more pages in the cache than have been reserved for it. This protects the working set of that file
+     * from scans and bulk loads through other files, but a file does not get any pages of the cache until it needs
+     * them. Reservations only apply to files that are mapped after this call, and at most half of the pages of the
+     * cache can be reserved, so there are always pages that can be evicted.
+     *
+     * @param file the file to reserve pages for.
+     * @param pageCount the number of pages to reserve, or zero to remove the reservation.
+     * @throws IllegalArgumentException if this would reserve more than half of the pages of the cache.
+     * @throws IOException if the canonical path of the file cannot be resolved.
+     */
+    public synchronized void reservePages( File file, int pageCount ) throws IOException
+    {
+        File canonicalFile = file.getCanonicalFile();
+        if ( pageCount < 0 )
+        {
+            throw new IllegalArgumentException( "Cannot reserve a negative number of pages: " + pageCount );
+        }
+        int reservedPageCount = pageCount;
+        for ( Map.Entry<File,Integer> reservation : reservations.entrySet() )
+        {
+            if ( !reservation.getKey().equals( canonicalFile ) )
+            {
+                reservedPageCount += reservation.getValue();
+            }
+        }
+        if ( reservedPageCount > pages.getPageCount() / 2 )
+        {
+            throw new IllegalArgumentException( "Cannot reserve " + pageCount + " pages for " + file + ", " +
+                    "because that would reserve " + reservedPageCount + " pages in total, and at most half of the " +
+                    pages.getPageCount() + " pages in the page cache can be reserved." );
+        }
+        if ( pageCount == 0 )
+        {
+            reservations.remove( canonicalFile );
+        }
+        else
+        {
+            reservations.put( canonicalFile, pageCount );
+        }
+    }
+
+    private boolean isReserved( long pageRef )
+    {
+        MuninnPagedFile[] files = reservedFiles;
+        if ( files.length == 0 )
+        {
+            return false;
+        }
+        int swapperId = pages.getSwapperId( pageRef );
+        MuninnPagedFile file = swapperId < files.length ? files[swapperId] : null;
+        return file != null && file.isWithinReservation();
+    }
+
     private void flushAndCloseWithoutFail( MuninnPagedFile file )
     {
         boolean flushedAndClosed = false;
@@ -692,8 +794,11 @@ public class MuninnPageCache implements PageCache
 
         closed = true;
 
-        interrupt( evictionThread );
-        evictionThread = null;
+        for ( EvictionStripe stripe : stripes )
+        {
+            interrupt( stripe.evictionThread );
+            stripe.evictionThread = null;
+        }
 
         // Close the page swapper factory last. If this fails then we will still consider ourselves closed.
         swapperFactory.close();
@@ -757,13 +862,57 @@ public class MuninnPageCache implements PageCache
 
     long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent ) throws IOException
     {
-        // Review the comment on the freelist field before making changes to
+        return grabFreeAndExclusivelyLockedPage( faultEvent, true );
+    }
+
+    /**
+     * Like {@link #grabFreeAndExclusivelyLockedPage(PageFaultEvent)}, except 0 is returned if the freelists are empty,
+     * instead of cooperatively evicting a page. This is for page faults that are only worth doing if they are cheap.
+     */
+    long tryGrabFreeAndExclusivelyLockedPage() throws IOException
+    {
+        return grabFreeAndExclusivelyLockedPage( PageFaultEvent.NULL, false );
+    }
+
+    private long grabFreeAndExclusivelyLockedPage( PageFaultEvent faultEvent, boolean evictIfNoneFree )
+            throws IOException
+    {
+        // We start with the stripe that belongs to our thread, and move on to the other stripes if its freelist is
+        // empty. Only if all of the freelists are empty, do we do our own eviction to get a free page.
+        int stripeCount = stripes.length;
+        int homeStripe = (int) (Thread.currentThread().getId() % stripeCount);
+        for (;;)
+        {
+            assertHealthy();
+            for ( int i = 0; i < stripeCount; i++ )
+            {
+                long pageRef = grabFreePage( stripes[(homeStripe + i) % stripeCount] );
+                if ( pageRef != 0 )
+                {
+                    return pageRef;
+                }
+            }
+            if ( !evictIfNoneFree )
+            {
+                return 0;
+            }
+            long pageRef = cooperativelyEvict( faultEvent );
+            if ( pageRef != 0 )
+            {
+                return pageRef;
+            }
+        }
+    }
+
+    private long grabFreePage( EvictionStripe stripe )
+    {
+        // Review the comment on the EvictionStripe.freelist field before making changes to
         // this part of the code.
         // Whatever the case, we're going to the head-pointer of the freelist,
         // and in doing so, we can discover a number of things.
-        // We can discover a MuninnPage object, in which case we can try to
-        // CAS the freelist pointer to the value of the MuninnPage.nextFree
-        // pointer, and if this succeeds then we've grabbed that page.
+        // We can discover an AtomicInteger object, in which case we can try to
+        // CAS it to the next page id in the stripe, and if this succeeds then
+        // we've grabbed that page.
         // We can discover a FreePage object, in which case we'll do a similar
         // dance by attempting to CAS the freelist to the FreePage objects next
         // pointer, and again, if we succeed then we've grabbed the MuninnPage
@@ -771,38 +920,30 @@ public class MuninnPageCache implements PageCache
         // We can discover a null-pointer, in which case the freelist has just
         // been emptied for whatever it contained before. New FreePage objects
         // are eventually going to be added to the freelist, but we are not
-        // going to wait around for that to happen. If the freelist is empty,
-        // then we do our own eviction to get a free page.
+        // going to wait around for that to happen, so we return 0.
         // If we find a FreePage object on the freelist, then it is important
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
         for (;;)
         {
-            assertHealthy();
-            current = getFreelistHead();
+            Object current = stripe.getFreelistHead();
             if ( current == null )
             {
-                unparkEvictor();
-                long pageRef = cooperativelyEvict( faultEvent );
-                if ( pageRef != 0 )
-                {
-                    return pageRef;
-                }
+                unparkEvictor( stripe );
+                return 0;
             }
             else if ( current instanceof AtomicInteger )
             {
-                int pageCount = pages.getPageCount();
                 AtomicInteger counter = (AtomicInteger) current;
                 int pageId = counter.get();
-                if ( pageId < pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
+                if ( pageId < stripe.pageCount && counter.compareAndSet( pageId, pageId + 1 ) )
                 {
-                    return pages.deref( pageId );
+                    return pages.deref( stripe.firstPageId + pageId );
                 }
-                if ( pageId >= pageCount )
+                if ( pageId >= stripe.pageCount )
                 {
-                    compareAndSetFreelistHead( current, null );
+                    stripe.compareAndSetFreelistHead( current, null );
                 }
             }
             else if ( current instanceof FreePage )
@@ -813,7 +954,7 @@ public class MuninnPageCache implements PageCache
                     throw new IllegalStateException( "The PageCache has been shut down." );
                 }
 
-                if ( compareAndSetFreelistHead( freePage, freePage.next ) )
+                if ( stripe.compareAndSetFreelistHead( freePage, freePage.next ) )
                 {
                     return freePage.pageRef;
                 }
@@ -831,7 +972,7 @@ public class MuninnPageCache implements PageCache
         do
         {
             assertHealthy();
-            if ( getFreelistHead() != null )
+            if ( hasFreePages() )
             {
                 return 0;
             }
@@ -847,9 +988,15 @@ public class MuninnPageCache implements PageCache
             }
 
             pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            if ( pages.isLoaded( pageRef ) && !isReserved( pageRef ) && pages.decrementUsage( pageRef ) )
             {
+                int swapperId = pages.getSwapperId( pageRef );
+                long filePageId = pages.getFilePageId( pageRef );
                 evicted = pages.tryEvict( pageRef, faultEvent );
+                if ( evicted )
+                {
+                    evictionPolicy.evicted( swapperId, filePageId );
+                }
             }
             clockArm++;
         }
@@ -872,79 +1019,95 @@ public class MuninnPageCache implements PageCache
                 "your database." );
     }
 
-    private void unparkEvictor()
+    private boolean hasFreePages()
     {
-        if ( evictorParked )
+        for ( EvictionStripe stripe : stripes )
         {
-            evictorParked = false;
-            LockSupport.unpark( evictionThread );
+            if ( stripe.getFreelistHead() != null )
+            {
+                return true;
+            }
         }
+        return false;
     }
 
-    private void parkEvictor( long parkNanos )
+    private boolean hasUnusedPages()
     {
-        // Only called from the background eviction thread!
-        evictorParked = true;
-        LockSupport.parkNanos( this, parkNanos );
-        evictorParked = false;
-    }
-
-    private Object getFreelistHead()
-    {
-        return UnsafeUtil.getObjectVolatile( this, freelistOffset );
+        for ( EvictionStripe stripe : stripes )
+        {
+            Object freelistHead = stripe.getFreelistHead();
+            if ( freelistHead instanceof AtomicInteger && ((AtomicInteger) freelistHead).get() < stripe.pageCount )
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean compareAndSetFreelistHead( Object expected, Object update )
+    private void unparkEvictor( EvictionStripe stripe )
     {
-        return UnsafeUtil.compareAndSwapObject(
-                this, freelistOffset, expected, update );
+        if ( stripe.evictorParked )
+        {
+            stripe.evictorParked = false;
+            LockSupport.unpark( stripe.evictionThread );
+        }
     }
 
-    private void setFreelistHead( Object newFreelistHead )
+    private void parkEvictor( EvictionStripe stripe, long parkNanos )
     {
-        UnsafeUtil.putObjectVolatile( this, freelistOffset, newFreelistHead );
+        // Only called from the background eviction thread of the stripe!
+        stripe.evictorParked = true;
+        LockSupport.parkNanos( this, parkNanos );
+        stripe.evictorParked = false;
     }
 
     /**
-     * Scan through all the pages, one by one, and decrement their usage stamps.
+     * Scan through all the pages of the stripe, one by one, and decrement their usage stamps.
      * If a usage reaches zero, we try-write-locking it, and if we get that lock,
      * we evict the page. If we don't, we move on to the next page.
-     * Once we have enough free pages, we park our thread. Page-faulting will
+     * Once we have enough free pages in the stripe, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
-    void continuouslySweepPages()
+    void continuouslySweepPages( EvictionStripe stripe )
     {
-        evictionThread = Thread.currentThread();
+        stripe.evictionThread = Thread.currentThread();
         int clockArm = 0;
 
         while ( !closed )
         {
-            int pageCountToEvict = parkUntilEvictionRequired( keepFree );
+            int pageCountToEvict = parkUntilEvictionRequired( stripe );
             try ( EvictionRunEvent evictionRunEvent = pageCacheTracer.beginPageEvictions( pageCountToEvict ) )
             {
-                clockArm = evictPages( pageCountToEvict, clockArm, evictionRunEvent );
+                clockArm = evictPages( stripe, pageCountToEvict, clockArm, evictionRunEvent );
             }
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
         // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead( shutdownSignal );
+        stripe.setFreelistHead( shutdownSignal );
     }
 
-    private int parkUntilEvictionRequired( int keepFree )
+    private int parkUntilEvictionRequired( EvictionStripe stripe )
     {
-        // Park until we're either interrupted, or the number of free pages drops
+        // Park until we're either interrupted, or the number of free pages in the stripe drops
         // bellow keepFree.
+        int keepFree = stripe.keepFree;
         long parkNanos = TimeUnit.MILLISECONDS.toNanos( 10 );
         for (;;)
         {
-            parkEvictor( parkNanos );
+            parkEvictor( stripe, parkNanos );
             if ( Thread.interrupted() || closed )
             {
                 return 0;
             }
+            if ( stripes.length > 1 && hasUnusedPages() )
+            {
+                // Page faulting threads move on to the other stripes when the freelist of their own stripe is empty,
+                // so there is no need to evict anything before all the pages in the cache have been put to use.
+                continue;
+            }
 
-            Object freelistHead = getFreelistHead();
+            Object freelistHead = stripe.getFreelistHead();
 
             if ( freelistHead == null )
             {
@@ -961,7 +1124,7 @@ public class MuninnPageCache implements PageCache
             else if ( freelistHead.getClass() == AtomicInteger.class )
             {
                 AtomicInteger counter = (AtomicInteger) freelistHead;
-                long count = pages.getPageCount() - counter.get();
+                long count = stripe.pageCount - counter.get();
                 if ( count < keepFree )
                 {
                     return count < 0 ? keepFree : (int) (keepFree - count);
@@ -970,13 +1133,18 @@ public class MuninnPageCache implements PageCache
         }
     }
 
-    int evictPages( int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
+    /**
+     * Evict up to the given number of pages from the stripe, and put them on its freelist.
+     * @return the new position of the clock arm, relative to the first page of the stripe.
+     */
+    int evictPages( EvictionStripe stripe, int pageCountToEvict, int clockArm, EvictionRunEvent evictionRunEvent )
     {
         while ( pageCountToEvict > 0 && !closed )
         {
-            if ( clockArm == pages.getPageCount() )
+            if ( clockArm == stripe.pageCount )
             {
                 clockArm = 0;
+                stripe.sweep.revolution();
             }
 
             if ( closed )
@@ -985,14 +1153,17 @@ public class MuninnPageCache implements PageCache
                 return 0;
             }
 
-            long pageRef = pages.deref( clockArm );
-            if ( pages.isLoaded( pageRef ) && pages.decrementUsage( pageRef ) )
+            long pageRef = pages.deref( stripe.firstPageId + clockArm );
+            if ( pages.isLoaded( pageRef ) && !isReserved( pageRef ) && stripe.sweep.shouldEvict( pageRef ) )
             {
                 try
                 {
                     pageCountToEvict--;
+                    int swapperId = pages.getSwapperId( pageRef );
+                    long filePageId = pages.getFilePageId( pageRef );
                     if ( pages.tryEvict( pageRef, evictionRunEvent ) )
                     {
+                        evictionPolicy.evicted( swapperId, filePageId );
                         clearEvictorException();
                         addFreePageToFreelist( pageRef );
                     }
@@ -1018,20 +1189,32 @@ public class MuninnPageCache implements PageCache
         return clockArm;
     }
 
+    /**
+     * Read the given number of pages of the given file ahead, from the given file page id, in the background.
+     */
+    void readAhead( MuninnPagedFile file, long startFilePageId, int count )
+    {
+        if ( !closed )
+        {
+            backgroundThreadExecutor.execute( new ReadAheadTask( this, file, startFilePageId, count ) );
+        }
+    }
+
     void addFreePageToFreelist( long pageRef )
     {
+        EvictionStripe stripe = stripes[Math.min( pages.toId( pageRef ) / stripes[0].pageCount, stripes.length - 1 )];
         Object current;
         FreePage freePage = new FreePage( pageRef );
         do
         {
-            current = getFreelistHead();
-            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > pages.getPageCount() )
+            current = stripe.getFreelistHead();
+            if ( current instanceof AtomicInteger && ((AtomicInteger) current).get() > stripe.pageCount )
             {
                 current = null;
             }
             freePage.setNext( current );
         }
-        while ( !compareAndSetFreelistHead( current, freePage ) );
+        while ( !stripe.compareAndSetFreelistHead( current, freePage ) );
     }
 
     void clearEvictorException()
@@ -1057,9 +1240,21 @@ public class MuninnPageCache implements PageCache
         return sb.toString();
     }
 
+    private boolean isStillFillingUp()
+    {
+        for ( EvictionStripe stripe : stripes )
+        {
+            if ( !(stripe.getFreelistHead() instanceof AtomicInteger) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
     void vacuum( SwapperSet swappers )
     {
-        if ( getFreelistHead() instanceof AtomicInteger && swappers.countAvailableIds() > 200 )
+        if ( isStillFillingUp() && swappers.countAvailableIds() > 200 )
         {
             return; // We probably still have plenty of free pages left. Don't bother vacuuming just yet.
         }
@@ -38,9 +38,12 @@ import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
 import static org.neo4j.io.pagecache.PagedFile.PF_EAGER_FLUSH;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.impl.muninn.MuninnPagedFile.UNMAPPED_TTE;
 import static org.neo4j.util.FeatureToggles.flag;
+import static org.neo4j.util.FeatureToggles.getInteger;
 
 abstract class MuninnPageCursor extends PageCursor
 {
@@ -49,6 +52,10 @@ abstract class MuninnPageCursor extends PageCursor
 
     private static final boolean boundsCheck = flag( MuninnPageCursor.class, "boundsCheck", true );
 
+    // The number of consecutive pages a cursor must pin, before the pages after them are read ahead.
+    private static final int sequentialPinsBeforeReadAhead =
+            getInteger( MuninnPageCursor.class, "sequentialPinsBeforeReadAhead", 4 );
+
     // Size of the respective primitive types in bytes.
     private static final int SIZE_OF_BYTE = Byte.BYTES;
     private static final int SIZE_OF_SHORT = Short.BYTES;
@@ -67,6 +74,11 @@ abstract class MuninnPageCursor extends PageCursor
     protected boolean eagerFlush;
     protected boolean noFault;
     protected boolean noGrow;
+    private boolean readAhead;
+    private boolean noReadAhead;
+    private long previousPinnedPageId;
+    private int sequentialPins;
+    private long readAheadLimit;
     protected long currentPageId;
     protected long nextPageId;
     protected MuninnPageCursor linkedCursor;
@@ -106,6 +118,11 @@ abstract class MuninnPageCursor extends PageCursor
         this.eagerFlush = isFlagRaised( pf_flags, PF_EAGER_FLUSH );
         this.noFault = isFlagRaised( pf_flags, PF_NO_FAULT );
         this.noGrow = noFault | isFlagRaised( pf_flags, PagedFile.PF_NO_GROW );
+        this.readAhead = isFlagRaised( pf_flags, PF_READ_AHEAD );
+        this.noReadAhead = isFlagRaised( pf_flags, PF_NO_READ_AHEAD );
+        this.previousPinnedPageId = UNBOUND_PAGE_ID;
+        this.sequentialPins = 0;
+        this.readAheadLimit = 0;
     }
 
     private boolean isFlagRaised( int flagSet, int flag )
@@ -273,6 +290,10 @@ abstract class MuninnPageCursor extends PageCursor
     protected void pin( long filePageId, boolean writeLock ) throws IOException
     {
         pinEvent = tracer.beginPin( writeLock, filePageId, swapper );
+        if ( !noFault && !noReadAhead )
+        {
+            detectSequentialAccess( filePageId );
+        }
         int chunkId = MuninnPagedFile.computeChunkId( filePageId );
         // The chunkOffset is the addressing offset into the chunk array object for the relevant array slot. Using
         // this, we can access the array slot with Unsafe.
@@ -322,6 +343,27 @@ abstract class MuninnPageCursor extends PageCursor
         }
     }
 
+    /**
+     * Have the paged file read ahead of this cursor once it has pinned a number of consecutive pages, or right away
+     * if asked to with {@link PagedFile#PF_READ_AHEAD}.
+     */
+    private void detectSequentialAccess( long filePageId )
+    {
+        if ( filePageId == previousPinnedPageId + 1 )
+        {
+            sequentialPins++;
+        }
+        else if ( filePageId != previousPinnedPageId )
+        {
+            sequentialPins = 0;
+        }
+        previousPinnedPageId = filePageId;
+        if ( sequentialPins >= (readAhead ? 1 : sequentialPinsBeforeReadAhead) )
+        {
+            readAheadLimit = pagedFile.readAhead( filePageId, readAheadLimit );
+        }
+    }
+
     private int[][] expandTranslationTableCapacity( int chunkId )
     {
         return pagedFile.expandCapacity( chunkId );
@@ -398,6 +440,7 @@ abstract class MuninnPageCursor extends PageCursor
             assertPagedFileStillMappedAndGetIdOfLastPage();
             pagedFile.initBuffer( pageRef );
             pagedFile.fault( pageRef, swapper, pagedFile.swapperId, filePageId, faultEvent );
+            pagedFile.faulted( pageRef, filePageId );
         }
         catch ( Throwable throwable )
         {
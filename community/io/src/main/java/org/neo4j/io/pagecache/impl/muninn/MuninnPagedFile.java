@@ -24,6 +24,7 @@ import java.io.Flushable;
 import java.io.IOException;
 import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.io.pagecache.IOLimiter;
 import org.neo4j.io.pagecache.PageCursor;
@@ -41,6 +42,8 @@ import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracerSupplier;
 import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
 
+import static org.neo4j.util.FeatureToggles.getInteger;
+
 final class MuninnPagedFile extends PageList implements PagedFile, Flushable
 {
     static final int UNMAPPED_TTE = -1;
@@ -58,6 +61,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     private static final long headerStateRefCountMask = 0x7FFF_0000_0000_0000L;
     private static final long headerStateLastPageIdMask = 0x8000_FFFF_FFFF_FFFFL;
     private static final int PF_LOCK_MASK = PF_SHARED_WRITE_LOCK | PF_SHARED_READ_LOCK;
+    // The number of pages to read ahead of sequential scans, in one vectored read. Zero disables read-ahead.
+    private static final int readAheadPages = getInteger( MuninnPagedFile.class, "readAheadPages", 32 );
+    // The count of resident pages of a file whose reservation has been released, after which they are no longer counted.
+    private static final int RESERVATION_RELEASED = -1;
 
     final MuninnPageCache pageCache;
     final int filePageSize;
@@ -72,6 +79,19 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
     final int swapperId;
     private final CursorPool cursorPool;
 
+    // The number of pages read ahead at a time, which is kept small compared to the size of the cache.
+    private final int readAheadBatch;
+    // Guards starting a read ahead against closing the swapper, so pages are never read ahead from a closed file.
+    // Reads ahead only start while the swapper is open, and closing it waits for those in progress to finish.
+    private final Object readAheadLock = new Object();
+    private int readAheadsInProgress;
+    private boolean swapperClosing;
+
+    // The number of pages of the cache that are reserved for this file, and the number of pages of this file that are
+    // currently in the cache. The latter is only counted for files that have a reservation, until it is released.
+    final int reservedPages;
+    private final AtomicInteger residentPages = new AtomicInteger();
+
     // Guarded by the monitor lock on MuninnPageCache (map and unmap)
     private boolean deleteOnClose;
 
@@ -113,17 +133,22 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
      * access to thread local version context
      * @param createIfNotExists should create file if it does not exists
      * @param truncateExisting should truncate file if it exists
+     * @param reservedPages number of pages of the cache that eviction should leave to this file
      * @throws IOException If the {@link PageSwapper} could not be created.
      */
     MuninnPagedFile( File file, MuninnPageCache pageCache, int filePageSize, PageSwapperFactory swapperFactory,
             PageCacheTracer pageCacheTracer, PageCursorTracerSupplier pageCursorTracerSupplier,
-            VersionContextSupplier versionContextSupplier, boolean createIfNotExists, boolean truncateExisting ) throws IOException
+            VersionContextSupplier versionContextSupplier, boolean createIfNotExists, boolean truncateExisting,
+            int reservedPages ) throws IOException
     {
         super( pageCache.pages );
         this.pageCache = pageCache;
         this.filePageSize = filePageSize;
+        this.reservedPages = reservedPages;
         this.cursorPool = new CursorPool( this, pageCursorTracerSupplier, pageCacheTracer, versionContextSupplier );
         this.pageCacheTracer = pageCacheTracer;
+        int batch = Math.min( readAheadPages, getPageCount() / 16 );
+        this.readAheadBatch = batch < 2 ? 0 : batch;
         this.pageFaultLatches = new LatchMap();
 
         // The translation table is an array of arrays of integers that are either UNMAPPED_TTE, or the id of a page in
@@ -239,13 +264,18 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         // But if we get here, to close the swapper, then we are definitely unmapping!
         closeStackTrace = new Exception( "tracing paged file closing" );
 
-        if ( !deleteOnClose )
-        {
-            swapper.close();
-        }
-        else
+        synchronized ( readAheadLock )
         {
-            swapper.closeAndDelete();
+            swapperClosing = true;
+            awaitReadAheads();
+            if ( !deleteOnClose )
+            {
+                swapper.close();
+            }
+            else
+            {
+                swapper.closeAndDelete();
+            }
         }
         if ( getSwappers().free( swapperId ) )
         {
@@ -255,6 +285,26 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         }
     }
 
+    private void awaitReadAheads()
+    {
+        boolean interrupted = false;
+        while ( readAheadsInProgress > 0 )
+        {
+            try
+            {
+                readAheadLock.wait();
+            }
+            catch ( InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if ( interrupted )
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public void flushAndForce() throws IOException
     {
@@ -660,6 +710,193 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         return pageCache.grabFreeAndExclusivelyLockedPage( faultEvent );
     }
 
+    /**
+     * Called by cursors that pin the given file page as part of a sequential scan. Each cursor keeps its own read-ahead
+     * window, so concurrent scans of different parts of the file do not move each other's window. Once the scan gets
+     * within half a batch of the end of the window, the next batch is read ahead in the background.
+     *
+     * @param filePageId the file page the cursor is pinning.
+     * @param limit the file page id after the last page read ahead for the cursor, or 0 if nothing has been yet.
+     * @return the new limit of the read-ahead window of the cursor.
+     */
+    long readAhead( long filePageId, long limit )
+    {
+        long ahead = limit - filePageId;
+        if ( readAheadBatch == 0 || (ahead > readAheadBatch / 2 && ahead <= readAheadBatch) )
+        {
+            return limit;
+        }
+        long start = ahead > 0 && ahead <= readAheadBatch ? limit : filePageId + 1;
+        long end;
+        try
+        {
+            end = Math.min( start + readAheadBatch, getLastPageId() + 1 );
+        }
+        catch ( FileIsNotMappedException e )
+        {
+            return limit;
+        }
+        if ( start >= end )
+        {
+            return limit;
+        }
+        pageCache.readAhead( this, start, (int) (end - start) );
+        return end;
+    }
+
+    /**
+     * Fault in up to the given number of file pages from the given file page id, with one vectored read. Pages at the
+     * start that are already in memory, or being faulted in by someone else, are skipped. The read then stops short at
+     * the next such page. Nothing is read if the file has been unmapped, and the swapper is not closed until the read
+     * is done.
+     */
+    void prefetch( long startFilePageId, int count ) throws IOException
+    {
+        synchronized ( readAheadLock )
+        {
+            if ( swapperClosing || getRefCount() == 0 )
+            {
+                return;
+            }
+            readAheadsInProgress++;
+        }
+        long[] pageRefs = new long[count];
+        LatchMap.Latch[] latches = new LatchMap.Latch[count];
+        try
+        {
+            int first = 0;
+            int length = 0;
+            while ( first + length < count )
+            {
+                int index = first + length;
+                long filePageId = startFilePageId + index;
+                LatchMap.Latch latch = isUnmapped( filePageId ) ? pageFaultLatches.tryTakeLatch( filePageId ) : null;
+                latches[index] = latch;
+                if ( latch == null || !isUnmapped( filePageId ) )
+                {
+                    if ( length > 0 )
+                    {
+                        break;
+                    }
+                    first++;
+                    continue;
+                }
+                long pageRef = pageCache.tryGrabFreeAndExclusivelyLockedPage();
+                if ( pageRef == 0 )
+                {
+                    break;
+                }
+                pageRefs[index] = pageRef;
+                initBuffer( pageRef );
+                length++;
+            }
+            if ( length > 0 )
+            {
+                long runStartFilePageId = startFilePageId + first;
+                long[] run = Arrays.copyOfRange( pageRefs, first, first + length );
+                long bytesRead = fault( run, length, swapper, swapperId, runStartFilePageId );
+                for ( int i = 0; i < length; i++ )
+                {
+                    long filePageId = runStartFilePageId + i;
+                    int[] chunk = translationTable[computeChunkId( filePageId )];
+                    UnsafeUtil.putIntVolatile( chunk, computeChunkOffset( filePageId ), toId( run[i] ) );
+                    faulted( run[i], filePageId );
+                    // Count the read-ahead as a use, so the page is not the first to go before the scan gets to it.
+                    incrementUsage( run[i] );
+                }
+                pageCacheTracer.bytesRead( bytesRead );
+                pageCacheTracer.faults( length );
+            }
+        }
+        finally
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                if ( pageRefs[i] != 0 )
+                {
+                    unlockExclusive( pageRefs[i] );
+                }
+                if ( latches[i] != null )
+                {
+                    latches[i].release();
+                }
+            }
+            synchronized ( readAheadLock )
+            {
+                if ( --readAheadsInProgress == 0 )
+                {
+                    readAheadLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    private boolean isUnmapped( long filePageId )
+    {
+        int chunkId = computeChunkId( filePageId );
+        int[][] tt = translationTable;
+        if ( tt.length <= chunkId )
+        {
+            tt = expandCapacity( chunkId );
+        }
+        return UnsafeUtil.getIntVolatile( tt[chunkId], computeChunkOffset( filePageId ) ) == UNMAPPED_TTE;
+    }
+
+    /**
+     * Let the eviction policy know that the given file page has been faulted into the given, still exclusively locked,
+     * page, and count the page against the reservation of this file.
+     */
+    void faulted( long pageRef, long filePageId )
+    {
+        pageCache.evictionPolicy.faulted( pageRef, swapperId, filePageId );
+        if ( reservedPages > 0 )
+        {
+            countResidentPages( 1 );
+        }
+    }
+
+    /**
+     * @return {@code true} if this file has no more pages in the cache than have been reserved for it, so eviction
+     * should leave its pages alone.
+     */
+    boolean isWithinReservation()
+    {
+        int resident = residentPages.get();
+        return resident != RESERVATION_RELEASED && resident <= reservedPages;
+    }
+
+    /**
+     * Stop counting the pages of this file, once it has been unmapped. The pages it still has in the cache are no
+     * longer counted as reserved, and evicting them later, such as by a vacuum of the cache, does not count them off
+     * a second time.
+     */
+    void releaseReservation()
+    {
+        if ( reservedPages > 0 )
+        {
+            int resident = residentPages.getAndSet( RESERVATION_RELEASED );
+            if ( resident != RESERVATION_RELEASED )
+            {
+                pageCacheTracer.reservedPages( -resident );
+            }
+        }
+    }
+
+    private void countResidentPages( int delta )
+    {
+        int resident;
+        do
+        {
+            resident = residentPages.get();
+            if ( resident == RESERVATION_RELEASED )
+            {
+                return;
+            }
+        }
+        while ( !residentPages.compareAndSet( resident, resident + delta ) );
+        pageCacheTracer.reservedPages( delta );
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      * @param filePageId The id of the file page to evict.
@@ -674,6 +911,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable
         long pageRef = deref( mappedPageId );
         setHighestEvictedTransactionId( getAndResetLastModifiedTransactionId( pageRef ) );
         UnsafeUtil.putIntVolatile( chunk, chunkOffset, UNMAPPED_TTE );
+        if ( reservedPages > 0 )
+        {
+            countResidentPages( -1 );
+        }
     }
 
     private void setHighestEvictedTransactionId( long modifiedTransactionId )
@@ -80,6 +80,16 @@ public interface PageCacheCounters
      */
     long evictionExceptions();
 
+    /**
+     * @return The number of page faults thus far, of pages that had been evicted shortly before.
+     */
+    long refaults();
+
+    /**
+     * @return The number of pages in the cache that belong to files with a page cache reservation.
+     */
+    long reservedPages();
+
     /**
      * @return The cache hit ratio observed thus far.
      */
@@ -43,6 +43,8 @@ public class DefaultPageCacheTracer implements PageCacheTracer
     protected final LongAdder filesMapped = new LongAdder();
     protected final LongAdder filesUnmapped = new LongAdder();
     protected final LongAdder evictionExceptions = new LongAdder();
+    protected final LongAdder refaults = new LongAdder();
+    protected final LongAdder reservedPages = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
 
     private final FlushEvent flushEvent = new FlushEvent()
@@ -233,6 +235,18 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         return evictionExceptions.sum();
     }
 
+    @Override
+    public long refaults()
+    {
+        return refaults.sum();
+    }
+
+    @Override
+    public long reservedPages()
+    {
+        return reservedPages.sum();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -287,6 +301,18 @@ public class DefaultPageCacheTracer implements PageCacheTracer
         this.evictionExceptions.add( evictionExceptions );
     }
 
+    @Override
+    public void refaults( long refaults )
+    {
+        this.refaults.add( refaults );
+    }
+
+    @Override
+    public void reservedPages( long delta )
+    {
+        this.reservedPages.add( delta );
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -130,6 +130,18 @@ public interface PageCacheTracer extends PageCacheCounters
             return 0;
         }
 
+        @Override
+        public long refaults()
+        {
+            return 0;
+        }
+
+        @Override
+        public long reservedPages()
+        {
+            return 0;
+        }
+
         @Override
         public double hitRatio()
         {
@@ -177,6 +189,16 @@ public interface PageCacheTracer extends PageCacheCounters
         {
         }
 
+        @Override
+        public void refaults( long refaults )
+        {
+        }
+
+        @Override
+        public void reservedPages( long delta )
+        {
+        }
+
         @Override
         public void bytesWritten( long bytesWritten )
         {
@@ -270,6 +292,18 @@ public interface PageCacheTracer extends PageCacheCounters
      */
     void evictionExceptions( long evictionExceptions );
 
+    /**
+     * Report number of page faults of pages that had been evicted shortly before
+     * @param refaults number of refaults
+     */
+    void refaults( long refaults );
+
+    /**
+     * Report a change in the number of pages in the cache that belong to files with a page cache reservation
+     * @param delta the number of such pages that were faulted in, or negative if they were evicted
+     */
+    void reservedPages( long delta );
+
     /**
      * Report number of bytes written
      * @param bytesWritten number of written bytes
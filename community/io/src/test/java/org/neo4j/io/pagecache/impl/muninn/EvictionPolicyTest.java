@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.memory.GlobalMemoryTracker;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvictionPolicyTest
+{
+    private static final int PAGE_COUNT = 8;
+    private static final int HOT_PAGE = 3;
+
+    private static MemoryAllocator mman;
+
+    private PageList pages;
+    private DefaultPageCacheTracer tracer;
+
+    @BeforeAll
+    static void setUpStatics()
+    {
+        mman = MemoryAllocator.createAllocator( "1 MiB", GlobalMemoryTracker.INSTANCE );
+    }
+
+    @AfterAll
+    static void tearDownStatics()
+    {
+        mman = null;
+    }
+
+    @BeforeEach
+    void setUp()
+    {
+        int pageSize = UnsafeUtil.pageSize();
+        long victimPage = VictimPageReference.getVictimPage( pageSize, GlobalMemoryTracker.INSTANCE );
+        pages = new PageList( PAGE_COUNT, pageSize, mman, new SwapperSet(), victimPage, 8 );
+        tracer = new DefaultPageCacheTracer();
+    }
+
+    @Test
+    void clockMustEvictHotPagesDuringScan()
+    {
+        EvictionPolicy policy = EvictionPolicy.create( EvictionPolicy.Type.CLOCK, pages, tracer );
+        assertTrue( scanEvictsHotPage( policy ) );
+    }
+
+    @Test
+    void scanResistantPolicyMustKeepHotPagesDuringScan()
+    {
+        EvictionPolicy policy = EvictionPolicy.create( EvictionPolicy.Type.SCAN_RESISTANT, pages, tracer );
+        assertFalse( scanEvictsHotPage( policy ) );
+    }
+
+    @Test
+    void scanResistantPolicyMustEvictHotPagesWhenThereAreNoColdPages()
+    {
+        EvictionPolicy.Sweep sweep =
+                EvictionPolicy.create( EvictionPolicy.Type.SCAN_RESISTANT, pages, tracer ).sweep( PAGE_COUNT );
+        for ( int i = 0; i < PAGE_COUNT; i++ )
+        {
+            pages.incrementUsage( pages.deref( i ) );
+            pages.incrementUsage( pages.deref( i ) );
+        }
+
+        boolean evicted = false;
+        for ( int revolution = 0; revolution < 4 && !evicted; revolution++ )
+        {
+            for ( int i = 0; i < PAGE_COUNT; i++ )
+            {
+                evicted |= sweep.shouldEvict( pages.deref( i ) );
+            }
+            sweep.revolution();
+        }
+        assertTrue( evicted );
+    }
+
+    @Test
+    void mustCountRefaultsOfRecentlyEvictedPages()
+    {
+        EvictionPolicy policy = EvictionPolicy.create( EvictionPolicy.Type.CLOCK, pages, tracer );
+        long pageRef = pages.deref( 0 );
+
+        policy.evicted( 1, 42 );
+        policy.faulted( pageRef, 1, 43 );
+        policy.faulted( pageRef, 2, 42 );
+        assertEquals( 0, tracer.refaults() );
+
+        policy.faulted( pageRef, 1, 42 );
+        assertEquals( 1, tracer.refaults() );
+
+        policy.faulted( pageRef, 1, 42 );
+        assertEquals( 1, tracer.refaults() );
+    }
+
+    @Test
+    void scanResistantPolicyMustAdmitRefaultedPagesAsHot()
+    {
+        EvictionPolicy policy = EvictionPolicy.create( EvictionPolicy.Type.SCAN_RESISTANT, pages, tracer );
+        long refaulted = pages.deref( 0 );
+        long faulted = pages.deref( 1 );
+
+        policy.evicted( 1, 42 );
+        policy.faulted( refaulted, 1, 42 );
+        pages.incrementUsage( refaulted );
+        policy.faulted( faulted, 1, 43 );
+        pages.incrementUsage( faulted );
+        EvictionPolicy.Sweep sweep = policy.sweep( PAGE_COUNT );
+        sweep.revolution();
+
+        assertFalse( sweep.shouldEvict( refaulted ) );
+        assertTrue( sweep.shouldEvict( faulted ) );
+    }
+
+    /**
+     * Use the hot page a lot, then have the clock arm go around while a scan faults a new page into every page that
+     * gets evicted.
+     */
+    private boolean scanEvictsHotPage( EvictionPolicy policy )
+    {
+        EvictionPolicy.Sweep sweep = policy.sweep( PAGE_COUNT );
+        for ( int i = 0; i < PAGE_COUNT; i++ )
+        {
+            pages.incrementUsage( pages.deref( i ) );
+        }
+        for ( int i = 0; i < 10; i++ )
+        {
+            pages.incrementUsage( pages.deref( HOT_PAGE ) );
+        }
+
+        for ( int revolution = 0; revolution < 10; revolution++ )
+        {
+            for ( int i = 0; i < PAGE_COUNT; i++ )
+            {
+                long pageRef = pages.deref( i );
+                if ( sweep.shouldEvict( pageRef ) )
+                {
+                    if ( i == HOT_PAGE )
+                    {
+                        return true;
+                    }
+                    pages.incrementUsage( pageRef );
+                }
+            }
+            sweep.revolution();
+        }
+        return false;
+    }
+}
@@ -56,6 +56,8 @@ import org.neo4j.io.pagecache.tracing.cursor.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer;
 import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+import org.neo4j.util.FeatureToggles;
 
 import static java.time.Duration.ofMillis;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -63,10 +65,14 @@ import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_GROW;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_READ_AHEAD;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
 import static org.neo4j.io.pagecache.tracing.recording.RecordingPageCacheTracer.Evict;
@@ -146,7 +152,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 1, cursorTracer.faults() );
             assertEquals( 1, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 1, 1, tracer.beginPageEvictions( 1 ) );
+            long clockArm = pageCache.evictPages( pageCache.stripes[0], 1, 1, tracer.beginPageEvictions( 1 ) );
             assertThat( clockArm, is( 1L ) );
             assertNotNull( tracer.observe( Evict.class ) );
         }
@@ -174,7 +180,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 1, cursorTracer.faults() );
             assertEquals( 1, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+            long clockArm = pageCache.evictPages( pageCache.stripes[0], 1, 0, tracer.beginPageEvictions( 1 ) );
             assertThat( clockArm, is( 1L ) );
             assertNotNull( tracer.observe( Evict.class ) );
 
@@ -205,7 +211,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 1, cursorTracer.faults() );
             assertEquals( 1, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 1, 0, tracer.beginPageEvictions( 1 ) );
+            long clockArm = pageCache.evictPages( pageCache.stripes[0], 1, 0, tracer.beginPageEvictions( 1 ) );
             assertThat( clockArm, is( 1L ) );
             assertNotNull( tracer.observe( Evict.class ) );
 
@@ -240,7 +246,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
             assertEquals( 2, cursorTracer.faults() );
             assertEquals( 2, tracer.faults() );
 
-            long clockArm = pageCache.evictPages( 2, 0, tracer.beginPageEvictions( 2 ) );
+            long clockArm = pageCache.evictPages( pageCache.stripes[0], 2, 0, tracer.beginPageEvictions( 2 ) );
             assertThat( clockArm, is( 2L ) );
             assertNotNull( tracer.observe( Evict.class ) );
             assertNotNull( tracer.observe( Evict.class ) );
@@ -251,6 +257,242 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
         }
     }
 
+    @Test
+    void mustReadAheadOfSequentialScans() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 1024, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            generateFileWithRecords( file( "a" ), recordsPerFilePage * 64, recordSize );
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_READ_AHEAD ) )
+            {
+                assertTrue( cursor.next() );
+                assertTrue( cursor.next() );
+
+                // Only the faults of the read-ahead are reported straight to the page cache tracer. The read-ahead
+                // starts from the second page, which it might have to leave to the cursor.
+                assertTimeoutPreemptively( ofMillis( SHORT_TIMEOUT_MILLIS ), () ->
+                {
+                    while ( tracer.faults() < 31 )
+                    {
+                        Thread.sleep( 1 );
+                    }
+                } );
+                assertTrue( tracer.bytesRead() > 0 );
+
+                // Pages that were read ahead count as used once, so eviction does not take them first.
+                MuninnPagedFile muninnPagedFile = (MuninnPagedFile) pagedFile;
+                int[] chunk = muninnPagedFile.translationTable[MuninnPagedFile.computeChunkId( 10 )];
+                long pageRef = muninnPagedFile.deref( UnsafeUtil.getIntVolatile( chunk, MuninnPagedFile.computeChunkOffset( 10 ) ) );
+                assertEquals( 1, muninnPagedFile.getUsageCounter( pageRef ) );
+
+                cursor.rewind();
+                int pages = 0;
+                while ( cursor.next() )
+                {
+                    verifyRecordsMatchExpected( cursor );
+                    pages++;
+                }
+                assertEquals( 64, pages );
+            }
+        }
+    }
+
+    @Test
+    void mustKeepReadAheadWindowPerCursor() throws Exception
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 1024, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL ) )
+        {
+            generateFileWithRecords( file( "a" ), recordsPerFilePage * 128, recordSize );
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize ) )
+            {
+                MuninnPagedFile muninnPagedFile = (MuninnPagedFile) pagedFile;
+
+                // Two scans of different parts of the file each get a window of their own.
+                long first = muninnPagedFile.readAhead( 1, 0 );
+                long second = muninnPagedFile.readAhead( 65, 0 );
+                assertEquals( 34, first );
+                assertEquals( 98, second );
+
+                // Neither window moves until its own scan gets within half a batch of its end.
+                assertEquals( first, muninnPagedFile.readAhead( 10, first ) );
+                assertEquals( second, muninnPagedFile.readAhead( 70, second ) );
+                assertEquals( 66, muninnPagedFile.readAhead( 18, first ) );
+                assertEquals( 128, muninnPagedFile.readAhead( 82, second ) );
+            }
+        }
+    }
+
+    @Test
+    void mustNotReadAheadOfCursorsWithNoReadAheadFlag() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 1024, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            generateFileWithRecords( file( "a" ), recordsPerFilePage * 64, recordSize );
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK | PF_NO_READ_AHEAD ) )
+            {
+                while ( cursor.next() )
+                {
+                    verifyRecordsMatchExpected( cursor );
+                }
+            }
+            // Unmapping the file waits for any read-ahead to finish, and only read-ahead faults are reported
+            // straight to the page cache tracer.
+            assertEquals( 0, tracer.faults() );
+        }
+    }
+
+    @Test
+    void mustEvictFromEveryStripeWithSeveralEvictionThreads() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        FeatureToggles.set( MuninnPageCache.class, "evictionThreads", 4 );
+        try ( MuninnPageCache pageCache = createPageCache( fs, 2048, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            assertEquals( 4, pageCache.stripes.length );
+            generateFileWithRecords( file( "a" ), recordsPerFilePage * 4096, recordSize );
+            try ( PagedFile pagedFile = pageCache.map( file( "a" ), filePageSize );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                int pages = 0;
+                while ( cursor.next() )
+                {
+                    verifyRecordsMatchExpected( cursor );
+                    pages++;
+                }
+                assertEquals( 4096, pages );
+            }
+            assertTrue( tracer.evictions() > 0 );
+
+            // The scan has used up the initial pages of every stripe, so every eviction thread must put some of the
+            // pages of its stripe back on the freelist.
+            assertTimeoutPreemptively( ofMillis( SHORT_TIMEOUT_MILLIS ), () ->
+            {
+                for ( EvictionStripe stripe : pageCache.stripes )
+                {
+                    while ( !(stripe.getFreelistHead() instanceof FreePage) )
+                    {
+                        Thread.sleep( 1 );
+                    }
+                }
+            } );
+        }
+        finally
+        {
+            FeatureToggles.clear( MuninnPageCache.class, "evictionThreads" );
+        }
+    }
+
+    @Test
+    void mustNotEvictPagesOfFilesWithinTheirReservation() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 64, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            pageCache.reservePages( file( "a" ), 16 );
+            generateFileWithRecords( file( "a" ), recordsPerFilePage * 16, recordSize );
+            generateFileWithRecords( file( "b" ), recordsPerFilePage * 256, recordSize );
+            try ( PagedFile reserved = pageCache.map( file( "a" ), filePageSize );
+                  PagedFile scanned = pageCache.map( file( "b" ), filePageSize ) )
+            {
+                try ( PageCursor cursor = reserved.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        verifyRecordsMatchExpected( cursor );
+                    }
+                }
+                assertEquals( 16, tracer.reservedPages() );
+
+                try ( PageCursor cursor = scanned.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        verifyRecordsMatchExpected( cursor );
+                    }
+                }
+                assertTrue( tracer.evictions() > 0 );
+                assertEquals( 16, tracer.reservedPages() );
+            }
+            assertEquals( 0, tracer.reservedPages() );
+        }
+    }
+
+    @Test
+    void mustOnlyReservePagesForTheFileAtTheReservedPath() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 64, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            pageCache.reservePages( file( "a" ), 16 );
+            File sameName = file( "other/a" );
+            ensureExists( sameName );
+            generateFileWithRecords( sameName, recordsPerFilePage * 16, recordSize );
+            try ( PagedFile pagedFile = pageCache.map( sameName, filePageSize );
+                  PageCursor cursor = pagedFile.io( 0, PF_SHARED_READ_LOCK ) )
+            {
+                while ( cursor.next() )
+                {
+                    verifyRecordsMatchExpected( cursor );
+                }
+            }
+            assertEquals( 0, tracer.reservedPages() );
+        }
+    }
+
+    @Test
+    void mustNotCountPagesOffAReleasedReservationAgainWhenTheyAreEvicted() throws Exception
+    {
+        DefaultPageCacheTracer tracer = new DefaultPageCacheTracer();
+        try ( MuninnPageCache pageCache = createPageCache( fs, 64, tracer, PageCursorTracerSupplier.NULL ) )
+        {
+            pageCache.reservePages( file( "a" ), 16 );
+            generateFileWithRecords( file( "a" ), recordsPerFilePage * 16, recordSize );
+            generateFileWithRecords( file( "b" ), recordsPerFilePage * 256, recordSize );
+            try ( PagedFile reserved = pageCache.map( file( "a" ), filePageSize );
+                  PagedFile scanned = pageCache.map( file( "b" ), filePageSize ) )
+            {
+                try ( PageCursor cursor = reserved.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        verifyRecordsMatchExpected( cursor );
+                    }
+                }
+                assertEquals( 16, tracer.reservedPages() );
+
+                // The pages of the file are still in the cache, and get evicted by the scan after the release.
+                ((MuninnPagedFile) reserved).releaseReservation();
+                assertEquals( 0, tracer.reservedPages() );
+                try ( PageCursor cursor = scanned.io( 0, PF_SHARED_READ_LOCK ) )
+                {
+                    while ( cursor.next() )
+                    {
+                        verifyRecordsMatchExpected( cursor );
+                    }
+                }
+                assertEquals( 0, tracer.reservedPages() );
+            }
+            assertEquals( 0, tracer.reservedPages() );
+        }
+    }
+
+    @Test
+    void mustNotReserveMoreThanHalfOfThePageCache() throws Exception
+    {
+        try ( MuninnPageCache pageCache = createPageCache( fs, 64, PageCacheTracer.NULL, PageCursorTracerSupplier.NULL ) )
+        {
+            pageCache.reservePages( file( "a" ), 16 );
+            pageCache.reservePages( file( "b" ), 16 );
+            assertThrows( IllegalArgumentException.class, () -> pageCache.reservePages( file( "c" ), 1 ) );
+            pageCache.reservePages( file( "b" ), 8 );
+            pageCache.reservePages( file( "c" ), 8 );
+        }
+    }
+
     @Test
     void trackPageModificationTransactionId() throws Exception
     {
@@ -520,7 +762,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
                 cursor.putLong( value + 1 );
             }
 
-            long clockArm = pageCache.evictPages( 1, 0, EvictionRunEvent.NULL );
+            long clockArm = pageCache.evictPages( pageCache.stripes[0], 1, 0, EvictionRunEvent.NULL );
             assertThat( clockArm, is( 1L ) );
 
             ByteBuffer buf = readIntoBuffer( "a" );
@@ -622,7 +864,7 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache>
                 }
 
                 // This will run into that exception, in background eviction:
-                pageCache.evictPages( 1, 0, EvictionRunEvent.NULL );
+                pageCache.evictPages( pageCache.stripes[0], 1, 0, EvictionRunEvent.NULL );
 
                 // We now have a background eviction exception. A successful flushAndForce should clear it, though.
                 throwException.setFalse();
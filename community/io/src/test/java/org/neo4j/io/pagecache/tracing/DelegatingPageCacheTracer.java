@@ -109,6 +109,18 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         return delegate.evictionExceptions();
     }
 
+    @Override
+    public long refaults()
+    {
+        return delegate.refaults();
+    }
+
+    @Override
+    public long reservedPages()
+    {
+        return delegate.reservedPages();
+    }
+
     @Override
     public double hitRatio()
     {
@@ -163,6 +175,18 @@ public class DelegatingPageCacheTracer implements PageCacheTracer
         delegate.evictionExceptions( evictionExceptions );
     }
 
+    @Override
+    public void refaults( long refaults )
+    {
+        delegate.refaults( refaults );
+    }
+
+    @Override
+    public void reservedPages( long delta )
+    {
+        delegate.reservedPages( delta );
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -144,6 +144,18 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
         return 0;
     }
 
+    @Override
+    public long refaults()
+    {
+        return 0;
+    }
+
+    @Override
+    public long reservedPages()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -191,6 +203,16 @@ public final class LinearHistoryPageCacheTracer implements PageCacheTracer
     {
     }
 
+    @Override
+    public void refaults( long refaults )
+    {
+    }
+
+    @Override
+    public void reservedPages( long delta )
+    {
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
@@ -149,6 +149,18 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long refaults()
+    {
+        return 0;
+    }
+
+    @Override
+    public long reservedPages()
+    {
+        return 0;
+    }
+
     @Override
     public double hitRatio()
     {
@@ -199,6 +211,16 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     {
     }
 
+    @Override
+    public void refaults( long refaults )
+    {
+    }
+
+    @Override
+    public void reservedPages( long delta )
+    {
+    }
+
     @Override
     public void bytesWritten( long bytesWritten )
     {
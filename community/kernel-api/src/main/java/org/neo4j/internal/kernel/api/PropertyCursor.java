@@ -36,6 +36,26 @@ public interface PropertyCursor extends Cursor
 
     Value propertyValue();
 
+    /**
+     * Reads the value found by following {@code path} through the nested maps of the current map property. Only the
+     * value at the end of the path is decoded, which makes chained access like {@code n.a.b.c} cheap on large maps.
+     *
+     * @param path keys to follow, the first key is looked up in the property value itself.
+     * @return the value at the end of the path, {@link org.neo4j.values.storable.Values#NO_VALUE} if any key on the
+     * path is missing, or {@code null} if the path passes through a value that is not a map.
+     */
+    Value propertyValue( String[] path );
+
+    /**
+     * Reads the keys of the map found by following {@code path} through the nested maps of the current map property.
+     * The keys come from the key directory the map is stored with and no value is decoded, so listing keys, counting
+     * them or checking that a key exists costs a fraction of reading the map.
+     *
+     * @param path keys to follow, an empty path reads the keys of the property value itself.
+     * @return the keys in ascending order, or {@code null} if there is no map at the end of the path.
+     */
+    String[] mapKeys( String[] path );
+
     <E extends Exception> void writeTo( ValueWriter<E> target );
 
     // typed accessor methods
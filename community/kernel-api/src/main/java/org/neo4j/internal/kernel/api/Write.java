@@ -91,6 +91,19 @@ public interface Write
     Value nodeSetProperty( long node, int propertyKey, Value value )
             throws KernelException;
 
+    /**
+     * Set a value at a path inside a map property on a node, keeping the rest of the map as it is. Maps missing along
+     * the path, including the property itself, are created.
+     * @param node the internal node id
+     * @param propertyKey the property key id of the map property
+     * @param path the keys leading from the map property to the value, at least one
+     * @param value the value to set, or Values.NO_VALUE to remove the value at the path
+     * @return The replaced value, or Values.NO_VALUE if there was no value at the path before
+     * @throws IllegalArgumentException if the path is empty, or if a value along it exists but is not a map
+     */
+    Value nodeSetNestedProperty( long node, int propertyKey, String[] path, Value value )
+            throws KernelException;
+
     /**
      * Remove a property from a node
      * @param node the internal node id
@@ -108,6 +121,19 @@ public interface Write
      */
     Value relationshipSetProperty( long relationship, int propertyKey, Value value ) throws EntityNotFoundException, AutoIndexingKernelException;
 
+    /**
+     * Set a value at a path inside a map property on a relationship, keeping the rest of the map as it is. Maps
+     * missing along the path, including the property itself, are created.
+     * @param relationship the internal relationship id
+     * @param propertyKey the property key id of the map property
+     * @param path the keys leading from the map property to the value, at least one
+     * @param value the value to set, or Values.NO_VALUE to remove the value at the path
+     * @return The replaced value, or Values.NO_VALUE if there was no value at the path before
+     * @throws IllegalArgumentException if the path is empty, or if a value along it exists but is not a map
+     */
+    Value relationshipSetNestedProperty( long relationship, int propertyKey, String[] path, Value value )
+            throws EntityNotFoundException, AutoIndexingKernelException;
+
     /**
      * Remove a property from a relationship
      * @param relationship the internal relationship id
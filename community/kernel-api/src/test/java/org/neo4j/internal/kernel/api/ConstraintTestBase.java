@@ -26,12 +26,16 @@ import java.util.List;
 
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.QueryExecutionException;
 import org.neo4j.graphdb.schema.ConstraintDefinition;
 import org.neo4j.internal.kernel.api.exceptions.schema.ConstraintValidationException;
 import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
 import org.neo4j.internal.kernel.api.schema.constraints.ConstraintDescriptor;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.Assert.assertFalse;
@@ -40,6 +44,7 @@ import static org.junit.Assert.fail;
 import static org.neo4j.graphdb.Label.label;
 import static org.neo4j.helpers.collection.Iterators.asList;
 import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringValue;
 
 @SuppressWarnings( "Duplicates" )
 public abstract class ConstraintTestBase<G extends KernelAPIWriteTestSupport> extends KernelAPIWriteTestBase<G>
@@ -264,6 +269,92 @@ public abstract class ConstraintTestBase<G extends KernelAPIWriteTestSupport> ex
         }
     }
 
+    @Test
+    public void shouldCheckUniquenessOfPropertyPathsWhenSettingMapProperties() throws Exception
+    {
+        // GIVEN
+        long nodeConflicting, nodeNotConflicting;
+        graphDb.execute( "CALL db.createUniquePropertyConstraint(\":FOO(`address.zip`)\", \"native-path-1.0\")" ).close();
+        int label;
+        int address;
+        try ( Transaction tx = beginTransaction() )
+        {
+            label = tx.tokenWrite().labelGetOrCreateForName( "FOO" );
+            address = tx.tokenWrite().propertyKeyGetOrCreateForName( "address" );
+            nodeConflicting = tx.dataWrite().nodeCreate();
+            tx.dataWrite().nodeAddLabel( nodeConflicting, label );
+            nodeNotConflicting = tx.dataWrite().nodeCreate();
+            tx.dataWrite().nodeAddLabel( nodeNotConflicting, label );
+
+            //Existing node
+            long existing = tx.dataWrite().nodeCreate();
+            tx.dataWrite().nodeAddLabel( existing, label );
+            tx.dataWrite().nodeSetProperty( existing, address, address( 1337 ) );
+            tx.success();
+        }
+
+        try ( Transaction tx = beginTransaction() )
+        {
+            //This is ok, since it will satisfy constraint
+            tx.dataWrite().nodeSetProperty( nodeNotConflicting, address, address( 42 ) );
+
+            try
+            {
+                tx.dataWrite().nodeSetProperty( nodeConflicting, address, address( 1337 ) );
+                fail();
+            }
+            catch ( ConstraintValidationException e )
+            {
+                //ignore
+            }
+            tx.success();
+        }
+
+        //Verify
+        try ( Transaction tx = beginTransaction();
+              NodeCursor nodeCursor = tx.cursors().allocateNodeCursor();
+              PropertyCursor propertyCursor = tx.cursors().allocatePropertyCursor() )
+        {
+            //Node without conflict
+            tx.dataRead().singleNode( nodeNotConflicting, nodeCursor );
+            assertTrue( nodeCursor.next() );
+            nodeCursor.properties( propertyCursor );
+            assertTrue( hasKey( propertyCursor, address ) );
+            //Node with conflict
+            tx.dataRead().singleNode( nodeConflicting, nodeCursor );
+            assertTrue( nodeCursor.next() );
+            nodeCursor.properties( propertyCursor );
+            assertFalse( hasKey( propertyCursor, address ) );
+        }
+    }
+
+    @Test
+    public void shouldNotReadPropertyKeyAsPathWhenItIsConstrainedAsProperty()
+    {
+        // GIVEN
+        addConstraints( "FOO", "address.zip" );
+
+        try
+        {
+            // WHEN
+            graphDb.execute( "CALL db.createUniquePropertyConstraint(\":BAR(`address.zip`)\", \"native-path-1.0\")" ).close();
+            fail( "Should not be able to read a property key as a path while a constraint reads it as a property" );
+        }
+        catch ( QueryExecutionException e )
+        {
+            // THEN
+            assertThat( e.getMessage(), containsString( "paths inside map properties" ) );
+        }
+    }
+
+    private static MapValue address( int zip )
+    {
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "city", stringValue( "Malmö" ) );
+        builder.add( "zip", intValue( zip ) );
+        return builder.build();
+    }
+
     private boolean hasKey( PropertyCursor propertyCursor, int key )
     {
         while ( propertyCursor.next() )
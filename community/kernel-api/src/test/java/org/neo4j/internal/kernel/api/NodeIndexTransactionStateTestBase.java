@@ -30,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.TransactionTerminatedException;
 import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
@@ -112,6 +113,85 @@ public abstract class NodeIndexTransactionStateTestBase<G extends KernelAPIWrite
         }
     }
 
+    @Test
+    public void shouldSeekOnPropertyPathOfMapPropertySetInTransaction() throws Exception
+    {
+        // given
+        MutableLongSet expected = new LongHashSet();
+        try ( Transaction tx = beginTransaction() )
+        {
+            expected.add( nodeWithAddress( tx, 21119 ) );
+            nodeWithAddress( tx, 11122 );
+            tx.success();
+        }
+
+        createPathIndex( "address.zip" );
+
+        // when
+        try ( Transaction tx = beginTransaction() )
+        {
+            int label = tx.tokenRead().nodeLabel( "Node" );
+            int prop = tx.tokenRead().propertyKey( "address.zip" );
+            expected.add( nodeWithAddress( tx, 21119 ) );
+            nodeWithAddress( tx, 41101 );
+            IndexReference index = tx.schemaRead().index( label, prop );
+            try ( NodeValueIndexCursor nodes = tx.cursors().allocateNodeValueIndexCursor() )
+            {
+                tx.dataRead().nodeIndexSeek( index, nodes, IndexOrder.NONE, IndexQuery.exact( prop, 21119 ) );
+                MutableLongSet found = new LongHashSet();
+                while ( nodes.next() )
+                {
+                    found.add( nodes.nodeReference() );
+                }
+
+                assertThat( found, equalTo( expected ) );
+            }
+        }
+    }
+
+    @Test
+    public void shouldSeekOnPropertyWithDottedNameRatherThanPathWhenIndexIsNotPathIndex() throws Exception
+    {
+        // given
+        MutableLongSet expected = new LongHashSet();
+        try ( Transaction tx = beginTransaction() )
+        {
+            nodeWithAddress( tx, 21119 );
+            tx.success();
+        }
+
+        try ( org.neo4j.graphdb.Transaction tx = graphDb.beginTx() )
+        {
+            graphDb.schema().indexFor( Label.label( "Node" ) ).on( "address.zip" ).create();
+            tx.success();
+        }
+        awaitIndexesOnline();
+
+        // when
+        try ( Transaction tx = beginTransaction() )
+        {
+            int label = tx.tokenRead().nodeLabel( "Node" );
+            int prop = tx.tokenRead().propertyKey( "address.zip" );
+            nodeWithAddress( tx, 21119 );
+            long node = tx.dataWrite().nodeCreate();
+            tx.dataWrite().nodeAddLabel( node, label );
+            tx.dataWrite().nodeSetProperty( node, prop, Values.intValue( 21119 ) );
+            expected.add( node );
+            IndexReference index = tx.schemaRead().index( label, prop );
+            try ( NodeValueIndexCursor nodes = tx.cursors().allocateNodeValueIndexCursor() )
+            {
+                tx.dataRead().nodeIndexSeek( index, nodes, IndexOrder.NONE, IndexQuery.exact( prop, 21119 ) );
+                MutableLongSet found = new LongHashSet();
+                while ( nodes.next() )
+                {
+                    found.add( nodes.nodeReference() );
+                }
+
+                assertThat( found, equalTo( expected ) );
+            }
+        }
+    }
+
     @Test
     public void shouldThrowIfTransactionTerminated() throws Exception
     {
@@ -139,6 +219,17 @@ public abstract class NodeIndexTransactionStateTestBase<G extends KernelAPIWrite
         return node;
     }
 
+    private long nodeWithAddress( Transaction tx, int zip ) throws Exception
+    {
+        Write write = tx.dataWrite();
+        long node = write.nodeCreate();
+        write.nodeAddLabel( node, tx.tokenWrite().labelGetOrCreateForName( "Node" ) );
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "zip", Values.intValue( zip ) );
+        write.nodeSetProperty( node, tx.tokenWrite().propertyKeyGetOrCreateForName( "address" ), address.build() );
+        return node;
+    }
+
     private void createIndex()
     {
         try ( org.neo4j.graphdb.Transaction tx = graphDb.beginTx() )
@@ -147,6 +238,18 @@ public abstract class NodeIndexTransactionStateTestBase<G extends KernelAPIWrite
             tx.success();
         }
 
+        awaitIndexesOnline();
+    }
+
+    private void createPathIndex( String propertyKey )
+    {
+        graphDb.execute( "CALL db.createIndex(\":Node(`" + propertyKey + "`)\", \"native-path-1.0\")" ).close();
+
+        awaitIndexesOnline();
+    }
+
+    private void awaitIndexesOnline()
+    {
         try ( org.neo4j.graphdb.Transaction tx = graphDb.beginTx() )
         {
             graphDb.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
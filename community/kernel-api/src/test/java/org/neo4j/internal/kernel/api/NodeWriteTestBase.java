@@ -28,8 +28,10 @@ import org.neo4j.graphdb.NotFoundException;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.values.storable.MapValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -290,6 +292,108 @@ public abstract class NodeWriteTestBase<G extends KernelAPIWriteTestSupport> ext
         assertProperty( node, propertyKey, "hello" );
     }
 
+    @Test
+    public void shouldSetNestedPropertyOnNode() throws Exception
+    {
+        // Given
+        long node = createNode();
+        MapValue address = map( "city", stringValue( "Malmö" ), "zip", intValue( 21119 ) );
+        try ( Transaction tx = beginTransaction() )
+        {
+            int token = tx.token().propertyKeyGetOrCreateForName( propertyKey );
+            tx.dataWrite().nodeSetProperty( node, token, map( "address", address, "name", stringValue( "Alice" ) ) );
+            tx.success();
+        }
+
+        // When
+        try ( Transaction tx = beginTransaction() )
+        {
+            int token = tx.token().propertyKeyGetOrCreateForName( propertyKey );
+            assertThat( tx.dataWrite().nodeSetNestedProperty( node, token, new String[]{"address", "zip"}, intValue( 21120 ) ),
+                    equalTo( intValue( 21119 ) ) );
+            assertThat( tx.dataWrite().nodeSetNestedProperty( node, token, new String[]{"visits", "count"}, intValue( 1 ) ),
+                    equalTo( NO_VALUE ) );
+            assertThat( tx.dataWrite().nodeSetNestedProperty( node, token, new String[]{"name"}, NO_VALUE ),
+                    equalTo( stringValue( "Alice" ) ) );
+            tx.success();
+        }
+
+        // Then
+        MapValue expected = map( "address", map( "city", stringValue( "Malmö" ), "zip", intValue( 21120 ) ),
+                "visits", map( "count", intValue( 1 ) ) );
+        assertProperty( node, propertyKey, expected.asObjectCopy() );
+    }
+
+    @Test
+    public void shouldCreateMapPropertyWhenSettingNestedPropertyOnNode() throws Exception
+    {
+        // Given
+        long node = createNode();
+
+        // When
+        try ( Transaction tx = beginTransaction() )
+        {
+            int token = tx.token().propertyKeyGetOrCreateForName( propertyKey );
+            assertThat( tx.dataWrite().nodeSetNestedProperty( node, token, new String[]{"a", "b"}, NO_VALUE ), equalTo( NO_VALUE ) );
+            assertThat( tx.dataWrite().nodeSetNestedProperty( node, token, new String[]{"a", "b"}, intValue( 1 ) ), equalTo( NO_VALUE ) );
+            tx.success();
+        }
+
+        // Then
+        assertProperty( node, propertyKey, map( "a", map( "b", intValue( 1 ) ) ).asObjectCopy() );
+    }
+
+    @Test
+    public void shouldSeeNestedPropertyChangesOnNodeBeforeCommit() throws Exception
+    {
+        // Given
+        long node = createNode();
+        try ( Transaction tx = beginTransaction() )
+        {
+            int token = tx.token().propertyKeyGetOrCreateForName( propertyKey );
+            tx.dataWrite().nodeSetProperty( node, token, map( "address", map( "zip", intValue( 21119 ) ), "name", stringValue( "Alice" ) ) );
+            tx.success();
+        }
+
+        // When
+        try ( Transaction tx = beginTransaction();
+              NodeCursor nodes = tx.cursors().allocateNodeCursor();
+              PropertyCursor properties = tx.cursors().allocatePropertyCursor() )
+        {
+            int token = tx.token().propertyKeyGetOrCreateForName( propertyKey );
+            tx.dataWrite().nodeSetNestedProperty( node, token, new String[]{"address", "zip"}, intValue( 21120 ) );
+            tx.dataWrite().nodeSetNestedProperty( node, token, new String[]{"address", "city"}, stringValue( "Malmö" ) );
+
+            // Then
+            tx.dataRead().singleNode( node, nodes );
+            assertTrue( nodes.next() );
+            nodes.properties( properties );
+            assertTrue( properties.next() );
+            assertThat( properties.propertyValue( new String[]{"address", "zip"} ), equalTo( intValue( 21120 ) ) );
+            assertThat( properties.mapKeys( new String[]{"address"} ), equalTo( new String[]{"city", "zip"} ) );
+            assertThat( properties.propertyValue(), equalTo( map( "address", map( "city", stringValue( "Malmö" ), "zip", intValue( 21120 ) ),
+                    "name", stringValue( "Alice" ) ) ) );
+            assertFalse( properties.next() );
+        }
+    }
+
+    @Test
+    public void shouldNotSetNestedPropertyOnNodeAtEmptyPath() throws Exception
+    {
+        // Given
+        long node = createNode();
+
+        // Expect
+        exception.expect( IllegalArgumentException.class );
+
+        // When
+        try ( Transaction tx = beginTransaction() )
+        {
+            int token = tx.token().propertyKeyGetOrCreateForName( propertyKey );
+            tx.dataWrite().nodeSetNestedProperty( node, token, new String[0], intValue( 1 ) );
+        }
+    }
+
     @Test
     public void shouldRemovePropertyFromNode() throws Exception
     {
@@ -505,6 +609,16 @@ public abstract class NodeWriteTestBase<G extends KernelAPIWriteTestSupport> ext
         }
     }
 
+    private static MapValue map( Object... keysAndValues )
+    {
+        MapValueBuilder builder = new MapValueBuilder();
+        for ( int i = 0; i < keysAndValues.length; i += 2 )
+        {
+            builder.add( (String) keysAndValues[i], (Value) keysAndValues[i + 1] );
+        }
+        return builder.build();
+    }
+
     private void assertProperty( long node, String propertyKey, Object value )
     {
         try ( org.neo4j.graphdb.Transaction ignore = graphDb.beginTx() )
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.regex.Pattern;
 
 import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.ValueWriter;
@@ -76,6 +77,18 @@ public class StubPropertyCursor implements PropertyCursor
         return values[offset];
     }
 
+    @Override
+    public Value propertyValue( String[] path )
+    {
+        return MapValueEncoding.valueAt( values[offset], path );
+    }
+
+    @Override
+    public String[] mapKeys( String[] path )
+    {
+        return MapValueEncoding.keysAt( values[offset], path );
+    }
+
     @Override
     public <E extends Exception> void writeTo( ValueWriter<E> target )
     {
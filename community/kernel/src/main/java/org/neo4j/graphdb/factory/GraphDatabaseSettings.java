@@ -71,6 +71,7 @@ import static org.neo4j.kernel.configuration.Settings.legacyFallback;
 import static org.neo4j.kernel.configuration.Settings.list;
 import static org.neo4j.kernel.configuration.Settings.listenAddress;
 import static org.neo4j.kernel.configuration.Settings.matches;
+import static org.neo4j.kernel.configuration.Settings.matchesAny;
 import static org.neo4j.kernel.configuration.Settings.min;
 import static org.neo4j.kernel.configuration.Settings.options;
 import static org.neo4j.kernel.configuration.Settings.optionsIgnoreCase;
@@ -228,6 +229,13 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Integer> query_cache_size =
             buildSetting( "dbms.query_cache_size", INTEGER, "1000" ).constraint( min( 0 ) ).build();
 
+    @Description( "The amount of heap memory used to cache values read at paths into map properties, like " +
+            "`n.meta.owner`, as estimated from the sizes of the cached paths and values. Only maps too large to be " +
+            "stored inlined in their property record are cached, and the least recently used maps are evicted when " +
+            "the cache is full. A size of 0, which is the default, disables the cache." )
+    public static final Setting<Long> map_path_cache_size =
+            buildSetting( "dbms.map_path_cache.size", BYTES, "0" ).constraint( min( 0L ) ).build();
+
     @Description( "The threshold when a plan is considered stale. If any of the underlying " +
                   "statistics used to create the plan have changed more than this value, " +
                   "the plan will be considered stale and will be replanned. Change is calculated as " +
@@ -314,6 +322,19 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<Boolean> cypher_plan_with_minimum_cardinality_estimates =
             setting( "unsupported.cypher.plan_with_minimum_cardinality_estimates", BOOLEAN, TRUE );
 
+    @Description( "A list of paths inside map properties (comma separated), like `address.zip` for the key `zip` in the " +
+                  "map property `address`, that the Cypher cost planner samples to estimate predicates on when there " +
+                  "is no path index on them. The planner then reads the value at the path on nodes spread evenly over " +
+                  "each label in the predicate, and estimates from how many of them have a value and how many " +
+                  "distinct values they have. Predicates on other paths without a path index get default estimates." )
+    public static final Setting<List<String>> cypher_map_path_statistics =
+            setting( "cypher.statistics.map_paths", STRING_LIST, "" );
+
+    @Description( "The number of nodes of a label that are sampled to estimate predicates on the paths set by " +
+                  "cypher.statistics.map_paths." )
+    public static final Setting<Integer> cypher_map_path_statistics_sample_size =
+            buildSetting( "cypher.statistics.map_path_sample_size", INTEGER, "1000" ).constraint( min( 1 ) ).build();
+
     @Description( "Determines if Cypher will allow using file URLs when loading data using `LOAD CSV`. Setting this "
                   + "value to `false` will cause Neo4j to fail `LOAD CSV` clauses that load data from the file system." )
     public static final Setting<Boolean> allow_file_urls = setting( "dbms.security.allow_csv_import_from_file_urls", BOOLEAN, TRUE );
@@ -657,6 +678,17 @@ public class GraphDatabaseSettings implements LoadableConfig
     public static final Setting<String> pagecache_swapper =
             setting( "dbms.memory.pagecache.swapper", STRING, null );
 
+    @Description( "Reserve part of the page cache for the pages of certain store files of the database, given as a comma " +
+                  "separated list of file names and percentages of the page cache, such as " +
+                  "`neostore.nodestore.db:10%,neostore.relationshipgroupstore.db:5%`. The pages of such a file are " +
+                  "not evicted for as long as the file has no more pages in the page cache than have been reserved " +
+                  "for it, which protects latency critical stores from scans and bulk jobs through other files. At " +
+                  "most half of the page cache can be reserved." )
+    public static final Setting<List<String>> pagecache_reservations =
+            buildSetting( "dbms.memory.pagecache.reservations", STRING_LIST, "" ).constraint( illegalValueMessage(
+                    "must be file names and percentages of the page cache, like `neostore.nodestore.db:10%`",
+                    matchesAny( "[^:]+:\\s*\\d+(\\.\\d+)?%" ) ) ).build();
+
     @Internal
     @Description( "The profiling frequency for the page cache. Accurate profiles allow the page cache to do active " +
                   "warmup after a restart, reducing the mean time to performance. " +
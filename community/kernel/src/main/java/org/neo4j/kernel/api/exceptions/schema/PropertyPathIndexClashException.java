@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.exceptions.schema;
+
+import org.neo4j.internal.kernel.api.TokenNameLookup;
+import org.neo4j.internal.kernel.api.exceptions.schema.SchemaKernelException;
+import org.neo4j.internal.kernel.api.schema.SchemaDescriptor;
+import org.neo4j.internal.kernel.api.schema.SchemaUtil;
+import org.neo4j.kernel.api.exceptions.Status;
+
+/**
+ * Signals that an index would read a property key as a path inside a map property while an existing index reads it as
+ * the property with the dotted name, or the other way around.
+ */
+public class PropertyPathIndexClashException extends SchemaKernelException
+{
+    private final SchemaDescriptor schema;
+    private final SchemaDescriptor existing;
+    private final boolean propertyPath;
+    private final OperationContext context;
+
+    /**
+     * @param schema the schema of the index to create.
+     * @param existing the schema of the existing index it clashes with.
+     * @param propertyPath whether the index to create is on property paths.
+     * @param context what the index is created for.
+     */
+    public PropertyPathIndexClashException( SchemaDescriptor schema, SchemaDescriptor existing, boolean propertyPath,
+            OperationContext context )
+    {
+        super( Status.Schema.IndexAlreadyExists, format( schema, existing, propertyPath, context, SchemaUtil.idTokenNameLookup ) );
+        this.schema = schema;
+        this.existing = existing;
+        this.propertyPath = propertyPath;
+        this.context = context;
+    }
+
+    @Override
+    public String getUserMessage( TokenNameLookup tokenNameLookup )
+    {
+        return format( schema, existing, propertyPath, context, tokenNameLookup );
+    }
+
+    private static String format( SchemaDescriptor schema, SchemaDescriptor existing, boolean propertyPath,
+            OperationContext context, TokenNameLookup tokenNameLookup )
+    {
+        String schemaName = context == OperationContext.CONSTRAINT_CREATION ? "Constraint" : "Index";
+        return String.format( "%s on %s reads its properties as %s, but there already exists an index on %s that reads them as %s.",
+                schemaName, schema.userDescription( tokenNameLookup ), kind( propertyPath ),
+                existing.userDescription( tokenNameLookup ), kind( !propertyPath ) );
+    }
+
+    private static String kind( boolean propertyPath )
+    {
+        return propertyPath ? "paths inside map properties" : "properties with dotted names";
+    }
+}
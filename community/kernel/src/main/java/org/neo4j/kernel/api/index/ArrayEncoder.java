@@ -24,8 +24,11 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
 import java.util.Base64;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.neo4j.string.UTF8;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
@@ -34,6 +37,7 @@ import org.neo4j.values.storable.DateValue;
 import org.neo4j.values.storable.DurationValue;
 import org.neo4j.values.storable.LocalDateTimeValue;
 import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.MapValue;
 import org.neo4j.values.storable.TimeValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueWriter;
@@ -42,6 +46,7 @@ import org.neo4j.values.storable.Values;
 public final class ArrayEncoder
 {
     private static final Base64.Encoder base64Encoder = Base64.getEncoder();
+    private static final double LONG_LIMIT = 0x1p63;
 
     private ArrayEncoder()
     {
@@ -60,9 +65,26 @@ public final class ArrayEncoder
         return encoder.result();
     }
 
+    /**
+     * Encodes a map, and any maps nested in it, canonically: entries are written in key order and numbers are
+     * written the same way regardless of their type, so maps that are equal always get the same encoding. Integral
+     * numbers are written exactly, as longs, and other numbers as doubles.
+     * <p>
+     * Every entry is written as the encoded key, followed by {@code ':'}, the encoded value and {@code ','}. The
+     * entries of a map are enclosed in {@code '{'} and {@code '}'}.
+     */
+    public static String encodeMap( MapValue map )
+    {
+        ValueEncoder encoder = new ValueEncoder();
+        map.writeTo( encoder );
+        return encoder.result();
+    }
+
     static class ValueEncoder implements ValueWriter<RuntimeException>
     {
         private StringBuilder builder;
+        private final Deque<MapEntries> maps = new ArrayDeque<>();
+        private int arrayDepth;
 
         ValueEncoder()
         {
@@ -77,69 +99,72 @@ public final class ArrayEncoder
         @Override
         public void writeNull()
         {
+            endEntry();
         }
 
         @Override
         public void writeBoolean( boolean value )
         {
             builder.append( value );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeInteger( byte value )
         {
-            builder.append( (double)value );
-            builder.append( '|' );
+            writeInteger( (long) value );
         }
 
         @Override
         public void writeInteger( short value )
         {
-            builder.append( (double)value );
-            builder.append( '|' );
+            writeInteger( (long) value );
         }
 
         @Override
         public void writeInteger( int value )
         {
-            builder.append( (double)value );
-            builder.append( '|' );
+            writeInteger( (long) value );
         }
 
         @Override
         public void writeInteger( long value )
         {
-            builder.append( (double)value );
-            builder.append( '|' );
+            appendNumber( value );
+            endValue();
         }
 
         @Override
         public void writeFloatingPoint( float value )
         {
-            builder.append( (double)value );
-            builder.append( '|' );
+            writeFloatingPoint( (double) value );
         }
 
         @Override
         public void writeFloatingPoint( double value )
         {
-            builder.append( value );
-            builder.append( '|' );
+            appendNumber( value );
+            endValue();
         }
 
         @Override
         public void writeString( String value )
         {
+            MapEntries entries = maps.peek();
+            if ( arrayDepth == 0 && entries != null && entries.key == null )
+            {
+                entries.key = value;
+                return;
+            }
             builder.append( base64Encoder.encodeToString( UTF8.encode( value ) ) );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeString( char value )
         {
             builder.append( base64Encoder.encodeToString( UTF8.encode( Character.toString( value ) ) ) );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
@@ -159,67 +184,74 @@ public final class ArrayEncoder
                 builder.append( c );
                 index++;
             }
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeDuration( long months, long days, long seconds, int nanos ) throws RuntimeException
         {
             builder.append( DurationValue.duration( months, days, seconds, nanos ).prettyPrint() );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeDate( LocalDate localDate ) throws RuntimeException
         {
             builder.append( DateValue.date( localDate ).prettyPrint() );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeLocalTime( LocalTime localTime ) throws RuntimeException
         {
             builder.append( LocalTimeValue.localTime( localTime ).prettyPrint() );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeTime( OffsetTime offsetTime ) throws RuntimeException
         {
             builder.append( TimeValue.time( offsetTime ).prettyPrint() );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeLocalDateTime( LocalDateTime localDateTime ) throws RuntimeException
         {
             builder.append( LocalDateTimeValue.localDateTime( localDateTime ).prettyPrint() );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void writeDateTime( ZonedDateTime zonedDateTime ) throws RuntimeException
         {
             builder.append( DateTimeValue.datetime( zonedDateTime ).prettyPrint() );
-            builder.append( '|' );
+            endValue();
         }
 
         @Override
         public void beginMap( int size ) throws RuntimeException
         {
-            // TODO: Figure out implementation
-        }
-
-        @Override
-        public  void writeMap( HashMap<String, Object> map ) throws RuntimeException
-        {
-            // TODO: Figure out implementation
+            // Maps stream their entries in no particular order, so they are buffered and written sorted by key
+            maps.push( new MapEntries( builder ) );
+            builder = new StringBuilder();
         }
 
         @Override
         public void endMap() throws RuntimeException
         {
-            // TODO: Figure out implementation
+            MapEntries entries = maps.pop();
+            builder = entries.outer;
+            builder.append( '{' );
+            entries.values.forEach( ( key, value ) ->
+            {
+                builder.append( base64Encoder.encodeToString( UTF8.encode( key ) ) );
+                builder.append( ':' );
+                builder.append( value );
+                builder.append( ',' );
+            } );
+            builder.append( '}' );
+            endEntry();
         }
 
         @Override
@@ -229,11 +261,14 @@ public final class ArrayEncoder
             {
                 builder.append( typeChar( arrayType ) );
             }
+            arrayDepth++;
         }
 
         @Override
         public void endArray()
         {
+            arrayDepth--;
+            endEntry();
         }
 
         @Override
@@ -242,9 +277,59 @@ public final class ArrayEncoder
             builder.append( 'D' );
             for ( byte b : value )
             {
-                builder.append( (double)b );
+                appendNumber( b );
                 builder.append( '|' );
             }
+            endEntry();
+        }
+
+        /**
+         * Numbers in arrays outside of maps are written as doubles, which existing array indexes rely on. Inside maps
+         * integral numbers are written exactly, so large longs don't collide, and as longs whatever their type, so
+         * equal numbers of different types still get the same encoding.
+         */
+        private void appendNumber( long value )
+        {
+            if ( maps.isEmpty() )
+            {
+                builder.append( (double) value );
+            }
+            else
+            {
+                builder.append( value );
+            }
+        }
+
+        private void appendNumber( double value )
+        {
+            if ( !maps.isEmpty() && value == Math.rint( value ) && value >= Long.MIN_VALUE && value < LONG_LIMIT )
+            {
+                builder.append( (long) value );
+            }
+            else
+            {
+                builder.append( value );
+            }
+        }
+
+        private void endValue()
+        {
+            builder.append( '|' );
+            endEntry();
+        }
+
+        /**
+         * Called after every complete value, which ends the current entry if it is a value in a map.
+         */
+        private void endEntry()
+        {
+            MapEntries entries = maps.peek();
+            if ( arrayDepth == 0 && entries != null )
+            {
+                entries.values.put( entries.key, builder.toString() );
+                entries.key = null;
+                builder.setLength( 0 );
+            }
         }
 
         private char typeChar( ArrayType arrayType )
@@ -271,4 +356,19 @@ public final class ArrayEncoder
             }
         }
     }
+
+    /**
+     * The encoded entries of a map being written, sorted by key, and the builder to write the map to once complete.
+     */
+    private static class MapEntries
+    {
+        private final StringBuilder outer;
+        private final SortedMap<String,String> values = new TreeMap<>();
+        private String key;
+
+        MapEntries( StringBuilder outer )
+        {
+            this.outer = outer;
+        }
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.util.Arrays;
+
+import org.neo4j.internal.kernel.api.IndexReference;
+
+/**
+ * Indexes on paths inside map properties are declared explicitly, by creating them with the index provider
+ * {@link #DESCRIPTOR}:
+ * <pre>
+ * CALL db.createIndex(":Person(`address.zip`)", "native-path-1.0")
+ * CALL db.createUniquePropertyConstraint(":Person(`address.zip`)", "native-path-1.0")
+ * </pre>
+ * A property key of such an index that is named like a path, with keys separated by {@code .}, is read as that path:
+ * {@code address.zip} is the value at {@code zip} in the map property {@code address}. An entity that has an actual
+ * property with the dotted name is indexed by that property instead. Indexes of all other providers always index the
+ * property with the dotted name, and never look inside maps.
+ */
+public final class PropertyPaths
+{
+    public static final String KEY = "native-path";
+
+    public static final IndexProvider.Descriptor DESCRIPTOR = new IndexProvider.Descriptor( KEY, "1.0" );
+
+    private PropertyPaths()
+    {
+        throw new AssertionError( "Not for instantiation!" );
+    }
+
+    /**
+     * @return whether the given index is an index on paths inside map properties.
+     */
+    public static boolean isPathIndex( IndexReference index )
+    {
+        return DESCRIPTOR.getKey().equals( index.providerKey() ) && DESCRIPTOR.getVersion().equals( index.providerVersion() );
+    }
+
+    /**
+     * @return whether indexes of the given provider are indexes on paths inside map properties.
+     */
+    public static boolean isPathIndex( IndexProvider.Descriptor providerDescriptor )
+    {
+        return DESCRIPTOR.equals( providerDescriptor );
+    }
+
+    /**
+     * @param propertyKeyName the name of a property key of a path index.
+     * @return the keys of the path the property key names, starting with the map property, or {@code null} if the name
+     * is not a path.
+     */
+    public static String[] keys( String propertyKeyName )
+    {
+        String[] keys = propertyKeyName.split( "\\.", -1 );
+        if ( keys.length < 2 || Arrays.stream( keys ).anyMatch( String::isEmpty ) )
+        {
+            return null;
+        }
+        return keys;
+    }
+}
@@ -57,6 +57,33 @@ public interface TransactionState extends ReadableTransactionState
 
     void graphDoReplaceProperty( int propertyKeyId, Value replacedValue, Value newValue );
 
+    /**
+     * Changes the value at {@code path} inside an existing map property of a node. If the property is committed and not
+     * otherwise changed in this transaction only the change itself is kept, see
+     * {@link org.neo4j.storageengine.api.txstate.PropertyContainerState#nestedPropertyChanges(int)}, otherwise the
+     * property is changed to {@code newValue}.
+     */
+    void nodeDoChangeNestedProperty( long nodeId, int propertyKeyId, String[] path, Value value, Value newValue );
+
+    /**
+     * Like {@link #nodeDoChangeNestedProperty(long, int, String[], Value, Value)}, for a relationship.
+     */
+    void relationshipDoChangeNestedProperty( long relationshipId, int propertyKeyId, String[] path, Value value, Value newValue );
+
+    /**
+     * @return whether changes made inside committed map properties are kept as just the changes.
+     */
+    boolean hasNestedPropertyChanges();
+
+    /**
+     * Replaces the changes made inside committed map properties with the whole updated maps, which are needed once
+     * the transaction is about to commit.
+     *
+     * @param nodeProperties reads committed property values of nodes.
+     * @param relationshipProperties reads committed property values of relationships.
+     */
+    void applyNestedPropertyChanges( CommittedProperties nodeProperties, CommittedProperties relationshipProperties );
+
     void nodeDoRemoveProperty( long nodeId, int propertyKeyId );
 
     void relationshipDoRemoveProperty( long relationshipId, int propertyKeyId );
@@ -93,4 +120,16 @@ public interface TransactionState extends ReadableTransactionState
 
     void indexDoUpdateEntry( SchemaDescriptor descriptor, long nodeId, ValueTuple before, ValueTuple after );
 
+    /**
+     * Reads committed property values of entities.
+     */
+    @FunctionalInterface
+    interface CommittedProperties
+    {
+        /**
+         * @return the committed value of the property, or {@link org.neo4j.values.storable.Values#NO_VALUE} if the
+         * entity does not have it.
+         */
+        Value propertyValue( long entityId, int propertyKeyId );
+    }
 }
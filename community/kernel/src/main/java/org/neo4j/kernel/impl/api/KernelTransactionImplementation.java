@@ -101,8 +101,13 @@ import org.neo4j.resources.CpuClock;
 import org.neo4j.resources.HeapAllocation;
 import org.neo4j.storageengine.api.StorageCommand;
 import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.StorageNodeCursor;
+import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.storageengine.api.StorageReader;
+import org.neo4j.storageengine.api.StorageRelationshipScanCursor;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
@@ -538,6 +543,44 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         return hasTxStateWithChanges() && txState.hasDataChanges();
     }
 
+    /**
+     * Changes made inside committed map properties are kept as just the changes while the transaction runs. The hooks
+     * and the commands need the whole updated maps though, so the committed maps are read and updated once, here.
+     */
+    private void applyNestedPropertyChanges()
+    {
+        try ( StorageNodeCursor node = storageReader.allocateNodeCursor();
+              StorageRelationshipScanCursor relationship = storageReader.allocateRelationshipScanCursor();
+              StoragePropertyCursor properties = storageReader.allocatePropertyCursor() )
+        {
+            txState.applyNestedPropertyChanges(
+                    ( nodeId, propertyKeyId ) ->
+                    {
+                        node.single( nodeId );
+                        return node.next() ? committedValue( properties, node.propertiesReference(), propertyKeyId ) : Values.NO_VALUE;
+                    },
+                    ( relationshipId, propertyKeyId ) ->
+                    {
+                        relationship.single( relationshipId );
+                        return relationship.next() ? committedValue( properties, relationship.propertiesReference(), propertyKeyId )
+                                                   : Values.NO_VALUE;
+                    } );
+        }
+    }
+
+    private static Value committedValue( StoragePropertyCursor properties, long propertiesReference, int propertyKey )
+    {
+        properties.init( propertiesReference );
+        while ( properties.next() )
+        {
+            if ( properties.propertyKey() == propertyKey )
+            {
+                return properties.propertyValue();
+            }
+        }
+        return Values.NO_VALUE;
+    }
+
     @Override
     public long closeTransaction() throws TransactionFailureException
     {
@@ -622,6 +665,10 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             // Trigger transaction "before" hooks.
             if ( hasDataChanges() )
             {
+                if ( txState.hasNestedPropertyChanges() )
+                {
+                    applyNestedPropertyChanges();
+                }
                 try
                 {
                     hooksState = hooks.beforeCommit( txState, this, storageReader );
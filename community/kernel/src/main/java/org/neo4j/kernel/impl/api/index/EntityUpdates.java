@@ -37,13 +37,16 @@ import org.neo4j.internal.kernel.api.schema.SchemaDescriptor;
 import org.neo4j.internal.kernel.api.schema.SchemaDescriptorSupplier;
 import org.neo4j.kernel.api.index.IndexEntryUpdate;
 import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
 
 import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.schema.SchemaDescriptor.PropertySchemaType.COMPLETE_ALL_TOKENS;
 import static org.neo4j.kernel.impl.api.index.EntityUpdates.PropertyValueType.Changed;
 import static org.neo4j.kernel.impl.api.index.EntityUpdates.PropertyValueType.NoValue;
 import static org.neo4j.kernel.impl.api.index.EntityUpdates.PropertyValueType.UnChanged;
+import static org.neo4j.values.storable.Values.NO_VALUE;
 
 /**
  * Subclasses of this represent events related to property changes due to entity addition, deletion or update.
@@ -146,7 +149,7 @@ public class EntityUpdates implements PropertyLoader.PropertyLoadSink
         return PrimitiveArrays.intersect( entityTokensBefore, entityTokensAfter );
     }
 
-    IntSet propertiesChanged()
+    public IntSet propertiesChanged()
     {
         assert !hasLoadedAdditionalProperties : "Calling propertiesChanged() is not valid after non-changed " +
                                                 "properties have already been loaded.";
@@ -159,6 +162,109 @@ public class EntityUpdates implements PropertyLoader.PropertyLoadSink
         knownProperties.put( propertyId, unchanged( value ) );
     }
 
+    /**
+     * Derives the property {@code propertyKeyId} from the value at {@code path} inside the map property
+     * {@code basePropertyKeyId}, so that an index on a path into a map property sees the nested value as if it was
+     * a property of its own. Nothing is derived if the base property is not known to this object. An actual property
+     * {@code propertyKeyId} of the entity is indexed instead of the path, so if it is known the path only matters when
+     * that property is added or removed: the index entry then changes from the value at the path to the property, or
+     * back. Maps themselves are never derived, only the values they contain.
+     *
+     * @param basePropertyKeyId id of the map property holding the nested value.
+     * @param path keys leading to the nested value, starting in the base property.
+     * @param propertyKeyId id of the property to derive.
+     * @see #needsUnchangedBase(int, int)
+     */
+    void projectPropertyPath( int basePropertyKeyId, String[] path, int propertyKeyId )
+    {
+        PropertyValue base = knownProperties.get( basePropertyKeyId );
+        if ( base != null )
+        {
+            projectPropertyPath( base, path, propertyKeyId );
+        }
+    }
+
+    /**
+     * Like {@link #projectPropertyPath(int, String[], int)}, for a base property that is not known to this object
+     * because it did not change.
+     *
+     * @param unchangedBase the value of the map property holding the nested value.
+     */
+    void projectPropertyPath( Value unchangedBase, String[] path, int propertyKeyId )
+    {
+        projectPropertyPath( unchanged( unchangedBase ), path, propertyKeyId );
+    }
+
+    /**
+     * @return whether deriving {@code propertyKeyId} needs the value of the base property, which did not change so it
+     * is not known to this object, but the actual property {@code propertyKeyId} was added or removed.
+     */
+    boolean needsUnchangedBase( int basePropertyKeyId, int propertyKeyId )
+    {
+        PropertyValue actual = knownProperties.get( propertyKeyId );
+        return actual != null && actual.hasBefore() != actual.hasAfter() && !knownProperties.containsKey( basePropertyKeyId );
+    }
+
+    private void projectPropertyPath( PropertyValue base, String[] path, int propertyKeyId )
+    {
+        Value before = base.hasBefore() ? valueAtPath( base.before, path ) : null;
+        Value after = base.hasAfter() ? valueAtPath( base.after, path ) : null;
+        PropertyValue actual = knownProperties.get( propertyKeyId );
+        if ( actual != null )
+        {
+            if ( !actual.hasBefore() && actual.hasAfter() && before != null )
+            {
+                // the added property takes over from the value at the path
+                knownProperties.put( propertyKeyId, changedOrUnchanged( before, actual.after ) );
+            }
+            else if ( actual.hasBefore() && !actual.hasAfter() && after != null )
+            {
+                // the removed property hands back to the value at the path
+                knownProperties.put( propertyKeyId, changedOrUnchanged( actual.before, after ) );
+            }
+        }
+        else if ( before == null && after == null )
+        {
+            knownProperties.put( propertyKeyId, noValue );
+        }
+        else if ( before == null )
+        {
+            knownProperties.put( propertyKeyId, after( after ) );
+        }
+        else if ( after == null )
+        {
+            knownProperties.put( propertyKeyId, before( before ) );
+        }
+        else
+        {
+            knownProperties.put( propertyKeyId, changedOrUnchanged( before, after ) );
+        }
+    }
+
+    /**
+     * @return the value the given property had before the update, or {@code NO_VALUE} if it had none.
+     */
+    public Value valueBefore( int propertyKeyId )
+    {
+        PropertyValue value = knownProperties.get( propertyKeyId );
+        return value == null || value.before == null ? NO_VALUE : value.before;
+    }
+
+    /**
+     * @return the value the given property has after the update, or {@code NO_VALUE} if it has none.
+     */
+    public Value valueAfter( int propertyKeyId )
+    {
+        PropertyValue value = knownProperties.get( propertyKeyId );
+        return value == null || value.after == null ? NO_VALUE : value.after;
+    }
+
+    static Value valueAtPath( Value value, String[] path )
+    {
+        Value nested = MapValueEncoding.valueAt( value, path );
+        return nested == null || nested == NO_VALUE || nested.valueGroup() == ValueGroup.MAP ? null : nested;
+    }
+
     /**
      * Matches the provided schema descriptors to the node updates in this object, and generates an IndexEntryUpdate
      * for any index that needs to be updated.
@@ -538,6 +644,11 @@ public class EntityUpdates implements PropertyLoader.PropertyLoadSink
         return new PropertyValue( value, value, PropertyValueType.UnChanged );
     }
 
+    private static PropertyValue changedOrUnchanged( Value before, Value after )
+    {
+        return before.equals( after ) ? unchanged( after ) : changed( before, after );
+    }
+
     private static PropertyValue changed( Value before, Value after )
     {
         return new PropertyValue( before, after, PropertyValueType.Changed );
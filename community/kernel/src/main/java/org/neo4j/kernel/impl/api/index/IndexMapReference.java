@@ -40,6 +40,15 @@ public class IndexMapReference implements IndexMapSnapshotProvider
         return indexMap.clone();
     }
 
+    /**
+     * @return the current {@link IndexMap} itself rather than a copy of it. The returned map must not be modified,
+     * but can be compared by identity to tell whether the indexes have changed since it was last seen.
+     */
+    IndexMap currentIndexMap()
+    {
+        return indexMap;
+    }
+
     /**
      * Modifies the index map under synchronization. Accepts a {@link ThrowingFunction} which gets as input
      * a snapshot of the current {@link IndexMap}. That {@link IndexMap} is meant to be modified by the function
@@ -86,6 +86,18 @@ public interface IndexStoreView extends NodePropertyAccessor, PropertyLoader
 
     void incrementIndexUpdates( long indexId, long updatesDelta );
 
+    /**
+     * Adds the values at indexed paths inside map properties that can be derived from the properties already in
+     * {@code updates}, or from the unchanged map properties of the entity where an actual property with the name of a
+     * path was added or removed. A view that knows of no such indexes leaves the updates as they are.
+     *
+     * @param updates the updates to add the values of property paths to.
+     * @param type the type of the entity the updates are for.
+     */
+    default void projectPropertyPaths( EntityUpdates updates, EntityType type )
+    {
+    }
+
     @SuppressWarnings( "rawtypes" )
     StoreScan EMPTY_SCAN = new StoreScan()
     {
@@ -42,4 +42,14 @@ public interface IndexingProvidersService
      * @param tuple value tuple to validate
      */
     void validateBeforeCommit( SchemaDescriptor schema, Value[] tuple );
+
+    /**
+     * Add the values at indexed property paths, like {@code zip} in the map property {@code address} for a path index
+     * on {@code address.zip}, to the given updates, as far as they can be derived from the map properties in them.
+     * Only indexes of the {@link org.neo4j.kernel.api.index.PropertyPaths#DESCRIPTOR path index provider} are
+     * on property paths.
+     *
+     * @param updates the updates to add the property path values to.
+     */
+    void projectPropertyPaths( EntityUpdates updates );
 }
@@ -451,6 +451,12 @@ public class IndexingService extends LifecycleAdapter implements IndexingUpdateS
         indexMapRef.validateBeforeCommit( index, tuple );
     }
 
+    @Override
+    public void projectPropertyPaths( EntityUpdates updates )
+    {
+        storeView.projectPropertyPaths( updates, EntityType.NODE );
+    }
+
     @Override
     public IndexProvider.Descriptor indexProviderForNameOrDefault( Optional<String> providerName )
     {
@@ -510,6 +516,7 @@ public class IndexingService extends LifecycleAdapter implements IndexingUpdateS
     @Override
     public Iterable<IndexEntryUpdate<SchemaDescriptor>> convertToIndexUpdates( EntityUpdates entityUpdates, EntityType type )
     {
+        storeView.projectPropertyPaths( entityUpdates, type );
         Iterable<SchemaDescriptor> relatedIndexes = indexMapRef.getRelatedIndexes(
                                                 entityUpdates.entityTokensChanged(),
                                                 entityUpdates.entityTokensUnchanged(),
@@ -19,8 +19,11 @@
  */
 package org.neo4j.kernel.impl.api.index;
 
+import java.util.function.ToIntFunction;
+
 import org.neo4j.internal.kernel.api.TokenNameLookup;
 import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.PropertyPaths;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.api.SchemaState;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
@@ -48,6 +51,45 @@ public class IndexingServiceFactory
                                           LogProvider logProvider,
                                           IndexingService.Monitor monitor,
                                           SchemaState schemaState )
+    {
+        return createIndexingService( config, scheduler, providerMap, new IndexMapReference(), storeView, tokenNameLookup,
+                indexRules, logProvider, monitor, schemaState );
+    }
+
+    /**
+     * Creates an indexing service that also maintains indexes on paths inside map properties, which are the indexes
+     * of the {@link PropertyPaths#DESCRIPTOR path index provider}.
+     *
+     * @param propertyKeyIds looks up property key ids by name, to find the map property that the value of an indexed
+     * path, such as {@code address.zip}, is read from.
+     */
+    public static IndexingService createIndexingService( Config config,
+                                          JobScheduler scheduler,
+                                          IndexProviderMap providerMap,
+                                          IndexStoreView storeView,
+                                          TokenNameLookup tokenNameLookup,
+                                          ToIntFunction<String> propertyKeyIds,
+                                          Iterable<StoreIndexDescriptor> indexRules,
+                                          LogProvider logProvider,
+                                          IndexingService.Monitor monitor,
+                                          SchemaState schemaState )
+    {
+        IndexMapReference indexMapRef = new IndexMapReference();
+        IndexStoreView propertyPathStoreView = new PropertyPathIndexStoreView( storeView, indexMapRef, tokenNameLookup, propertyKeyIds );
+        return createIndexingService( config, scheduler, providerMap, indexMapRef, propertyPathStoreView, tokenNameLookup,
+                indexRules, logProvider, monitor, schemaState );
+    }
+
+    private static IndexingService createIndexingService( Config config,
+                                          JobScheduler scheduler,
+                                          IndexProviderMap providerMap,
+                                          IndexMapReference indexMapRef,
+                                          IndexStoreView storeView,
+                                          TokenNameLookup tokenNameLookup,
+                                          Iterable<StoreIndexDescriptor> indexRules,
+                                          LogProvider logProvider,
+                                          IndexingService.Monitor monitor,
+                                          SchemaState schemaState )
     {
         if ( providerMap == null || providerMap.getDefaultProvider() == null )
         {
@@ -58,7 +100,6 @@ public class IndexingServiceFactory
 
         IndexSamplingConfig samplingConfig = new IndexSamplingConfig( config );
         MultiPopulatorFactory multiPopulatorFactory = MultiPopulatorFactory.forConfig( config );
-        IndexMapReference indexMapRef = new IndexMapReference();
         IndexSamplingControllerFactory factory =
                 new IndexSamplingControllerFactory( samplingConfig, storeView, scheduler, tokenNameLookup, logProvider );
         IndexSamplingController indexSamplingController = factory.create( indexMapRef );
@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.ToIntFunction;
+
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.internal.kernel.api.TokenNameLookup;
+import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.api.index.PropertyPaths;
+import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
+import org.neo4j.kernel.api.schema.index.CapableIndexDescriptor;
+import org.neo4j.kernel.impl.core.TokenHolder;
+import org.neo4j.register.Register.DoubleLongRegister;
+import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.values.storable.Value;
+
+import static org.neo4j.values.storable.Values.NO_VALUE;
+
+/**
+ * Maintains the indexes of the {@link PropertyPaths#DESCRIPTOR path index provider}, which are declared on paths inside
+ * map properties. Such an index on a property key named like {@code address.zip} is fed the value found at {@code zip}
+ * in the map property {@code address}, or at {@code zip.code} in {@code address} for {@code address.zip.code}. The
+ * nested value is projected into the {@link EntityUpdates} before they are matched against the indexes, so the index
+ * itself only ever sees the leaf value and puts it in the native slot for its value group, just like a top-level
+ * property. An entity that has an actual property with the dotted name is indexed by that property instead. Indexes
+ * of other providers are left alone, whatever their property keys are named.
+ * <p>
+ * Everything else is delegated to the wrapped {@link IndexStoreView}.
+ */
+class PropertyPathIndexStoreView implements IndexStoreView
+{
+    private static final PropertyPath[] NO_PATHS = new PropertyPath[0];
+
+    private final IndexStoreView delegate;
+    private final IndexMapReference indexMapRef;
+    private final TokenNameLookup tokenNameLookup;
+    private final ToIntFunction<String> propertyKeyIds;
+    private volatile IndexedPaths paths = new IndexedPaths( null, NO_PATHS );
+
+    /**
+     * @param delegate the view to read entities and counts from.
+     * @param indexMapRef the indexes to find path indexes among.
+     * @param tokenNameLookup used to get the names of the property keys of path indexes.
+     * @param propertyKeyIds used to get the id of the map property of a path, {@link TokenHolder#NO_ID} if it does
+     * not exist yet.
+     */
+    PropertyPathIndexStoreView( IndexStoreView delegate, IndexMapReference indexMapRef, TokenNameLookup tokenNameLookup,
+            ToIntFunction<String> propertyKeyIds )
+    {
+        this.delegate = delegate;
+        this.indexMapRef = indexMapRef;
+        this.tokenNameLookup = tokenNameLookup;
+        this.propertyKeyIds = propertyKeyIds;
+    }
+
+    @Override
+    public void projectPropertyPaths( EntityUpdates updates, EntityType type )
+    {
+        for ( PropertyPath path : propertyPaths() )
+        {
+            int baseId = path.baseId();
+            if ( baseId == TokenHolder.NO_ID )
+            {
+                continue;
+            }
+            if ( updates.needsUnchangedBase( baseId, path.propertyKeyId ) )
+            {
+                Value base = loadProperty( updates.getEntityId(), type, baseId );
+                if ( base != NO_VALUE )
+                {
+                    updates.projectPropertyPath( base, path.path, path.propertyKeyId );
+                }
+            }
+            else
+            {
+                updates.projectPropertyPath( baseId, path.path, path.propertyKeyId );
+            }
+        }
+    }
+
+    @Override
+    public <FAILURE extends Exception> StoreScan<FAILURE> visitNodes( int[] labelIds, IntPredicate propertyKeyIdFilter,
+            Visitor<EntityUpdates,FAILURE> propertyUpdateVisitor, Visitor<NodeLabelUpdate,FAILURE> labelUpdateVisitor, boolean forceStoreScan )
+    {
+        PropertyPath[] paths = propertyPaths();
+        if ( paths.length == 0 || propertyUpdateVisitor == null )
+        {
+            return delegate.visitNodes( labelIds, propertyKeyIdFilter, propertyUpdateVisitor, labelUpdateVisitor, forceStoreScan );
+        }
+        return delegate.visitNodes( labelIds, withBaseProperties( paths, propertyKeyIdFilter ), projecting( propertyUpdateVisitor, EntityType.NODE ),
+                labelUpdateVisitor, forceStoreScan );
+    }
+
+    @Override
+    public <FAILURE extends Exception> StoreScan<FAILURE> visitRelationships( int[] relationshipTypeIds, IntPredicate propertyKeyIdFilter,
+            Visitor<EntityUpdates,FAILURE> propertyUpdateVisitor )
+    {
+        PropertyPath[] paths = propertyPaths();
+        if ( paths.length == 0 )
+        {
+            return delegate.visitRelationships( relationshipTypeIds, propertyKeyIdFilter, propertyUpdateVisitor );
+        }
+        return delegate.visitRelationships( relationshipTypeIds, withBaseProperties( paths, propertyKeyIdFilter ),
+                projecting( propertyUpdateVisitor, EntityType.RELATIONSHIP ) );
+    }
+
+    @Override
+    public void loadProperties( long entityId, EntityType type, MutableIntSet propertyIds, PropertyLoadSink sink )
+    {
+        List<PropertyPath> requested = new ArrayList<>();
+        for ( PropertyPath path : propertyPaths() )
+        {
+            if ( propertyIds.contains( path.propertyKeyId ) && path.baseId() != TokenHolder.NO_ID )
+            {
+                requested.add( path );
+            }
+        }
+        if ( requested.isEmpty() )
+        {
+            delegate.loadProperties( entityId, type, propertyIds, sink );
+            return;
+        }
+
+        MutableIntSet toLoad = IntHashSet.newSet( propertyIds );
+        for ( PropertyPath path : requested )
+        {
+            toLoad.add( path.baseId() );
+        }
+        MutableIntObjectMap<Value> bases = new IntObjectHashMap<>();
+        delegate.loadProperties( entityId, type, toLoad, ( propertyKeyId, value ) ->
+        {
+            if ( propertyIds.remove( propertyKeyId ) )
+            {
+                sink.onProperty( propertyKeyId, value );
+            }
+            bases.put( propertyKeyId, value );
+        } );
+
+        for ( PropertyPath path : requested )
+        {
+            Value base = bases.get( path.baseId() );
+            if ( base != null && propertyIds.contains( path.propertyKeyId ) )
+            {
+                Value value = EntityUpdates.valueAtPath( base, path.path );
+                if ( value != null )
+                {
+                    propertyIds.remove( path.propertyKeyId );
+                    sink.onProperty( path.propertyKeyId, value );
+                }
+            }
+        }
+    }
+
+    @Override
+    public Value getNodePropertyValue( long nodeId, int propertyKeyId ) throws EntityNotFoundException
+    {
+        Value value = delegate.getNodePropertyValue( nodeId, propertyKeyId );
+        if ( value != NO_VALUE )
+        {
+            return value;
+        }
+        for ( PropertyPath path : propertyPaths() )
+        {
+            int baseId = path.baseId();
+            if ( path.propertyKeyId == propertyKeyId && baseId != TokenHolder.NO_ID )
+            {
+                Value nested = EntityUpdates.valueAtPath( delegate.getNodePropertyValue( nodeId, baseId ), path.path );
+                return nested == null ? NO_VALUE : nested;
+            }
+        }
+        return NO_VALUE;
+    }
+
+    @Override
+    public EntityUpdates nodeAsUpdates( long entityId )
+    {
+        EntityUpdates updates = delegate.nodeAsUpdates( entityId );
+        if ( updates != null )
+        {
+            projectPropertyPaths( updates, EntityType.NODE );
+        }
+        return updates;
+    }
+
+    @Override
+    public DoubleLongRegister indexUpdatesAndSize( long indexId, DoubleLongRegister output )
+    {
+        return delegate.indexUpdatesAndSize( indexId, output );
+    }
+
+    @Override
+    public DoubleLongRegister indexSample( long indexId, DoubleLongRegister output )
+    {
+        return delegate.indexSample( indexId, output );
+    }
+
+    @Override
+    public void replaceIndexCounts( long indexId, long uniqueElements, long maxUniqueElements, long indexSize )
+    {
+        delegate.replaceIndexCounts( indexId, uniqueElements, maxUniqueElements, indexSize );
+    }
+
+    @Override
+    public void incrementIndexUpdates( long indexId, long updatesDelta )
+    {
+        delegate.incrementIndexUpdates( indexId, updatesDelta );
+    }
+
+    private <FAILURE extends Exception> Visitor<EntityUpdates,FAILURE> projecting( Visitor<EntityUpdates,FAILURE> visitor, EntityType type )
+    {
+        return updates ->
+        {
+            projectPropertyPaths( updates, type );
+            return visitor.visit( updates );
+        };
+    }
+
+    private Value loadProperty( long entityId, EntityType type, int propertyKeyId )
+    {
+        Value[] loaded = {NO_VALUE};
+        delegate.loadProperties( entityId, type, IntHashSet.newSetWith( propertyKeyId ), ( key, value ) -> loaded[0] = value );
+        return loaded[0];
+    }
+
+    private static IntPredicate withBaseProperties( PropertyPath[] paths, IntPredicate propertyKeyIdFilter )
+    {
+        return propertyKeyId ->
+        {
+            if ( propertyKeyIdFilter.test( propertyKeyId ) )
+            {
+                return true;
+            }
+            for ( PropertyPath path : paths )
+            {
+                if ( path.baseId() == propertyKeyId && propertyKeyIdFilter.test( path.propertyKeyId ) )
+                {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private PropertyPath[] propertyPaths()
+    {
+        IndexMap indexMap = indexMapRef.currentIndexMap();
+        IndexedPaths current = paths;
+        if ( current.indexMap != indexMap )
+        {
+            current = new IndexedPaths( indexMap, findPropertyPaths( indexMap.getAllIndexProxies() ) );
+            paths = current;
+        }
+        return current.paths;
+    }
+
+    private PropertyPath[] findPropertyPaths( Iterable<IndexProxy> indexes )
+    {
+        List<PropertyPath> found = new ArrayList<>();
+        IntHashSet seen = new IntHashSet();
+        for ( IndexProxy index : indexes )
+        {
+            CapableIndexDescriptor descriptor = index.getDescriptor();
+            if ( !PropertyPaths.isPathIndex( descriptor.providerDescriptor() ) )
+            {
+                continue;
+            }
+            for ( int propertyKeyId : descriptor.schema().getPropertyIds() )
+            {
+                if ( !seen.add( propertyKeyId ) )
+                {
+                    continue;
+                }
+                String[] keys = PropertyPaths.keys( tokenNameLookup.propertyKeyGetName( propertyKeyId ) );
+                if ( keys != null )
+                {
+                    found.add( new PropertyPath( propertyKeyId, keys[0], Arrays.copyOfRange( keys, 1, keys.length ) ) );
+                }
+            }
+        }
+        return found.toArray( NO_PATHS );
+    }
+
+    private static class IndexedPaths
+    {
+        private final IndexMap indexMap;
+        private final PropertyPath[] paths;
+
+        IndexedPaths( IndexMap indexMap, PropertyPath[] paths )
+        {
+            this.indexMap = indexMap;
+            this.paths = paths;
+        }
+    }
+
+    private class PropertyPath
+    {
+        private final int propertyKeyId;
+        private final String baseKey;
+        private final String[] path;
+        private volatile int baseId = TokenHolder.NO_ID;
+
+        PropertyPath( int propertyKeyId, String baseKey, String[] path )
+        {
+            this.propertyKeyId = propertyKeyId;
+            this.baseKey = baseKey;
+            this.path = path;
+        }
+
+        /**
+         * The map property may well be created after the index, so its id is looked up until it exists.
+         */
+        int baseId()
+        {
+            int id = baseId;
+            if ( id == TokenHolder.NO_ID )
+            {
+                id = propertyKeyIds.applyAsInt( baseKey );
+                baseId = id;
+            }
+            return id;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Samples the values at the paths inside map properties set by {@link GraphDatabaseSettings#cypher_map_path_statistics},
+ * so that predicates on paths without a path index can still be estimated. Sampling is opt-in and done on demand, by
+ * reading the value at the path on nodes spread evenly over the label scan and counting the distinct values among
+ * them. Spreading the sample keeps it from only seeing the oldest nodes, which come first in the scan.
+ */
+public class PropertyPathSampler
+{
+    public static final PropertyPathSampler NONE = new PropertyPathSampler( emptySet(), 1 );
+
+    private final Set<String> paths;
+    private final int sampleSize;
+
+    public PropertyPathSampler( Config config )
+    {
+        this( config.get( GraphDatabaseSettings.cypher_map_path_statistics ),
+                config.get( GraphDatabaseSettings.cypher_map_path_statistics_sample_size ) );
+    }
+
+    public PropertyPathSampler( Collection<String> paths, int sampleSize )
+    {
+        this.paths = new HashSet<>( paths );
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * @param keys keys of the path, starting with the map property.
+     * @return whether the path is configured to be sampled.
+     */
+    public boolean isSampled( String[] keys )
+    {
+        return keys.length > 1 && paths.contains( String.join( ".", keys ) );
+    }
+
+    /**
+     * Samples the values at a path on every n:th node with a label, with n picked from the count of nodes with the
+     * label so that the sample covers the whole label scan.
+     *
+     * @param keys keys of the path, starting with the map property.
+     * @return the sample, or {@code null} if the path is not configured to be sampled or there are no nodes to sample.
+     */
+    public Sample sample( Read read, TokenRead tokenRead, CursorFactory cursors, int label, String[] keys )
+    {
+        if ( !isSampled( keys ) )
+        {
+            return null;
+        }
+        int propertyKey = tokenRead.propertyKey( keys[0] );
+        String[] path = Arrays.copyOfRange( keys, 1, keys.length );
+
+        long stride = Math.max( 1, read.countsForNode( label ) / sampleSize );
+        long position = 0;
+        long nodes = 0;
+        long withValue = 0;
+        Set<Value> distinctValues = new HashSet<>();
+        try ( NodeLabelIndexCursor labelled = cursors.allocateNodeLabelIndexCursor();
+              NodeCursor node = cursors.allocateNodeCursor();
+              PropertyCursor property = cursors.allocatePropertyCursor() )
+        {
+            read.nodeLabelScan( label, labelled );
+            while ( nodes < sampleSize && labelled.next() )
+            {
+                if ( position++ % stride != 0 )
+                {
+                    continue;
+                }
+                labelled.node( node );
+                if ( !node.next() )
+                {
+                    continue;
+                }
+                nodes++;
+                if ( propertyKey == TokenRead.NO_TOKEN )
+                {
+                    continue;
+                }
+                node.properties( property );
+                while ( property.next() )
+                {
+                    if ( property.propertyKey() == propertyKey )
+                    {
+                        Value value = property.propertyValue( path );
+                        if ( value != null && value != Values.NO_VALUE )
+                        {
+                            withValue++;
+                            distinctValues.add( value );
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        return nodes == 0 ? null : new Sample( nodes, withValue, distinctValues.size() );
+    }
+
+    /**
+     * The values found at a path on a number of sampled nodes.
+     */
+    public static final class Sample
+    {
+        private final long nodes;
+        private final long withValue;
+        private final long distinctValues;
+
+        Sample( long nodes, long withValue, long distinctValues )
+        {
+            this.nodes = nodes;
+            this.withValue = withValue;
+            this.distinctValues = distinctValues;
+        }
+
+        /**
+         * @return the fraction of the sampled nodes that have a value at the path.
+         */
+        public double existsSelectivity()
+        {
+            return withValue / (double) nodes;
+        }
+
+        /**
+         * @return the fraction of the sampled nodes that have any one particular value at the path, assuming that the
+         * distinct values are evenly spread.
+         */
+        public double valueSelectivity()
+        {
+            return distinctValues == 0 ? 0 : existsSelectivity() / distinctValues;
+        }
+
+        public long nodes()
+        {
+            return nodes;
+        }
+
+        public long withValue()
+        {
+            return withValue;
+        }
+
+        public long distinctValues()
+        {
+            return distinctValues;
+        }
+    }
+}
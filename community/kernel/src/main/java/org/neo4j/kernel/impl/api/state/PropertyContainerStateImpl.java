@@ -31,7 +31,9 @@ import java.util.Iterator;
 
 import org.neo4j.helpers.collection.Iterators;
 import org.neo4j.kernel.api.properties.PropertyKeyValue;
+import org.neo4j.kernel.impl.util.collection.OffHeapMapValue;
 import org.neo4j.storageengine.api.StorageProperty;
+import org.neo4j.storageengine.api.txstate.NestedPropertyChanges;
 import org.neo4j.storageengine.api.txstate.PropertyContainerState;
 import org.neo4j.values.storable.Value;
 
@@ -44,6 +46,7 @@ class PropertyContainerStateImpl implements PropertyContainerState
     private MutableIntObjectMap<Value> addedProperties;
     private MutableIntObjectMap<Value> changedProperties;
     private MutableIntSet removedProperties;
+    private MutableIntObjectMap<NestedPropertyChanges> nestedChanges;
 
     PropertyContainerStateImpl( long id )
     {
@@ -59,23 +62,29 @@ class PropertyContainerStateImpl implements PropertyContainerState
     {
         if ( changedProperties != null )
         {
+            changedProperties.forEachValue( PropertyContainerStateImpl::free );
             changedProperties.clear();
         }
         if ( addedProperties != null )
         {
+            addedProperties.forEachValue( PropertyContainerStateImpl::free );
             addedProperties.clear();
         }
         if ( removedProperties != null )
         {
             removedProperties.clear();
         }
+        if ( nestedChanges != null )
+        {
+            nestedChanges.clear();
+        }
     }
 
     void changeProperty( int propertyKeyId, Value value )
     {
         if ( addedProperties != null && addedProperties.containsKey( propertyKeyId ) )
         {
-            addedProperties.put( propertyKeyId, value );
+            replaced( addedProperties.put( propertyKeyId, value ), value );
             return;
         }
 
@@ -83,12 +92,37 @@ class PropertyContainerStateImpl implements PropertyContainerState
         {
             changedProperties = new IntObjectHashMap<>();
         }
-        changedProperties.put( propertyKeyId, value );
+        replaced( changedProperties.put( propertyKeyId, value ), value );
 
         if ( removedProperties != null )
         {
             removedProperties.remove( propertyKeyId );
         }
+        if ( nestedChanges != null )
+        {
+            nestedChanges.remove( propertyKeyId );
+        }
+    }
+
+    /**
+     * Records a change inside a committed map property that has not been replaced in this transaction.
+     */
+    void changeNestedProperty( int propertyKeyId, String[] path, Value value )
+    {
+        if ( nestedChanges == null )
+        {
+            nestedChanges = new IntObjectHashMap<>();
+        }
+        nestedChanges.getIfAbsentPut( propertyKeyId, NestedPropertyChanges::new ).set( path, value );
+    }
+
+    /**
+     * @return whether the value of the property is held by this state, rather than read from the store.
+     */
+    boolean isPropertyAddedOrChanged( int propertyKeyId )
+    {
+        return (addedProperties != null && addedProperties.containsKey( propertyKeyId ))
+               || (changedProperties != null && changedProperties.containsKey( propertyKeyId ));
     }
 
     void addProperty( int propertyKeyId, Value value )
@@ -104,13 +138,14 @@ class PropertyContainerStateImpl implements PropertyContainerState
         {
             addedProperties = new IntObjectHashMap<>();
         }
-        addedProperties.put( propertyKeyId, value );
+        replaced( addedProperties.put( propertyKeyId, value ), value );
     }
 
     void removeProperty( int propertyKeyId )
     {
-        if ( addedProperties != null && addedProperties.remove( propertyKeyId ) != null )
+        if ( addedProperties != null && addedProperties.containsKey( propertyKeyId ) )
         {
+            free( addedProperties.remove( propertyKeyId ) );
             return;
         }
         if ( removedProperties == null )
@@ -120,7 +155,11 @@ class PropertyContainerStateImpl implements PropertyContainerState
         removedProperties.add( propertyKeyId );
         if ( changedProperties != null )
         {
-            changedProperties.remove( propertyKeyId );
+            free( changedProperties.remove( propertyKeyId ) );
+        }
+        if ( nestedChanges != null )
+        {
+            nestedChanges.remove( propertyKeyId );
         }
     }
 
@@ -159,7 +198,7 @@ class PropertyContainerStateImpl implements PropertyContainerState
     @Override
     public boolean hasPropertyChanges()
     {
-        return addedProperties != null || removedProperties != null || changedProperties != null;
+        return addedProperties != null || removedProperties != null || changedProperties != null || nestedChanges != null;
     }
 
     @Override
@@ -169,9 +208,49 @@ class PropertyContainerStateImpl implements PropertyContainerState
                || (changedProperties != null && changedProperties.containsKey( propertyKey ));
     }
 
+    @Override
+    public NestedPropertyChanges nestedPropertyChanges( int propertyKey )
+    {
+        return nestedChanges == null ? null : nestedChanges.get( propertyKey );
+    }
+
+    @Override
+    public IntIterable propertiesWithNestedChanges()
+    {
+        return nestedChanges == null ? IntSets.immutable.empty() : nestedChanges.keySet();
+    }
+
     private Iterator<StorageProperty> toPropertyIterator( IntObjectMap<Value> propertyMap )
     {
         return propertyMap == null ? emptyIterator()
-                                   : propertyMap.keyValuesView().collect( e -> (StorageProperty) new PropertyKeyValue( e.getOne(), e.getTwo() ) ).iterator();
+                                   : propertyMap.keyValuesView().collect( e -> (StorageProperty) new PropertyKeyValue( e.getOne(), onHeap( e.getTwo() ) ) ).iterator();
+    }
+
+    /**
+     * Off-heap values belong to the property they are kept for, so their memory is freed as soon as they are replaced
+     * or removed rather than only when the transaction state is released.
+     */
+    private static void replaced( Value previous, Value value )
+    {
+        if ( previous != value )
+        {
+            free( previous );
+        }
+    }
+
+    private static void free( Value value )
+    {
+        if ( value instanceof OffHeapMapValue )
+        {
+            ((OffHeapMapValue) value).free();
+        }
+    }
+
+    /**
+     * Off-heap values are freed along with the transaction state, so they are copied before being handed out.
+     */
+    private static Value onHeap( Value value )
+    {
+        return value instanceof OffHeapMapValue ? ((OffHeapMapValue) value).onHeap() : value;
     }
 }
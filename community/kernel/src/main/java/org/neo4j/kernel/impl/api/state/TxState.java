@@ -25,8 +25,10 @@ import org.eclipse.collections.api.map.primitive.MutableObjectLongMap;
 import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.eclipse.collections.impl.map.mutable.primitive.ObjectLongHashMap;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -42,6 +44,7 @@ import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
+import org.neo4j.kernel.impl.util.collection.OffHeapMapValue;
 import org.neo4j.kernel.impl.util.collection.OnHeapCollectionsFactory;
 import org.neo4j.kernel.impl.util.diffsets.DiffSets;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSets;
@@ -50,9 +53,11 @@ import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.txstate.DiffSetsVisitor;
 import org.neo4j.storageengine.api.txstate.LongDiffSets;
 import org.neo4j.storageengine.api.txstate.NodeState;
+import org.neo4j.storageengine.api.txstate.PropertyContainerState;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
 import org.neo4j.storageengine.api.txstate.RelationshipState;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
+import org.neo4j.values.storable.MapValue;
 import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
@@ -99,8 +104,12 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
 
     private Map<SchemaDescriptor, Map<ValueTuple, MutableLongDiffSets>> indexUpdates;
 
+    private List<OffHeapMapValue> offHeapMapValues;
+    private int offHeapMapValuesPruneThreshold = 16;
+
     private boolean hasChanges;
     private boolean hasDataChanges;
+    private boolean hasNestedPropertyChanges;
 
     public TxState()
     {
@@ -142,6 +151,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
 
         for ( NodeState node : modifiedNodes() )
         {
+            assertNoNestedPropertyChanges( node );
             if ( node.hasPropertyChanges() )
             {
                 visitor.visitNodePropertyChanges( node.getId(), node.addedProperties(), node.changedProperties(), node.removedProperties() );
@@ -156,6 +166,7 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
 
         for ( RelationshipState rel : modifiedRelationships() )
         {
+            assertNoNestedPropertyChanges( rel );
             visitor.visitRelPropertyChanges( rel.getId(), rel.addedProperties(), rel.changedProperties(), rel.removedProperties() );
         }
 
@@ -197,6 +208,14 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
         return hasChanges;
     }
 
+    private static void assertNoNestedPropertyChanges( PropertyContainerState state )
+    {
+        if ( !state.propertiesWithNestedChanges().isEmpty() )
+        {
+            throw new IllegalStateException( "Changes made inside map properties must be applied before the transaction state is visited" );
+        }
+    }
+
     @Override
     public Iterable<NodeState> modifiedNodes()
     {
@@ -351,14 +370,14 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     public void nodeDoAddProperty( long nodeId, int newPropertyKeyId, Value value )
     {
         NodeStateImpl nodeState = getOrCreateNodeState( nodeId );
-        nodeState.addProperty( newPropertyKeyId, value );
+        nodeState.addProperty( newPropertyKeyId, keep( value ) );
         dataChanged();
     }
 
     @Override
     public void nodeDoChangeProperty( long nodeId, int propertyKeyId, Value newValue )
     {
-        getOrCreateNodeState( nodeId ).changeProperty( propertyKeyId, newValue );
+        getOrCreateNodeState( nodeId ).changeProperty( propertyKeyId, keep( newValue ) );
         dataChanged();
     }
 
@@ -368,29 +387,118 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
     {
         if ( replacedValue != NO_VALUE )
         {
-            getOrCreateRelationshipState( relationshipId ).changeProperty( propertyKeyId, newValue );
+            getOrCreateRelationshipState( relationshipId ).changeProperty( propertyKeyId, keep( newValue ) );
         }
         else
         {
-            getOrCreateRelationshipState( relationshipId ).addProperty( propertyKeyId, newValue );
+            getOrCreateRelationshipState( relationshipId ).addProperty( propertyKeyId, keep( newValue ) );
         }
         dataChanged();
     }
 
+    @Override
+    public void nodeDoChangeNestedProperty( long nodeId, int propertyKeyId, String[] path, Value value, Value newValue )
+    {
+        changeNestedProperty( getOrCreateNodeState( nodeId ), propertyKeyId, path, value, newValue );
+        dataChanged();
+    }
+
+    @Override
+    public void relationshipDoChangeNestedProperty( long relationshipId, int propertyKeyId, String[] path, Value value,
+            Value newValue )
+    {
+        changeNestedProperty( getOrCreateRelationshipState( relationshipId ), propertyKeyId, path, value, newValue );
+        dataChanged();
+    }
+
+    private void changeNestedProperty( PropertyContainerStateImpl state, int propertyKeyId, String[] path, Value value,
+            Value newValue )
+    {
+        if ( state.isPropertyAddedOrChanged( propertyKeyId ) )
+        {
+            // the whole map is held here already, so there is nothing to gain from keeping just the change
+            state.changeProperty( propertyKeyId, keep( newValue ) );
+        }
+        else
+        {
+            state.changeNestedProperty( propertyKeyId, path, value );
+            hasNestedPropertyChanges = true;
+        }
+    }
+
+    @Override
+    public boolean hasNestedPropertyChanges()
+    {
+        return hasNestedPropertyChanges;
+    }
+
+    @Override
+    public void applyNestedPropertyChanges( CommittedProperties nodeProperties, CommittedProperties relationshipProperties )
+    {
+        if ( nodeStatesMap != null )
+        {
+            nodeStatesMap.forEachValue( node -> applyNestedPropertyChanges( node, nodeProperties ) );
+        }
+        if ( relationshipStatesMap != null )
+        {
+            relationshipStatesMap.forEachValue( relationship -> applyNestedPropertyChanges( relationship, relationshipProperties ) );
+        }
+        hasNestedPropertyChanges = false;
+    }
+
+    private void applyNestedPropertyChanges( PropertyContainerStateImpl state, CommittedProperties committedProperties )
+    {
+        // changing a property drops its nested changes, so the keys are copied before they are iterated
+        for ( int propertyKeyId : state.propertiesWithNestedChanges().toArray() )
+        {
+            Value committed = committedProperties.propertyValue( state.getId(), propertyKeyId );
+            state.changeProperty( propertyKeyId, keep( state.nestedPropertyChanges( propertyKeyId ).applyTo( committed ) ) );
+        }
+    }
+
     @Override
     public void graphDoReplaceProperty( int propertyKeyId, Value replacedValue, Value newValue )
     {
         if ( replacedValue != NO_VALUE )
         {
-            getOrCreateGraphState().changeProperty( propertyKeyId, newValue );
+            getOrCreateGraphState().changeProperty( propertyKeyId, keep( newValue ) );
         }
         else
         {
-            getOrCreateGraphState().addProperty( propertyKeyId, newValue );
+            getOrCreateGraphState().addProperty( propertyKeyId, keep( newValue ) );
         }
         dataChanged();
     }
 
+    /**
+     * Large map values may be kept in their encoded form off heap by the collections factory, so that they do not
+     * stay in the transaction state as a graph of small objects. Every kept off-heap map belongs to the one property
+     * it was kept for, which frees it when it is replaced or removed, and all that are left are freed on
+     * {@link #release()}.
+     */
+    private Value keep( Value value )
+    {
+        if ( !(value instanceof MapValue) )
+        {
+            return value;
+        }
+        MapValue kept = collectionsFactory.newMapValue( (MapValue) value );
+        if ( kept instanceof OffHeapMapValue )
+        {
+            if ( offHeapMapValues == null )
+            {
+                offHeapMapValues = new ArrayList<>();
+            }
+            if ( offHeapMapValues.size() >= offHeapMapValuesPruneThreshold )
+            {
+                offHeapMapValues.removeIf( OffHeapMapValue::isFreed );
+                offHeapMapValuesPruneThreshold = Math.max( offHeapMapValuesPruneThreshold, offHeapMapValues.size() * 2 );
+            }
+            offHeapMapValues.add( (OffHeapMapValue) kept );
+        }
+        return kept;
+    }
+
     @Override
     public void nodeDoRemoveProperty( long nodeId, int propertyKeyId )
     {
@@ -980,7 +1088,11 @@ public class TxState implements TransactionState, RelationshipVisitor.Home
      */
     public void release()
     {
-        // nop
+        if ( offHeapMapValues != null )
+        {
+            offHeapMapValues.forEach( OffHeapMapValue::free );
+            offHeapMapValues = null;
+        }
     }
 
     private static class ConstraintDiffSetsVisitor implements DiffSetsVisitor<ConstraintDescriptor>
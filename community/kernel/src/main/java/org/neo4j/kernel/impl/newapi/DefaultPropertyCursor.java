@@ -27,7 +27,9 @@ import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.kernel.api.AssertOpen;
 import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
+import org.neo4j.storageengine.api.txstate.NestedPropertyChanges;
 import org.neo4j.storageengine.api.txstate.PropertyContainerState;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.ValueWriter;
@@ -187,12 +189,53 @@ public class DefaultPropertyCursor implements PropertyCursor
             return txStateValue.value();
         }
 
-        Value value = storeCursor.propertyValue();
+        NestedPropertyChanges changes = nestedPropertyChanges();
+        Value value = changes == null ? storeCursor.propertyValue() : changes.applyTo( storeCursor.propertyValue() );
 
         assertOpen.assertOpen();
         return value;
     }
 
+    @Override
+    public Value propertyValue( String[] path )
+    {
+        if ( txStateValue != null )
+        {
+            return MapValueEncoding.valueAt( txStateValue.value(), path );
+        }
+
+        NestedPropertyChanges changes = nestedPropertyChanges();
+        Value value = changes == null ? storeCursor.propertyValue( path )
+                                      : MapValueEncoding.valueAt( changes.applyTo( storeCursor.propertyValue() ), path );
+
+        assertOpen.assertOpen();
+        return value;
+    }
+
+    @Override
+    public String[] mapKeys( String[] path )
+    {
+        if ( txStateValue != null )
+        {
+            return MapValueEncoding.keysAt( txStateValue.value(), path );
+        }
+
+        NestedPropertyChanges changes = nestedPropertyChanges();
+        String[] keys = changes == null ? storeCursor.mapKeys( path )
+                                        : MapValueEncoding.keysAt( changes.applyTo( storeCursor.propertyValue() ), path );
+
+        assertOpen.assertOpen();
+        return keys;
+    }
+
+    /**
+     * @return the changes made in this transaction inside the map property the store cursor is at, if any.
+     */
+    private NestedPropertyChanges nestedPropertyChanges()
+    {
+        return propertiesState == null ? null : propertiesState.nestedPropertyChanges( storeCursor.propertyKey() );
+    }
+
     @Override
     public <E extends Exception> void writeTo( ValueWriter<E> target )
     {
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.newapi;
 
 import org.apache.commons.lang3.ArrayUtils;
+import org.eclipse.collections.api.iterator.IntIterator;
 import org.eclipse.collections.api.set.primitive.IntSet;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.set.mutable.primitive.IntHashSet;
@@ -29,9 +30,11 @@ import java.util.Iterator;
 import org.neo4j.internal.kernel.api.NodeCursor;
 import org.neo4j.internal.kernel.api.PropertyCursor;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
+import org.neo4j.kernel.impl.api.index.EntityUpdates;
 import org.neo4j.kernel.impl.api.index.IndexingProvidersService;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.ValueTuple;
 
 import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_PROPERTY_KEY;
@@ -91,13 +94,27 @@ public class IndexTxStateUpdater
             nodePropertyIds.add( propertyCursor.propertyKey() );
         }
 
+        EntityUpdates propertyPaths = null;
         while ( indexes.hasNext() )
         {
             IndexDescriptor index = indexes.next();
             int[] indexPropertyIds = index.schema().getPropertyIds();
+            Value[] values;
             if ( nodeHasIndexProperties( nodePropertyIds, indexPropertyIds ) )
             {
-                Value[] values = getValueTuple( node, propertyCursor, indexPropertyIds );
+                values = getValueTuple( node, propertyCursor, indexPropertyIds );
+            }
+            else
+            {
+                // The missing properties may be paths into map properties of the node.
+                if ( propertyPaths == null )
+                {
+                    propertyPaths = existingPropertyPaths( node, propertyCursor );
+                }
+                values = getValueTuple( node, propertyCursor, propertyPaths, indexPropertyIds );
+            }
+            if ( values != null )
+            {
                 switch ( changeType )
                 {
                 case ADDED_LABEL:
@@ -122,8 +139,34 @@ public class IndexTxStateUpdater
     //PROPERTY CHANGES
 
     void onPropertyAdd( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId, Value value )
+    {
+        onPropertyAdd( node, propertyCursor, propertyKeyId, value,
+                propertyPathUpdates( node.nodeReference(), propertyKeyId, NO_VALUE, value ) );
+    }
+
+    /**
+     * @param propertyPaths the values at indexed property paths in the added property, as returned by
+     * {@link #propertyPathUpdates(long, int, Value, Value)}.
+     */
+    void onPropertyAdd( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId, Value value,
+            EntityUpdates propertyPaths )
     {
         assert noSchemaChangedInTx();
+        Value shadowed = shadowedPropertyPath( node, propertyCursor, propertyKeyId );
+        if ( shadowed != NO_VALUE )
+        {
+            // the added property takes over from the value at the path of the same name
+            updateIndexesOnChange( node, propertyCursor, propertyKeyId, shadowed, value );
+        }
+        else
+        {
+            updateIndexesOnAdd( node, propertyCursor, propertyKeyId, value );
+        }
+        onPropertyPathsChange( node, propertyCursor, propertyKeyId, propertyPaths );
+    }
+
+    private void updateIndexesOnAdd( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId, Value value )
+    {
         Iterator<? extends IndexDescriptor> indexes =
                 storageReader.indexesGetRelatedToProperty( propertyKeyId );
         NodeSchemaMatcher.onMatchingSchema( indexes, node, propertyCursor, propertyKeyId,
@@ -136,8 +179,30 @@ public class IndexTxStateUpdater
     }
 
     void onPropertyRemove( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId, Value value )
+    {
+        onPropertyRemove( node, propertyCursor, propertyKeyId, value,
+                propertyPathUpdates( node.nodeReference(), propertyKeyId, value, NO_VALUE ) );
+    }
+
+    private void onPropertyRemove( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId, Value value,
+            EntityUpdates propertyPaths )
     {
         assert noSchemaChangedInTx();
+        Value shadowed = shadowedPropertyPath( node, propertyCursor, propertyKeyId );
+        if ( shadowed != NO_VALUE )
+        {
+            // the removed property hands back to the value at the path of the same name
+            updateIndexesOnChange( node, propertyCursor, propertyKeyId, value, shadowed );
+        }
+        else
+        {
+            updateIndexesOnRemove( node, propertyCursor, propertyKeyId, value );
+        }
+        onPropertyPathsChange( node, propertyCursor, propertyKeyId, propertyPaths );
+    }
+
+    private void updateIndexesOnRemove( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId, Value value )
+    {
         Iterator<? extends IndexDescriptor> indexes =
                 storageReader.indexesGetRelatedToProperty( propertyKeyId );
         NodeSchemaMatcher.onMatchingSchema( indexes, node, propertyCursor, propertyKeyId,
@@ -150,8 +215,26 @@ public class IndexTxStateUpdater
 
     void onPropertyChange( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId,
             Value beforeValue, Value afterValue )
+    {
+        onPropertyChange( node, propertyCursor, propertyKeyId, beforeValue, afterValue,
+                propertyPathUpdates( node.nodeReference(), propertyKeyId, beforeValue, afterValue ) );
+    }
+
+    /**
+     * @param propertyPaths the values at indexed property paths in the property before and after it changed, as
+     * returned by {@link #propertyPathUpdates(long, int, Value, Value)}.
+     */
+    void onPropertyChange( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId,
+            Value beforeValue, Value afterValue, EntityUpdates propertyPaths )
     {
         assert noSchemaChangedInTx();
+        updateIndexesOnChange( node, propertyCursor, propertyKeyId, beforeValue, afterValue );
+        onPropertyPathsChange( node, propertyCursor, propertyKeyId, propertyPaths );
+    }
+
+    private void updateIndexesOnChange( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId,
+            Value beforeValue, Value afterValue )
+    {
         Iterator<? extends IndexDescriptor> indexes = storageReader.indexesGetRelatedToProperty( propertyKeyId );
         NodeSchemaMatcher.onMatchingSchema( indexes, node, propertyCursor, propertyKeyId,
                 ( index, propertyKeyIds ) ->
@@ -189,11 +272,160 @@ public class IndexTxStateUpdater
                 } );
     }
 
+    /**
+     * Values at paths inside map properties can be indexed by path indexes, like {@code zip} in the map property
+     * {@code address} for a path index on the property key {@code address.zip}. Changing the map property is then also
+     * a change of the property paths, which must go into the tx state of those indexes, so they can be seeked within
+     * the transaction.
+     */
+    private void onPropertyPathsChange( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId,
+            EntityUpdates updates )
+    {
+        if ( updates == null )
+        {
+            return;
+        }
+        MutableIntSet nodePropertyIds = null;
+        IntIterator propertyKeyIds = updates.propertiesChanged().intIterator();
+        while ( propertyKeyIds.hasNext() )
+        {
+            int pathPropertyKeyId = propertyKeyIds.next();
+            if ( pathPropertyKeyId == propertyKeyId )
+            {
+                continue;
+            }
+            if ( nodePropertyIds == null )
+            {
+                nodePropertyIds = new IntHashSet();
+                node.properties( propertyCursor );
+                while ( propertyCursor.next() )
+                {
+                    nodePropertyIds.add( propertyCursor.propertyKey() );
+                }
+            }
+            if ( nodePropertyIds.contains( pathPropertyKeyId ) )
+            {
+                // An actual property with the dotted name is indexed instead of the path.
+                continue;
+            }
+
+            Value before = updates.valueBefore( pathPropertyKeyId );
+            Value after = updates.valueAfter( pathPropertyKeyId );
+            // the values at paths are never maps themselves, so they have no further paths to update
+            if ( before == NO_VALUE && after != NO_VALUE )
+            {
+                updateIndexesOnAdd( node, propertyCursor, pathPropertyKeyId, after );
+            }
+            else if ( before != NO_VALUE && after == NO_VALUE )
+            {
+                updateIndexesOnRemove( node, propertyCursor, pathPropertyKeyId, before );
+            }
+            else if ( before != NO_VALUE && !before.equals( after ) )
+            {
+                updateIndexesOnChange( node, propertyCursor, pathPropertyKeyId, before, after );
+            }
+        }
+    }
+
+    /**
+     * @return the values at indexed property paths in the given property before and after it changed, or
+     * {@code null} if the property is not a map either before or after the change.
+     */
+    EntityUpdates propertyPathUpdates( long node, int propertyKeyId, Value beforeValue, Value afterValue )
+    {
+        if ( !isMap( beforeValue ) && !isMap( afterValue ) )
+        {
+            return null;
+        }
+        EntityUpdates.Builder builder = EntityUpdates.forEntity( node );
+        if ( beforeValue == NO_VALUE )
+        {
+            builder.added( propertyKeyId, afterValue );
+        }
+        else if ( afterValue == NO_VALUE )
+        {
+            builder.removed( propertyKeyId, beforeValue );
+        }
+        else
+        {
+            builder.changed( propertyKeyId, beforeValue, afterValue );
+        }
+        EntityUpdates updates = builder.build();
+        indexProviders.projectPropertyPaths( updates );
+        return updates;
+    }
+
+    EntityUpdates existingPropertyPaths( NodeCursor node, PropertyCursor propertyCursor )
+    {
+        EntityUpdates.Builder builder = EntityUpdates.forEntity( node.nodeReference() );
+        boolean hasMaps = false;
+        node.properties( propertyCursor );
+        while ( propertyCursor.next() )
+        {
+            if ( propertyCursor.propertyType() == ValueGroup.MAP )
+            {
+                builder.existing( propertyCursor.propertyKey(), propertyCursor.propertyValue() );
+                hasMaps = true;
+            }
+        }
+        EntityUpdates updates = builder.build();
+        if ( hasMaps )
+        {
+            indexProviders.projectPropertyPaths( updates );
+        }
+        return updates;
+    }
+
+    /**
+     * An actual property with a dotted name, like {@code address.zip}, is indexed instead of the value at that path
+     * in the map properties of the node. Adding or removing the property then swaps the index entry of the path for
+     * the property, or back.
+     *
+     * @return the value at the path named like the given property in the map properties of the node, or
+     * {@code NO_VALUE} if there is none.
+     */
+    private Value shadowedPropertyPath( NodeCursor node, PropertyCursor propertyCursor, int propertyKeyId )
+    {
+        if ( !storageReader.indexesGetRelatedToProperty( propertyKeyId ).hasNext() )
+        {
+            return NO_VALUE;
+        }
+        Value value = existingPropertyPaths( node, propertyCursor ).valueAfter( propertyKeyId );
+        return isMap( value ) ? NO_VALUE : value;
+    }
+
+    private static boolean isMap( Value value )
+    {
+        return value.valueGroup() == ValueGroup.MAP;
+    }
+
     private Value[] getValueTuple( NodeCursor node, PropertyCursor propertyCursor, int[] indexPropertyIds )
     {
         return getValueTuple( node, propertyCursor, NO_SUCH_PROPERTY_KEY, NO_VALUE, indexPropertyIds );
     }
 
+    /**
+     * @return the values of the given properties, taking the ones the node does not have from the given property
+     * paths, or {@code null} if the node does not have all of them.
+     */
+    private Value[] getValueTuple( NodeCursor node, PropertyCursor propertyCursor, EntityUpdates propertyPaths,
+            int[] indexPropertyIds )
+    {
+        Value[] values = getValueTuple( node, propertyCursor, indexPropertyIds );
+        for ( int i = 0; i < values.length; i++ )
+        {
+            if ( values[i] == null )
+            {
+                values[i] = propertyPaths.valueAfter( indexPropertyIds[i] );
+                if ( values[i] == NO_VALUE )
+                {
+                    return null;
+                }
+            }
+        }
+        return values;
+    }
+
     private Value[] getValueTuple( NodeCursor node, PropertyCursor propertyCursor,
             int changedPropertyKeyId, Value changedValue, int[] indexPropertyIds )
     {
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.newapi;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.mutable.MutableInt;
+import org.eclipse.collections.api.iterator.IntIterator;
 
 import java.util.Arrays;
 import java.util.Iterator;
@@ -44,6 +45,7 @@ import org.neo4j.internal.kernel.api.Token;
 import org.neo4j.internal.kernel.api.Write;
 import org.neo4j.internal.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.internal.kernel.api.exceptions.PropertyKeyIdNotFoundKernelException;
 import org.neo4j.internal.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.internal.kernel.api.exceptions.explicitindex.AutoIndexingKernelException;
 import org.neo4j.internal.kernel.api.exceptions.explicitindex.ExplicitIndexNotFoundKernelException;
@@ -67,11 +69,13 @@ import org.neo4j.kernel.api.exceptions.schema.IndexBelongsToConstraintException;
 import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.exceptions.schema.NoSuchConstraintException;
 import org.neo4j.kernel.api.exceptions.schema.NoSuchIndexException;
+import org.neo4j.kernel.api.exceptions.schema.PropertyPathIndexClashException;
 import org.neo4j.kernel.api.exceptions.schema.RepeatedPropertyInCompositeSchemaException;
 import org.neo4j.kernel.api.exceptions.schema.UnableToValidateConstraintException;
 import org.neo4j.kernel.api.exceptions.schema.UniquePropertyValueValidationException;
 import org.neo4j.kernel.api.explicitindex.AutoIndexing;
 import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.PropertyPaths;
 import org.neo4j.kernel.api.schema.constraints.ConstraintDescriptorFactory;
 import org.neo4j.kernel.api.schema.constraints.IndexBackedConstraintDescriptor;
 import org.neo4j.kernel.api.schema.constraints.NodeKeyConstraintDescriptor;
@@ -81,6 +85,7 @@ import org.neo4j.kernel.api.schema.index.IndexDescriptorFactory;
 import org.neo4j.kernel.api.txstate.ExplicitIndexTransactionState;
 import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.impl.api.KernelTransactionImplementation;
+import org.neo4j.kernel.impl.api.index.EntityUpdates;
 import org.neo4j.kernel.impl.api.index.IndexingProvidersService;
 import org.neo4j.kernel.impl.api.state.ConstraintIndexCreator;
 import org.neo4j.kernel.impl.constraints.ConstraintSemantics;
@@ -89,6 +94,8 @@ import org.neo4j.kernel.impl.locking.ResourceTypes;
 import org.neo4j.storageengine.api.EntityType;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.storageengine.api.lock.ResourceType;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 
@@ -242,6 +249,7 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
         //We do this by checking if there is an existing node in the index that
         //with the same label and property combination.
         Iterator<ConstraintDescriptor> constraints = allStoreHolder.constraintsGetForLabel( nodeLabel );
+        EntityUpdates propertyPaths = null;
         while ( constraints.hasNext() )
         {
             ConstraintDescriptor constraint = constraints.next();
@@ -250,6 +258,15 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
                 IndexBackedConstraintDescriptor uniqueConstraint = (IndexBackedConstraintDescriptor) constraint;
                 IndexQuery.ExactPredicate[] propertyValues = getAllPropertyValues( uniqueConstraint.schema(),
                         StatementConstants.NO_SUCH_PROPERTY_KEY, Values.NO_VALUE );
+                if ( propertyValues == null )
+                {
+                    // The constrained properties may be paths into map properties of the node.
+                    if ( propertyPaths == null )
+                    {
+                        propertyPaths = updater.existingPropertyPaths( nodeCursor, propertyCursor );
+                    }
+                    propertyValues = getAllPropertyValues( uniqueConstraint.schema(), propertyPaths );
+                }
                 if ( propertyValues != null )
                 {
                     validateNoExistingNodeWithExactValues( uniqueConstraint, propertyValues, node );
@@ -409,6 +426,65 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
         return values;
     }
 
+    /**
+     * Fetch the property values for all properties in schema for a given node, taking the ones that the node does not
+     * have from the given values at property paths, like {@code address.zip}. Return these as an exact predicate array.
+     */
+    private IndexQuery.ExactPredicate[] getAllPropertyValues( SchemaDescriptor schema, EntityUpdates propertyPaths )
+    {
+        int[] schemaPropertyIds = schema.getPropertyIds();
+        IndexQuery.ExactPredicate[] values = new IndexQuery.ExactPredicate[schemaPropertyIds.length];
+        for ( int i = 0; i < schemaPropertyIds.length; i++ )
+        {
+            Value value = readNodeProperty( schemaPropertyIds[i] );
+            if ( value == NO_VALUE )
+            {
+                value = propertyPaths.valueAfter( schemaPropertyIds[i] );
+                if ( value == NO_VALUE )
+                {
+                    return null;
+                }
+            }
+            values[i] = IndexQuery.exact( schemaPropertyIds[i], value );
+        }
+        return values;
+    }
+
+    /**
+     * Check that changing a map property does not give the node the same values as an existing node, at property
+     * paths into the map that have uniqueness constraints.
+     */
+    private void validateNoExistingNodeWithExactPropertyPathValues( long node, int propertyKey, EntityUpdates propertyPaths )
+            throws UniquePropertyValueValidationException, UnableToValidateConstraintException
+    {
+        IntIterator propertyKeyIds = propertyPaths.propertiesChanged().intIterator();
+        while ( propertyKeyIds.hasNext() )
+        {
+            int pathPropertyKey = propertyKeyIds.next();
+            Value after = propertyPaths.valueAfter( pathPropertyKey );
+            if ( pathPropertyKey == propertyKey || after == NO_VALUE || after.equals( propertyPaths.valueBefore( pathPropertyKey ) ) )
+            {
+                continue;
+            }
+            Iterator<ConstraintDescriptor> constraints = Iterators.filter( hasProperty( pathPropertyKey ),
+                    allStoreHolder.constraintsGetAll() );
+            Iterator<IndexBackedConstraintDescriptor> uniquenessConstraints =
+                    new CastingIterator<>( constraints, IndexBackedConstraintDescriptor.class );
+            while ( uniquenessConstraints.hasNext() )
+            {
+                IndexBackedConstraintDescriptor constraint = uniquenessConstraints.next();
+                if ( nodeCursor.hasLabel( constraint.schema().keyId() ) )
+                {
+                    IndexQuery.ExactPredicate[] values = getAllPropertyValues( constraint.schema(), propertyPaths );
+                    if ( values != null )
+                    {
+                        validateNoExistingNodeWithExactValues( constraint, values, node );
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Check so that there is not an existing node with the exact match of label and property
      */
@@ -478,6 +554,17 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
     @Override
     public Value nodeSetProperty( long node, int propertyKey, Value value )
             throws EntityNotFoundException, ConstraintValidationException, AutoIndexingKernelException
+    {
+        return nodeSetProperty( node, propertyKey, value, null, null );
+    }
+
+    /**
+     * @param path the path inside the existing map property that {@code value} was updated at, or {@code null} if the
+     * whole value is set.
+     * @param pathValue the value set at {@code path}.
+     */
+    private Value nodeSetProperty( long node, int propertyKey, Value value, String[] path, Value pathValue )
+            throws EntityNotFoundException, ConstraintValidationException, AutoIndexingKernelException
     {
         acquireExclusiveNodeLock( node );
         ktx.assertOpen();
@@ -506,13 +593,18 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
                 } );
 
         Value existingValue = readNodeProperty( propertyKey );
+        EntityUpdates propertyPaths = updater.propertyPathUpdates( node, propertyKey, existingValue, value );
+        if ( propertyPaths != null )
+        {
+            validateNoExistingNodeWithExactPropertyPathValues( node, propertyKey, propertyPaths );
+        }
 
         if ( existingValue == NO_VALUE )
         {
             //no existing value, we just add it
             autoIndexing.nodes().propertyAdded( this, node, propertyKey, value );
             ktx.txState().nodeDoAddProperty( node, propertyKey, value );
-            updater.onPropertyAdd( nodeCursor, propertyCursor, propertyKey, value );
+            updater.onPropertyAdd( nodeCursor, propertyCursor, propertyKey, value, propertyPaths );
             return NO_VALUE;
         }
         else
@@ -521,13 +613,39 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
             {
                 //the value has changed to a new value
                 autoIndexing.nodes().propertyChanged( this, node, propertyKey, existingValue, value );
-                ktx.txState().nodeDoChangeProperty( node, propertyKey, value );
-                updater.onPropertyChange( nodeCursor, propertyCursor, propertyKey, existingValue, value );
+                if ( path == null )
+                {
+                    ktx.txState().nodeDoChangeProperty( node, propertyKey, value );
+                }
+                else
+                {
+                    ktx.txState().nodeDoChangeNestedProperty( node, propertyKey, path, pathValue, value );
+                }
+                updater.onPropertyChange( nodeCursor, propertyCursor, propertyKey, existingValue, value, propertyPaths );
             }
             return existingValue;
         }
     }
 
+    @Override
+    public Value nodeSetNestedProperty( long node, int propertyKey, String[] path, Value value )
+            throws EntityNotFoundException, ConstraintValidationException, AutoIndexingKernelException
+    {
+        assertValidPath( path );
+        acquireExclusiveNodeLock( node );
+        ktx.assertOpen();
+        singleNode( node );
+        Value existingProperty = readNodeProperty( propertyKey );
+        MapValue existingMap = asMap( existingProperty, path );
+        MapValue updatedMap = existingMap.updatedAt( path, value );
+        if ( updatedMap != existingMap )
+        {
+            // the updated map shares everything but the changed path with the existing one
+            nodeSetProperty( node, propertyKey, updatedMap, path, value );
+        }
+        return valueAt( existingMap, path );
+    }
+
     @Override
     public Value nodeRemoveProperty( long node, int propertyKey )
             throws EntityNotFoundException, AutoIndexingKernelException
@@ -551,6 +669,17 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
     @Override
     public Value relationshipSetProperty( long relationship, int propertyKey, Value value )
             throws EntityNotFoundException, AutoIndexingKernelException
+    {
+        return relationshipSetProperty( relationship, propertyKey, value, null, null );
+    }
+
+    /**
+     * @param path the path inside the existing map property that {@code value} was updated at, or {@code null} if the
+     * whole value is set.
+     * @param pathValue the value set at {@code path}.
+     */
+    private Value relationshipSetProperty( long relationship, int propertyKey, Value value, String[] path, Value pathValue )
+            throws EntityNotFoundException, AutoIndexingKernelException
     {
         acquireExclusiveRelationshipLock( relationship );
         ktx.assertOpen();
@@ -568,13 +697,72 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
             {
                 autoIndexing.relationships().propertyChanged( this, relationship, propertyKey, existingValue, value );
 
-                ktx.txState().relationshipDoReplaceProperty( relationship, propertyKey, existingValue, value );
+                if ( path == null )
+                {
+                    ktx.txState().relationshipDoReplaceProperty( relationship, propertyKey, existingValue, value );
+                }
+                else
+                {
+                    ktx.txState().relationshipDoChangeNestedProperty( relationship, propertyKey, path, pathValue, value );
+                }
             }
 
             return existingValue;
         }
     }
 
+    @Override
+    public Value relationshipSetNestedProperty( long relationship, int propertyKey, String[] path, Value value )
+            throws EntityNotFoundException, AutoIndexingKernelException
+    {
+        assertValidPath( path );
+        acquireExclusiveRelationshipLock( relationship );
+        ktx.assertOpen();
+        singleRelationship( relationship );
+        Value existingProperty = readRelationshipProperty( propertyKey );
+        MapValue existingMap = asMap( existingProperty, path );
+        MapValue updatedMap = existingMap.updatedAt( path, value );
+        if ( updatedMap != existingMap )
+        {
+            relationshipSetProperty( relationship, propertyKey, updatedMap, path, value );
+        }
+        return valueAt( existingMap, path );
+    }
+
+    private static void assertValidPath( String[] path )
+    {
+        if ( path == null || path.length == 0 )
+        {
+            throw new IllegalArgumentException( "The path to update inside a map property must have at least one key" );
+        }
+        for ( String key : path )
+        {
+            if ( key == null )
+            {
+                throw new IllegalArgumentException( "The path to update inside a map property must not contain null keys" );
+            }
+        }
+    }
+
+    private static MapValue asMap( Value property, String[] path )
+    {
+        if ( property == NO_VALUE )
+        {
+            return Values.EMPTY_MAP;
+        }
+        if ( !(property instanceof MapValue) )
+        {
+            throw new IllegalArgumentException( "Cannot update " + String.join( ".", path ) + " in a property that is not a map" );
+        }
+        return (MapValue) property;
+    }
+
+    private static Value valueAt( MapValue map, String[] path )
+    {
+        Value value = MapValueEncoding.valueAt( map, path );
+        return value == null ? NO_VALUE : value;
+    }
+
     @Override
     public Value relationshipRemoveProperty( long relationship, int propertyKey )
             throws EntityNotFoundException, AutoIndexingKernelException
@@ -892,6 +1080,7 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
         assertIndexDoesNotExist( SchemaKernelException.OperationContext.INDEX_CREATION, descriptor );
 
         IndexProvider.Descriptor providerDescriptor = indexProviders.indexProviderForNameOrDefault( provider );
+        assertNoPropertyPathIndexClash( descriptor, providerDescriptor, SchemaKernelException.OperationContext.INDEX_CREATION );
         IndexDescriptor index = IndexDescriptorFactory.forSchema( descriptor, name, providerDescriptor );
         ktx.txState().indexDoAdd( index );
         return index;
@@ -963,6 +1152,8 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
         assertConstraintDoesNotExist( constraint );
         // It is not allowed to create uniqueness constraints on indexed label/property pairs
         assertIndexDoesNotExist( SchemaKernelException.OperationContext.CONSTRAINT_CREATION, descriptor );
+        assertNoPropertyPathIndexClash( descriptor, indexProviders.indexProviderForNameOrDefault( provider ),
+                SchemaKernelException.OperationContext.CONSTRAINT_CREATION );
 
         // Create constraints
         indexBackedConstraintCreate( constraint, provider );
@@ -988,6 +1179,8 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
         assertConstraintDoesNotExist( constraint );
         // It is not allowed to create node key constraints on indexed label/property pairs
         assertIndexDoesNotExist( SchemaKernelException.OperationContext.CONSTRAINT_CREATION, descriptor );
+        assertNoPropertyPathIndexClash( descriptor, indexProviders.indexProviderForNameOrDefault( provider ),
+                SchemaKernelException.OperationContext.CONSTRAINT_CREATION );
 
         //enforce constraints
         try ( NodeLabelIndexCursor nodes = cursors.allocateNodeLabelIndexCursor() )
@@ -1113,6 +1306,44 @@ public class Operations implements Write, ExplicitIndexWrite, SchemaWrite
         }
     }
 
+    /**
+     * Path indexes read a property key named like {@code address.zip} as the path {@code zip} inside the map property
+     * {@code address}, while all other indexes read it as the property with the dotted name. Both would be fed from the
+     * same updates, so a property key can only be indexed in one of the two ways.
+     */
+    private void assertNoPropertyPathIndexClash( SchemaDescriptor descriptor, IndexProvider.Descriptor providerDescriptor,
+            SchemaKernelException.OperationContext context ) throws PropertyPathIndexClashException
+    {
+        int[] pathPropertyIds = Arrays.stream( descriptor.getPropertyIds() ).filter( this::isPropertyPath ).toArray();
+        if ( pathPropertyIds.length == 0 )
+        {
+            return;
+        }
+        boolean propertyPath = PropertyPaths.isPathIndex( providerDescriptor );
+        Iterator<IndexReference> indexes = allStoreHolder.indexesGetAll();
+        while ( indexes.hasNext() )
+        {
+            IndexReference index = indexes.next();
+            if ( PropertyPaths.isPathIndex( index ) != propertyPath &&
+                 Arrays.stream( index.properties() ).anyMatch( id -> ArrayUtils.contains( pathPropertyIds, id ) ) )
+            {
+                throw new PropertyPathIndexClashException( descriptor, ((IndexDescriptor) index).schema(), propertyPath, context );
+            }
+        }
+    }
+
+    private boolean isPropertyPath( int propertyKeyId )
+    {
+        try
+        {
+            return PropertyPaths.keys( token.propertyKeyName( propertyKeyId ) ) != null;
+        }
+        catch ( PropertyKeyIdNotFoundKernelException e )
+        {
+            return false;
+        }
+    }
+
     private void exclusiveOptimisticLock( ResourceType resource, long resourceId )
     {
         ktx.statementLocks().optimistic().acquireExclusive( ktx.lockTracer(), resource, resourceId );
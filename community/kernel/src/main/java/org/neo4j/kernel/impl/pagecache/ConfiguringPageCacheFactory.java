@@ -19,6 +19,10 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import org.neo4j.helpers.Service;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -35,8 +39,10 @@ import org.neo4j.kernel.configuration.Config;
 import org.neo4j.logging.Log;
 import org.neo4j.memory.GlobalMemoryTracker;
 
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.database_path;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.mapped_memory_page_size;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_reservations;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_swapper;
 import static org.neo4j.kernel.configuration.Settings.BYTES;
 
@@ -87,8 +93,33 @@ public class ConfiguringPageCacheFactory
     {
         checkPageSize( config );
         MemoryAllocator memoryAllocator = buildMemoryAllocator( config );
-        return new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer, pageCursorTracerSupplier,
-                versionContextSupplier );
+        MuninnPageCache pageCache = new MuninnPageCache( swapperFactory, memoryAllocator, pageCacheTracer,
+                pageCursorTracerSupplier, versionContextSupplier );
+        reservePages( pageCache );
+        return pageCache;
+    }
+
+    private void reservePages( MuninnPageCache pageCache )
+    {
+        // The setting has been validated to hold file names and percentages of the page cache, like
+        // `neostore.nodestore.db:10%`, where the files are in the database directory.
+        File databaseDirectory = config.get( database_path );
+        for ( String reservation : config.get( pagecache_reservations ) )
+        {
+            int separator = reservation.lastIndexOf( ':' );
+            File file = new File( databaseDirectory, reservation.substring( 0, separator ).trim() );
+            double percentage = Double.parseDouble( reservation.substring( separator + 1, reservation.length() - 1 ) );
+            int pageCount = (int) (pageCache.maxCachedPages() * percentage / 100);
+            try
+            {
+                pageCache.reservePages( file, pageCount );
+            }
+            catch ( IOException e )
+            {
+                throw new UncheckedIOException( e );
+            }
+            log.info( "Reserved " + pageCount + " pages of the page cache for " + file );
+        }
     }
 
     private MemoryAllocator buildMemoryAllocator( Config config )
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.values.storable.ArrayValue;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.TextValue;
+import org.neo4j.values.storable.Value;
+
+/**
+ * Caches values read at paths into map properties that are stored in dynamic records, so that repeatedly reading
+ * the same few fields out of large maps doesn't have to fetch and decode the records each time.
+ * <p>
+ * Values are cached per reference to the first dynamic record of the map. A stored map is never changed in place,
+ * setting or removing the property frees those records and a new value gets new records, so the reference
+ * identifies the (entity, property key) value that was read. Cached values for a reference are invalidated when a
+ * transaction changing a property record referencing it is applied, see {@link MapPathCacheInvalidationBatchTransactionApplier}.
+ * A reader takes the {@link #generation(long) generation} of a reference before it reads the records, and
+ * {@link #put(long, String[], Value, long) puts} the value with it, so that a value read before an invalidation that
+ * happened while it was being read is dropped instead of cached.
+ * <p>
+ * The cache is bounded by the estimated heap usage of the paths and values it holds, and evicts the least recently
+ * used map, with all values cached for it, until a new value fits. Values that are maps themselves are not cached.
+ */
+class MapPathCache
+{
+    static final MapPathCache DISABLED = new MapPathCache( 0 );
+
+    private static final int STRIPES = 16;
+    private static final long MIN_STRIPE_BYTES = ByteUnit.kibiBytes( 64 );
+    private static final int OBJECT_BYTES = 16;
+    private static final int REFERENCE_BYTES = 8;
+    private static final int ENTRY_BYTES = 48;
+    private static final int SCALAR_BYTES = 32;
+
+    private final Stripe[] stripes;
+
+    MapPathCache( long maxBytes )
+    {
+        if ( maxBytes == 0 )
+        {
+            stripes = null;
+            return;
+        }
+        int stripeCount = (int) Math.max( 1, Math.min( STRIPES, maxBytes / MIN_STRIPE_BYTES ) );
+        stripes = new Stripe[stripeCount];
+        for ( int i = 0; i < stripeCount; i++ )
+        {
+            stripes[i] = new Stripe( maxBytes / stripeCount );
+        }
+    }
+
+    boolean isEnabled()
+    {
+        return stripes != null;
+    }
+
+    /**
+     * @return the value cached for {@code path} in the map stored at {@code reference}, or {@code null} if not cached.
+     */
+    Value get( long reference, String[] path )
+    {
+        if ( stripes == null )
+        {
+            return null;
+        }
+        Stripe stripe = stripe( reference );
+        synchronized ( stripe )
+        {
+            CachedPaths paths = stripe.maps.get( reference );
+            return paths == null ? null : paths.values.get( Arrays.asList( path ) );
+        }
+    }
+
+    /**
+     * @return the current generation of invalidations of {@code reference}, to read the stored map and then
+     * {@link #put(long, String[], Value, long) put} the value with.
+     */
+    long generation( long reference )
+    {
+        return stripes == null ? 0 : stripe( reference ).generation;
+    }
+
+    /**
+     * Caches {@code value} for {@code path} in the map stored at {@code reference}, unless the reference has been
+     * invalidated since {@code generation} was taken, which means the value may already be stale.
+     */
+    void put( long reference, String[] path, Value value, long generation )
+    {
+        if ( stripes == null || value == null || value instanceof MapValue )
+        {
+            return;
+        }
+        long size = estimatedSize( path, value );
+        Stripe stripe = stripe( reference );
+        synchronized ( stripe )
+        {
+            if ( stripe.generation != generation )
+            {
+                return;
+            }
+            CachedPaths paths = stripe.maps.get( reference );
+            if ( paths != null && paths.values.containsKey( Arrays.asList( path ) ) )
+            {
+                return;
+            }
+            stripe.evictFor( size, reference );
+            if ( stripe.bytes + size > stripe.maxBytes )
+            {
+                return;
+            }
+            if ( paths == null )
+            {
+                paths = new CachedPaths();
+                stripe.maps.put( reference, paths );
+            }
+            paths.values.put( Arrays.asList( path.clone() ), value );
+            paths.bytes += size;
+            stripe.bytes += size;
+        }
+    }
+
+    void invalidate( long reference )
+    {
+        if ( stripes != null )
+        {
+            Stripe stripe = stripe( reference );
+            synchronized ( stripe )
+            {
+                stripe.generation++;
+                CachedPaths paths = stripe.maps.remove( reference );
+                if ( paths != null )
+                {
+                    stripe.bytes -= paths.bytes;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a rough estimate of the heap used to cache {@code value} at {@code path}, including the entry holding it.
+     */
+    static long estimatedSize( String[] path, Value value )
+    {
+        long size = ENTRY_BYTES + OBJECT_BYTES + (long) REFERENCE_BYTES * path.length;
+        for ( String key : path )
+        {
+            size += estimatedStringSize( key.length() );
+        }
+        return size + estimatedSize( value );
+    }
+
+    private static long estimatedSize( Value value )
+    {
+        if ( value instanceof TextValue )
+        {
+            return OBJECT_BYTES + estimatedStringSize( ((TextValue) value).length() );
+        }
+        if ( value instanceof ArrayValue )
+        {
+            ArrayValue array = (ArrayValue) value;
+            long size = 2 * OBJECT_BYTES;
+            for ( int i = 0; i < array.length(); i++ )
+            {
+                size += estimatedSize( (Value) array.value( i ) );
+            }
+            return size;
+        }
+        return SCALAR_BYTES;
+    }
+
+    private static long estimatedStringSize( int length )
+    {
+        return 2 * OBJECT_BYTES + 2L * length;
+    }
+
+    private Stripe stripe( long reference )
+    {
+        return stripes[(int) (Long.hashCode( reference ) & Integer.MAX_VALUE) % stripes.length];
+    }
+
+    private static class Stripe
+    {
+        private final long maxBytes;
+        private final LinkedHashMap<Long,CachedPaths> maps = new LinkedHashMap<>( 16, 0.75f, true );
+        private long bytes;
+        // Counts the invalidations of any reference in this stripe, written under the stripe lock.
+        private volatile long generation;
+
+        Stripe( long maxBytes )
+        {
+            this.maxBytes = maxBytes;
+        }
+
+        /**
+         * Evicts the least recently used maps, other than the one at {@code reference}, until {@code size} more bytes fit.
+         */
+        void evictFor( long size, long reference )
+        {
+            Iterator<Map.Entry<Long,CachedPaths>> entries = maps.entrySet().iterator();
+            while ( bytes + size > maxBytes && entries.hasNext() )
+            {
+                Map.Entry<Long,CachedPaths> entry = entries.next();
+                if ( entry.getKey() != reference )
+                {
+                    bytes -= entry.getValue().bytes;
+                    entries.remove();
+                }
+            }
+        }
+    }
+
+    private static class CachedPaths
+    {
+        private final Map<List<String>,Value> values = new HashMap<>();
+        private long bytes;
+    }
+}
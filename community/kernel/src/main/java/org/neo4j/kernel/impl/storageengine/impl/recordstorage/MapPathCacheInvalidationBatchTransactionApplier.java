@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.neo4j.kernel.impl.api.BatchTransactionApplier;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.ShortMap;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.storageengine.api.CommandsToApply;
+
+/**
+ * Invalidates the {@link MapPathCache} for map properties referenced by changed property records, both the maps
+ * that were replaced or removed and the ones written, since the latter may have gotten reused record ids.
+ * Must be applied after the store has been updated.
+ */
+class MapPathCacheInvalidationBatchTransactionApplier extends BatchTransactionApplier.Adapter
+{
+    private final TransactionApplier applier;
+
+    MapPathCacheInvalidationBatchTransactionApplier( MapPathCache cache )
+    {
+        this.applier = new MapPathCacheInvalidationTransactionApplier( cache );
+    }
+
+    @Override
+    public TransactionApplier startTx( CommandsToApply transaction )
+    {
+        return applier;
+    }
+
+    private static class MapPathCacheInvalidationTransactionApplier extends TransactionApplier.Adapter
+    {
+        private final MapPathCache cache;
+
+        MapPathCacheInvalidationTransactionApplier( MapPathCache cache )
+        {
+            this.cache = cache;
+        }
+
+        @Override
+        public boolean visitPropertyCommand( Command.PropertyCommand command )
+        {
+            invalidateMaps( command.getBefore() );
+            invalidateMaps( command.getAfter() );
+            return false;
+        }
+
+        private void invalidateMaps( PropertyRecord record )
+        {
+            for ( PropertyBlock block : record )
+            {
+                if ( block.forceGetType() == PropertyType.MAP && !ShortMap.isShortMap( block.getSingleValueBlock() ) )
+                {
+                    cache.invalidate( block.getSingleValueLong() );
+                }
+            }
+        }
+    }
+}
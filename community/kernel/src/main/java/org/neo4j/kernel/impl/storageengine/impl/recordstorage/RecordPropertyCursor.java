@@ -27,10 +27,12 @@ import org.neo4j.kernel.impl.store.LongerShortString;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
 import org.neo4j.kernel.impl.store.ShortArray;
+import org.neo4j.kernel.impl.store.ShortMap;
 import org.neo4j.kernel.impl.store.TemporalType;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.stats.MapPropertyStatistics;
 import org.neo4j.kernel.impl.util.Bits;
 import org.neo4j.storageengine.api.StoragePropertyCursor;
 import org.neo4j.string.UTF8;
@@ -42,6 +44,7 @@ import org.neo4j.values.storable.FloatValue;
 import org.neo4j.values.storable.IntValue;
 import org.neo4j.values.storable.LongValue;
 import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.ShortValue;
 import org.neo4j.values.storable.TextValue;
 import org.neo4j.values.storable.Value;
@@ -54,6 +57,7 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
     private static final int INITIAL_POSITION = -1;
 
     private final PropertyStore read;
+    private final MapPathCache mapPathCache;
     private long next;
     private int block;
     public ByteBuffer buffer;
@@ -63,9 +67,15 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
     private boolean open;
 
     RecordPropertyCursor( PropertyStore read )
+    {
+        this( read, MapPathCache.DISABLED );
+    }
+
+    RecordPropertyCursor( PropertyStore read, MapPathCache mapPathCache )
     {
         super( NO_ID );
         this.read = read;
+        this.mapPathCache = mapPathCache;
     }
 
     @Override
@@ -198,6 +208,57 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
         return readValue();
     }
 
+    @Override
+    public Value propertyValue( String[] path )
+    {
+        if ( type() != PropertyType.MAP )
+        {
+            return MapValueEncoding.valueAt( readValue(), path );
+        }
+        if ( !mapPathCache.isEnabled() || ShortMap.isShortMap( currentBlock() ) )
+        {
+            return readMapPath( path );
+        }
+        long reference = PropertyBlock.fetchLong( currentBlock() );
+        long generation = mapPathCache.generation( reference );
+        Value value = mapPathCache.get( reference, path );
+        if ( value == null )
+        {
+            value = readMapPath( path );
+            mapPathCache.put( reference, path, value, generation );
+        }
+        else
+        {
+            read.getMapStatistics().mapPathCacheHit();
+        }
+        return value;
+    }
+
+    @Override
+    public String[] mapKeys( String[] path )
+    {
+        if ( type() != PropertyType.MAP )
+        {
+            return null;
+        }
+        MapPropertyStatistics statistics = read.getMapStatistics();
+        long startTime = statistics.startTime();
+        ByteBuffer buffer = path.length == 0 ? readMapDirectoryBytes() : readMapBytes();
+        String[] keys = MapValueEncoding.keysAt( buffer.array(), 0, buffer.limit(), path );
+        statistics.mapPathRead( buffer.limit(), dynamicRecordsOfMap( buffer ), startTime );
+        return keys;
+    }
+
+    private Value readMapPath( String[] path )
+    {
+        MapPropertyStatistics statistics = read.getMapStatistics();
+        long startTime = statistics.startTime();
+        ByteBuffer buffer = readMapBytes();
+        Value value = MapValueEncoding.decodePath( buffer.array(), 0, buffer.limit(), path );
+        statistics.mapPathRead( buffer.limit(), dynamicRecordsOfMap( buffer ), startTime );
+        return value;
+    }
+
     private Value readValue()
     {
         PropertyType type = type();
@@ -393,13 +454,73 @@ class RecordPropertyCursor extends PropertyRecord implements StoragePropertyCurs
 
     private MapValue readMap()
     {
+        MapPropertyStatistics statistics = read.getMapStatistics();
+        long startTime = statistics.startTime();
+        ByteBuffer buffer = readMapBytes();
+        MapValue map;
+        if ( buffer != this.buffer || buffer.limit() * 2 >= buffer.capacity() )
+        {
+            // The map takes over the buffer rather than copying it, the next dynamic read allocates a new buffer.
+            // A buffer that is mostly empty, after an earlier large read, is not worth keeping alive like that.
+            map = MapValueEncoding.decodeShared( buffer.array(), 0, buffer.limit(), statistics.decodeTime() );
+            if ( buffer == this.buffer )
+            {
+                this.buffer = null;
+            }
+        }
+        else
+        {
+            map = MapValueEncoding.decode( buffer.array(), 0, buffer.limit(), statistics.decodeTime() );
+        }
+        statistics.mapRead( buffer.limit(), dynamicRecordsOfMap( buffer ), startTime );
+        return map;
+    }
+
+    private int dynamicRecordsOfMap( ByteBuffer buffer )
+    {
+        if ( ShortMap.isShortMap( currentBlock() ) )
+        {
+            return 0;
+        }
+        int recordDataSize = read.getStringStore().getRecordDataSize();
+        return (buffer.limit() + recordDataSize - 1) / recordDataSize;
+    }
+
+    private ByteBuffer readMapBytes()
+    {
+        if ( ShortMap.isShortMap( currentBlock() ) )
+        {
+            return ByteBuffer.wrap( ShortMap.encodedBytes( getBlocks(), block ) );
+        }
         long reference = PropertyBlock.fetchLong( currentBlock() );
         if ( stringPage == null )
         {
             stringPage = stringPage( reference );
         }
-        String string = getString(this, reference, stringPage);
-        return Values.mapValue(string);
+        ByteBuffer buffer = this.buffer = read.loadString( reference, this.buffer, stringPage );
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Like {@link #readMapBytes()}, but stops following the dynamic record chain once the key directory of the map
+     * has been loaded. The buffer then holds a prefix of the map, enough for reading its keys.
+     */
+    private ByteBuffer readMapDirectoryBytes()
+    {
+        if ( ShortMap.isShortMap( currentBlock() ) )
+        {
+            return readMapBytes();
+        }
+        long reference = PropertyBlock.fetchLong( currentBlock() );
+        if ( stringPage == null )
+        {
+            stringPage = stringPage( reference );
+        }
+        ByteBuffer buffer = this.buffer = read.loadString( reference, this.buffer, stringPage,
+                loaded -> MapValueEncoding.directoryLength( loaded.array(), 0, loaded.position() ) != -1 );
+        buffer.flip();
+        return buffer;
     }
 
     private String getString( RecordPropertyCursor cursor, long reference, PageCursor page )
@@ -144,6 +144,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     private final IdController idController;
     private final int denseNodeThreshold;
     private final int recordIdBatchSize;
+    private final MapPathCache mapPathCache;
 
     public RecordStorageEngine(
             File storeDir,
@@ -202,7 +203,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             indexStoreView = new DynamicIndexStoreView( neoStoreIndexStoreView, labelScanStore, lockService, neoStores, logProvider );
             this.indexProviderMap = indexProviderMap;
             indexingService = IndexingServiceFactory.createIndexingService( config, scheduler, indexProviderMap,
-                    indexStoreView, tokenNameLookup,
+                    indexStoreView, tokenNameLookup, tokenHolders.propertyKeyTokens()::getIdByName,
                     Iterators.asList( schemaStorage.indexesGetAll() ), logProvider,
                     indexingServiceMonitor, schemaState );
 
@@ -216,6 +217,8 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
             commandReaderFactory = new RecordStorageCommandReaderFactory();
             indexUpdatesSync = new WorkSync<>( indexingService );
 
+            mapPathCache = new MapPathCache( config.get( GraphDatabaseSettings.map_path_cache_size ) );
+
             denseNodeThreshold = config.get( GraphDatabaseSettings.dense_node_threshold );
             recordIdBatchSize = config.get( GraphDatabaseSettings.record_id_batch_size );
         }
@@ -231,7 +234,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
     {
         Supplier<IndexReaderFactory> indexReaderFactory = () -> new IndexReaderFactory.Caching( indexingService );
         return new RecordStorageReader( tokenHolders, schemaStorage, neoStores, indexingService,
-                schemaCache, indexReaderFactory, labelScanStore::newReader, allocateCommandCreationContext() );
+                schemaCache, indexReaderFactory, labelScanStore::newReader, allocateCommandCreationContext(), mapPathCache );
     }
 
     @Override
@@ -320,6 +323,10 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         ArrayList<BatchTransactionApplier> appliers = new ArrayList<>();
         // Graph store application. The order of the decorated store appliers is irrelevant
         appliers.add( new NeoStoreBatchTransactionApplier( mode.version(), neoStores, cacheAccess, lockService( mode ) ) );
+        if ( mapPathCache.isEnabled() )
+        {
+            appliers.add( new MapPathCacheInvalidationBatchTransactionApplier( mapPathCache ) );
+        }
         if ( mode.needsHighIdTracking() )
         {
             appliers.add( new HighIdBatchTransactionApplier( neoStores ) );
@@ -365,6 +372,7 @@ public class RecordStorageEngine implements StorageEngine, Lifecycle
         satisfier.satisfyDependency( indexingService );
         // providing TransactionIdStore, LogVersionRepository
         satisfier.satisfyDependency( neoStores.getMetaDataStore() );
+        satisfier.satisfyDependency( neoStores.getPropertyStore().getMapStatistics() );
         satisfier.satisfyDependency( indexStoreView );
     }
 
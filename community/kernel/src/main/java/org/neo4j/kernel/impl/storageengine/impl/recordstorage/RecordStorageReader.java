@@ -86,6 +86,7 @@ public class RecordStorageReader implements StorageReader
     private final Supplier<LabelScanReader> labelScanReaderSupplier;
     private final RecordCursors recordCursors;
     private final RecordStorageCommandCreationContext commandCreationContext;
+    private final MapPathCache mapPathCache;
 
     private IndexReaderFactory indexReaderFactory;
     private LabelScanReader labelScanReader;
@@ -98,7 +99,7 @@ public class RecordStorageReader implements StorageReader
             IndexingService indexService, SchemaCache schemaCache,
             Supplier<IndexReaderFactory> indexReaderFactory,
             Supplier<LabelScanReader> labelScanReaderSupplier,
-            RecordStorageCommandCreationContext commandCreationContext )
+            RecordStorageCommandCreationContext commandCreationContext, MapPathCache mapPathCache )
     {
         this.tokenHolders = tokenHolders;
         this.neoStores = neoStores;
@@ -113,6 +114,7 @@ public class RecordStorageReader implements StorageReader
         this.indexReaderFactorySupplier = indexReaderFactory;
         this.labelScanReaderSupplier = labelScanReaderSupplier;
         this.commandCreationContext = commandCreationContext;
+        this.mapPathCache = mapPathCache;
         this.recordCursors = new RecordCursors( neoStores );
     }
 
@@ -122,7 +124,7 @@ public class RecordStorageReader implements StorageReader
      */
     public RecordStorageReader( NeoStores stores )
     {
-        this( null, null, stores, null, null, null, null, null );
+        this( null, null, stores, null, null, null, null, null, MapPathCache.DISABLED );
     }
 
     @Override
@@ -491,6 +493,6 @@ public class RecordStorageReader implements StorageReader
     @Override
     public StoragePropertyCursor allocatePropertyCursor()
     {
-        return new RecordPropertyCursor( propertyStore );
+        return new RecordPropertyCursor( propertyStore, mapPathCache );
     }
 }
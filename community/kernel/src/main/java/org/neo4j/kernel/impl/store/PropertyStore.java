@@ -27,9 +27,9 @@ import java.nio.ByteOrder;
 import java.nio.file.OpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
 
 import org.neo4j.cursor.Cursor;
@@ -49,11 +49,14 @@ import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.store.stats.MapPropertyStatistics;
 import org.neo4j.kernel.impl.util.Bits;
 import org.neo4j.logging.LogProvider;
 import org.neo4j.string.UTF8;
 import org.neo4j.values.storable.ArrayValue;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
 import org.neo4j.values.utils.MapValueUtil;
@@ -99,7 +102,7 @@ import static org.neo4j.kernel.impl.store.record.RecordLoad.NORMAL;
  * 12: SHORT ARRAY
  * 13: GEOMETRY
  *
- * 15: MAP REFERENCE (Stored as a STRING REFERENCE)
+ * 15: MAP REFERENCE (Stored in the string store, see {@link MapValueEncoding})
  * </pre>
  * <h2>value formats</h2>
  * <pre>
@@ -161,6 +164,9 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
     // this variable here can be removed once the support for older store versions (that do not have these two
     // capabilities) has ceased, the variable can be removed.
     private final boolean allowStorePointsAndTemporal;
+    // Maps are stored as JSON text in formats without this capability, so that older versions can still read them.
+    private final boolean allowStoreBinaryMaps;
+    private final MapPropertyStatistics mapStatistics = new MapPropertyStatistics();
 
     public PropertyStore(
             File fileName,
@@ -181,6 +187,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         this.arrayStore = arrayPropertyStore;
         allowStorePointsAndTemporal = recordFormats.hasCapability( Capability.POINT_PROPERTIES )
                 && recordFormats.hasCapability( Capability.TEMPORAL_PROPERTIES );
+        allowStoreBinaryMaps = recordFormats.hasCapability( Capability.BINARY_MAP_PROPERTIES );
     }
 
     @Override
@@ -229,12 +236,26 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
                         && block.getValueRecords().get( 0 ).isCreated() )
                 {
                     updateDynamicRecords( block.getValueRecords() );
+                    if ( block.getType() == PropertyType.MAP )
+                    {
+                        mapWritten( block.getValueRecords() );
+                    }
                 }
             }
         }
         updateDynamicRecords( record.getDeletedRecords() );
     }
 
+    private void mapWritten( List<DynamicRecord> records )
+    {
+        int bytes = 0;
+        for ( DynamicRecord record : records )
+        {
+            bytes += record.getLength();
+        }
+        mapStatistics.mapWritten( bytes, records.size() );
+    }
+
     private void updateDynamicRecords( List<DynamicRecord> records )
     {
         for ( DynamicRecord valueRecord : records )
@@ -277,6 +298,10 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         }
 
         PropertyType type = block.getType();
+        if ( type == PropertyType.MAP && ShortMap.isShortMap( block.getSingleValueBlock() ) )
+        {
+            return;
+        }
         RecordStore<DynamicRecord> dynamicStore = dynamicStoreForValueType( type );
         if ( dynamicStore == null )
         {
@@ -324,11 +349,17 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
 
     public void encodeValue( PropertyBlock block, int keyId, Value value )
     {
-        encodeValue( block, keyId, value, stringStore, arrayStore, allowStorePointsAndTemporal );
+        encodeValue( block, keyId, value, stringStore, arrayStore, allowStorePointsAndTemporal, allowStoreBinaryMaps );
     }
 
     public static void encodeValue( PropertyBlock block, int keyId, Value value, DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator,
             boolean allowStorePointsAndTemporal )
+    {
+        encodeValue( block, keyId, value, stringAllocator, arrayAllocator, allowStorePointsAndTemporal, true );
+    }
+
+    public static void encodeValue( PropertyBlock block, int keyId, Value value, DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator,
+            boolean allowStorePointsAndTemporal, boolean allowStoreBinaryMaps )
     {
         if ( value instanceof ArrayValue )
         {
@@ -350,12 +381,39 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
             }
             block.setValueRecords( arrayRecords );
         }
+        else if ( value instanceof MapValue )
+        {
+            encodeMap( block, keyId, (MapValue) value, stringAllocator, allowStoreBinaryMaps );
+        }
         else
         {
             value.writeTo( new PropertyBlockValueWriter( block, keyId, stringAllocator, allowStorePointsAndTemporal ) );
         }
     }
 
+    private static void encodeMap( PropertyBlock block, int keyId, MapValue map, DynamicRecordAllocator stringAllocator,
+            boolean allowStoreBinaryMaps )
+    {
+        byte[] encodedMap = allowStoreBinaryMaps ? MapValueEncoding.encode( map )
+                                                 : MapValueUtil.utf8Map( map );
+
+        // Try short map first, i.e. inlined in the property block
+        if ( allowStoreBinaryMaps && ShortMap.encode( keyId, encodedMap, block, PropertyType.getPayloadSize() ) )
+        {
+            return;
+        }
+
+        // Fall back to dynamic string store
+        List<DynamicRecord> valueRecords = new ArrayList<>();
+        allocateStringRecords( valueRecords, encodedMap, stringAllocator );
+        setSingleBlockValue( block, keyId, PropertyType.MAP, Iterables.first( valueRecords ).getId() );
+        for ( DynamicRecord valueRecord : valueRecords )
+        {
+            valueRecord.setType( PropertyType.MAP.intValue() );
+        }
+        block.setValueRecords( valueRecords );
+    }
+
     public PageCursor openStringPageCursor( long reference )
     {
         return stringStore.openPageCursorForReading( reference );
@@ -368,16 +426,25 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
 
     public ByteBuffer loadString( long reference, ByteBuffer buffer, PageCursor page )
     {
-        return readDynamic( stringStore, reference, buffer, page );
+        return readDynamic( stringStore, reference, buffer, page, loaded -> false );
+    }
+
+    /**
+     * Loads the string store chain starting at {@code reference}, but stops following it as soon as {@code enough}
+     * accepts what has been loaded so far. {@code enough} sees the buffer before it is flipped.
+     */
+    public ByteBuffer loadString( long reference, ByteBuffer buffer, PageCursor page, Predicate<ByteBuffer> enough )
+    {
+        return readDynamic( stringStore, reference, buffer, page, enough );
     }
 
     public ByteBuffer loadArray( long reference, ByteBuffer buffer, PageCursor page )
     {
-        return readDynamic( arrayStore, reference, buffer, page );
+        return readDynamic( arrayStore, reference, buffer, page, loaded -> false );
     }
 
     private static ByteBuffer readDynamic( AbstractDynamicStore store, long reference, ByteBuffer buffer,
-            PageCursor page )
+            PageCursor page, Predicate<ByteBuffer> enough )
     {
         if ( buffer == null )
         {
@@ -401,7 +468,7 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
             }
             buffer.put( data, 0, data.length );
         }
-        while ( reference != NO_ID );
+        while ( reference != NO_ID && !enough.test( buffer ) );
         return buffer;
     }
 
@@ -514,22 +581,6 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
             block.setValueRecords( valueRecords );
         }
 
-        @Override
-        public void writeMap( HashMap<String, Object> map ) throws IllegalArgumentException
-        {
-            String mapRepresentation = MapValueUtil.stringifyMap(map);
-            byte[] encodedMap = encodeString(mapRepresentation);
-            List<DynamicRecord> valueRecords = new ArrayList<>();
-
-            allocateStringRecords( valueRecords, encodedMap, stringAllocator );
-            setSingleBlockValue( block, keyId, PropertyType.MAP, Iterables.first( valueRecords ).getId() );
-            for ( DynamicRecord valueRecord : valueRecords )
-            {
-                valueRecord.setType( PropertyType.MAP.intValue() );
-            }
-            block.setValueRecords( valueRecords );
-        }
-
         @Override
         public void writeString( char value ) throws IllegalArgumentException
         {
@@ -704,6 +755,30 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         return getRightArray( arrayStore.readFullByteArray( records, PropertyType.ARRAY ) );
     }
 
+    public MapValue getMapFor( PropertyBlock propertyBlock )
+    {
+        ensureHeavy( propertyBlock );
+        return getMapFor( propertyBlock.getValueRecords() );
+    }
+
+    public MapValue getMapFor( Iterable<DynamicRecord> records )
+    {
+        long startTime = mapStatistics.startTime();
+        // A map doesn't have a header in the data array, its encoding starts with its own format byte
+        byte[] bytes = stringStore.readFullByteArray( records, PropertyType.MAP ).other();
+        MapValue map = MapValueEncoding.decodeShared( bytes, 0, bytes.length, mapStatistics.decodeTime() );
+        mapStatistics.mapRead( bytes.length, (int) Iterables.count( records ), startTime );
+        return map;
+    }
+
+    /**
+     * @return statistics of the map properties read and written through this store.
+     */
+    public MapPropertyStatistics getMapStatistics()
+    {
+        return mapStatistics;
+    }
+
     @Override
     public String toString()
     {
@@ -753,6 +828,11 @@ public class PropertyStore extends CommonAbstractStore<PropertyRecord,NoStoreHea
         return allowStorePointsAndTemporal;
     }
 
+    public boolean allowStoreBinaryMaps()
+    {
+        return allowStoreBinaryMaps;
+    }
+
     /**
      * @return a calculator of property value sizes. The returned instance is designed to be used multiple times by a single thread only.
      */
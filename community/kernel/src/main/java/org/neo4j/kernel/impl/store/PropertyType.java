@@ -232,8 +232,13 @@ public enum PropertyType
         @Override
         public Value value( PropertyBlock block, PropertyStore store )
         {
-            String mapRepresentation = store.getStringFor(block);
-            return Values.mapValue(mapRepresentation);
+            return ShortMap.isShortMap( block.getSingleValueBlock() ) ? ShortMap.decode( block ) : store.getMapFor( block );
+        }
+
+        @Override
+        public int calculateNumberOfBlocksUsed( long firstBlock )
+        {
+            return ShortMap.calculateNumberOfBlocksUsed( firstBlock );
         }
 
         @Override
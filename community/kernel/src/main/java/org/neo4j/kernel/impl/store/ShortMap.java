@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
+
+/**
+ * Small maps inlined in the property record, in the same spirit as {@link ShortArray} and {@link LongerShortString}.
+ * <p>
+ * A {@link PropertyType#MAP} block normally references the first dynamic record of its encoded bytes. The first
+ * record of every dynamic store is reserved though, so a reference of zero can never point to a map. Such a block
+ * is instead followed by {@link #BLOCKS_USED} - 1 blocks holding the length and the bytes of the
+ * {@link MapValueEncoding encoded map}.
+ * <pre>
+ * [0000,0000][0000,0000][0000,0000][0000,0000][0000,tttt][kkkk,kkkk][kkkk,kkkk][kkkk,kkkk]
+ * [bbbb,bbbb][bbbb,bbbb][bbbb,bbbb][bbbb,bbbb][bbbb,bbbb][bbbb,bbbb][bbbb,bbbb][llll,llll]
+ * [bbbb,bbbb] ...
+ * </pre>
+ */
+public final class ShortMap
+{
+    /**
+     * Number of blocks, header included, used by an inlined map. The size is fixed because the header block has no
+     * room left for a length.
+     */
+    public static final int BLOCKS_USED = 4;
+
+    private static final int MAX_BYTES = (BLOCKS_USED - 1) * Long.BYTES - 1;
+
+    private ShortMap()
+    {
+    }
+
+    /**
+     * Inlines an encoded map in {@code target} if it fits.
+     *
+     * @param keyId the property key id.
+     * @param encodedMap the map, encoded by {@link MapValueEncoding#encode(MapValue)}.
+     * @param target the block to write to.
+     * @param payloadSizeInBytes the payload size of a property record.
+     * @return {@code true} if the map was inlined, {@code false} if it needs dynamic records.
+     */
+    public static boolean encode( int keyId, byte[] encodedMap, PropertyBlock target, int payloadSizeInBytes )
+    {
+        if ( encodedMap.length > MAX_BYTES || BLOCKS_USED * Long.BYTES > payloadSizeInBytes )
+        {
+            return false;
+        }
+
+        long[] blocks = new long[BLOCKS_USED];
+        blocks[0] = PropertyStore.singleBlockLongValue( keyId, PropertyType.MAP, 0 );
+        blocks[1] = encodedMap.length;
+        for ( int i = 0; i < encodedMap.length; i++ )
+        {
+            int position = i + 1;
+            blocks[1 + position / Long.BYTES] |= (encodedMap[i] & 0xFFL) << ((position % Long.BYTES) * Byte.SIZE);
+        }
+        target.setValueBlocks( blocks );
+        return true;
+    }
+
+    public static boolean isShortMap( long firstBlock )
+    {
+        return PropertyBlock.fetchLong( firstBlock ) == 0;
+    }
+
+    public static int calculateNumberOfBlocksUsed( long firstBlock )
+    {
+        return isShortMap( firstBlock ) ? BLOCKS_USED : 1;
+    }
+
+    public static MapValue decode( PropertyBlock block )
+    {
+        return decode( block.getValueBlocks(), 0 );
+    }
+
+    public static MapValue decode( long[] valueBlocks, int offset )
+    {
+        return MapValueEncoding.decode( encodedBytes( valueBlocks, offset ) );
+    }
+
+    /**
+     * @param valueBlocks blocks of a property record.
+     * @param offset index of the header block of an inlined map in {@code valueBlocks}.
+     * @return the encoded map inlined at {@code offset}.
+     */
+    public static byte[] encodedBytes( long[] valueBlocks, int offset )
+    {
+        int length = (int) (valueBlocks[offset + 1] & 0xFF);
+        byte[] encodedMap = new byte[length];
+        for ( int i = 0; i < length; i++ )
+        {
+            int position = i + 1;
+            encodedMap[i] = (byte) (valueBlocks[offset + 1 + position / Long.BYTES] >>> ((position % Long.BYTES) * Byte.SIZE));
+        }
+        return encodedMap;
+    }
+}
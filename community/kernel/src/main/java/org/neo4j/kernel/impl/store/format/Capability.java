@@ -65,7 +65,19 @@ public enum Capability
     /**
      * Records can spill over into secondary units (another record with a header saying it's a secondary unit to another record).
      */
-    SECONDARY_RECORD_UNITS( CapabilityType.FORMAT );
+    SECONDARY_RECORD_UNITS( CapabilityType.FORMAT ),
+
+    /**
+     * Map properties are stored in a binary encoding, small ones inlined in the property record, instead of as JSON
+     * text. Older versions would misread such maps, so this is not an addition.
+     */
+    BINARY_MAP_PROPERTIES( CapabilityType.FORMAT, CapabilityType.STORE ),
+
+    /**
+     * Lucene indexes encode map values canonically, in their own field, instead of as the string of the map. Indexes
+     * built before can't find maps indexed the new way, so they are rebuilt when upgrading.
+     */
+    LUCENE_MAP_VALUES( CapabilityType.INDEX );
 
     private final CapabilityType[] types;
     private boolean additive;
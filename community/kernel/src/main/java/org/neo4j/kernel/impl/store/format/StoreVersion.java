@@ -28,12 +28,14 @@ public enum StoreVersion
     STANDARD_V3_0( "v0.A.7", "3.0.0" ),
     STANDARD_V3_2( "v0.A.8", "3.2.0" ),
     STANDARD_V3_4( "v0.A.9", "3.4.0" ),
+    STANDARD_V3_5( "v0.A.10", "3.5.0" ),
 
     HIGH_LIMIT_V3_0_0( "vE.H.0", "3.0.0" ),
     HIGH_LIMIT_V3_0_6( "vE.H.0b", "3.0.6" ),
     HIGH_LIMIT_V3_1_0( "vE.H.2", "3.1.0" ),
     HIGH_LIMIT_V3_2_0( "vE.H.3", "3.2.0" ),
-    HIGH_LIMIT_V3_4_0( "vE.H.4", "3.4.0" );
+    HIGH_LIMIT_V3_4_0( "vE.H.4", "3.4.0" ),
+    HIGH_LIMIT_V3_5_0( "vE.H.5", "3.5.0" );
 
     private final String versionString;
     private final String introductionVersion;
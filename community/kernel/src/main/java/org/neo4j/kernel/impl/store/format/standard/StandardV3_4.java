@@ -38,7 +38,7 @@ public class StandardV3_4 extends BaseRecordFormats
 {
     public static final String STORE_VERSION = StoreVersion.STANDARD_V3_4.versionString();
     public static final RecordFormats RECORD_FORMATS = new StandardV3_4();
-    public static final String NAME = "standard";
+    public static final String NAME = "standardV3_4_0";
 
     public StandardV3_4()
     {
@@ -29,6 +29,7 @@ import java.util.List;
 import org.neo4j.kernel.api.properties.PropertyKeyValue;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.ShortMap;
 import org.neo4j.values.storable.Value;
 
 public class PropertyBlock implements Cloneable
@@ -182,9 +183,15 @@ public class PropertyBlock implements Cloneable
             {
             case STRING:
             case ARRAY:
-            case MAP:
                 result.append( ",firstDynamic=" ).append( getSingleValueLong() );
                 break;
+            case MAP:
+                if ( !ShortMap.isShortMap( getSingleValueBlock() ) )
+                {
+                    result.append( ",firstDynamic=" ).append( getSingleValueLong() );
+                    break;
+                }
+                // fall through, short maps are inlined
             default:
                 Object value = type.value( this, null ).asObject();
                 if ( value != null && value.getClass().isArray() )
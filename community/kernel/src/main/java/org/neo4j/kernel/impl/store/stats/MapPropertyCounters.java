@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.stats;
+
+/**
+ * Accumulated counts of reading and writing map properties, since the database started.
+ */
+public interface MapPropertyCounters
+{
+    /**
+     * @return number of times a whole map property value was read.
+     */
+    long mapReads();
+
+    /**
+     * @return number of times a value at a path into a map property was read, without reading the whole map.
+     */
+    long mapPathReads();
+
+    /**
+     * @return number of path reads answered by the map path cache, without reading the map.
+     */
+    long mapPathCacheHits();
+
+    /**
+     * @return number of bytes of encoded maps read, for both whole map and path reads.
+     */
+    long bytesRead();
+
+    /**
+     * @return number of dynamic records read for maps too large to be inlined in their property record.
+     */
+    long dynamicRecordsRead();
+
+    /**
+     * @return total time spent reading and decoding maps while {@link #trackReadTime(boolean) tracked}, in
+     * nanoseconds. Maps are decoded lazily, so this includes decoding them as they are accessed after being read.
+     */
+    long readTimeNanos();
+
+    /**
+     * Starts or stops taking the time of map reads, which isn't free, so it is only done when reported.
+     *
+     * @param tracked whether to take the time of map reads from now on.
+     */
+    void trackReadTime( boolean tracked );
+
+    /**
+     * @return number of maps written to dynamic records.
+     */
+    long mapWrites();
+
+    /**
+     * @return number of bytes of encoded maps written to dynamic records.
+     */
+    long bytesWritten();
+
+    /**
+     * @return number of dynamic records written for maps.
+     */
+    long dynamicRecordsWritten();
+}
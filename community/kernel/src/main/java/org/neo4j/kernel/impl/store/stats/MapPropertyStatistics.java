@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.stats;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Collects {@link MapPropertyCounters} as maps are read from and written to the property store.
+ * <p>
+ * Read time is only taken once {@link #trackReadTime(boolean) tracked}. A read then starts with {@link #startTime()}
+ * and passes it on when it is counted, and maps that are decoded lazily are given {@link #decodeTime()} to report the
+ * time spent decoding them later on.
+ */
+public class MapPropertyStatistics implements MapPropertyCounters
+{
+    private static final long NOT_TIMED = Long.MIN_VALUE;
+
+    private final LongAdder mapReads = new LongAdder();
+    private final LongAdder mapPathReads = new LongAdder();
+    private final LongAdder mapPathCacheHits = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder dynamicRecordsRead = new LongAdder();
+    private final LongAdder readTimeNanos = new LongAdder();
+    private final LongAdder mapWrites = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder dynamicRecordsWritten = new LongAdder();
+    private final LongConsumer decodeTime = readTimeNanos::add;
+    private volatile boolean readTimeTracked;
+
+    /**
+     * @return the time a read starts at, to pass on when the read is counted.
+     */
+    public long startTime()
+    {
+        return readTimeTracked ? System.nanoTime() : NOT_TIMED;
+    }
+
+    /**
+     * @return what to give the nanoseconds spent decoding a lazily decoded map, or {@code null} if read time isn't
+     * tracked.
+     */
+    public LongConsumer decodeTime()
+    {
+        return readTimeTracked ? decodeTime : null;
+    }
+
+    public void mapRead( int bytes, int dynamicRecords, long startTime )
+    {
+        mapReads.increment();
+        read( bytes, dynamicRecords, startTime );
+    }
+
+    public void mapPathRead( int bytes, int dynamicRecords, long startTime )
+    {
+        mapPathReads.increment();
+        read( bytes, dynamicRecords, startTime );
+    }
+
+    public void mapPathCacheHit()
+    {
+        mapPathCacheHits.increment();
+    }
+
+    public void mapWritten( int bytes, int dynamicRecords )
+    {
+        mapWrites.increment();
+        bytesWritten.add( bytes );
+        dynamicRecordsWritten.add( dynamicRecords );
+    }
+
+    private void read( int bytes, int dynamicRecords, long startTime )
+    {
+        bytesRead.add( bytes );
+        dynamicRecordsRead.add( dynamicRecords );
+        if ( startTime != NOT_TIMED )
+        {
+            readTimeNanos.add( System.nanoTime() - startTime );
+        }
+    }
+
+    @Override
+    public void trackReadTime( boolean tracked )
+    {
+        readTimeTracked = tracked;
+    }
+
+    @Override
+    public long mapReads()
+    {
+        return mapReads.sum();
+    }
+
+    @Override
+    public long mapPathReads()
+    {
+        return mapPathReads.sum();
+    }
+
+    @Override
+    public long mapPathCacheHits()
+    {
+        return mapPathCacheHits.sum();
+    }
+
+    @Override
+    public long bytesRead()
+    {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long dynamicRecordsRead()
+    {
+        return dynamicRecordsRead.sum();
+    }
+
+    @Override
+    public long readTimeNanos()
+    {
+        return readTimeNanos.sum();
+    }
+
+    @Override
+    public long mapWrites()
+    {
+        return mapWrites.sum();
+    }
+
+    @Override
+    public long bytesWritten()
+    {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long dynamicRecordsWritten()
+    {
+        return dynamicRecordsWritten.sum();
+    }
+}
@@ -43,14 +43,20 @@ import org.neo4j.kernel.impl.logging.LogService;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordNodeCursor;
 import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageReader;
 import org.neo4j.kernel.impl.store.CommonAbstractStore;
+import org.neo4j.kernel.impl.store.DynamicStringStore;
 import org.neo4j.kernel.impl.store.MetaDataStore;
 import org.neo4j.kernel.impl.store.MetaDataStore.Position;
 import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.ShortMap;
+import org.neo4j.kernel.impl.store.RecordCursor;
 import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.StoreFile;
 import org.neo4j.kernel.impl.store.StoreHeader;
 import org.neo4j.kernel.impl.store.StoreType;
 import org.neo4j.kernel.impl.store.TransactionId;
+import org.neo4j.kernel.impl.store.format.Capability;
 import org.neo4j.kernel.impl.store.format.CapabilityType;
 import org.neo4j.kernel.impl.store.format.FormatFamily;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
@@ -58,7 +64,11 @@ import org.neo4j.kernel.impl.store.format.standard.MetaDataRecordFormat;
 import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
 import org.neo4j.kernel.impl.store.id.ReadOnlyIdGeneratorFactory;
 import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.storemigration.DirectRecordStoreMigrator;
 import org.neo4j.kernel.impl.storemigration.ExistingTargetStrategy;
@@ -86,6 +96,7 @@ import org.neo4j.unsafe.impl.batchimport.input.InputEntityVisitor;
 import org.neo4j.unsafe.impl.batchimport.input.Inputs;
 import org.neo4j.unsafe.impl.batchimport.staging.CoarseBoundedProgressExecutionMonitor;
 import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitor;
+import org.neo4j.values.storable.MapValueEncoding;
 
 import static java.util.Arrays.asList;
 import static org.neo4j.kernel.impl.store.MetaDataStore.DEFAULT_NAME;
@@ -330,12 +341,17 @@ public class StoreMigrator extends AbstractStoreMigrationParticipant
         prepareBatchImportMigration( storeDir, migrationDir, oldFormat, newFormat );
 
         boolean requiresDynamicStoreMigration = !newFormat.dynamic().equals( oldFormat.dynamic() );
-        boolean requiresPropertyMigration =
+        boolean requiresPropertyFormatMigration =
                 !newFormat.property().equals( oldFormat.property() ) || requiresDynamicStoreMigration;
         File badFile = new File( storeDir, Configuration.BAD_FILE_NAME );
         try ( NeoStores legacyStore = instantiateLegacyStore( oldFormat, storeDir );
               OutputStream badOutput = new BufferedOutputStream( new FileOutputStream( badFile, false ) ) )
         {
+            // Properties read by the importer are encoded anew, which is also what converts JSON maps to binary maps
+            boolean requiresMapPropertyMigration = !oldFormat.hasCapability( Capability.BINARY_MAP_PROPERTIES ) &&
+                    newFormat.hasCapability( Capability.BINARY_MAP_PROPERTIES ) &&
+                    hasLegacyMapProperties( legacyStore.getPropertyStore() );
+            boolean requiresPropertyMigration = requiresPropertyFormatMigration || requiresMapPropertyMigration;
             Configuration importConfig = new Configuration.Overridden( config )
             {
                 @Override
@@ -400,6 +416,41 @@ public class StoreMigrator extends AbstractStoreMigrationParticipant
         }
     }
 
+    /**
+     * Map properties are stored as JSON text in the string store by formats without
+     * {@link Capability#BINARY_MAP_PROPERTIES}. Stores that have such maps need their properties rewritten when
+     * migrating to a format with that capability, so that the maps get converted to {@link MapValueEncoding}.
+     */
+    static boolean hasLegacyMapProperties( PropertyStore propertyStore )
+    {
+        DynamicStringStore stringStore = propertyStore.getStringStore();
+        DynamicRecord mapRecord = stringStore.newRecord();
+        try ( RecordCursor<PropertyRecord> cursor = propertyStore.newRecordCursor( propertyStore.newRecord() ) )
+        {
+            long highId = propertyStore.getHighId();
+            cursor.acquire( propertyStore.getNumberOfReservedLowIds(), RecordLoad.CHECK );
+            for ( long id = propertyStore.getNumberOfReservedLowIds(); id < highId; id++ )
+            {
+                if ( !cursor.next( id ) )
+                {
+                    continue;
+                }
+                for ( PropertyBlock block : cursor.get() )
+                {
+                    if ( block.getType() == PropertyType.MAP && !ShortMap.isShortMap( block.getSingleValueBlock() ) )
+                    {
+                        stringStore.getRecord( block.getSingleValueLong(), mapRecord, RecordLoad.CHECK );
+                        if ( mapRecord.inUse() && MapValueEncoding.isLegacyFormat( mapRecord.getData(), 0 ) )
+                        {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     private static long storeSize( CommonAbstractStore<? extends AbstractBaseRecord,? extends StoreHeader> store )
     {
         return store.getNumberOfIdsInUse() * store.getRecordSize();
@@ -83,6 +83,7 @@ public class HighIdTransactionApplier extends TransactionApplier.Adapter
             switch ( block.getType() )
             {
             case STRING:
+            case MAP:
                 track( propertyStore.getStringStore(), block.getValueRecords() );
                 break;
             case ARRAY:
@@ -137,12 +137,6 @@ public abstract class BaseToObjectValueWriter<E extends Exception> implements An
         stack.push( new MapWriter( size ) );
     }
 
-    @Override
-    public void writeMap( HashMap<String, Object> map )
-    {
-        // TODO: Implement this
-    }
-
     @Override
     public void endMap() throws RuntimeException
     {
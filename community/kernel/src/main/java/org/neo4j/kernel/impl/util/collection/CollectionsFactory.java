@@ -27,6 +27,8 @@ import org.eclipse.collections.api.set.primitive.MutableLongSet;
 import org.neo4j.kernel.impl.api.state.TxState;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSetsImpl;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 
 /**
  * The purpose of this factory is the ability to switch between multiple collection implementations used in {@link TxState} (e.g. on- or off-heap),
@@ -44,6 +46,13 @@ public interface CollectionsFactory
 
     MutableLongDiffSetsImpl newLongDiffSets();
 
+    /**
+     * @param map a map value that is about to be kept in {@link TxState}.
+     * @return the map to keep in its place, which may be the given map itself or an {@link OffHeapMapValue} holding
+     * its {@link MapValueEncoding encoded} form.
+     */
+    MapValue newMapValue( MapValue map );
+
     MemoryTracker getMemoryTracker();
 
     boolean collectionsMustBeReleased();
@@ -31,11 +31,20 @@ import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSetsImpl;
 import org.neo4j.memory.MemoryAllocationTracker;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.util.FeatureToggles;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 
 import static java.util.Objects.requireNonNull;
 
 class OffHeapCollectionsFactory implements CollectionsFactory
 {
+    /**
+     * Encoded maps of at least this many bytes are kept off heap, smaller ones are not worth the copying.
+     */
+    private static final int OFF_HEAP_MAP_VALUE_THRESHOLD =
+            FeatureToggles.getInteger( OffHeapCollectionsFactory.class, "offHeapMapValueThreshold", 4096 );
+
     private final MemoryAllocationTracker memoryTracker;
 
     OffHeapCollectionsFactory( MemoryAllocationTracker memoryTracker )
@@ -73,6 +82,26 @@ class OffHeapCollectionsFactory implements CollectionsFactory
         return new MutableLongDiffSetsImpl( this );
     }
 
+    @Override
+    public MapValue newMapValue( MapValue map )
+    {
+        if ( MapValueEncoding.estimatedLength( map, OFF_HEAP_MAP_VALUE_THRESHOLD ) < OFF_HEAP_MAP_VALUE_THRESHOLD )
+        {
+            return map;
+        }
+        byte[] encoded = MapValueEncoding.encode( map );
+        if ( MapValueEncoding.isLegacyFormat( encoded, 0 ) )
+        {
+            return map;
+        }
+        if ( encoded.length < OFF_HEAP_MAP_VALUE_THRESHOLD )
+        {
+            // Smaller than estimated, but keep the encoded form anyway so that commit does not encode it again.
+            return MapValueEncoding.decodeShared( encoded, 0, encoded.length );
+        }
+        return new OffHeapMapValue( encoded, map.size(), memoryTracker );
+    }
+
     @Override
     public MemoryTracker getMemoryTracker()
     {
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import java.util.Arrays;
+
+import org.neo4j.function.ThrowingBiConsumer;
+import org.neo4j.kernel.impl.api.state.TxState;
+import org.neo4j.memory.MemoryAllocationTracker;
+import org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueContent;
+import org.neo4j.values.storable.MapValueEncoding;
+import org.neo4j.values.storable.Values;
+
+/**
+ * A map value kept by {@link TxState} as its {@link MapValueEncoding encoded} bytes in off-heap memory. It must not
+ * leave the transaction state, since the memory is freed when the transaction state is released or the value is
+ * replaced: readers get a copy from {@link #onHeap()}. The key directory stays on heap, so that keys can be listed and
+ * single values found and copied without copying and decoding the whole map.
+ */
+public final class OffHeapMapValue extends MapValue
+{
+    private static final long BYTE_ARRAY_BASE_OFFSET = UnsafeUtil.arrayBaseOffset( byte[].class );
+
+    private final MemoryAllocationTracker allocationTracker;
+    private final byte[] directory;
+    private final int length;
+    private final int size;
+    private String[] keys;
+    private long address;
+
+    /**
+     * @param encoded a map in the {@link MapValueEncoding}, which is not retained.
+     * @param size number of entries of the encoded map.
+     */
+    OffHeapMapValue( byte[] encoded, int size, MemoryAllocationTracker allocationTracker )
+    {
+        this.allocationTracker = allocationTracker;
+        this.length = encoded.length;
+        this.size = size;
+        this.directory = Arrays.copyOf( encoded, MapValueEncoding.directoryLength( encoded, 0, length ) );
+        this.address = UnsafeUtil.allocateMemory( length, allocationTracker );
+        UnsafeUtil.copyMemory( encoded, BYTE_ARRAY_BASE_OFFSET, null, address, length );
+    }
+
+    /**
+     * @return a copy of this map on heap, which stays valid after this value has been freed.
+     */
+    public MapValue onHeap()
+    {
+        return MapValueEncoding.decodeShared( copy( 0, length ), 0, length );
+    }
+
+    public void free()
+    {
+        if ( address != 0 )
+        {
+            UnsafeUtil.free( address, length, allocationTracker );
+            address = 0;
+        }
+    }
+
+    public boolean isFreed()
+    {
+        return address == 0;
+    }
+
+    @Override
+    public Iterable<String> keySet()
+    {
+        return Arrays.asList( directoryKeys() );
+    }
+
+    @Override
+    public <E extends Exception> void foreach( ThrowingBiConsumer<String,AnyValue,E> f ) throws E
+    {
+        onHeap().foreach( f );
+    }
+
+    @Override
+    public boolean containsKey( String key )
+    {
+        return Arrays.binarySearch( directoryKeys(), key ) >= 0;
+    }
+
+    @Override
+    public AnyValue get( String key )
+    {
+        int[] bounds = MapValueEncoding.valueBounds( directory, length, key );
+        if ( bounds == null )
+        {
+            return Values.NO_VALUE;
+        }
+        return MapValueEncoding.decodeValue( copy( bounds[0], bounds[1] - bounds[0] ), 0 );
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public MapValueContent getContent()
+    {
+        return size == 0 ? MapValueContent.EMPTY : MapValueContent.STORABLE;
+    }
+
+    private String[] directoryKeys()
+    {
+        if ( keys == null )
+        {
+            keys = MapValueEncoding.keysAt( directory, 0, directory.length, new String[0] );
+        }
+        return keys;
+    }
+
+    private byte[] copy( int offset, int bytes )
+    {
+        if ( address == 0 )
+        {
+            throw new IllegalStateException( "Map value has already been freed" );
+        }
+        byte[] copy = new byte[bytes];
+        UnsafeUtil.copyMemory( null, address + offset, copy, BYTE_ARRAY_BASE_OFFSET, bytes );
+        return copy;
+    }
+}
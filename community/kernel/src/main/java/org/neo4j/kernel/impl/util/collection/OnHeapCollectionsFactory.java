@@ -30,6 +30,7 @@ import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 
 import org.neo4j.kernel.impl.util.diffsets.MutableLongDiffSetsImpl;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.values.storable.MapValue;
 
 public class OnHeapCollectionsFactory implements CollectionsFactory
 {
@@ -70,6 +71,12 @@ public class OnHeapCollectionsFactory implements CollectionsFactory
         return new MutableLongDiffSetsImpl( this );
     }
 
+    @Override
+    public MapValue newMapValue( MapValue map )
+    {
+        return map;
+    }
+
     @Override
     public MemoryTracker getMemoryTracker()
     {
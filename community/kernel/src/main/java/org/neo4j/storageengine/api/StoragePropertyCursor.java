@@ -48,4 +48,23 @@ public interface StoragePropertyCursor extends StorageCursor
      * @return value of the property this cursor currently is placed at.
      */
     Value propertyValue();
+
+    /**
+     * Reads the value found by following {@code path} through the nested maps of the map property this cursor
+     * currently is placed at, without decoding the rest of the map.
+     *
+     * @param path keys to follow, the first key is looked up in the property value itself.
+     * @return the value at the end of the path, {@link org.neo4j.values.storable.Values#NO_VALUE} if any key on the
+     * path is missing, or {@code null} if the path passes through a value that is not a map.
+     */
+    Value propertyValue( String[] path );
+
+    /**
+     * Reads the keys of the map found by following {@code path} through the nested maps of the map property this
+     * cursor currently is placed at, from the key directory of the stored map and without decoding any value.
+     *
+     * @param path keys to follow, an empty path reads the keys of the property value itself.
+     * @return the keys in ascending order, or {@code null} if there is no map at the end of the path.
+     */
+    String[] mapKeys( String[] path );
 }
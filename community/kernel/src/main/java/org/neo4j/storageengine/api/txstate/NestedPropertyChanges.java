@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.storageengine.api.txstate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+
+/**
+ * The changes made inside a committed map property, kept instead of the whole updated map. Each change sets the value
+ * at a path inside the map, or removes it if the value is {@link Values#NO_VALUE}. Only the values at the changed paths
+ * are kept, the rest of the map is read from the store whenever the changes are {@link #applyTo(Value) applied}.
+ */
+public final class NestedPropertyChanges
+{
+    private final List<String[]> paths = new ArrayList<>();
+    private final List<Value> values = new ArrayList<>();
+
+    /**
+     * Records the value at a path, replacing the changes made earlier at or below that path.
+     *
+     * @param path keys leading from the map property to the value, must not be empty.
+     * @param value the new value, or {@link Values#NO_VALUE} to remove the value at the path.
+     */
+    public void set( String[] path, Value value )
+    {
+        for ( int i = paths.size() - 1; i >= 0; i-- )
+        {
+            if ( startsWith( paths.get( i ), path ) )
+            {
+                paths.remove( i );
+                values.remove( i );
+            }
+        }
+        paths.add( path );
+        values.add( value );
+    }
+
+    /**
+     * @param committed the committed value of the map property.
+     * @return the committed map with the changes applied to it, in the order they were made.
+     */
+    public Value applyTo( Value committed )
+    {
+        MapValue map = committed instanceof MapValue ? (MapValue) committed : Values.EMPTY_MAP;
+        for ( int i = 0; i < paths.size(); i++ )
+        {
+            map = map.updatedAt( paths.get( i ), values.get( i ) );
+        }
+        return map;
+    }
+
+    private static boolean startsWith( String[] path, String[] prefix )
+    {
+        if ( path.length < prefix.length )
+        {
+            return false;
+        }
+        for ( int i = 0; i < prefix.length; i++ )
+        {
+            if ( !path[i].equals( prefix[i] ) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -25,6 +25,7 @@ import org.eclipse.collections.impl.factory.primitive.IntSets;
 import java.util.Iterator;
 
 import org.neo4j.storageengine.api.StorageProperty;
+import org.neo4j.values.storable.Value;
 
 import static java.util.Collections.emptyIterator;
 
@@ -33,7 +34,8 @@ import static java.util.Collections.emptyIterator;
  * <ul>
  * <li>{@linkplain #addedProperties() Added properties},</li>
  * <li>{@linkplain #removedProperties() removed properties}, and </li>
- * <li>{@linkplain #changedProperties() changed property values}.</li>
+ * <li>{@linkplain #changedProperties() changed property values}, and</li>
+ * <li>{@linkplain #nestedPropertyChanges(int) changes made inside committed map properties}.</li>
  * </ul>
  */
 public interface PropertyContainerState
@@ -50,6 +52,27 @@ public interface PropertyContainerState
 
     boolean isPropertyChangedOrRemoved( int propertyKey );
 
+    /**
+     * A committed map property that was only changed inside is not among the {@linkplain #changedProperties() changed
+     * properties}, its value is the committed value with these changes {@linkplain NestedPropertyChanges#applyTo(Value)
+     * applied} to it.
+     *
+     * @return the changes made inside the committed map property with the given key, or {@code null} if it has none.
+     */
+    default NestedPropertyChanges nestedPropertyChanges( int propertyKey )
+    {
+        return null;
+    }
+
+    /**
+     * @return the keys of the committed map properties that have {@linkplain #nestedPropertyChanges(int) changes made
+     * inside them}.
+     */
+    default IntIterable propertiesWithNestedChanges()
+    {
+        return IntSets.immutable.empty();
+    }
+
     PropertyContainerState EMPTY = new EmptyPropertyContainerState();
 
     class EmptyPropertyContainerState implements PropertyContainerState
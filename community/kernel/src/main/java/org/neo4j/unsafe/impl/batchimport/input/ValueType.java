@@ -39,6 +39,8 @@ import org.neo4j.kernel.impl.transaction.log.ReadableClosableChannel;
 import org.neo4j.string.UTF8;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
 import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.TimeZones;
 import org.neo4j.values.storable.Values;
@@ -461,6 +463,31 @@ public abstract class ValueType
                 }
             }
         } );
+        add( new ValueType( MapValue.class )
+        {
+            @Override
+            public Object read( ReadableClosableChannel from ) throws IOException
+            {
+                int length = from.getInt();
+                byte[] bytes = new byte[length];
+                from.get( bytes, length );
+                return MapValueEncoding.decode( bytes );
+            }
+
+            @Override
+            public int length( Object value )
+            {
+                return Integer.BYTES + MapValueEncoding.encode( (MapValue) value ).length;
+            }
+
+            @Override
+            public void write( Object value, FlushableChannel into ) throws IOException
+            {
+                byte[] bytes = MapValueEncoding.encode( (MapValue) value );
+                into.putInt( bytes.length );
+                into.put( bytes, bytes.length );
+            }
+        } );
     }
     private static final ValueType arrayType = new ValueType()
     {
@@ -534,6 +561,11 @@ public abstract class ValueType
         }
 
         ValueType type = byClass.get( cls );
+        if ( type == null && MapValue.class.isAssignableFrom( cls ) )
+        {
+            // there are several map implementations, all written in the same encoding
+            type = byClass.get( MapValue.class );
+        }
         assert type != null : "Unrecognized value type " + cls;
         return type;
     }
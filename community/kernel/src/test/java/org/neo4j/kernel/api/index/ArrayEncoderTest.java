@@ -42,12 +42,16 @@ import org.neo4j.values.storable.DateValue;
 import org.neo4j.values.storable.DurationValue;
 import org.neo4j.values.storable.LocalDateTimeValue;
 import org.neo4j.values.storable.LocalTimeValue;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.TimeValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static java.time.ZoneOffset.UTC;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 public class ArrayEncoderTest
@@ -130,6 +134,46 @@ public class ArrayEncoderTest
                 new TemporalAmount[]{DurationValue.duration( 1991, 3, 5, 12 ).asObjectCopy(), DurationValue.duration( 1992, 4, 6, 5 ).asObjectCopy()} );
     }
 
+    @Test
+    public void shouldEncodeMapsCanonically()
+    {
+        MapValueBuilder nested = new MapValueBuilder();
+        nested.add( "k", Values.intArray( new int[]{1, 2} ) );
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "b", Values.intValue( 1 ) );
+        builder.add( "n", nested.build() );
+        builder.add( "a", Values.stringValue( "x" ) );
+        MapValue map = builder.build();
+
+        MapValueBuilder otherNested = new MapValueBuilder();
+        otherNested.add( "k", Values.longArray( new long[]{1, 2} ) );
+        MapValueBuilder other = new MapValueBuilder();
+        other.add( "a", Values.stringValue( "x" ) );
+        other.add( "n", otherNested.build() );
+        other.add( "b", Values.longValue( 1 ) );
+
+        assertEquals( "{YQ==:eA==|,Yg==:1|,bg==:{aw==:D1|2|,},}", ArrayEncoder.encodeMap( map ) );
+        assertEquals( ArrayEncoder.encodeMap( map ), ArrayEncoder.encodeMap( other.build() ) );
+        assertEquals( ArrayEncoder.encodeMap( map ), ArrayEncoder.encodeMap( MapValueEncoding.decode( MapValueEncoding.encode( map ) ) ) );
+        assertEquals( "{}", ArrayEncoder.encodeMap( Values.EMPTY_MAP ) );
+        assertNotEquals( ArrayEncoder.encodeMap( map ), ArrayEncoder.encodeMap( map.updatedWith( "b", Values.intValue( 2 ) ) ) );
+    }
+
+    @Test
+    public void shouldEncodeIntegralNumbersInMapsExactly()
+    {
+        MapValue large = Values.EMPTY_MAP.updatedWith( "n", Values.longValue( (1L << 53) + 1 ) );
+        MapValue rounded = Values.EMPTY_MAP.updatedWith( "n", Values.longValue( 1L << 53 ) );
+
+        assertEquals( "{bg==:9007199254740993|,}", ArrayEncoder.encodeMap( large ) );
+        assertNotEquals( ArrayEncoder.encodeMap( large ), ArrayEncoder.encodeMap( rounded ) );
+        assertEquals( ArrayEncoder.encodeMap( rounded ),
+                ArrayEncoder.encodeMap( Values.EMPTY_MAP.updatedWith( "n", Values.doubleValue( 0x1p53 ) ) ) );
+        assertEquals( "{bg==:1.5|,}", ArrayEncoder.encodeMap( Values.EMPTY_MAP.updatedWith( "n", Values.doubleValue( 1.5 ) ) ) );
+        assertEquals( "{bg==:D1|2|,}",
+                ArrayEncoder.encodeMap( Values.EMPTY_MAP.updatedWith( "n", Values.byteArray( new byte[]{1, 2} ) ) ) );
+    }
+
     @Test
     public void shouldEncodeProperlyWithMultipleThreadsRacing() throws Throwable
     {
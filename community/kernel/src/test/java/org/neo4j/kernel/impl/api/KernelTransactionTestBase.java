@@ -74,6 +74,7 @@ import org.neo4j.storageengine.api.txstate.ReadableTransactionState;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.time.Clocks;
 import org.neo4j.time.FakeClock;
+import org.neo4j.values.storable.MapValue;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
@@ -221,6 +222,12 @@ public class KernelTransactionTestBase
             return OnHeapCollectionsFactory.INSTANCE.newLongDiffSets();
         }
 
+        @Override
+        public MapValue newMapValue( MapValue map )
+        {
+            return OnHeapCollectionsFactory.INSTANCE.newMapValue( map );
+        }
+
         @Override
         public MemoryTracker getMemoryTracker()
         {
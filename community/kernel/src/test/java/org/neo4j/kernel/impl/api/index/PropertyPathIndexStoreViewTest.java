@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index;
+
+import org.eclipse.collections.api.iterator.MutableIntIterator;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.internal.kernel.api.TokenNameLookup;
+import org.neo4j.internal.kernel.api.schema.LabelSchemaDescriptor;
+import org.neo4j.kernel.api.index.IndexProvider;
+import org.neo4j.kernel.api.index.PropertyPaths;
+import org.neo4j.storageengine.api.EntityType;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.add;
+import static org.neo4j.kernel.api.index.IndexEntryUpdate.change;
+import static org.neo4j.kernel.api.schema.SchemaDescriptorFactory.forLabel;
+import static org.neo4j.kernel.api.schema.index.IndexDescriptorFactory.forSchema;
+import static org.neo4j.kernel.impl.api.index.TestIndexProviderDescriptor.PROVIDER_DESCRIPTOR;
+import static org.neo4j.kernel.impl.core.TokenHolder.NO_ID;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+public class PropertyPathIndexStoreViewTest
+{
+    private static final long nodeId = 7;
+    private static final int labelId = 0;
+    private static final int address = 1;
+    private static final int addressZip = 2;
+    private static final long[] label = {labelId};
+    private static final LabelSchemaDescriptor index = forLabel( labelId, addressZip );
+
+    private final Map<Integer,Value> storedProperties = new HashMap<>();
+    private PropertyPathIndexStoreView storeView;
+
+    @Before
+    public void setup()
+    {
+        storeView = storeViewWithIndexOf( PropertyPaths.DESCRIPTOR );
+    }
+
+    @Test
+    public void shouldUpdateIndexWithValueAtPathOfChangedMapProperty()
+    {
+        // given
+        EntityUpdates updates = EntityUpdates.forEntity( nodeId ).withTokens( label )
+                .changed( address, address( "Malmö", 21118 ), address( "Malmö", 21119 ) ).build();
+
+        // when
+        storeView.projectPropertyPaths( updates, EntityType.NODE );
+
+        // then
+        assertThat( updates.forIndexKeys( singletonList( index ), storeView, EntityType.NODE ),
+                contains( change( nodeId, index, intValue( 21118 ), intValue( 21119 ) ) ) );
+    }
+
+    @Test
+    public void shouldNotUpdateIndexWhenOtherKeysOfMapPropertyChange()
+    {
+        // given
+        EntityUpdates updates = EntityUpdates.forEntity( nodeId ).withTokens( label )
+                .changed( address, address( "Malmö", 21118 ), address( "Lund", 21118 ) ).build();
+
+        // when
+        storeView.projectPropertyPaths( updates, EntityType.NODE );
+
+        // then
+        assertThat( updates.forIndexKeys( singletonList( index ), storeView, EntityType.NODE ), emptyIterable() );
+    }
+
+    @Test
+    public void shouldLoadValueAtPathFromStoredMapPropertyWhenLabelIsAdded()
+    {
+        // given
+        storedProperties.put( address, address( "Malmö", 21118 ) );
+        EntityUpdates updates = EntityUpdates.forEntity( nodeId ).withTokens().withTokensAfter( label ).build();
+
+        // when
+        storeView.projectPropertyPaths( updates, EntityType.NODE );
+
+        // then
+        assertThat( updates.forIndexKeys( singletonList( index ), storeView, EntityType.NODE ),
+                contains( add( nodeId, index, intValue( 21118 ) ) ) );
+    }
+
+    @Test
+    public void shouldPreferActualPropertyWithDottedName()
+    {
+        // given
+        storedProperties.put( address, address( "Malmö", 21118 ) );
+        storedProperties.put( addressZip, stringValue( "SE-211 18" ) );
+        EntityUpdates updates = EntityUpdates.forEntity( nodeId ).withTokens().withTokensAfter( label ).build();
+
+        // then
+        assertThat( updates.forIndexKeys( singletonList( index ), storeView, EntityType.NODE ),
+                contains( add( nodeId, index, stringValue( "SE-211 18" ) ) ) );
+    }
+
+    @Test
+    public void shouldReplaceValueAtPathWhenActualPropertyWithDottedNameIsAdded()
+    {
+        // given
+        storedProperties.put( address, address( "Malmö", 21118 ) );
+        EntityUpdates updates = EntityUpdates.forEntity( nodeId ).withTokens( label )
+                .added( addressZip, stringValue( "SE-211 18" ) ).build();
+
+        // when
+        storeView.projectPropertyPaths( updates, EntityType.NODE );
+
+        // then
+        assertThat( updates.forIndexKeys( singletonList( index ), storeView, EntityType.NODE ),
+                contains( change( nodeId, index, intValue( 21118 ), stringValue( "SE-211 18" ) ) ) );
+    }
+
+    @Test
+    public void shouldRestoreValueAtPathWhenActualPropertyWithDottedNameIsRemoved()
+    {
+        // given
+        storedProperties.put( address, address( "Malmö", 21118 ) );
+        EntityUpdates updates = EntityUpdates.forEntity( nodeId ).withTokens( label )
+                .removed( addressZip, stringValue( "SE-211 18" ) ).build();
+
+        // when
+        storeView.projectPropertyPaths( updates, EntityType.NODE );
+
+        // then
+        assertThat( updates.forIndexKeys( singletonList( index ), storeView, EntityType.NODE ),
+                contains( change( nodeId, index, stringValue( "SE-211 18" ), intValue( 21118 ) ) ) );
+    }
+
+    @Test
+    public void shouldNotLookInsideMapPropertyForIndexOfOtherProvider() throws Exception
+    {
+        // given
+        storeView = storeViewWithIndexOf( PROVIDER_DESCRIPTOR );
+        storedProperties.put( address, address( "Malmö", 21118 ) );
+        EntityUpdates updates = EntityUpdates.forEntity( nodeId ).withTokens( label )
+                .changed( address, address( "Malmö", 21118 ), address( "Malmö", 21119 ) ).build();
+
+        // when
+        storeView.projectPropertyPaths( updates, EntityType.NODE );
+
+        // then
+        assertThat( updates.forIndexKeys( singletonList( index ), storeView, EntityType.NODE ), emptyIterable() );
+        assertEquals( NO_VALUE, storeView.getNodePropertyValue( nodeId, addressZip ) );
+    }
+
+    private PropertyPathIndexStoreView storeViewWithIndexOf( IndexProvider.Descriptor providerDescriptor )
+    {
+        IndexMapReference indexMapRef = new IndexMapReference();
+        IndexProxy proxy = mock( IndexProxy.class );
+        when( proxy.getDescriptor() ).thenReturn( forSchema( index, providerDescriptor ).withId( 1 ).withoutCapabilities() );
+        indexMapRef.modify( indexMap ->
+        {
+            indexMap.putIndexProxy( proxy );
+            return indexMap;
+        } );
+
+        TokenNameLookup tokenNameLookup = mock( TokenNameLookup.class );
+        when( tokenNameLookup.propertyKeyGetName( addressZip ) ).thenReturn( "address.zip" );
+        return new PropertyPathIndexStoreView( new StoredProperties(), indexMapRef, tokenNameLookup,
+                name -> name.equals( "address" ) ? address : NO_ID );
+    }
+
+    private static MapValue address( String city, int zip )
+    {
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "city", stringValue( city ) );
+        builder.add( "zip", intValue( zip ) );
+        return builder.build();
+    }
+
+    private class StoredProperties extends IndexStoreView.Adaptor
+    {
+        @Override
+        public void loadProperties( long entityId, EntityType type, MutableIntSet propertyIds, PropertyLoadSink sink )
+        {
+            MutableIntIterator iterator = propertyIds.intIterator();
+            while ( iterator.hasNext() )
+            {
+                int propertyId = iterator.next();
+                if ( storedProperties.containsKey( propertyId ) )
+                {
+                    sink.onProperty( propertyId, storedProperties.get( propertyId ) );
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
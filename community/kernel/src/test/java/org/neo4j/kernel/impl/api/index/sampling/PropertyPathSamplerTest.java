@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import org.neo4j.internal.kernel.api.CursorFactory;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.TokenRead;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+import static org.neo4j.values.storable.Values.stringValue;
+
+public class PropertyPathSamplerTest
+{
+    private static final int label = 3;
+    private static final int doc = 5;
+    private static final String[] docStatus = {"doc", "status"};
+
+    private final Read read = mock( Read.class );
+    private final TokenRead tokenRead = mock( TokenRead.class );
+    private final CursorFactory cursors = mock( CursorFactory.class );
+    private final NodeLabelIndexCursor labelled = mock( NodeLabelIndexCursor.class );
+    private final NodeCursor node = mock( NodeCursor.class );
+    private final PropertyCursor property = mock( PropertyCursor.class );
+
+    @Before
+    public void setup()
+    {
+        when( cursors.allocateNodeLabelIndexCursor() ).thenReturn( labelled );
+        when( cursors.allocateNodeCursor() ).thenReturn( node );
+        when( cursors.allocatePropertyCursor() ).thenReturn( property );
+        when( tokenRead.propertyKey( "doc" ) ).thenReturn( doc );
+        when( labelled.next() ).thenReturn( true, true, true, true, false );
+        when( node.next() ).thenReturn( true );
+        when( property.next() ).thenReturn( true );
+        when( property.propertyKey() ).thenReturn( doc );
+        when( property.propertyValue( any( String[].class ) ) )
+                .thenReturn( stringValue( "ACTIVE" ), stringValue( "ACTIVE" ), NO_VALUE, stringValue( "CLOSED" ) );
+    }
+
+    @Test
+    public void shouldCountNodesWithValueAndDistinctValuesAtPath()
+    {
+        // when
+        PropertyPathSampler.Sample sample = new PropertyPathSampler( singletonList( "doc.status" ), 1000 )
+                .sample( read, tokenRead, cursors, label, docStatus );
+
+        // then
+        assertEquals( 4, sample.nodes() );
+        assertEquals( 3, sample.withValue() );
+        assertEquals( 2, sample.distinctValues() );
+        assertEquals( 0.75, sample.existsSelectivity(), 0.0 );
+        assertEquals( 0.375, sample.valueSelectivity(), 0.0 );
+    }
+
+    @Test
+    public void shouldSampleAtMostSampleSizeNodes()
+    {
+        // when
+        PropertyPathSampler.Sample sample = new PropertyPathSampler( singletonList( "doc.status" ), 2 )
+                .sample( read, tokenRead, cursors, label, docStatus );
+
+        // then
+        assertEquals( 2, sample.nodes() );
+        assertEquals( 2, sample.withValue() );
+        assertEquals( 1, sample.distinctValues() );
+    }
+
+    @Test
+    public void shouldSpreadSampleOverAllNodesWithLabel()
+    {
+        // given
+        when( read.countsForNode( label ) ).thenReturn( 4L );
+
+        // when
+        PropertyPathSampler.Sample sample = new PropertyPathSampler( singletonList( "doc.status" ), 2 )
+                .sample( read, tokenRead, cursors, label, docStatus );
+
+        // then the first and third node are sampled
+        assertEquals( 2, sample.nodes() );
+        verify( labelled, times( 3 ) ).next();
+        verify( labelled, times( 2 ) ).node( node );
+    }
+
+    @Test
+    public void shouldOnlySampleConfiguredPaths()
+    {
+        // given
+        PropertyPathSampler sampler = new PropertyPathSampler( singletonList( "doc.status" ), 1000 );
+
+        // then
+        assertTrue( sampler.isSampled( docStatus ) );
+        assertFalse( sampler.isSampled( new String[]{"doc", "owner"} ) );
+        assertFalse( sampler.isSampled( new String[]{"doc.status"} ) );
+        assertNull( sampler.sample( read, tokenRead, cursors, label, new String[]{"doc", "owner"} ) );
+        verifyZeroInteractions( read, cursors );
+    }
+
+    @Test
+    public void shouldGiveNoSampleWithoutNodesToSample()
+    {
+        // given
+        when( labelled.next() ).thenReturn( false );
+
+        // then
+        assertNull( new PropertyPathSampler( singletonList( "doc.status" ), 1000 ).sample( read, tokenRead, cursors, label, docStatus ) );
+    }
+}
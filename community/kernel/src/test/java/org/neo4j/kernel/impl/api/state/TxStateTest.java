@@ -52,16 +52,19 @@ import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.api.schema.index.TestIndexDescriptorFactory;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactory;
 import org.neo4j.kernel.impl.util.collection.CollectionsFactorySupplier;
+import org.neo4j.kernel.impl.util.collection.OnHeapCollectionsFactory;
 import org.neo4j.storageengine.api.StorageProperty;
 import org.neo4j.storageengine.api.txstate.LongDiffSets;
 import org.neo4j.storageengine.api.txstate.ReadableDiffSets;
 import org.neo4j.storageengine.api.txstate.TxStateVisitor;
 import org.neo4j.test.rule.RandomRule;
 import org.neo4j.test.rule.RepeatRule;
+import org.neo4j.values.storable.MapValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 import org.neo4j.values.storable.ValueTuple;
 import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
@@ -70,6 +73,7 @@ import static org.eclipse.collections.impl.set.mutable.primitive.LongHashSet.new
 import static org.hamcrest.core.IsEqual.equalTo;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -1471,6 +1475,109 @@ public class TxStateTest
         } );
     }
 
+    @Test
+    public void shouldKeepLargeMapPropertiesUntilReleased()
+    {
+        // given
+        MapValueBuilder builder = new MapValueBuilder();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            builder.add( "key" + i, Values.stringValue( "value" + i ) );
+        }
+        MapValue map = builder.build();
+
+        // when
+        state.nodeDoAddProperty( 1, 2, map );
+        state.nodeDoChangeProperty( 1, 2, map );
+        state.nodeDoAddProperty( 3, 2, map );
+
+        // then
+        StorageProperty added = state.getNodeState( 1 ).addedProperties().next();
+        assertEquals( 2, added.propertyKeyId() );
+        assertEquals( map, added.value() );
+        assertEquals( map, state.getNodeState( 3 ).addedProperties().next().value() );
+    }
+
+    @Test
+    public void shouldFreeLargeMapPropertiesWhenReplacedOrRemoved()
+    {
+        // given
+        MapValueBuilder builder = new MapValueBuilder();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            builder.add( "key" + i, Values.stringValue( "value" + i ) );
+        }
+        MapValue map = builder.build();
+        state.nodeDoAddProperty( 1, 2, map );
+        state.nodeDoChangeProperty( 3, 2, map );
+
+        // when
+        state.nodeDoChangeProperty( 1, 2, Values.intValue( 1 ) );
+        state.nodeDoRemoveProperty( 3, 2 );
+
+        // then
+        assertEquals( 0L, collectionsFactory.getMemoryTracker().usedDirectMemory() );
+        assertEquals( Values.intValue( 1 ), state.getNodeState( 1 ).addedProperties().next().value() );
+    }
+
+    @Test
+    public void shouldKeepMapPropertiesAsTheyAreOnHeap()
+    {
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "key", Values.intValue( 1 ) );
+        MapValue map = builder.build();
+        assertSame( map, OnHeapCollectionsFactory.INSTANCE.newMapValue( map ) );
+    }
+
+    @Test
+    public void shouldKeepOnlyNestedChangesToCommittedMapPropertiesUntilApplied()
+    {
+        // given
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "zip", Values.stringValue( "111" ) );
+        builder.add( "city", Values.stringValue( "Malmö" ) );
+        MapValue committed = builder.build();
+        String[] path = {"zip"};
+        Value zip = Values.stringValue( "222" );
+
+        // when
+        state.nodeDoChangeNestedProperty( 1, 2, path, zip, committed.updatedAt( path, zip ) );
+
+        // then
+        assertTrue( state.hasNestedPropertyChanges() );
+        assertFalse( state.getNodeState( 1 ).changedProperties().hasNext() );
+        assertEquals( committed.updatedAt( path, zip ),
+                state.getNodeState( 1 ).nestedPropertyChanges( 2 ).applyTo( committed ) );
+
+        // when
+        state.applyNestedPropertyChanges( ( nodeId, propertyKeyId ) -> committed, ( relId, propertyKeyId ) -> NO_VALUE );
+
+        // then
+        assertFalse( state.hasNestedPropertyChanges() );
+        StorageProperty changed = state.getNodeState( 1 ).changedProperties().next();
+        assertEquals( 2, changed.propertyKeyId() );
+        assertEquals( committed.updatedAt( path, zip ), changed.value() );
+    }
+
+    @Test
+    public void shouldReplaceMapPropertyAddedInTransactionWhenChangingNestedValue()
+    {
+        // given
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "zip", Values.stringValue( "111" ) );
+        MapValue added = builder.build();
+        String[] path = {"zip"};
+        Value zip = Values.stringValue( "222" );
+        state.nodeDoAddProperty( 1, 2, added );
+
+        // when
+        state.nodeDoChangeNestedProperty( 1, 2, path, zip, added.updatedAt( path, zip ) );
+
+        // then
+        assertFalse( state.hasNestedPropertyChanges() );
+        assertEquals( added.updatedAt( path, zip ), state.getNodeState( 1 ).addedProperties().next().value() );
+    }
+
     @Test
     public void useCollectionFactory()
     {
@@ -36,18 +36,21 @@ import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.schema.index.IndexDescriptor;
 import org.neo4j.kernel.api.schema.index.TestIndexDescriptorFactory;
 import org.neo4j.kernel.api.txstate.TransactionState;
+import org.neo4j.kernel.impl.api.index.EntityUpdates;
 import org.neo4j.kernel.impl.api.index.IndexProxy;
 import org.neo4j.kernel.impl.api.index.IndexingService;
 import org.neo4j.storageengine.api.StorageReader;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueTuple;
 import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -69,6 +72,8 @@ public class IndexTxStateUpdaterTest
     private static final int propId3 = 22;
     private static final int newPropId = 23;
     private static final int unIndexedPropId = 24;
+    private static final int addressPropId = 25;
+    private static final int addressZipPropId = 26;
 
     private TransactionState txState;
     private IndexTxStateUpdater indexTxUpdater;
@@ -120,6 +125,16 @@ public class IndexTxStateUpdaterTest
         IndexingService indexingService = mock( IndexingService.class );
         IndexProxy indexProxy = mock( IndexProxy.class );
         when( indexingService.getIndexProxy( any( SchemaDescriptor.class ) ) ).thenReturn( indexProxy );
+        doAnswer( invocation ->
+        {
+            // a path index on address.zip
+            EntityUpdates updates = invocation.getArgument( 0 );
+            if ( updates.valueAfter( addressPropId ) != Values.NO_VALUE )
+            {
+                updates.onProperty( addressZipPropId, Values.of( 21118 ) );
+            }
+            return null;
+        } ).when( indexingService ).projectPropertyPaths( any() );
         indexTxUpdater = new IndexTxStateUpdater( storageReader, readOps, indexingService );
 
     }
@@ -208,6 +223,53 @@ public class IndexTxStateUpdaterTest
         verify( txState, times( 2 ) ).indexDoUpdateEntry( any(), anyLong(), any(), any() );
     }
 
+    @Test
+    public void shouldReplaceValueAtPathOnAddedPropertyWithDottedName()
+    {
+        // GIVEN
+        IndexDescriptor indexOnAddressZip = TestIndexDescriptorFactory.forLabel( labelId1, addressZipPropId );
+        indexes = Arrays.asList( indexOnAddressZip );
+        node = nodeWithAddress( Values.of( "SE-211 18" ) );
+
+        // WHEN
+        indexTxUpdater.onPropertyAdd( node, propertyCursor, addressZipPropId, Values.of( "SE-211 18" ) );
+
+        // THEN
+        verifyIndexUpdate( indexOnAddressZip.schema(), node.nodeReference(), values( 21118 ), values( "SE-211 18" ) );
+        verify( txState, times( 1 ) ).indexDoUpdateEntry( any(), anyLong(), any(), any() );
+    }
+
+    @Test
+    public void shouldRestoreValueAtPathOnRemovedPropertyWithDottedName()
+    {
+        // GIVEN
+        IndexDescriptor indexOnAddressZip = TestIndexDescriptorFactory.forLabel( labelId1, addressZipPropId );
+        indexes = Arrays.asList( indexOnAddressZip );
+        node = nodeWithAddress( null );
+
+        // WHEN
+        indexTxUpdater.onPropertyRemove( node, propertyCursor, addressZipPropId, Values.of( "SE-211 18" ) );
+
+        // THEN
+        verifyIndexUpdate( indexOnAddressZip.schema(), node.nodeReference(), values( "SE-211 18" ), values( 21118 ) );
+        verify( txState, times( 1 ) ).indexDoUpdateEntry( any(), anyLong(), any(), any() );
+    }
+
+    private StubNodeCursor nodeWithAddress( Value addressZip )
+    {
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "zip", Values.of( 21118 ) );
+        HashMap<Integer,Value> map = new HashMap<>();
+        map.put( addressPropId, address.build() );
+        if ( addressZip != null )
+        {
+            map.put( addressZipPropId, addressZip );
+        }
+        StubNodeCursor node = new StubNodeCursor().withNode( 0, new long[]{labelId1}, map );
+        node.next();
+        return node;
+    }
+
     private ValueTuple values( Object... values )
     {
         return ValueTuple.of( values );
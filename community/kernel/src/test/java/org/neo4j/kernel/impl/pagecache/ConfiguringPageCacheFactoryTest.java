@@ -23,6 +23,9 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.io.File;
+
+import org.neo4j.graphdb.config.InvalidSettingException;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
@@ -38,7 +41,9 @@ import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.database_path;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_memory;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_reservations;
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.pagecache_swapper;
 import static org.neo4j.helpers.collection.MapUtil.stringMap;
 import static org.neo4j.kernel.impl.pagecache.PageSwapperFactoryForTesting.TEST_PAGESWAPPER_NAME;
@@ -121,6 +126,41 @@ public class ConfiguringPageCacheFactoryTest
         logProvider.assertContainsMessageContaining( TEST_PAGESWAPPER_NAME );
     }
 
+    @Test
+    public void mustReserveAndLogConfiguredPageCacheReservations()
+    {
+        // Given
+        Config config = Config.defaults( stringMap(
+                pagecache_memory.name(), Long.toString( MuninnPageCache.memoryRequiredForPages( 1000 ) ),
+                pagecache_reservations.name(), "neostore.nodestore.db:10%,neostore.relationshipgroupstore.db:2.5%" ) );
+        AssertableLogProvider logProvider = new AssertableLogProvider();
+        Log log = logProvider.getLog( PageCache.class );
+
+        // When
+        ConfiguringPageCacheFactory cacheFactory = new ConfiguringPageCacheFactory( fsRule.get(), config, PageCacheTracer.NULL,
+                PageCursorTracerSupplier.NULL, log, EmptyVersionContextSupplier.EMPTY );
+        cacheFactory.getOrCreatePageCache().close();
+
+        // Then
+        File databaseDirectory = config.get( database_path );
+        logProvider.assertContainsMessageContaining(
+                "Reserved 100 pages of the page cache for " + new File( databaseDirectory, "neostore.nodestore.db" ) );
+        logProvider.assertContainsMessageContaining(
+                "Reserved 25 pages of the page cache for " + new File( databaseDirectory, "neostore.relationshipgroupstore.db" ) );
+    }
+
+    @Test( expected = InvalidSettingException.class )
+    public void mustFailValidationIfPageCacheReservationIsNotAPercentage()
+    {
+        Config.defaults( stringMap( pagecache_reservations.name(), "neostore.nodestore.db:100" ) );
+    }
+
+    @Test( expected = InvalidSettingException.class )
+    public void mustFailValidationIfPageCacheReservationIsNotANumber()
+    {
+        Config.defaults( stringMap( pagecache_reservations.name(), "neostore.nodestore.db:ten%" ) );
+    }
+
     @Test( expected = IllegalArgumentException.class )
     public void mustThrowIfConfiguredPageSwapperCannotBeFound()
     {
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.storageengine.impl.recordstorage;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import org.neo4j.io.ByteUnit;
+import org.neo4j.kernel.impl.api.TransactionApplier;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.neo4j.values.storable.Values.stringValue;
+
+public class MapPathCacheTest
+{
+    private static final String[] OWNER = {"meta", "owner"};
+    private static final String[] UPDATED = {"meta", "updatedAt"};
+
+    @Test
+    public void shouldCacheValuesPerMapAndPath()
+    {
+        // given
+        MapPathCache cache = new MapPathCache( ByteUnit.kibiBytes( 64 ) );
+
+        // when
+        cache.put( 10, OWNER, stringValue( "alice" ), cache.generation( 10 ) );
+        cache.put( 10, UPDATED, Values.longValue( 1234 ), cache.generation( 10 ) );
+        cache.put( 11, OWNER, Values.NO_VALUE, cache.generation( 11 ) );
+
+        // then
+        assertEquals( stringValue( "alice" ), cache.get( 10, new String[]{"meta", "owner"} ) );
+        assertEquals( Values.longValue( 1234 ), cache.get( 10, UPDATED ) );
+        assertEquals( Values.NO_VALUE, cache.get( 11, OWNER ) );
+        assertNull( cache.get( 11, UPDATED ) );
+    }
+
+    @Test
+    public void shouldNotCacheMaps()
+    {
+        // given
+        MapPathCache cache = new MapPathCache( ByteUnit.kibiBytes( 64 ) );
+        MapValueBuilder meta = new MapValueBuilder();
+        meta.add( "owner", stringValue( "alice" ) );
+
+        // when
+        cache.put( 10, new String[]{"meta"}, meta.build(), cache.generation( 10 ) );
+
+        // then
+        assertNull( cache.get( 10, new String[]{"meta"} ) );
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedMap()
+    {
+        // given
+        MapPathCache cache = new MapPathCache( 2 * MapPathCache.estimatedSize( OWNER, stringValue( "alice" ) ) );
+        cache.put( 10, OWNER, stringValue( "alice" ), cache.generation( 10 ) );
+        cache.put( 11, OWNER, stringValue( "bob" ), cache.generation( 11 ) );
+        cache.get( 10, OWNER );
+
+        // when
+        cache.put( 12, OWNER, stringValue( "carol" ), cache.generation( 12 ) );
+
+        // then
+        assertEquals( stringValue( "alice" ), cache.get( 10, OWNER ) );
+        assertNull( cache.get( 11, OWNER ) );
+        assertEquals( stringValue( "carol" ), cache.get( 12, OWNER ) );
+    }
+
+    @Test
+    public void shouldNotCacheValuesLargerThanTheCache()
+    {
+        // given
+        Value large = stringValue( String.join( "", Collections.nCopies( 1_000, "x" ) ) );
+        MapPathCache cache = new MapPathCache( MapPathCache.estimatedSize( OWNER, large ) - 1 );
+        cache.put( 10, UPDATED, Values.longValue( 1234 ), cache.generation( 10 ) );
+
+        // when
+        cache.put( 10, OWNER, large, cache.generation( 10 ) );
+
+        // then
+        assertNull( cache.get( 10, OWNER ) );
+        assertEquals( Values.longValue( 1234 ), cache.get( 10, UPDATED ) );
+    }
+
+    @Test
+    public void shouldNotCacheAnythingWhenDisabled()
+    {
+        // when
+        MapPathCache.DISABLED.put( 10, OWNER, stringValue( "alice" ), MapPathCache.DISABLED.generation( 10 ) );
+
+        // then
+        assertFalse( MapPathCache.DISABLED.isEnabled() );
+        assertNull( MapPathCache.DISABLED.get( 10, OWNER ) );
+    }
+
+    @Test
+    public void shouldInvalidateMapsOfChangedPropertyRecords() throws Exception
+    {
+        // given
+        MapPathCache cache = new MapPathCache( ByteUnit.kibiBytes( 64 ) );
+        cache.put( 10, OWNER, stringValue( "alice" ), cache.generation( 10 ) );
+        cache.put( 11, OWNER, stringValue( "bob" ), cache.generation( 11 ) );
+        cache.put( 12, OWNER, stringValue( "carol" ), cache.generation( 12 ) );
+        PropertyRecord before = new PropertyRecord( 1 );
+        before.setInUse( true );
+        before.addPropertyBlock( mapBlock( 0, 10 ) );
+        before.addPropertyBlock( mapBlock( 1, 12 ) );
+        PropertyRecord after = new PropertyRecord( 1 );
+        after.setInUse( true );
+        after.addPropertyBlock( mapBlock( 0, 11 ) );
+        after.addPropertyBlock( mapBlock( 1, 12 ) );
+
+        // when
+        try ( TransactionApplier applier = new MapPathCacheInvalidationBatchTransactionApplier( cache ).startTx( null ) )
+        {
+            assertFalse( applier.visitPropertyCommand( new Command.PropertyCommand( before, after ) ) );
+        }
+
+        // then
+        assertNull( cache.get( 10, OWNER ) );
+        assertNull( cache.get( 11, OWNER ) );
+        assertNull( cache.get( 12, OWNER ) );
+    }
+
+    @Test
+    public void shouldNotCacheValueReadBeforeInvalidation()
+    {
+        // given a reader that took the generation and then read the stored map
+        MapPathCache cache = new MapPathCache( ByteUnit.kibiBytes( 64 ) );
+        long generation = cache.generation( 10 );
+
+        // when the map is invalidated before the reader puts what it read
+        cache.invalidate( 10 );
+        cache.put( 10, OWNER, stringValue( "alice" ), generation );
+
+        // then
+        assertNull( cache.get( 10, OWNER ) );
+
+        // and a value read after the invalidation is cached
+        cache.put( 10, OWNER, stringValue( "bob" ), cache.generation( 10 ) );
+        assertEquals( stringValue( "bob" ), cache.get( 10, OWNER ) );
+    }
+
+    private static PropertyBlock mapBlock( int keyId, long reference )
+    {
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.setSingleBlockValue( block, keyId, PropertyType.MAP, reference );
+        return block;
+    }
+}
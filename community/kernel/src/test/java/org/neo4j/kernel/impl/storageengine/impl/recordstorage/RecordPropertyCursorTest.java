@@ -29,6 +29,7 @@ import java.util.Iterator;
 import java.util.Map;
 
 import org.neo4j.helpers.collection.IteratorWrapper;
+import org.neo4j.io.ByteUnit;
 import org.neo4j.io.pagecache.tracing.cursor.context.EmptyVersionContextSupplier;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.store.NeoStores;
@@ -36,16 +37,25 @@ import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.id.DefaultIdGeneratorFactory;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.stats.MapPropertyStatistics;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.test.rule.PageCacheAndDependenciesRule;
 import org.neo4j.test.rule.RandomRule;
 import org.neo4j.unsafe.batchinsert.internal.DirectRecordAccessSet;
+import org.neo4j.values.storable.MapValue;
 import org.neo4j.values.storable.RandomValues;
 import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.helpers.collection.Iterators.iterator;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringArray;
+import static org.neo4j.values.storable.Values.stringValue;
 
 public class RecordPropertyCursorTest
 {
@@ -105,6 +115,203 @@ public class RecordPropertyCursorTest
         assertPropertyChain( valuesB, firstPropertyIdB, cursor );
     }
 
+    @Test
+    public void shouldReadMapProperties()
+    {
+        // given
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "city", stringValue( random.nextAlphaNumericString( 1, 1_000 ) ) );
+        address.add( "zip", intValue( random.nextInt() ) );
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "address", address.build() );
+        document.add( "tags", stringArray( "a", "b" ) );
+        Value[] values = {document.build(), Values.EMPTY_MAP, random.nextValue()};
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, values );
+
+        // then
+        assertPropertyChain( values, firstPropertyId, createCursor() );
+    }
+
+    @Test
+    public void shouldKeepMapsReadEarlierIntactWhenReadingMoreProperties()
+    {
+        // given
+        MapValueBuilder first = new MapValueBuilder();
+        first.add( "text", stringValue( random.nextAlphaNumericString( 1_000, 2_000 ) ) );
+        MapValueBuilder second = new MapValueBuilder();
+        second.add( "text", stringValue( random.nextAlphaNumericString( 1_000, 2_000 ) ) );
+        Value[] values = {first.build(), second.build(), stringValue( random.nextAlphaNumericString( 1_000, 2_000 ) )};
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, values );
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.init( firstPropertyId );
+        Value[] read = new Value[values.length];
+        while ( cursor.next() )
+        {
+            read[cursor.propertyKey()] = cursor.propertyValue();
+        }
+
+        // then
+        assertArrayEquals( values, read );
+    }
+
+    @Test
+    public void shouldReadValueAtPathOfMapProperty()
+    {
+        // given
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "city", stringValue( "Malmö" ) );
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "address", address.build() );
+        document.add( "name", stringValue( "Alistair" ) );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, new Value[]{document.build()} );
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.init( firstPropertyId );
+        assertTrue( cursor.next() );
+
+        // then
+        assertEquals( stringValue( "Malmö" ), cursor.propertyValue( new String[]{"address", "city"} ) );
+        assertEquals( address.build(), cursor.propertyValue( new String[]{"address"} ) );
+        assertEquals( Values.NO_VALUE, cursor.propertyValue( new String[]{"address", "zip"} ) );
+        assertNull( cursor.propertyValue( new String[]{"name", "first"} ) );
+    }
+
+    @Test
+    public void shouldReadKeysOfMapPropertyFromKeyDirectory()
+    {
+        // given
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "city", stringValue( "Malmö" ) );
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "address", address.build() );
+        document.add( "body", stringValue( random.nextAlphaNumericString( 5_000, 10_000 ) ) );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, new Value[]{document.build(), intValue( 1 )} );
+        MapPropertyStatistics statistics = neoStores.getPropertyStore().getMapStatistics();
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.init( firstPropertyId );
+        assertTrue( cursor.next() );
+
+        // then
+        assertArrayEquals( new String[]{"address", "body"}, cursor.mapKeys( new String[0] ) );
+        assertEquals( 1, statistics.dynamicRecordsRead() );
+        assertArrayEquals( new String[]{"city"}, cursor.mapKeys( new String[]{"address"} ) );
+        assertNull( cursor.mapKeys( new String[]{"body"} ) );
+        assertTrue( cursor.next() );
+        assertNull( cursor.mapKeys( new String[0] ) );
+    }
+
+    @Test
+    public void shouldCacheValuesReadAtPathOfMapProperty()
+    {
+        // given
+        MapValueBuilder meta = new MapValueBuilder();
+        meta.add( "owner", stringValue( "alice" ) );
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "meta", meta.build() );
+        document.add( "body", stringValue( random.nextAlphaNumericString( 100, 1_000 ) ) );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, new Value[]{document.build()} );
+        MapPathCache cache = new MapPathCache( ByteUnit.kibiBytes( 64 ) );
+        String[] path = {"meta", "owner"};
+
+        // when
+        RecordPropertyCursor cursor = new RecordPropertyCursor( neoStores.getPropertyStore(), cache );
+        cursor.init( firstPropertyId );
+        assertTrue( cursor.next() );
+        long reference = PropertyBlock.fetchLong( cursor.getBlocks()[0] );
+
+        // then
+        assertNull( cache.get( reference, path ) );
+        assertEquals( stringValue( "alice" ), cursor.propertyValue( path ) );
+        assertEquals( stringValue( "alice" ), cache.get( reference, path ) );
+        assertEquals( stringValue( "alice" ), cursor.propertyValue( path ) );
+    }
+
+    @Test
+    public void shouldCountMapPropertyReadsAndWrites()
+    {
+        // given
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "name", stringValue( "Alistair" ) );
+        document.add( "body", stringValue( random.nextAlphaNumericString( 1_000, 2_000 ) ) );
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, new Value[]{document.build()} );
+        MapPropertyStatistics statistics = neoStores.getPropertyStore().getMapStatistics();
+        assertEquals( 1, statistics.mapWrites() );
+        int recordDataSize = neoStores.getPropertyStore().getStringStore().getRecordDataSize();
+        assertEquals( (statistics.bytesWritten() + recordDataSize - 1) / recordDataSize, statistics.dynamicRecordsWritten() );
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.init( firstPropertyId );
+        assertTrue( cursor.next() );
+        cursor.propertyValue();
+        cursor.propertyValue( new String[]{"name"} );
+
+        // then
+        assertEquals( 1, statistics.mapReads() );
+        assertEquals( 1, statistics.mapPathReads() );
+        assertEquals( 2 * statistics.bytesWritten(), statistics.bytesRead() );
+        assertEquals( 2 * statistics.dynamicRecordsWritten(), statistics.dynamicRecordsRead() );
+    }
+
+    @Test
+    public void shouldOnlyTakeMapReadTimeWhenTrackedIncludingLazyDecoding()
+    {
+        // given
+        MapValueBuilder document = new MapValueBuilder();
+        for ( int i = 0; i < 1_000; i++ )
+        {
+            document.add( "key" + i, stringValue( "value" + i ) );
+        }
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, new Value[]{document.build()} );
+        MapPropertyStatistics statistics = neoStores.getPropertyStore().getMapStatistics();
+        RecordPropertyCursor cursor = createCursor();
+        cursor.init( firstPropertyId );
+        assertTrue( cursor.next() );
+
+        // when
+        ((MapValue) cursor.propertyValue()).get( "key1" );
+
+        // then
+        assertEquals( 0, statistics.readTimeNanos() );
+
+        // when
+        statistics.trackReadTime( true );
+        MapValue map = (MapValue) cursor.propertyValue();
+        long readTime = statistics.readTimeNanos();
+        map.get( "key1" );
+
+        // then
+        assertTrue( readTime > 0 );
+        assertTrue( statistics.readTimeNanos() > readTime );
+    }
+
+    @Test
+    public void shouldReadShortMapProperties()
+    {
+        // given
+        MapValueBuilder small = new MapValueBuilder();
+        small.add( "a", intValue( 1 ) );
+        MapValue map = small.build();
+        long firstPropertyId = storeValuesAsPropertyChain( creator, owner, new Value[]{intValue( 42 ), map, stringValue( "b" )} );
+
+        // when
+        RecordPropertyCursor cursor = createCursor();
+        cursor.init( firstPropertyId );
+        assertTrue( cursor.next() );
+        assertTrue( cursor.next() );
+
+        // then
+        assertEquals( map, cursor.propertyValue() );
+        assertEquals( intValue( 1 ), cursor.propertyValue( new String[]{"a"} ) );
+        assertTrue( cursor.next() );
+        assertEquals( stringValue( "b" ), cursor.propertyValue() );
+    }
+
     @Test
     public void closeShouldBeIdempotent()
     {
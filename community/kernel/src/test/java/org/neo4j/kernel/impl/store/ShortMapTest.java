@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
+import org.neo4j.values.storable.Values;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ShortMapTest
+{
+    private static final int DEFAULT_PAYLOAD_SIZE = PropertyType.getPayloadSize();
+
+    @Test
+    public void canEncodeSmallMaps()
+    {
+        assertCanEncodeAndDecodeToSameValue( Values.EMPTY_MAP );
+        assertCanEncodeAndDecodeToSameValue( map( "a", 1 ) );
+        assertCanEncodeAndDecodeToSameValue( map( "a", -1 ) );
+        assertCanEncodeAndDecodeToSameValue( map( "å", "ö" ) );
+    }
+
+    @Test
+    public void cannotEncodeMapsLargerThanPayload()
+    {
+        assertCanNotEncode( map( "text", "a string longer than the payload" ), DEFAULT_PAYLOAD_SIZE );
+        assertCanNotEncode( map( "a", 1 ), ShortMap.BLOCKS_USED * Long.BYTES - 1 );
+    }
+
+    @Test
+    public void dynamicReferencesAreNotShortMaps()
+    {
+        assertFalse( ShortMap.isShortMap( PropertyStore.singleBlockLongValue( 7, PropertyType.MAP, 1 ) ) );
+        assertEquals( 1, PropertyType.MAP.calculateNumberOfBlocksUsed( PropertyStore.singleBlockLongValue( 7, PropertyType.MAP, 1 ) ) );
+    }
+
+    private static void assertCanEncodeAndDecodeToSameValue( MapValue map )
+    {
+        PropertyBlock target = new PropertyBlock();
+        assertTrue( ShortMap.encode( 7, MapValueEncoding.encode( map ), target, DEFAULT_PAYLOAD_SIZE ) );
+        assertEquals( 7, target.getKeyIndexId() );
+        assertEquals( PropertyType.MAP, target.getType() );
+        assertEquals( ShortMap.BLOCKS_USED, PropertyType.MAP.calculateNumberOfBlocksUsed( target.getSingleValueBlock() ) );
+        assertTrue( target.isLight() );
+        assertEquals( map, PropertyType.MAP.value( target, null ) );
+    }
+
+    private static void assertCanNotEncode( MapValue map, int payloadSize )
+    {
+        assertFalse( ShortMap.encode( 7, MapValueEncoding.encode( map ), new PropertyBlock(), payloadSize ) );
+    }
+
+    private static MapValue map( String key, Object value )
+    {
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( key, Values.of( value ) );
+        return builder.build();
+    }
+}
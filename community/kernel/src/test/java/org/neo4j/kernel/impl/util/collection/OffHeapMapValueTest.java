@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.collection;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.Iterables.asList;
+import static org.neo4j.values.storable.Values.NO_VALUE;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringValue;
+
+public class OffHeapMapValueTest
+{
+    private final LocalMemoryTracker memoryTracker = new LocalMemoryTracker();
+    private final MapValue map = map();
+    private final OffHeapMapValue offHeap = new OffHeapMapValue( MapValueEncoding.encode( map ), map.size(), memoryTracker );
+
+    @After
+    public void free()
+    {
+        offHeap.free();
+    }
+
+    @Test
+    public void shouldReadKeysAndSingleValuesWithoutDecodingWholeMap()
+    {
+        assertEquals( 3, offHeap.size() );
+        assertEquals( Arrays.asList( "address", "age", "name" ), asList( offHeap.keySet() ) );
+        assertTrue( offHeap.containsKey( "name" ) );
+        assertFalse( offHeap.containsKey( "missing" ) );
+        assertEquals( stringValue( "Alistair" ), offHeap.get( "name" ) );
+        assertEquals( map.get( "address" ), offHeap.get( "address" ) );
+        assertEquals( intValue( 42 ), offHeap.get( "age" ) );
+        assertEquals( NO_VALUE, offHeap.get( "missing" ) );
+        assertEquals( map, offHeap.onHeap() );
+    }
+
+    @Test
+    public void shouldReleaseMemoryWhenFreed()
+    {
+        assertEquals( MapValueEncoding.encode( map ).length, memoryTracker.usedDirectMemory() );
+
+        offHeap.free();
+
+        assertTrue( offHeap.isFreed() );
+        assertEquals( 0, memoryTracker.usedDirectMemory() );
+    }
+
+    @Test
+    public void shouldKeepSmallMapsAsTheyAre()
+    {
+        OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( memoryTracker );
+
+        assertSame( map, factory.newMapValue( map ) );
+    }
+
+    @Test
+    public void shouldKeepEncodedFormOfMapsThatTurnOutSmallerThanEstimated()
+    {
+        // given a map estimated above the threshold, that encodes to less than it
+        OffHeapCollectionsFactory factory = new OffHeapCollectionsFactory( memoryTracker );
+        MapValueBuilder builder = new MapValueBuilder();
+        for ( int i = 0; i < 250; i++ )
+        {
+            builder.add( "k" + i, intValue( i ) );
+        }
+        MapValue map = builder.build();
+
+        // when
+        MapValue kept = factory.newMapValue( map );
+
+        // then
+        assertFalse( kept instanceof OffHeapMapValue );
+        assertNotSame( map, kept );
+        assertEquals( map, kept );
+        assertArrayEquals( MapValueEncoding.encode( map ), MapValueEncoding.encode( kept ) );
+        assertEquals( memoryTracker.usedDirectMemory(), MapValueEncoding.encode( this.map ).length );
+    }
+
+    private static MapValue map()
+    {
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "zip", intValue( 21118 ) );
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "name", stringValue( "Alistair" ) );
+        builder.add( "age", intValue( 42 ) );
+        builder.add( "address", address.build() );
+        return builder.build();
+    }
+}
@@ -41,6 +41,7 @@ import org.neo4j.register.Register;
 import org.neo4j.storageengine.api.schema.IndexReader;
 import org.neo4j.storageengine.api.schema.LabelScanReader;
 import org.neo4j.storageengine.api.schema.PopulationProgress;
+import org.neo4j.values.storable.MapValueEncoding;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.ValueGroup;
 
@@ -691,6 +692,18 @@ public class StubStorageCursors implements StorageReader
             return current.getValue();
         }
 
+        @Override
+        public Value propertyValue( String[] path )
+        {
+            return MapValueEncoding.valueAt( current.getValue(), path );
+        }
+
+        @Override
+        public String[] mapKeys( String[] path )
+        {
+            return MapValueEncoding.keysAt( current.getValue(), path );
+        }
+
         @Override
         public void release()
         {
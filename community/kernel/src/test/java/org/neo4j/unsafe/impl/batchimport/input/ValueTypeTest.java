@@ -22,14 +22,23 @@ package org.neo4j.unsafe.impl.batchimport.input;
 import org.junit.Rule;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.neo4j.io.fs.OpenMode;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalFlushableChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadAheadChannel;
 import org.neo4j.test.rule.TestDirectory;
 import org.neo4j.test.rule.fs.EphemeralFileSystemRule;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.MapValueEncoding;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static org.junit.Assert.assertEquals;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.stringArray;
+import static org.neo4j.values.storable.Values.stringValue;
 
 public class ValueTypeTest
 {
@@ -62,4 +71,34 @@ public class ValueTypeTest
         assertEquals( expected, length );
         assertEquals( expected, channel.position() );
     }
+
+    @Test
+    public void mapsShouldBeWrittenInTheirBinaryEncoding() throws IOException
+    {
+        // given
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "city", stringValue( "Malmö" ) );
+        address.add( "zip", intValue( 21120 ) );
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "address", address.build() );
+        builder.add( "tags", stringArray( "a", "b" ) );
+        MapValue value = builder.build();
+        ValueType valueType = ValueType.typeOf( value );
+        File file = directory.file( "file" );
+        int length;
+        try ( PhysicalFlushableChannel channel = new PhysicalFlushableChannel( fs.open( file, OpenMode.READ_WRITE ) ) )
+        {
+            // when
+            length = valueType.length( value );
+            valueType.write( value, channel );
+
+            // then
+            assertEquals( Integer.BYTES + MapValueEncoding.encode( value ).length, length );
+            assertEquals( length, channel.position() );
+        }
+        try ( ReadAheadChannel<StoreChannel> channel = new ReadAheadChannel<>( fs.open( file, OpenMode.READ ) ) )
+        {
+            assertEquals( value, valueType.read( channel ) );
+        }
+    }
 }
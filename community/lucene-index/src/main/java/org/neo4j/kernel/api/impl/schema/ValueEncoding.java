@@ -29,6 +29,7 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
 
 import org.neo4j.kernel.api.index.ArrayEncoder;
+import org.neo4j.values.storable.MapValue;
 import org.neo4j.values.storable.PointValue;
 import org.neo4j.values.storable.Value;
 import org.neo4j.values.storable.Values;
@@ -210,6 +211,44 @@ enum ValueEncoding
                             new TermQuery( new Term( key( propertyNumber ), value.prettyPrint() ) ) );
                 }
             },
+    /**
+     * Maps used to fall through to {@link #String}, as the string of the map. Indexes built that way are rebuilt when
+     * the store is upgraded to a format with {@code Capability.LUCENE_MAP_VALUES}. Stores kept in an older format
+     * must have their indexes on map properties dropped and created again.
+     */
+    Map
+            {
+                @Override
+                String key()
+                {
+                    return "map";
+                }
+
+                @Override
+                boolean canEncode( Value value )
+                {
+                    return value instanceof MapValue;
+                }
+
+                @Override
+                Field encodeField( String name, Value value )
+                {
+                    return stringField( name, ArrayEncoder.encodeMap( (MapValue) value ) );
+                }
+
+                @Override
+                void setFieldValue( Value value, Field field )
+                {
+                    field.setStringValue( ArrayEncoder.encodeMap( (MapValue) value ) );
+                }
+
+                @Override
+                Query encodeQuery( Value value, int propertyNumber )
+                {
+                    return new ConstantScoreQuery(
+                            new TermQuery( new Term( key( propertyNumber ), ArrayEncoder.encodeMap( (MapValue) value ) ) ) );
+                }
+            },
     String
             {
                 @Override
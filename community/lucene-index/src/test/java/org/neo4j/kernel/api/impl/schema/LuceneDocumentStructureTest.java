@@ -31,6 +31,9 @@ import org.apache.lucene.search.TermRangeQuery;
 import org.apache.lucene.search.WildcardQuery;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -44,6 +47,7 @@ import static org.neo4j.kernel.api.impl.schema.LuceneDocumentStructure.NODE_ID_K
 import static org.neo4j.kernel.api.impl.schema.LuceneDocumentStructure.useFieldForUniquenessVerification;
 import static org.neo4j.kernel.api.impl.schema.ValueEncoding.Array;
 import static org.neo4j.kernel.api.impl.schema.ValueEncoding.Bool;
+import static org.neo4j.kernel.api.impl.schema.ValueEncoding.Map;
 import static org.neo4j.kernel.api.impl.schema.ValueEncoding.Number;
 import static org.neo4j.kernel.api.impl.schema.ValueEncoding.String;
 
@@ -127,6 +131,24 @@ class LuceneDocumentStructureTest
         assertEquals( "D1.0|2.0|3.0|", document.get( Array.key( 0 ) ) );
     }
 
+    @Test
+    void shouldBuildDocumentAndQueryRepresentingMapProperty()
+    {
+        // given
+        Map<String,Object> map = new HashMap<>();
+        map.put( "b", 1 );
+        map.put( "a", "x" );
+        Document document = documentRepresentingProperties( (long) 123, map );
+        BooleanQuery booleanQuery = (BooleanQuery) newSeekQuery( map );
+        ConstantScoreQuery constantScoreQuery = (ConstantScoreQuery) booleanQuery.clauses().get( 0 ).getQuery();
+        TermQuery query = (TermQuery) constantScoreQuery.getQuery();
+
+        // then
+        assertEquals( "{YQ==:eA==|,Yg==:1|,}", document.get( Map.key( 0 ) ) );
+        assertEquals( Map.key( 0 ), query.getTerm().field() );
+        assertEquals( "{YQ==:eA==|,Yg==:1|,}", query.getTerm().text() );
+    }
+
     @Test
     void shouldBuildQueryRepresentingBoolProperty()
     {
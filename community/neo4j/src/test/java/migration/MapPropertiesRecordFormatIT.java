@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package migration;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.Exceptions;
+import org.neo4j.kernel.impl.storageengine.impl.recordstorage.RecordStorageEngine;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.format.standard.Standard;
+import org.neo4j.kernel.impl.store.format.standard.StandardV3_4;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RecordLoad;
+import org.neo4j.kernel.impl.storemigration.StoreUpgrader;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.rule.TestDirectory;
+import org.neo4j.values.storable.MapValueEncoding;
+
+import static java.util.Collections.singletonMap;
+import static migration.RecordFormatMigrationIT.startDatabaseWithFormat;
+import static migration.RecordFormatMigrationIT.startNonUpgradableDatabaseWithFormat;
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class MapPropertiesRecordFormatIT
+{
+    @Rule
+    public final TestDirectory testDirectory = TestDirectory.testDirectory();
+
+    @Test
+    public void migrateJsonMapPropertiesToBinaryEncoding()
+    {
+        File storeDir = testDirectory.graphDbDir();
+        Map<String,Object> address = new HashMap<>();
+        address.put( "city", "Malmö" );
+        address.put( "zip", "21119" );
+        Map<String,Object> document = new HashMap<>();
+        document.put( "address", address );
+        document.put( "text", repeat( "lorem ipsum ", 100 ) );
+
+        GraphDatabaseService oldStore = startNonUpgradableDatabaseWithFormat( storeDir, StandardV3_4.NAME );
+        long nodeId;
+        try ( Transaction transaction = oldStore.beginTx() )
+        {
+            Node node = oldStore.createNode();
+            node.setProperty( "document", document );
+            nodeId = node.getId();
+            transaction.success();
+        }
+        assertEquals( '{', firstByteOfMapProperty( oldStore, nodeId ) );
+        oldStore.shutdown();
+
+        GraphDatabaseService upgradedStore = startDatabaseWithFormat( storeDir, Standard.LATEST_NAME );
+        try ( Transaction ignored = upgradedStore.beginTx() )
+        {
+            assertEquals( document, upgradedStore.getNodeById( nodeId ).getProperty( "document" ) );
+        }
+        assertEquals( MapValueEncoding.FORMAT, firstByteOfMapProperty( upgradedStore, nodeId ) );
+        upgradedStore.shutdown();
+    }
+
+    @Test
+    public void failToOpenStoreWithBinaryMapPropertiesUsingOldFormat()
+    {
+        File storeDir = testDirectory.graphDbDir();
+        GraphDatabaseService database = startDatabaseWithFormat( storeDir, Standard.LATEST_NAME );
+        try ( Transaction transaction = database.beginTx() )
+        {
+            Node node = database.createNode();
+            node.setProperty( "a", singletonMap( "b", "c" ) );
+            transaction.success();
+        }
+        database.shutdown();
+
+        try
+        {
+            startDatabaseWithFormat( storeDir, StandardV3_4.NAME );
+        }
+        catch ( Throwable t )
+        {
+            assertSame( StoreUpgrader.AttemptedDowngradeException.class, Exceptions.rootCause( t ).getClass() );
+        }
+    }
+
+    private static byte firstByteOfMapProperty( GraphDatabaseService database, long nodeId )
+    {
+        NeoStores neoStores = ((GraphDatabaseAPI) database).getDependencyResolver()
+                .resolveDependency( RecordStorageEngine.class ).testAccessNeoStores();
+        PropertyStore propertyStore = neoStores.getPropertyStore();
+        long propertyId = neoStores.getNodeStore().getRecord( nodeId, neoStores.getNodeStore().newRecord(), RecordLoad.NORMAL ).getNextProp();
+        for ( PropertyRecord record : propertyStore.getPropertyRecordChain( propertyId ) )
+        {
+            for ( PropertyBlock block : record )
+            {
+                if ( block.getType() == PropertyType.MAP )
+                {
+                    DynamicRecord mapRecord = propertyStore.getStringStore().getRecord( block.getSingleValueLong(),
+                            propertyStore.getStringStore().newRecord(), RecordLoad.NORMAL );
+                    return mapRecord.getData()[0];
+                }
+            }
+        }
+        throw new AssertionError( "Node " + nodeId + " has no map property" );
+    }
+}
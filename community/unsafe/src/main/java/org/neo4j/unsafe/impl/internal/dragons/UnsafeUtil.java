@@ -944,6 +944,16 @@ public final class UnsafeUtil
         unsafe.copyMemory( srcAddress, destAddress, bytes );
     }
 
+    /**
+     * Copy the given number of bytes from the source object, starting at the source offset, to the destination object,
+     * starting at the destination offset. A {@code null} object means that its offset is a native memory address, so
+     * this copies between heap arrays, at {@link #arrayBaseOffset(Class)} and onwards, and native memory.
+     */
+    public static void copyMemory( Object srcBase, long srcOffset, Object destBase, long destOffset, long bytes )
+    {
+        unsafe.copyMemory( srcBase, srcOffset, destBase, destOffset, bytes );
+    }
+
     /**
      * Create a new DirectByteBuffer that wraps the given address and has the given capacity.
      * <p>
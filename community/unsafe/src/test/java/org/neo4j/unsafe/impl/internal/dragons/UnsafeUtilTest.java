@@ -46,6 +46,7 @@ import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.assertHasUnsafe;
 import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.compareAndSetMaxLong;
 import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.compareAndSwapLong;
 import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.compareAndSwapObject;
+import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.copyMemory;
 import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.free;
 import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.getAndAddInt;
 import static org.neo4j.unsafe.impl.internal.dragons.UnsafeUtil.getAndSetLong;
@@ -506,6 +507,28 @@ class UnsafeUtilTest
         assertThat( objects[2], is( nullValue() ) );
     }
 
+    @Test
+    void copyMemoryBetweenArraysAndNativeMemory()
+    {
+        byte[] source = {1, 2, 3, 4, 5};
+        byte[] target = new byte[5];
+        long base = arrayBaseOffset( byte[].class );
+        long address = allocateMemory( source.length );
+        try
+        {
+            copyMemory( source, base + 1, null, address, 3 );
+            assertThat( getByte( address ), is( (byte) 2 ) );
+            assertThat( getByte( address + 2 ), is( (byte) 4 ) );
+
+            copyMemory( null, address, target, base + 2, 3 );
+            assertThat( target, equalTo( new byte[]{0, 0, 2, 3, 4} ) );
+        }
+        finally
+        {
+            free( address, source.length, GlobalMemoryTracker.INSTANCE );
+        }
+    }
+
     @Test
     void directByteBufferCreationAndInitialisation() throws Exception
     {
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.values.storable;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongConsumer;
+
+import org.neo4j.function.ThrowingBiConsumer;
+import org.neo4j.values.AnyValue;
+
+import static org.neo4j.values.storable.Values.NO_VALUE;
+
+/**
+ * A {@link MapValue} backed by bytes in the {@link MapValueEncoding}. The key directory is read on first access,
+ * values are decoded one by one as they are asked for, so reading a single key out of a large document does not
+ * decode the rest of it.
+ * <p>
+ * Maps are shared between threads, for instance through query results, so the lazily read directory is built into
+ * an immutable {@link Directory} and published through a single volatile field, and the decoded values are kept in an
+ * {@link AtomicReferenceArray}.
+ * <p>
+ * Since the actual decoding happens on access, a map can be given a listener that is told the time spent each time the
+ * directory or a value is decoded. Nested maps decoded from it report to the same listener.
+ */
+final class EncodedMapValue extends MapValue
+{
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+    private final int size;
+    private final LongConsumer decodeTime;
+
+    private volatile Directory directory;
+
+    EncodedMapValue( byte[] bytes, int offset, int length )
+    {
+        this( bytes, offset, length, null );
+    }
+
+    /**
+     * @param decodeTime given the nanoseconds spent decoding parts of this map, or {@code null} to not take the time.
+     */
+    EncodedMapValue( byte[] bytes, int offset, int length, LongConsumer decodeTime )
+    {
+        byte format = bytes[offset];
+        if ( format != MapValueEncoding.FORMAT )
+        {
+            throw new IllegalStateException( "Unknown map property encoding " + format );
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        this.decodeTime = decodeTime;
+        this.size = new MapValueEncoding.Reader( bytes, offset + 1 ).readVarInt();
+        this.content = size == 0 ? MapValueContent.EMPTY : MapValueContent.STORABLE;
+    }
+
+    @Override
+    public Iterable<String> keySet()
+    {
+        return Arrays.asList( directory().keys );
+    }
+
+    @Override
+    public <E extends Exception> void foreach( ThrowingBiConsumer<String,AnyValue,E> f ) throws E
+    {
+        Directory directory = directory();
+        String[] keys = directory.keys;
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            f.accept( keys[i], valueAt( directory, i ) );
+        }
+    }
+
+    @Override
+    public boolean containsKey( String key )
+    {
+        return indexOf( key ) >= 0;
+    }
+
+    @Override
+    public AnyValue get( String key )
+    {
+        if ( size == 0 )
+        {
+            return NO_VALUE;
+        }
+        Directory directory = directory();
+        int index = Arrays.binarySearch( directory.keys, key );
+        return index >= 0 ? valueAt( directory, index ) : NO_VALUE;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * The key directory is written in key order, so it already is the sorted layout.
+     */
+    @Override
+    String[] sortedKeys()
+    {
+        return directory().keys;
+    }
+
+    @Override
+    AnyValue sortedValue( int index )
+    {
+        return valueAt( directory(), index );
+    }
+
+    /**
+     * The encoded form of this map is {@link #encodedLength()} bytes of this array from {@link #encodedOffset()},
+     * which lets maps that have not changed be written again without being decoded first.
+     */
+    byte[] encodedBytes()
+    {
+        return bytes;
+    }
+
+    int encodedOffset()
+    {
+        return offset;
+    }
+
+    int encodedLength()
+    {
+        return length;
+    }
+
+    private int indexOf( String key )
+    {
+        return size == 0 ? -1 : Arrays.binarySearch( directory().keys, key );
+    }
+
+    private Directory directory()
+    {
+        Directory directory = this.directory;
+        if ( directory == null )
+        {
+            // Racing threads may each read the directory, but they all read the same one.
+            long startTime = decodeTime == null ? 0 : System.nanoTime();
+            directory = new Directory( bytes, offset );
+            this.directory = directory;
+            if ( decodeTime != null )
+            {
+                decodeTime.accept( System.nanoTime() - startTime );
+            }
+        }
+        return directory;
+    }
+
+    private AnyValue valueAt( Directory directory, int index )
+    {
+        AnyValue value = directory.values.get( index );
+        if ( value == null )
+        {
+            long startTime = decodeTime == null ? 0 : System.nanoTime();
+            value = directory.decodeValue( bytes, index );
+            if ( decodeTime != null )
+            {
+                if ( value instanceof EncodedMapValue )
+                {
+                    EncodedMapValue nested = (EncodedMapValue) value;
+                    value = new EncodedMapValue( nested.bytes, nested.offset, nested.length, decodeTime );
+                }
+                decodeTime.accept( System.nanoTime() - startTime );
+            }
+            directory.values.set( index, value );
+        }
+        return value;
+    }
+
+    /**
+     * The keys of the map, in key order, and where to find their values.
+     */
+    private static final class Directory
+    {
+        private final String[] keys;
+        private final int[] valueOffsets;
+        private final int valuesStart;
+        private final AtomicReferenceArray<AnyValue> values;
+
+        Directory( byte[] bytes, int offset )
+        {
+            MapValueEncoding.Reader reader = new MapValueEncoding.Reader( bytes, offset + 1 );
+            int size = reader.readVarInt();
+            keys = new String[size];
+            valueOffsets = new int[size];
+            for ( int i = 0; i < size; i++ )
+            {
+                keys[i] = reader.readString();
+                valueOffsets[i] = reader.readInt();
+            }
+            valuesStart = reader.position();
+            values = new AtomicReferenceArray<>( size );
+        }
+
+        AnyValue decodeValue( byte[] bytes, int index )
+        {
+            return new MapValueEncoding.Reader( bytes, valuesStart + valueOffsets[index] ).readValue();
+        }
+    }
+}
@@ -30,7 +30,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.function.BiFunction;
-import java.util.stream.StreamSupport;
 
 import org.neo4j.function.ThrowingBiConsumer;
 import org.neo4j.hashing.HashFunction;
@@ -48,6 +47,8 @@ import static org.neo4j.values.storable.Values.NO_VALUE;
 public abstract class MapValue extends Value
 {
     protected final Map<String,AnyValue> map;
+    // Published whole through the volatile write, since maps are shared between threads.
+    private volatile String[] sortedKeys;
 
     public MapValue( Map<String,AnyValue> map )
     {
@@ -105,6 +106,9 @@ public abstract class MapValue extends Value
 
     public static final class MapWrappingMapValue extends MapValue
     {
+        /**
+         * @param map the entries of the value. The map is wrapped, not copied, so it must not be modified afterwards.
+         */
         public MapWrappingMapValue( Map<String,AnyValue> map )
         {
             super( map );
@@ -527,6 +531,35 @@ public abstract class MapValue extends Value
 
     public abstract Iterable<String> keySet();
 
+    /**
+     * The keys of this map in their natural order. Maps are immutable, so the sorted layout is computed once and
+     * kept, which makes comparing two maps a linear walk over both key arrays without sorting or allocating.
+     */
+    String[] sortedKeys()
+    {
+        String[] keys = sortedKeys;
+        if ( keys == null )
+        {
+            keys = new String[size()];
+            int i = 0;
+            for ( String key : keySet() )
+            {
+                keys[i++] = key;
+            }
+            Arrays.sort( keys );
+            sortedKeys = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * @return the value of the key at {@code index} in {@link #sortedKeys()}.
+     */
+    AnyValue sortedValue( int index )
+    {
+        return get( sortedKeys()[index] );
+    }
+
     public ListValue keys()
     {
         String[] keys = new String[size()];
@@ -555,10 +588,8 @@ public abstract class MapValue extends Value
         int compare = Integer.compare( size, otherMap.size() );
         if ( compare == 0 )
         {
-            String[] thisKeys = StreamSupport.stream( keySet().spliterator(), false).toArray( String[]::new  );
-            Arrays.sort( thisKeys, String::compareTo );
-            String[] thatKeys = StreamSupport.stream( otherMap.keySet().spliterator(), false).toArray( String[]::new  );
-            Arrays.sort( thatKeys, String::compareTo );
+            String[] thisKeys = sortedKeys();
+            String[] thatKeys = otherMap.sortedKeys();
             for ( int i = 0; i < size; i++ )
             {
                 compare = thisKeys[i].compareTo( thatKeys[i] );
@@ -570,8 +601,7 @@ public abstract class MapValue extends Value
 
             for ( int i = 0; i < size; i++ )
             {
-                String key = thisKeys[i];
-                compare = comparator.compare( get( key ), otherMap.get( key ) );
+                compare = comparator.compare( sortedValue( i ), otherMap.sortedValue( i ) );
                 if ( compare != 0 )
                 {
                     return compare;
@@ -598,10 +628,8 @@ public abstract class MapValue extends Value
         {
             return Boolean.FALSE;
         }
-        String[] thisKeys = StreamSupport.stream( keySet().spliterator(), false ).toArray( String[]::new );
-        Arrays.sort( thisKeys, String::compareTo );
-        String[] thatKeys = StreamSupport.stream( otherMap.keySet().spliterator(), false ).toArray( String[]::new );
-        Arrays.sort( thatKeys, String::compareTo );
+        String[] thisKeys = sortedKeys();
+        String[] thatKeys = otherMap.sortedKeys();
         for ( int i = 0; i < size; i++ )
         {
             if ( thisKeys[i].compareTo( thatKeys[i] ) != 0 )
@@ -613,8 +641,7 @@ public abstract class MapValue extends Value
 
         for ( int i = 0; i < size; i++ )
         {
-            String key = thisKeys[i];
-            Boolean s = get( key ).ternaryEquals( otherMap.get( key ) );
+            Boolean s = sortedValue( i ).ternaryEquals( otherMap.sortedValue( i ) );
             if ( s == null )
             {
                 equalityResult = null;
@@ -675,6 +702,50 @@ public abstract class MapValue extends Value
         return new CombinedMapValue( this, other );
     }
 
+    /**
+     * Returns this map with the value at {@code path} replaced by {@code value}, or removed if {@code value} is
+     * {@link Values#NO_VALUE}. Maps missing along the path are created. Only the maps on the path are new, everything
+     * else is shared with this map.
+     *
+     * @param path keys leading from this map to the value, must not be empty.
+     * @param value the new value.
+     * @return the updated map.
+     * @throws IllegalArgumentException if a value along the path exists but is not a map.
+     */
+    public MapValue updatedAt( String[] path, Value value )
+    {
+        return updatedAt( path, 0, value );
+    }
+
+    private MapValue updatedAt( String[] path, int depth, Value value )
+    {
+        String key = path[depth];
+        if ( value == NO_VALUE && !containsKey( key ) )
+        {
+            return this;
+        }
+        if ( depth == path.length - 1 )
+        {
+            return value == NO_VALUE ? filter( ( k, v ) -> !k.equals( key ) ) : updatedWith( key, value );
+        }
+
+        AnyValue current = get( key );
+        if ( current == NO_VALUE )
+        {
+            return updatedWith( key, EMPTY.updatedAt( path, depth + 1, value ) );
+        }
+        if ( !(current instanceof MapValue) )
+        {
+            if ( value == NO_VALUE )
+            {
+                return this;
+            }
+            throw new IllegalArgumentException( String.format( "Cannot update %s since %s is not a map",
+                    String.join( ".", path ), String.join( ".", Arrays.copyOf( path, depth + 1 ) ) ) );
+        }
+        return updatedWith( key, ((MapValue) current).updatedAt( path, depth + 1, value ) );
+    }
+
     @Override
     public String toString()
     {
@@ -704,7 +775,18 @@ public abstract class MapValue extends Value
     @Override
     public long updateHash( HashFunction hashFunction, long hash )
     {
-        return 0;
+        // Entries are hashed on their own and summed, so that the hash does not depend on the order in which
+        // a particular map implementation happens to iterate its entries, just like computeHash.
+        long[] entries = new long[1];
+        foreach( ( key, value ) ->
+        {
+            long entry = hashFunction.update( hashFunction.initialise( 0 ), key.hashCode() );
+            entry = value instanceof Value ? ((Value) value).updateHash( hashFunction, entry )
+                                           : hashFunction.update( entry, value.hashCode() );
+            entries[0] += hashFunction.finalise( entry );
+        } );
+        hash = hashFunction.update( hash, size() );
+        return hashFunction.update( hash, entries[0] );
     }
 
     @Override
@@ -748,9 +830,11 @@ public abstract class MapValue extends Value
             return;
         }
 
-        // TODO: Fix possible duplication of code.
         writer.beginMap( size() );
-        writer.writeMap( asObjectCopy() );
+        foreach( ( key, value ) -> {
+            writer.writeString( key );
+            ((Value) value).writeTo( writer );
+        } );
         writer.endMap();
     }
 
@@ -759,10 +843,7 @@ public abstract class MapValue extends Value
     {
         // TODO: Validate the usage of a HashMap to provide a "deep copy" of the underlying value
         HashMap<String, Object> deepCopy = new HashMap<>();
-        for ( Map.Entry<String, AnyValue> entry : this.map.entrySet() )
-        {
-            deepCopy.put( new String( entry.getKey() ), ((Value)entry.getValue()).asObjectCopy() );
-        }
+        foreach( ( key, value ) -> deepCopy.put( key, ((Value) value).asObjectCopy() ) );
         return deepCopy;
     }
 
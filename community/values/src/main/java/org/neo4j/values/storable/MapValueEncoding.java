@@ -0,0 +1,1151 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.values.storable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.utils.TemporalUtil;
+
+import static java.lang.String.format;
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Binary encoding of storable {@link MapValue maps}, as written to the property store for map properties.
+ * <pre>
+ * [format:1] [size:varint]
+ * directory, one entry per key in ascending key order:
+ *            [keyLength:varint] [key:utf8] [valueOffset:4]
+ * values:    [type:1] [payload], valueOffset is relative to the first byte after the directory
+ * </pre>
+ * Nested maps are written as {@code [MAP] [length:varint]} followed by a complete encoding of the inner map,
+ * so any nested map can be decoded on its own. Decoded maps are {@link EncodedMapValue lazy}, they keep the encoded
+ * bytes and only decode the values that are asked for. Payloads written before this encoding existed are JSON text,
+ * they always start with {@code '{'} and are still decoded through {@link Values#mapValue(byte[], int, int)}.
+ */
+public final class MapValueEncoding
+{
+    public static final byte FORMAT = 1;
+    private static final byte LEGACY_JSON_FORMAT = '{';
+
+    static final byte BOOLEAN = 1;
+    static final byte BYTE = 2;
+    static final byte SHORT = 3;
+    static final byte INT = 4;
+    static final byte LONG = 5;
+    static final byte FLOAT = 6;
+    static final byte DOUBLE = 7;
+    static final byte CHAR = 8;
+    static final byte STRING = 9;
+    static final byte DATE = 10;
+    static final byte LOCAL_TIME = 11;
+    static final byte TIME = 12;
+    static final byte LOCAL_DATE_TIME = 13;
+    static final byte DATE_TIME = 14;
+    static final byte DURATION = 15;
+    static final byte ARRAY = 16;
+    static final byte MAP = 17;
+    static final byte POINT = 18;
+
+    private static final byte ZONE_OFFSET = 0;
+    private static final byte ZONE_ID = 1;
+
+    private static final ValueWriter.ArrayType[] ARRAY_TYPES = ValueWriter.ArrayType.values();
+
+    // Rough encoded lengths used by estimatedLength, erring on the large side.
+    private static final int ESTIMATED_HEADER_LENGTH = 1 + 5;
+    private static final int ESTIMATED_KEY_OVERHEAD = 5 + Integer.BYTES;
+    private static final int ESTIMATED_SCALAR_LENGTH = 1 + Long.BYTES;
+    private static final int ESTIMATED_COMPOSITE_LENGTH = 32;
+
+    private MapValueEncoding()
+    {
+    }
+
+    /**
+     * Encodes a storable map.
+     *
+     * @param map the map to encode, it may only contain storable values and other storable maps.
+     * @return the encoded map.
+     * @throws IllegalArgumentException if the map contains values that cannot be stored.
+     */
+    public static byte[] encode( MapValue map )
+    {
+        if ( map instanceof EncodedMapValue )
+        {
+            EncodedMapValue encoded = (EncodedMapValue) map;
+            int offset = encoded.encodedOffset();
+            return Arrays.copyOfRange( encoded.encodedBytes(), offset, offset + encoded.encodedLength() );
+        }
+        Output out = new Output( 64 );
+        writeMap( map, out );
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a map written by {@link #encode(MapValue)}, or a legacy JSON text map. The encoded bytes are copied,
+     * so {@code bytes} may be reused by the caller afterwards.
+     *
+     * @param bytes the buffer holding the encoded map.
+     * @param offset where in {@code bytes} the encoded map starts.
+     * @param length number of bytes of the encoded map.
+     * @return the decoded map.
+     */
+    public static MapValue decode( byte[] bytes, int offset, int length )
+    {
+        return decode( bytes, offset, length, null );
+    }
+
+    /**
+     * Like {@link #decode(byte[], int, int)}, but reports the time spent decoding the map, as it is decoded.
+     *
+     * @param bytes the buffer holding the encoded map.
+     * @param offset where in {@code bytes} the encoded map starts.
+     * @param length number of bytes of the encoded map.
+     * @param decodeTime given the nanoseconds spent each time a part of the map is decoded, which may be long after
+     * this call returns since maps are decoded lazily, or {@code null} to not take the time.
+     * @return the decoded map.
+     */
+    public static MapValue decode( byte[] bytes, int offset, int length, LongConsumer decodeTime )
+    {
+        if ( length > 0 && bytes[offset] == LEGACY_JSON_FORMAT )
+        {
+            return Values.mapValue( bytes, offset, length );
+        }
+        return decodeShared( Arrays.copyOfRange( bytes, offset, offset + length ), 0, length, decodeTime );
+    }
+
+    /**
+     * Decodes a map written by {@link #encode(MapValue)}, or a legacy JSON text map. The returned map keeps a
+     * reference to {@code bytes}, which must not be modified afterwards.
+     *
+     * @param bytes the encoded map.
+     * @return the decoded map.
+     */
+    public static MapValue decode( byte[] bytes )
+    {
+        return decodeShared( bytes, 0, bytes.length );
+    }
+
+    /**
+     * Like {@link #decode(byte[], int, int)}, but without copying the encoded bytes. The returned map may keep a
+     * reference to {@code bytes}, which must not be modified afterwards.
+     *
+     * @param bytes the buffer holding the encoded map.
+     * @param offset where in {@code bytes} the encoded map starts.
+     * @param length number of bytes of the encoded map.
+     * @return the decoded map.
+     */
+    public static MapValue decodeShared( byte[] bytes, int offset, int length )
+    {
+        return decodeShared( bytes, offset, length, null );
+    }
+
+    /**
+     * Like {@link #decodeShared(byte[], int, int)}, but reports the time spent decoding the map, see
+     * {@link #decode(byte[], int, int, LongConsumer)}.
+     */
+    public static MapValue decodeShared( byte[] bytes, int offset, int length, LongConsumer decodeTime )
+    {
+        if ( length > 0 && bytes[offset] == LEGACY_JSON_FORMAT )
+        {
+            return Values.mapValue( bytes, offset, length );
+        }
+        return new EncodedMapValue( bytes, offset, length, decodeTime );
+    }
+
+    /**
+     * @return {@code true} if the encoded map starting at {@code offset} is in the legacy JSON text format.
+     */
+    public static boolean isLegacyFormat( byte[] bytes, int offset )
+    {
+        return bytes.length > offset && bytes[offset] == LEGACY_JSON_FORMAT;
+    }
+
+    /**
+     * Estimates the length of {@link #encode(MapValue) encoding} a map without encoding it. Text is counted by its
+     * characters, other values by a fixed length, and maps that are already encoded by their actual length. The
+     * estimate stops as soon as it reaches {@code limit}, so deciding whether a map is large is cheap even for maps
+     * far larger than that.
+     *
+     * @param map the map to estimate.
+     * @param limit the length at which to stop estimating.
+     * @return the estimated length, which is at least {@code limit} if the estimate reached it.
+     */
+    public static long estimatedLength( MapValue map, long limit )
+    {
+        if ( map instanceof EncodedMapValue )
+        {
+            return ((EncodedMapValue) map).encodedLength();
+        }
+        long length = ESTIMATED_HEADER_LENGTH;
+        for ( String key : map.keySet() )
+        {
+            length += ESTIMATED_KEY_OVERHEAD + key.length() + estimatedLength( map.get( key ), limit - length );
+            if ( length >= limit )
+            {
+                break;
+            }
+        }
+        return length;
+    }
+
+    private static long estimatedLength( AnyValue value, long limit )
+    {
+        if ( value instanceof MapValue )
+        {
+            return ESTIMATED_HEADER_LENGTH + estimatedLength( (MapValue) value, limit );
+        }
+        if ( value instanceof TextValue )
+        {
+            return ESTIMATED_HEADER_LENGTH + ((TextValue) value).length();
+        }
+        if ( value instanceof TextArray )
+        {
+            TextArray array = (TextArray) value;
+            long length = ESTIMATED_HEADER_LENGTH;
+            for ( int i = 0; i < array.length() && length < limit; i++ )
+            {
+                length += 5 + array.stringValue( i ).length();
+            }
+            return length;
+        }
+        if ( value instanceof ArrayValue )
+        {
+            return ESTIMATED_HEADER_LENGTH + (long) ((ArrayValue) value).length() * ESTIMATED_SCALAR_LENGTH;
+        }
+        if ( value instanceof NumberValue || value instanceof BooleanValue )
+        {
+            return ESTIMATED_SCALAR_LENGTH;
+        }
+        return ESTIMATED_COMPOSITE_LENGTH;
+    }
+
+    /**
+     * Decodes only the value found by following {@code path} through the nested maps of an encoded map. Keys are
+     * compared in their encoded form and only the leaf value is decoded. The leaf is copied out of {@code bytes},
+     * so {@code bytes} may be reused by the caller afterwards.
+     *
+     * @param bytes the buffer holding the encoded map.
+     * @param offset where in {@code bytes} the encoded map starts.
+     * @param length number of bytes of the encoded map.
+     * @param path keys to follow, the first key is looked up in the outermost map.
+     * @return the value at the end of the path, {@link Values#NO_VALUE} if any key on the path is missing, or
+     * {@code null} if the path passes through a value that is not a map.
+     */
+    public static Value decodePath( byte[] bytes, int offset, int length, String[] path )
+    {
+        if ( length > 0 && bytes[offset] == LEGACY_JSON_FORMAT )
+        {
+            return valueAt( decode( bytes, offset, length ), path );
+        }
+        int position = offset;
+        for ( int depth = 0; depth < path.length; depth++ )
+        {
+            if ( bytes[position] != FORMAT )
+            {
+                throw new IllegalStateException( "Unknown map property encoding " + bytes[position] );
+            }
+            int valuePosition = findValue( bytes, position + 1, path[depth].getBytes( StandardCharsets.UTF_8 ) );
+            if ( valuePosition == -1 )
+            {
+                return Values.NO_VALUE;
+            }
+            Reader reader = new Reader( bytes, valuePosition + 1 );
+            byte type = bytes[valuePosition];
+            if ( depth < path.length - 1 )
+            {
+                if ( type != MAP )
+                {
+                    return null;
+                }
+                reader.readVarInt();
+                position = reader.position();
+            }
+            else if ( type == STRING || type == MAP )
+            {
+                int valueLength = reader.readVarInt();
+                byte[] copy = Arrays.copyOfRange( bytes, reader.position(), reader.position() + valueLength );
+                return type == STRING ? Values.utf8Value( copy ) : new EncodedMapValue( copy, 0, copy.length );
+            }
+            else
+            {
+                return new Reader( bytes, valuePosition ).readValue();
+            }
+        }
+        return decode( bytes, offset, length );
+    }
+
+    /**
+     * Follows {@code path} through an already decoded value, with the same outcome as
+     * {@link #decodePath(byte[], int, int, String[])} would have had on its encoded form.
+     */
+    public static Value valueAt( Value value, String[] path )
+    {
+        AnyValue current = value;
+        for ( String key : path )
+        {
+            if ( current == Values.NO_VALUE )
+            {
+                return Values.NO_VALUE;
+            }
+            if ( !(current instanceof MapValue) )
+            {
+                return null;
+            }
+            current = ((MapValue) current).get( key );
+        }
+        return current instanceof Value ? (Value) current : null;
+    }
+
+    /**
+     * Reads the keys of the map found by following {@code path} through the nested maps of an encoded map. Only key
+     * directories are read, no value is decoded, which is all that listing keys, counting them or checking that a key
+     * exists needs.
+     *
+     * @param bytes the buffer holding the encoded map.
+     * @param offset where in {@code bytes} the encoded map starts.
+     * @param length number of bytes of the encoded map, with an empty {@code path} the first
+     * {@link #directoryLength(byte[], int, int)} bytes are enough.
+     * @param path keys to follow, an empty path reads the keys of the outermost map.
+     * @return the keys in ascending order, or {@code null} if there is no map at the end of the path.
+     */
+    public static String[] keysAt( byte[] bytes, int offset, int length, String[] path )
+    {
+        if ( length > 0 && bytes[offset] == LEGACY_JSON_FORMAT )
+        {
+            return keysAt( decode( bytes, offset, length ), path );
+        }
+        int position = offset;
+        for ( String key : path )
+        {
+            int valuePosition = findValue( bytes, position + 1, key.getBytes( StandardCharsets.UTF_8 ) );
+            if ( valuePosition == -1 || bytes[valuePosition] != MAP )
+            {
+                return null;
+            }
+            Reader reader = new Reader( bytes, valuePosition + 1 );
+            reader.readVarInt();
+            position = reader.position();
+        }
+        if ( bytes[position] != FORMAT )
+        {
+            throw new IllegalStateException( "Unknown map property encoding " + bytes[position] );
+        }
+        Reader reader = new Reader( bytes, position + 1 );
+        String[] keys = new String[reader.readVarInt()];
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            keys[i] = reader.readString();
+            reader.skip( 4 );
+        }
+        return keys;
+    }
+
+    /**
+     * Follows {@code path} through an already decoded value, with the same outcome as
+     * {@link #keysAt(byte[], int, int, String[])} would have had on its encoded form.
+     */
+    public static String[] keysAt( Value value, String[] path )
+    {
+        Value map = valueAt( value, path );
+        return map instanceof MapValue ? ((MapValue) map).sortedKeys().clone() : null;
+    }
+
+    /**
+     * Tells how many bytes from the start of an encoded map the key directory of the outermost map ends at, given
+     * that only the first {@code available} bytes of it are known. This lets a reader stop loading a large map once
+     * the directory is in.
+     *
+     * @return the length of the format byte, the size and the key directory, or {@code -1} if the first
+     * {@code available} bytes do not hold all of it. Legacy JSON text maps have no directory, so that is always
+     * {@code -1} for them.
+     */
+    public static int directoryLength( byte[] bytes, int offset, int available )
+    {
+        if ( available == 0 || bytes[offset] == LEGACY_JSON_FORMAT )
+        {
+            return -1;
+        }
+        int end = offset + available;
+        Reader reader = new Reader( bytes, offset + 1 );
+        if ( !reader.hasVarInt( end ) )
+        {
+            return -1;
+        }
+        int size = reader.readVarInt();
+        for ( int i = 0; i < size; i++ )
+        {
+            if ( !reader.hasVarInt( end ) )
+            {
+                return -1;
+            }
+            reader.skip( reader.readVarInt() + 4 );
+            if ( reader.position() > end )
+            {
+                return -1;
+            }
+        }
+        return reader.position() - offset;
+    }
+
+    /**
+     * Finds where the value of a key is in an encoded map by reading only its key directory, so that the value can be
+     * read and {@link #decodeValue(byte[], int) decoded} without the rest of the map. Values are written in key order,
+     * so a value ends where the value of the next key starts, or where the map ends.
+     *
+     * @param directory the first {@link #directoryLength(byte[], int, int)} bytes of an encoded map.
+     * @param length number of bytes of the whole encoded map.
+     * @param key the key to look for.
+     * @return the start and the end of the value, relative to the start of the map, or {@code null} if there is no
+     * such key.
+     */
+    public static int[] valueBounds( byte[] directory, int length, String key )
+    {
+        byte[] encodedKey = key.getBytes( StandardCharsets.UTF_8 );
+        Reader reader = new Reader( directory, 1 );
+        int size = reader.readVarInt();
+        int start = -1;
+        int end = -1;
+        for ( int i = 0; i < size; i++ )
+        {
+            int keyLength = reader.readVarInt();
+            int keyStart = reader.position();
+            reader.skip( keyLength );
+            int entryOffset = reader.readInt();
+            if ( start == -1 )
+            {
+                if ( keyLength == encodedKey.length && regionEquals( directory, keyStart, encodedKey ) )
+                {
+                    start = entryOffset;
+                }
+            }
+            else if ( end == -1 )
+            {
+                end = entryOffset;
+            }
+        }
+        if ( start == -1 )
+        {
+            return null;
+        }
+        int valuesStart = reader.position();
+        return new int[]{valuesStart + start, end == -1 ? length : valuesStart + end};
+    }
+
+    /**
+     * Decodes a single value of an encoded map, such as one found by {@link #valueBounds(byte[], int, String)}. The
+     * returned value may keep a reference to {@code bytes}, which must not be modified afterwards.
+     *
+     * @param bytes the buffer holding the encoded value.
+     * @param offset where in {@code bytes} the type tag of the value is.
+     * @return the decoded value.
+     */
+    public static Value decodeValue( byte[] bytes, int offset )
+    {
+        return new Reader( bytes, offset ).readValue();
+    }
+
+    /**
+     * Scans the key directory starting at {@code position}, which is the size of the map, for {@code key}.
+     *
+     * @return the position of the type tag of the value for {@code key}, or {@code -1} if there is no such key.
+     */
+    private static int findValue( byte[] bytes, int position, byte[] key )
+    {
+        Reader reader = new Reader( bytes, position );
+        int size = reader.readVarInt();
+        int valueOffset = -1;
+        for ( int i = 0; i < size; i++ )
+        {
+            int keyLength = reader.readVarInt();
+            int keyStart = reader.position();
+            reader.skip( keyLength );
+            int entryOffset = reader.readInt();
+            if ( valueOffset == -1 && keyLength == key.length && regionEquals( bytes, keyStart, key ) )
+            {
+                valueOffset = entryOffset;
+            }
+        }
+        return valueOffset == -1 ? -1 : reader.position() + valueOffset;
+    }
+
+    private static boolean regionEquals( byte[] bytes, int offset, byte[] key )
+    {
+        for ( int i = 0; i < key.length; i++ )
+        {
+            if ( bytes[offset + i] != key[i] )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeMap( MapValue map, Output out )
+    {
+        String[] keys = map.sortedKeys();
+        int[] valueOffsets = new int[keys.length];
+        Output values = new Output( 16 * keys.length );
+        Encoder encoder = new Encoder( values );
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            valueOffsets[i] = values.position;
+            encoder.writeValue( keys[i], map.sortedValue( i ) );
+        }
+
+        out.writeByte( FORMAT );
+        out.writeVarInt( keys.length );
+        for ( int i = 0; i < keys.length; i++ )
+        {
+            byte[] key = keys[i].getBytes( StandardCharsets.UTF_8 );
+            out.writeVarInt( key.length );
+            out.writeBytes( key, 0, key.length );
+            out.writeInt( valueOffsets[i] );
+        }
+        out.writeBytes( values.bytes, 0, values.position );
+    }
+
+    private static final class Encoder implements ValueWriter<IllegalArgumentException>
+    {
+        private final Output out;
+        private boolean inArray;
+
+        Encoder( Output out )
+        {
+            this.out = out;
+        }
+
+        void writeValue( String key, AnyValue value )
+        {
+            if ( value instanceof MapValue )
+            {
+                writeNestedMap( (MapValue) value );
+            }
+            else if ( value instanceof Value && value != Values.NO_VALUE )
+            {
+                ((Value) value).writeTo( this );
+            }
+            else
+            {
+                throw new IllegalArgumentException(
+                        format( "[%s:%s] is not a supported value inside a map property", key, value ) );
+            }
+        }
+
+        private void writeNestedMap( MapValue map )
+        {
+            if ( map instanceof EncodedMapValue )
+            {
+                EncodedMapValue encoded = (EncodedMapValue) map;
+                out.writeByte( MAP );
+                out.writeVarInt( encoded.encodedLength() );
+                out.writeBytes( encoded.encodedBytes(), encoded.encodedOffset(), encoded.encodedLength() );
+                return;
+            }
+            Output nested = new Output( 64 );
+            MapValueEncoding.writeMap( map, nested );
+            out.writeByte( MAP );
+            out.writeVarInt( nested.position );
+            out.writeBytes( nested.bytes, 0, nested.position );
+        }
+
+        private void writeType( byte type )
+        {
+            if ( !inArray )
+            {
+                out.writeByte( type );
+            }
+        }
+
+        @Override
+        public void writeNull()
+        {
+            throw new IllegalArgumentException( "Cannot write null values inside a map property" );
+        }
+
+        @Override
+        public void writeBoolean( boolean value )
+        {
+            writeType( BOOLEAN );
+            out.writeByte( value ? (byte) 1 : (byte) 0 );
+        }
+
+        @Override
+        public void writeInteger( byte value )
+        {
+            writeType( BYTE );
+            out.writeByte( value );
+        }
+
+        @Override
+        public void writeInteger( short value )
+        {
+            writeType( SHORT );
+            out.writeShort( value );
+        }
+
+        @Override
+        public void writeInteger( int value )
+        {
+            writeType( INT );
+            out.writeInt( value );
+        }
+
+        @Override
+        public void writeInteger( long value )
+        {
+            writeType( LONG );
+            out.writeLong( value );
+        }
+
+        @Override
+        public void writeFloatingPoint( float value )
+        {
+            writeType( FLOAT );
+            out.writeInt( Float.floatToRawIntBits( value ) );
+        }
+
+        @Override
+        public void writeFloatingPoint( double value )
+        {
+            writeType( DOUBLE );
+            out.writeLong( Double.doubleToRawLongBits( value ) );
+        }
+
+        @Override
+        public void writeString( String value )
+        {
+            writeType( STRING );
+            byte[] bytes = value.getBytes( StandardCharsets.UTF_8 );
+            out.writeVarInt( bytes.length );
+            out.writeBytes( bytes, 0, bytes.length );
+        }
+
+        @Override
+        public void writeUTF8( byte[] bytes, int offset, int length )
+        {
+            writeType( STRING );
+            out.writeVarInt( length );
+            out.writeBytes( bytes, offset, length );
+        }
+
+        @Override
+        public void writeString( char value )
+        {
+            writeType( CHAR );
+            out.writeShort( (short) value );
+        }
+
+        @Override
+        public void beginArray( int size, ArrayType arrayType )
+        {
+            out.writeByte( ARRAY );
+            out.writeByte( (byte) arrayType.ordinal() );
+            out.writeVarInt( size );
+            inArray = true;
+        }
+
+        @Override
+        public void endArray()
+        {
+            inArray = false;
+        }
+
+        @Override
+        public void writeByteArray( byte[] value )
+        {
+            out.writeByte( ARRAY );
+            out.writeByte( (byte) ArrayType.BYTE.ordinal() );
+            out.writeVarInt( value.length );
+            out.writeBytes( value, 0, value.length );
+        }
+
+        @Override
+        public void writePoint( CoordinateReferenceSystem crs, double[] coordinate )
+        {
+            writeType( POINT );
+            out.writeByte( (byte) crs.getTable().getTableId() );
+            out.writeInt( crs.getCode() );
+            out.writeByte( (byte) coordinate.length );
+            for ( double ordinate : coordinate )
+            {
+                out.writeLong( Double.doubleToRawLongBits( ordinate ) );
+            }
+        }
+
+        @Override
+        public void writeDuration( long months, long days, long seconds, int nanos )
+        {
+            writeType( DURATION );
+            out.writeLong( months );
+            out.writeLong( days );
+            out.writeLong( seconds );
+            out.writeInt( nanos );
+        }
+
+        @Override
+        public void writeDate( LocalDate localDate )
+        {
+            writeType( DATE );
+            out.writeLong( localDate.toEpochDay() );
+        }
+
+        @Override
+        public void writeLocalTime( LocalTime localTime )
+        {
+            writeType( LOCAL_TIME );
+            out.writeLong( localTime.toNanoOfDay() );
+        }
+
+        @Override
+        public void writeTime( OffsetTime offsetTime )
+        {
+            writeType( TIME );
+            out.writeLong( TemporalUtil.getNanosOfDayUTC( offsetTime ) );
+            out.writeInt( offsetTime.getOffset().getTotalSeconds() );
+        }
+
+        @Override
+        public void writeLocalDateTime( LocalDateTime localDateTime )
+        {
+            writeType( LOCAL_DATE_TIME );
+            out.writeLong( localDateTime.toEpochSecond( UTC ) );
+            out.writeInt( localDateTime.getNano() );
+        }
+
+        @Override
+        public void writeDateTime( ZonedDateTime zonedDateTime )
+        {
+            writeType( DATE_TIME );
+            out.writeLong( zonedDateTime.toEpochSecond() );
+            out.writeInt( zonedDateTime.getNano() );
+            ZoneId zone = zonedDateTime.getZone();
+            if ( zone instanceof ZoneOffset )
+            {
+                out.writeByte( ZONE_OFFSET );
+                out.writeInt( ((ZoneOffset) zone).getTotalSeconds() );
+            }
+            else
+            {
+                out.writeByte( ZONE_ID );
+                out.writeShort( TimeZones.map( zone.getId() ) );
+            }
+        }
+
+        @Override
+        public void beginMap( int size )
+        {   // nested maps are written by writeNestedMap
+        }
+
+        @Override
+        public void endMap()
+        {   // nested maps are written by writeNestedMap
+        }
+    }
+
+    static final class Reader
+    {
+        private final byte[] bytes;
+        private int position;
+
+        Reader( byte[] bytes, int position )
+        {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        int position()
+        {
+            return position;
+        }
+
+        String readString()
+        {
+            int length = readVarInt();
+            String string = new String( bytes, position, length, StandardCharsets.UTF_8 );
+            position += length;
+            return string;
+        }
+
+        Value readValue()
+        {
+            byte type = bytes[position++];
+            switch ( type )
+            {
+            case BOOLEAN:
+                return Values.booleanValue( bytes[position++] != 0 );
+            case BYTE:
+                return Values.byteValue( bytes[position++] );
+            case SHORT:
+                return Values.shortValue( readShort() );
+            case INT:
+                return Values.intValue( readInt() );
+            case LONG:
+                return Values.longValue( readLong() );
+            case FLOAT:
+                return Values.floatValue( Float.intBitsToFloat( readInt() ) );
+            case DOUBLE:
+                return Values.doubleValue( Double.longBitsToDouble( readLong() ) );
+            case CHAR:
+                return Values.charValue( (char) readShort() );
+            case STRING:
+                int stringLength = readVarInt();
+                TextValue string = Values.utf8Value( bytes, position, stringLength );
+                position += stringLength;
+                return string;
+            case DATE:
+                return DateValue.date( readDate() );
+            case LOCAL_TIME:
+                return LocalTimeValue.localTime( readLocalTime() );
+            case TIME:
+                return TimeValue.time( readTime() );
+            case LOCAL_DATE_TIME:
+                return LocalDateTimeValue.localDateTime( readLocalDateTime() );
+            case DATE_TIME:
+                return DateTimeValue.datetime( readDateTime() );
+            case DURATION:
+                return readDuration();
+            case POINT:
+                return readPoint();
+            case ARRAY:
+                return readArray();
+            case MAP:
+                int mapLength = readVarInt();
+                MapValue nested = new EncodedMapValue( bytes, position, mapLength );
+                position += mapLength;
+                return nested;
+            default:
+                throw new IllegalStateException( "Unknown value type " + type + " inside map property" );
+            }
+        }
+
+        private ArrayValue readArray()
+        {
+            ValueWriter.ArrayType arrayType = ARRAY_TYPES[bytes[position++]];
+            int length = readVarInt();
+            switch ( arrayType )
+            {
+            case BYTE:
+                byte[] byteArray = Arrays.copyOfRange( bytes, position, position + length );
+                position += length;
+                return Values.byteArray( byteArray );
+            case SHORT:
+                short[] shortArray = new short[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    shortArray[i] = readShort();
+                }
+                return Values.shortArray( shortArray );
+            case INT:
+                int[] intArray = new int[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    intArray[i] = readInt();
+                }
+                return Values.intArray( intArray );
+            case LONG:
+                long[] longArray = new long[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    longArray[i] = readLong();
+                }
+                return Values.longArray( longArray );
+            case FLOAT:
+                float[] floatArray = new float[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    floatArray[i] = Float.intBitsToFloat( readInt() );
+                }
+                return Values.floatArray( floatArray );
+            case DOUBLE:
+                double[] doubleArray = new double[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    doubleArray[i] = Double.longBitsToDouble( readLong() );
+                }
+                return Values.doubleArray( doubleArray );
+            case BOOLEAN:
+                boolean[] booleanArray = new boolean[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    booleanArray[i] = bytes[position++] != 0;
+                }
+                return Values.booleanArray( booleanArray );
+            case STRING:
+                String[] stringArray = new String[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    stringArray[i] = readString();
+                }
+                return Values.stringArray( stringArray );
+            case CHAR:
+                char[] charArray = new char[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    charArray[i] = (char) readShort();
+                }
+                return Values.charArray( charArray );
+            case DATE:
+                LocalDate[] dateArray = new LocalDate[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    dateArray[i] = readDate();
+                }
+                return Values.dateArray( dateArray );
+            case LOCAL_TIME:
+                LocalTime[] localTimeArray = new LocalTime[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    localTimeArray[i] = readLocalTime();
+                }
+                return Values.localTimeArray( localTimeArray );
+            case ZONED_TIME:
+                OffsetTime[] timeArray = new OffsetTime[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    timeArray[i] = readTime();
+                }
+                return Values.timeArray( timeArray );
+            case LOCAL_DATE_TIME:
+                LocalDateTime[] localDateTimeArray = new LocalDateTime[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    localDateTimeArray[i] = readLocalDateTime();
+                }
+                return Values.localDateTimeArray( localDateTimeArray );
+            case ZONED_DATE_TIME:
+                ZonedDateTime[] dateTimeArray = new ZonedDateTime[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    dateTimeArray[i] = readDateTime();
+                }
+                return Values.dateTimeArray( dateTimeArray );
+            case DURATION:
+                DurationValue[] durationArray = new DurationValue[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    durationArray[i] = readDuration();
+                }
+                return Values.durationArray( durationArray );
+            case POINT:
+                PointValue[] pointArray = new PointValue[length];
+                for ( int i = 0; i < length; i++ )
+                {
+                    pointArray[i] = readPoint();
+                }
+                return Values.pointArray( pointArray );
+            default:
+                throw new IllegalStateException( "Unsupported array type " + arrayType + " inside map property" );
+            }
+        }
+
+        private LocalDate readDate()
+        {
+            return LocalDate.ofEpochDay( readLong() );
+        }
+
+        private LocalTime readLocalTime()
+        {
+            return LocalTime.ofNanoOfDay( readLong() );
+        }
+
+        private OffsetTime readTime()
+        {
+            long nanosOfDayUTC = readLong();
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds( readInt() );
+            return TimeValue.time( nanosOfDayUTC, offset ).asObjectCopy();
+        }
+
+        private LocalDateTime readLocalDateTime()
+        {
+            long epochSecond = readLong();
+            int nano = readInt();
+            return LocalDateTime.ofEpochSecond( epochSecond, nano, UTC );
+        }
+
+        private ZonedDateTime readDateTime()
+        {
+            long epochSecond = readLong();
+            int nano = readInt();
+            byte zoneType = bytes[position++];
+            ZoneId zone = zoneType == ZONE_OFFSET ? ZoneOffset.ofTotalSeconds( readInt() ) : ZoneId.of( TimeZones.map( readShort() ) );
+            return DateTimeValue.datetime( epochSecond, nano, zone ).asObjectCopy();
+        }
+
+        private DurationValue readDuration()
+        {
+            long months = readLong();
+            long days = readLong();
+            long seconds = readLong();
+            int nanos = readInt();
+            return DurationValue.duration( months, days, seconds, nanos );
+        }
+
+        private PointValue readPoint()
+        {
+            int tableId = bytes[position++];
+            int code = readInt();
+            double[] coordinate = new double[bytes[position++]];
+            for ( int i = 0; i < coordinate.length; i++ )
+            {
+                coordinate[i] = Double.longBitsToDouble( readLong() );
+            }
+            return Values.pointValue( CoordinateReferenceSystem.get( tableId, code ), coordinate );
+        }
+
+        private short readShort()
+        {
+            short value = (short) (((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF));
+            position += 2;
+            return value;
+        }
+
+        int readInt()
+        {
+            int value = ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16) |
+                        ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+            position += 4;
+            return value;
+        }
+
+        private long readLong()
+        {
+            long high = readInt() & 0xFFFFFFFFL;
+            long low = readInt() & 0xFFFFFFFFL;
+            return (high << 32) | low;
+        }
+
+        void skip( int length )
+        {
+            position += length;
+        }
+
+        /**
+         * @return {@code true} if a complete variable length int starts at the current position and ends before
+         * {@code end}.
+         */
+        boolean hasVarInt( int end )
+        {
+            for ( int i = position; i < end; i++ )
+            {
+                if ( (bytes[i] & 0x80) == 0 )
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int readVarInt()
+        {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do
+            {
+                b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while ( (b & 0x80) != 0 );
+            return value;
+        }
+    }
+
+    private static final class Output
+    {
+        private byte[] bytes;
+        private int position;
+
+        Output( int initialCapacity )
+        {
+            this.bytes = new byte[Math.max( initialCapacity, 16 )];
+        }
+
+        void writeByte( byte value )
+        {
+            ensureCapacity( 1 );
+            bytes[position++] = value;
+        }
+
+        void writeShort( short value )
+        {
+            ensureCapacity( 2 );
+            bytes[position++] = (byte) (value >>> 8);
+            bytes[position++] = (byte) value;
+        }
+
+        void writeInt( int value )
+        {
+            ensureCapacity( 4 );
+            bytes[position++] = (byte) (value >>> 24);
+            bytes[position++] = (byte) (value >>> 16);
+            bytes[position++] = (byte) (value >>> 8);
+            bytes[position++] = (byte) value;
+        }
+
+        void writeLong( long value )
+        {
+            writeInt( (int) (value >>> 32) );
+            writeInt( (int) value );
+        }
+
+        void writeVarInt( int value )
+        {
+            ensureCapacity( 5 );
+            while ( (value & ~0x7F) != 0 )
+            {
+                bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+
+        void writeBytes( byte[] source, int offset, int length )
+        {
+            ensureCapacity( length );
+            System.arraycopy( source, offset, bytes, position, length );
+            position += length;
+        }
+
+        byte[] toByteArray()
+        {
+            return Arrays.copyOf( bytes, position );
+        }
+
+        private void ensureCapacity( int additional )
+        {
+            if ( position + additional > bytes.length )
+            {
+                bytes = Arrays.copyOf( bytes, Math.max( bytes.length * 2, position + additional ) );
+            }
+        }
+    }
+}
@@ -25,7 +25,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
-import java.util.HashMap;
 
 /**
  * Writer of values.
@@ -103,8 +102,6 @@ public interface ValueWriter<E extends Exception>
 
     void beginMap( int size ) throws E;
 
-    void writeMap( HashMap<String, Object> map ) throws E;
-
     void endMap() throws E;
 
     class Adapter<E extends Exception> implements ValueWriter<E>
@@ -214,11 +211,6 @@ public interface ValueWriter<E extends Exception>
         {   // no-op
         }
 
-        @Override
-        public void writeMap( HashMap<String, Object> map ) throws E
-        {   // no-op
-        }
-
         @Override
         public void endMap() throws E
         {   // no-op
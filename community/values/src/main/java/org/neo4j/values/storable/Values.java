@@ -511,13 +511,19 @@ public final class Values
      */
     public static MapValue mapValue( String mapRepresentation )
     {
-        Map<String, Object> innerMap = MapValueUtil.parseMap( mapRepresentation );
-        if ( innerMap == null )
-        {
-            // TODO: Raise an exception since the transformation failed.
-            return null;
-        }
-        return (MapValue) of( innerMap );
+        return MapValueUtil.parseMapValue( mapRepresentation );
+    }
+
+    /**
+     * Takes a map represented as a UTF-8 encoded string and returns a MapValue
+     * @param utf8 bytes holding the representation of a MapValue
+     * @param offset where in {@code utf8} the representation starts
+     * @param length number of bytes in the representation
+     * @return
+     */
+    public static MapValue mapValue( byte[] utf8, int offset, int length )
+    {
+        return MapValueUtil.parseMapValue( utf8, offset, length );
     }
 
     /**
@@ -19,14 +19,31 @@
  */
 package org.neo4j.values.utils;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.neo4j.values.AnyValue;
 import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.MapValue;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
 import org.neo4j.values.utils.map.serializers.CustomMapSerializer;
+import org.neo4j.values.utils.map.serializers.DurationValueSerializer;
+import org.neo4j.values.utils.map.serializers.LocalDateSerializer;
+import org.neo4j.values.utils.map.serializers.LocalDateTimeSerializer;
+import org.neo4j.values.utils.map.serializers.LocalTimeSerializer;
+import org.neo4j.values.utils.map.serializers.OffsetTimeSerializer;
+import org.neo4j.values.utils.map.serializers.ZonedDateTimeSerializer;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -34,16 +51,31 @@ import java.time.OffsetTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static java.lang.String.format;
 
 public class MapValueUtil
 {
+    /**
+     * Readers and writers are immutable and thread safe, unlike the mappers they come from, and they keep the
+     * serializer and deserializer caches warm between calls. Building a new mapper for every map property read or
+     * written means paying for all of that introspection over and over again.
+     */
+    private static final ObjectReader MAP_READER = new ObjectMapper()
+            .enable( DeserializationFeature.USE_JAVA_ARRAY_FOR_JSON_ARRAY )
+            .readerFor( HashMap.class );
+    private static final ObjectWriter MAP_WRITER = new CustomMapSerializer().writer()
+            .without( SerializationFeature.FLUSH_AFTER_WRITE_VALUE );
+
+    private MapValueUtil()
+    {
+    }
+
     /**
      * Turn a string representation of a Map<String, Object> into a Map<String, AnyValue>.
      * @param mapRepresentation
@@ -51,20 +83,165 @@ public class MapValueUtil
      */
     public static Map<String, Object> parseMap( String mapRepresentation )
     {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.enable( DeserializationFeature.USE_JAVA_ARRAY_FOR_JSON_ARRAY );
         try
         {
-            HashMap<String, Object> hashMap = (HashMap<String, Object>) mapper.readValue( mapRepresentation, HashMap.class );
-            replaceArrays( hashMap );
-            return hashMap;
+            return replaceArrays( MAP_READER.readValue( mapRepresentation ) );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalArgumentException( "There was an error parsing the map " + mapRepresentation, e );
+        }
+    }
+
+    /**
+     * Turn the UTF-8 encoded string representation of a Map<String, Object> into a Map<String, AnyValue>, without
+     * first decoding it into a {@link String}.
+     * @param utf8 bytes holding the map representation
+     * @param offset where in {@code utf8} the map representation starts
+     * @param length number of bytes in the map representation
+     * @return
+     */
+    public static Map<String, Object> parseMap( byte[] utf8, int offset, int length )
+    {
+        try
+        {
+            return replaceArrays( MAP_READER.readValue( utf8, offset, length ) );
         }
         catch ( IOException e )
         {
-            // TODO: Indicate error while parsing
-            e.printStackTrace();
+            throw new IllegalArgumentException( "There was an error parsing the map", e );
         }
-        return null;
+    }
+
+    /**
+     * Turn a string representation of a Map<String, Object> straight into a MapValue. The map is read token by token,
+     * so unlike {@link #parseMap(String)} no intermediate map of plain objects is built and converted afterwards.
+     * @param mapRepresentation
+     * @return
+     */
+    public static MapValue parseMapValue( String mapRepresentation )
+    {
+        try ( JsonParser parser = MAP_READER.getFactory().createParser( mapRepresentation ) )
+        {
+            return readMapValue( parser );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalArgumentException( "There was an error parsing the map " + mapRepresentation, e );
+        }
+    }
+
+    /**
+     * Like {@link #parseMapValue(String)}, but reads the UTF-8 encoded string representation without first decoding
+     * it into a {@link String}.
+     * @param utf8 bytes holding the map representation
+     * @param offset where in {@code utf8} the map representation starts
+     * @param length number of bytes in the map representation
+     * @return
+     */
+    public static MapValue parseMapValue( byte[] utf8, int offset, int length )
+    {
+        try ( JsonParser parser = MAP_READER.getFactory().createParser( utf8, offset, length ) )
+        {
+            return readMapValue( parser );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalArgumentException( "There was an error parsing the map", e );
+        }
+    }
+
+    private static MapValue readMapValue( JsonParser parser ) throws IOException
+    {
+        if ( parser.nextToken() != JsonToken.START_OBJECT )
+        {
+            throw new IllegalArgumentException( "The map representation does not start with an object" );
+        }
+        Value map = readObject( parser );
+        if ( !(map instanceof MapValue) )
+        {
+            throw new IllegalArgumentException( "The map representation is a temporal value, not a map" );
+        }
+        return (MapValue) map;
+    }
+
+    private static Value readValue( JsonParser parser ) throws IOException
+    {
+        JsonToken token = parser.getCurrentToken();
+        if ( token == null )
+        {
+            throw new IllegalArgumentException( "The map representation ends before the map does" );
+        }
+        switch ( token )
+        {
+        case START_OBJECT:
+            return readObject( parser );
+        case START_ARRAY:
+            return readArray( parser );
+        case VALUE_STRING:
+            return Values.stringValue( parser.getText() );
+        case VALUE_NUMBER_INT:
+            switch ( parser.getNumberType() )
+            {
+            case INT:
+                return Values.intValue( parser.getIntValue() );
+            case LONG:
+                return Values.longValue( parser.getLongValue() );
+            default:
+                throw new IllegalArgumentException( format( "[%s] is not a supported value inside maps", parser.getText() ) );
+            }
+        case VALUE_NUMBER_FLOAT:
+            return Values.doubleValue( parser.getDoubleValue() );
+        case VALUE_TRUE:
+            return Values.TRUE;
+        case VALUE_FALSE:
+            return Values.FALSE;
+        case VALUE_NULL:
+            return Values.NO_VALUE;
+        default:
+            throw new IllegalArgumentException( format( "Unexpected %s in the map representation", token ) );
+        }
+    }
+
+    /**
+     * Reads the object the parser is at the start of. Temporal values are written by {@link CustomMapSerializer} as
+     * objects that start with the {@link CustomMapSerializer#TYPE_FIELD_NAME type field} and only hold a few scalar
+     * fields, so only those objects are collected as plain objects to be turned into temporal values.
+     */
+    private static Value readObject( JsonParser parser ) throws IOException
+    {
+        JsonToken token = parser.nextToken();
+        if ( token == JsonToken.FIELD_NAME && CustomMapSerializer.TYPE_FIELD_NAME.equals( parser.getCurrentName() ) )
+        {
+            HashMap<String,Object> fields = new HashMap<>();
+            for ( ; token == JsonToken.FIELD_NAME; token = parser.nextToken() )
+            {
+                String key = parser.getCurrentName();
+                parser.nextToken();
+                fields.put( key, readValue( parser ).asObjectCopy() );
+            }
+            Object temporal = readTemporal( fields );
+            return temporal != null ? Values.of( temporal ) : Values.mapValue( fields );
+        }
+
+        HashMap<String,AnyValue> map = new HashMap<>();
+        for ( ; token == JsonToken.FIELD_NAME; token = parser.nextToken() )
+        {
+            String key = parser.getCurrentName();
+            parser.nextToken();
+            map.put( key, readValue( parser ) );
+        }
+        return new MapValue.MapWrappingMapValue( map );
+    }
+
+    private static Value readArray( JsonParser parser ) throws IOException
+    {
+        List<Object> elements = new ArrayList<>();
+        while ( parser.nextToken() != JsonToken.END_ARRAY )
+        {
+            elements.add( readValue( parser ).asObjectCopy() );
+        }
+        return Values.of( typedArray( elements.toArray() ) );
     }
 
     /**
@@ -73,165 +250,126 @@ public class MapValueUtil
      * Integer, it will get transformed to an array of type Integer[]
      * @param map
      */
-    private static void replaceArrays( HashMap<String, Object> map )
+    private static Map<String, Object> replaceArrays( HashMap<String, Object> map )
     {
-        for ( String key : map.keySet() )
+        for ( Map.Entry<String, Object> entry : map.entrySet() )
         {
-            Object value = map.get(key);
+            Object value = entry.getValue();
             if ( value instanceof Object[] )
             {
-                Object[] objects = (Object[]) value;
-                if ( objects.length > 0 )
-                {
-                    Object first =  objects[0];
-                    if ( first instanceof String )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, String[].class ) );
-                    }
-                    else if ( first instanceof Byte )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, Byte[].class ) );
-                    }
-                    else if ( first instanceof Long )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, Long[].class ) );
-                    }
-                    else if ( first instanceof Integer )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, Integer[].class ) );
-                    }
-                    else if ( first instanceof Double )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, Double[].class ) );
-                    }
-                    else if ( first instanceof Float )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, String[].class ) );
-                    }
-                    else if ( first instanceof Boolean )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, Boolean[].class ) );
-                    }
-                    else if ( first instanceof Character )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, Character[].class ) );
-                    }
-                    else if ( first instanceof Short )
-                    {
-                        map.put( key, Arrays.copyOf( objects, objects.length, Short[].class ) );
-                    }
-                    else
-                    {
-                        throw new IllegalArgumentException(
-                                format( "[%s:%s] is not a supported value for arrays inside maps", first, first.getClass().getName() ) );
-                    }
-                }
-                else
-                {
-                    // I've seen that empty arrays are treated as empty string arrays
-                    map.put( key, new String[0] );
-                }
+                entry.setValue( typedArray( (Object[]) value ) );
             }
             else if ( value instanceof HashMap<?,?> )
             {
                 HashMap<String, Object> innerMap = (HashMap<String, Object>) value;
-                Set<String> keys = innerMap.keySet();
-
-                if ( keys.equals(LOCALDATE_SET) )
-                {
-                    int year = (int) innerMap.get("_year");
-                    int monthValue = (int) innerMap.get("_month");
-                    int dayOfMonth = (int) innerMap.get("_day");
-                    map.put( key, LocalDate.of( year, monthValue, dayOfMonth ) );
-                }
-                else if ( keys.equals(DURATION_SET) )
+                Object temporal = readTemporal( innerMap );
+                if ( temporal != null )
                 {
-                    //"months", "days", "seconds", "nanos", "units", "naN", "sequenceValue"
-
-                    Object monthsRef = innerMap.get("_months");
-                    long months = monthsRef instanceof Long ? (long) monthsRef : Long.valueOf( (int)monthsRef );
-
-                    Object daysRef = innerMap.get("_days");
-                    long days = daysRef instanceof Long ? (long) daysRef : Long.valueOf( (int)daysRef );
-
-                    Object secondsRef = innerMap.get("_seconds");
-                    long seconds = secondsRef instanceof Long ? (long) secondsRef : Long.valueOf( (int)secondsRef );
-
-                    int nanos = (int) innerMap.get("_nanos");
-
-                    DurationValue duration = DurationValue.duration(months,days,seconds,nanos);
-                    map.put( key, duration );
-                }
-                else if ( keys.equals(LOCALDATETIME_SET) )
-                {
-                    int year = (int) innerMap.get("_year");
-                    int monthValue = (int) innerMap.get("_month");
-                    int dayOfMonth = (int) innerMap.get("_day");
-                    int hour = (int) innerMap.get("_hour");
-                    int minute = (int) innerMap.get("_minute");
-                    int second = (int) innerMap.get("_second");
-                    int nano = (int) innerMap.get("_nano");
-                    map.put( key, LocalDateTime.of( year, monthValue, dayOfMonth, hour, minute, second, nano ) );
-                }
-                else if ( keys.equals(LOCALTIME_SET) )
-                {
-                    int hour = (int) innerMap.get("_hour");
-                    int minute = (int) innerMap.get("_minute");
-                    int second = (int) innerMap.get("_second");
-                    int nano = (int) innerMap.get("_nano");
-                    map.put( key, LocalTime.of( hour, minute, second, nano ) );
-                }
-                else if ( keys.equals(OFFSETTIME_SET) )
-                {
-                    int hour = (int) innerMap.get("_hour");
-                    int minute = (int) innerMap.get("_minute");
-                    int second = (int) innerMap.get("_second");
-                    int nano = (int) innerMap.get("_nano");
-                    String offsetId = (String) innerMap.get("_offset");
-                    map.put( key, OffsetTime.of( hour, minute, second, nano, ZoneOffset.of( offsetId ) ) );
-                }
-                else if ( keys.equals(ZONEDDATETIME_SET) )
-                {
-                    int year = (int) innerMap.get("_year");
-                    int monthValue = (int) innerMap.get("_month");
-                    int dayOfMonth = (int) innerMap.get("_day");
-                    int hour = (int) innerMap.get("_hour");
-                    int minute = (int) innerMap.get("_minute");
-                    int second = (int) innerMap.get("_second");
-                    int nano = (int) innerMap.get("_nano");
-                    String offsetId = (String) innerMap.get("_offset");
-                    map.put( key, ZonedDateTime.of( year, monthValue, dayOfMonth, hour, minute, second, nano, ZoneId.of( offsetId ) ) );
+                    entry.setValue( temporal );
                 }
                 else
                 {
-                    replaceArrays(innerMap);
+                    replaceArrays( innerMap );
                 }
             }
         }
-
+        return map;
     }
 
-    private static final String[] LOCALDATE_KEYS = new String[] { CustomMapSerializer.TYPE_FIELD_NAME, "_year", "_month", "_day" };
-    private static final Set<String> LOCALDATE_SET = new HashSet<>( Arrays.asList( LOCALDATE_KEYS ) );
-
-    //private static final String[] DURATION_KEYS = new String[] { "seconds", "nano", "units", "zero", "negative" };
-    private static final String[] DURATION_KEYS = new String[] {  CustomMapSerializer.TYPE_FIELD_NAME, "_months", "_days", "_seconds", "_nanos" };
-    private static final Set<String> DURATION_SET = new HashSet<>( Arrays.asList( DURATION_KEYS ) );
-
-    private static final String[] LOCALDATETIME_KEYS = new String[] { CustomMapSerializer.TYPE_FIELD_NAME, "_year", "_month", "_day",
-            "_hour", "_minute", "_second", "_nano" };
-    private static final Set<String> LOCALDATETIME_SET = new HashSet<>( Arrays.asList( LOCALDATETIME_KEYS ) );
+    private static Object[] typedArray( Object[] objects )
+    {
+        if ( objects.length == 0 )
+        {
+            // I've seen that empty arrays are treated as empty string arrays
+            return new String[0];
+        }
+        Object first =  objects[0];
+        if ( first instanceof String )
+        {
+            return Arrays.copyOf( objects, objects.length, String[].class );
+        }
+        else if ( first instanceof Byte )
+        {
+            return Arrays.copyOf( objects, objects.length, Byte[].class );
+        }
+        else if ( first instanceof Long )
+        {
+            return Arrays.copyOf( objects, objects.length, Long[].class );
+        }
+        else if ( first instanceof Integer )
+        {
+            return Arrays.copyOf( objects, objects.length, Integer[].class );
+        }
+        else if ( first instanceof Double )
+        {
+            return Arrays.copyOf( objects, objects.length, Double[].class );
+        }
+        else if ( first instanceof Float )
+        {
+            return Arrays.copyOf( objects, objects.length, Float[].class );
+        }
+        else if ( first instanceof Boolean )
+        {
+            return Arrays.copyOf( objects, objects.length, Boolean[].class );
+        }
+        else if ( first instanceof Character )
+        {
+            return Arrays.copyOf( objects, objects.length, Character[].class );
+        }
+        else if ( first instanceof Short )
+        {
+            return Arrays.copyOf( objects, objects.length, Short[].class );
+        }
+        throw new IllegalArgumentException(
+                format( "[%s:%s] is not a supported value for arrays inside maps", first, first.getClass().getName() ) );
+    }
 
-    private static final String[] LOCALTIME_KEYS = new String[] { CustomMapSerializer.TYPE_FIELD_NAME, "_hour", "_minute", "_second", "_nano" };
-    private static final Set<String> LOCALTIME_SET = new HashSet<>( Arrays.asList( LOCALTIME_KEYS ) );
+    /**
+     * Temporal values are written by the serializers in {@link CustomMapSerializer} as objects tagged with the
+     * {@link CustomMapSerializer#TYPE_FIELD_NAME type field}, so one lookup tells them apart from ordinary nested maps.
+     * @param map nested object read from the map representation
+     * @return the temporal value the object stands for, or {@code null} if it is an ordinary map
+     */
+    private static Object readTemporal( HashMap<String, Object> map )
+    {
+        Object type = map.get( CustomMapSerializer.TYPE_FIELD_NAME );
+        if ( !(type instanceof String) )
+        {
+            return null;
+        }
+        switch ( (String) type )
+        {
+        case LocalDateSerializer.TYPE_NAME:
+            return LocalDate.of( intField( map, "_year" ), intField( map, "_month" ), intField( map, "_day" ) );
+        case DurationValueSerializer.TYPE_NAME:
+            return DurationValue.duration( longField( map, "_months" ), longField( map, "_days" ), longField( map, "_seconds" ),
+                    intField( map, "_nanos" ) );
+        case LocalDateTimeSerializer.TYPE_NAME:
+            return LocalDateTime.of( intField( map, "_year" ), intField( map, "_month" ), intField( map, "_day" ),
+                    intField( map, "_hour" ), intField( map, "_minute" ), intField( map, "_second" ), intField( map, "_nano" ) );
+        case LocalTimeSerializer.TYPE_NAME:
+            return LocalTime.of( intField( map, "_hour" ), intField( map, "_minute" ), intField( map, "_second" ), intField( map, "_nano" ) );
+        case OffsetTimeSerializer.TYPE_NAME:
+            return OffsetTime.of( intField( map, "_hour" ), intField( map, "_minute" ), intField( map, "_second" ), intField( map, "_nano" ),
+                    ZoneOffset.of( (String) map.get( "_offset" ) ) );
+        case ZonedDateTimeSerializer.TYPE_NAME:
+            return ZonedDateTime.of( intField( map, "_year" ), intField( map, "_month" ), intField( map, "_day" ),
+                    intField( map, "_hour" ), intField( map, "_minute" ), intField( map, "_second" ), intField( map, "_nano" ),
+                    ZoneId.of( (String) map.get( "_offset" ) ) );
+        default:
+            return null;
+        }
+    }
 
-    private static final String[] OFFSETTIME_KEYS = new String[] { CustomMapSerializer.TYPE_FIELD_NAME, "_offset",
-            "_hour", "_minute", "_second", "_nano"};
-    private static final Set<String> OFFSETTIME_SET = new HashSet<>( Arrays.asList( OFFSETTIME_KEYS ) );
+    private static int intField( HashMap<String, Object> map, String name )
+    {
+        return ((Number) map.get( name )).intValue();
+    }
 
-    private static final String[] ZONEDDATETIME_KEYS = new String[] { CustomMapSerializer.TYPE_FIELD_NAME, "_year", "_month", "_day", "_offset",
-            "_hour", "_minute", "_second", "_nano"};
-    private static final Set<String> ZONEDDATETIME_SET = new HashSet<>( Arrays.asList( ZONEDDATETIME_KEYS ) );
+    private static long longField( HashMap<String, Object> map, String name )
+    {
+        return ((Number) map.get( name )).longValue();
+    }
 
     /**
      * Serialize a Map into a string
@@ -240,17 +378,52 @@ public class MapValueUtil
      */
     public static String stringifyMap( Map<String, Object> map )
     {
-        CustomMapSerializer mapper = new CustomMapSerializer();
-        // Using a HashMap as backing storage...
-        String mapRepresentation = null;
         try
         {
-            mapRepresentation = mapper.writeValueAsString(map);
+            return MAP_WRITER.writeValueAsString( map );
         }
         catch ( JsonProcessingException e )
         {
             throw new IllegalArgumentException( "There was an error converting your map to a string", e );
         }
-        return mapRepresentation;
+    }
+
+    /**
+     * Serialize a MapValue into the UTF-8 encoded string representation that {@link #parseMapValue(byte[], int, int)}
+     * reads. Nested maps are written as they are walked, so unlike {@link #stringifyMap(Map)} there is no need for a
+     * deep copy of the map into plain objects, nor for an intermediate {@link String}.
+     * @param map
+     * @return
+     */
+    public static byte[] utf8Map( MapValue map )
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream( 64 );
+        try ( JsonGenerator generator = MAP_WRITER.getFactory().createGenerator( out, JsonEncoding.UTF8 ) )
+        {
+            writeMapValue( map, generator );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalArgumentException( "There was an error converting your map to a string", e );
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeMapValue( MapValue map, JsonGenerator generator ) throws IOException
+    {
+        generator.writeStartObject();
+        map.foreach( ( key, value ) ->
+        {
+            generator.writeFieldName( key );
+            if ( value instanceof MapValue )
+            {
+                writeMapValue( (MapValue) value, generator );
+            }
+            else
+            {
+                MAP_WRITER.writeValue( generator, ((Value) value).asObjectCopy() );
+            }
+        } );
+        generator.writeEndObject();
     }
 }
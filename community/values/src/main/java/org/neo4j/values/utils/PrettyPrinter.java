@@ -27,7 +27,6 @@ import java.time.ZonedDateTime;
 import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Deque;
-import java.util.HashMap;
 
 import org.neo4j.values.AnyValueWriter;
 import org.neo4j.values.storable.CoordinateReferenceSystem;
@@ -120,12 +119,6 @@ public class PrettyPrinter implements AnyValueWriter<RuntimeException>
         stack.push( new MapWriter() );
     }
 
-    @Override
-    public void writeMap( HashMap<String, Object> map ) throws RuntimeException
-    {
-        // TODO: Provide implementation
-    }
-
     @Override
     public void endMap()
     {
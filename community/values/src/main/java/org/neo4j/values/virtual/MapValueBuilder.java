@@ -27,7 +27,9 @@ import org.neo4j.values.storable.MapValue;
 
 public class MapValueBuilder
 {
-    private final HashMap<String, AnyValue> map;
+    private HashMap<String, AnyValue> map;
+    // The built value wraps the map, so it is copied before the builder changes it again.
+    private boolean built;
 
     public MapValueBuilder()
     {
@@ -41,16 +43,30 @@ public class MapValueBuilder
 
     public AnyValue add( String key, AnyValue value )
     {
+        if ( built )
+        {
+            map = new HashMap<>( map );
+            built = false;
+        }
         return map.put( key, value );
     }
 
     public void clear()
     {
-        map.clear();
+        if ( built )
+        {
+            map = new HashMap<>();
+            built = false;
+        }
+        else
+        {
+            map.clear();
+        }
     }
 
     public MapValue build()
     {
+        built = true;
         return new MapValue.MapWrappingMapValue( map );
     }
 
@@ -28,7 +28,6 @@ import java.time.OffsetTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 
 import static java.lang.String.format;
@@ -225,13 +224,6 @@ public class BufferValueWriter implements ValueWriter<RuntimeException>
         buffer.add( Specials.beginMap( size ) );
     }
 
-    @Override
-    public void writeMap( HashMap<String, Object> map ) throws RuntimeException
-    {
-        // TODO: Verify implementation
-        buffer.add(map);
-    }
-
     @Override
     public void endMap()
     {
@@ -0,0 +1,457 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.values.storable;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.values.utils.MapValueUtil;
+import org.neo4j.values.virtual.MapValueBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.values.storable.Values.booleanArray;
+import static org.neo4j.values.storable.Values.booleanValue;
+import static org.neo4j.values.storable.Values.byteArray;
+import static org.neo4j.values.storable.Values.byteValue;
+import static org.neo4j.values.storable.Values.charArray;
+import static org.neo4j.values.storable.Values.charValue;
+import static org.neo4j.values.storable.Values.doubleArray;
+import static org.neo4j.values.storable.Values.doubleValue;
+import static org.neo4j.values.storable.Values.floatArray;
+import static org.neo4j.values.storable.Values.floatValue;
+import static org.neo4j.values.storable.Values.intArray;
+import static org.neo4j.values.storable.Values.intValue;
+import static org.neo4j.values.storable.Values.longArray;
+import static org.neo4j.values.storable.Values.longValue;
+import static org.neo4j.values.storable.Values.shortArray;
+import static org.neo4j.values.storable.Values.shortValue;
+import static org.neo4j.values.storable.Values.stringArray;
+import static org.neo4j.values.storable.Values.stringValue;
+
+class MapValueEncodingTest
+{
+    @Test
+    void shouldEncodeAndDecodeScalars()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "bool", booleanValue( true ) );
+        mv.add( "byte", byteValue( (byte) -3 ) );
+        mv.add( "short", shortValue( (short) 1234 ) );
+        mv.add( "int", intValue( Integer.MIN_VALUE ) );
+        mv.add( "long", longValue( Long.MAX_VALUE ) );
+        mv.add( "float", floatValue( 1.5f ) );
+        mv.add( "double", doubleValue( Math.PI ) );
+        mv.add( "char", charValue( 'x' ) );
+        mv.add( "string", stringValue( "hello ö wörld" ) );
+        mv.add( "", stringValue( "" ) );
+
+        assertRoundTrip( mv.build() );
+    }
+
+    @Test
+    void shouldEncodeAndDecodeArrays()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "bools", booleanArray( new boolean[]{true, false, true} ) );
+        mv.add( "bytes", byteArray( new byte[]{1, 2, 3} ) );
+        mv.add( "shorts", shortArray( new short[]{1, 2, 3} ) );
+        mv.add( "ints", intArray( new int[]{1, 2, 3} ) );
+        mv.add( "longs", longArray( new long[]{1, 2, Long.MIN_VALUE} ) );
+        mv.add( "floats", floatArray( new float[]{1.1f, 2.2f} ) );
+        mv.add( "doubles", doubleArray( new double[]{1.1, 2.2} ) );
+        mv.add( "chars", charArray( new char[]{'a', 'b'} ) );
+        mv.add( "strings", stringArray( "a", "ö", "" ) );
+        mv.add( "empty", stringArray() );
+
+        assertRoundTrip( mv.build() );
+    }
+
+    @Test
+    void shouldEncodeAndDecodeTemporals()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "date", DateValue.date( 2018, 1, 1 ) );
+        mv.add( "localTime", LocalTimeValue.localTime( 12, 50, 35, 123 ) );
+        mv.add( "time", TimeValue.time( 12, 50, 35, 0, ZoneOffset.ofHours( 1 ) ) );
+        mv.add( "localDateTime", LocalDateTimeValue.localDateTime( LocalDateTime.of( 2015, 7, 4, 19, 32, 24 ) ) );
+        mv.add( "offsetDateTime", DateTimeValue.datetime( ZonedDateTime.of( 2018, 1, 1, 21, 40, 32, 0, ZoneOffset.ofHours( -3 ) ) ) );
+        mv.add( "zonedDateTime", DateTimeValue.datetime( ZonedDateTime.of( 2018, 1, 1, 21, 40, 32, 7, ZoneId.of( "Europe/Stockholm" ) ) ) );
+        mv.add( "duration", DurationValue.duration( 14, 3, 3600, 500 ) );
+        mv.add( "dates", Values.dateArray( new LocalDate[]{LocalDate.of( 2018, 1, 1 ), LocalDate.of( 1969, 12, 31 )} ) );
+        mv.add( "localTimes", Values.localTimeArray( new LocalTime[]{LocalTime.NOON} ) );
+        mv.add( "times", Values.timeArray( new OffsetTime[]{OffsetTime.of( 1, 2, 3, 4, ZoneOffset.UTC )} ) );
+        mv.add( "durations", Values.durationArray( new DurationValue[]{DurationValue.duration( 1, 2, 3, 4 )} ) );
+
+        assertRoundTrip( mv.build() );
+    }
+
+    @Test
+    void shouldEncodeAndDecodeNestedMaps()
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "city", stringValue( "Malmö" ) );
+        inner.add( "zip", intValue( 21119 ) );
+        MapValueBuilder middle = new MapValueBuilder();
+        middle.add( "address", inner.build() );
+        middle.add( "empty", Values.EMPTY_MAP );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "person", middle.build() );
+        outer.add( "name", stringValue( "Alistair" ) );
+
+        assertRoundTrip( outer.build() );
+    }
+
+    @Test
+    void shouldReuseEncodedBytesOfUnchangedMaps()
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "city", stringValue( "Malmö" ) );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "address", inner.build() );
+        outer.add( "visits", intValue( 1 ) );
+        byte[] bytes = MapValueEncoding.encode( outer.build() );
+        MapValue decoded = MapValueEncoding.decode( bytes );
+
+        assertArrayEquals( bytes, MapValueEncoding.encode( decoded ) );
+        MapValue updated = decoded.updatedAt( new String[]{"visits"}, intValue( 2 ) );
+        outer.add( "visits", intValue( 2 ) );
+        assertArrayEquals( MapValueEncoding.encode( outer.build() ), MapValueEncoding.encode( updated ) );
+        assertEquals( outer.build(), MapValueEncoding.decode( MapValueEncoding.encode( updated ) ) );
+    }
+
+    @Test
+    void shouldEncodeEmptyMap()
+    {
+        assertRoundTrip( Values.EMPTY_MAP );
+        assertArrayEquals( new byte[]{MapValueEncoding.FORMAT, 0}, MapValueEncoding.encode( Values.EMPTY_MAP ) );
+    }
+
+    @Test
+    void shouldProduceSameBytesRegardlessOfKeyOrder()
+    {
+        MapValueBuilder first = new MapValueBuilder();
+        first.add( "a", intValue( 1 ) );
+        first.add( "b", intValue( 2 ) );
+        MapValueBuilder second = new MapValueBuilder();
+        second.add( "b", intValue( 2 ) );
+        second.add( "a", intValue( 1 ) );
+
+        assertArrayEquals( MapValueEncoding.encode( first.build() ), MapValueEncoding.encode( second.build() ) );
+    }
+
+    @Test
+    void shouldDecodeLegacyJsonMaps()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "ints", intArray( new int[]{1, 2, 3} ) );
+        mv.add( "date", DateValue.date( 2018, 1, 1 ) );
+        MapValue expected = mv.build();
+
+        byte[] legacy = MapValueUtil.stringifyMap( expected.asObjectCopy() ).getBytes( StandardCharsets.UTF_8 );
+
+        assertEquals( expected, MapValueEncoding.decode( legacy ) );
+    }
+
+    @Test
+    void shouldDecodeFromOffsetWithinLargerBuffer()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "key", stringValue( "value" ) );
+        MapValue map = mv.build();
+        byte[] encoded = MapValueEncoding.encode( map );
+        byte[] buffer = new byte[encoded.length + 10];
+        System.arraycopy( encoded, 0, buffer, 3, encoded.length );
+
+        assertEquals( map, MapValueEncoding.decode( buffer, 3, encoded.length ) );
+    }
+
+    @Test
+    void shouldLookUpSingleKeysWithoutDecodingWholeMap()
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "city", stringValue( "Malmö" ) );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "address", inner.build() );
+        outer.add( "name", stringValue( "Alistair" ) );
+        outer.add( "age", intValue( 42 ) );
+
+        MapValue decoded = MapValueEncoding.decode( MapValueEncoding.encode( outer.build() ) );
+
+        assertEquals( 3, decoded.size() );
+        assertTrue( decoded.containsKey( "age" ) );
+        assertFalse( decoded.containsKey( "missing" ) );
+        assertEquals( Values.NO_VALUE, decoded.get( "missing" ) );
+        assertEquals( intValue( 42 ), decoded.get( "age" ) );
+        assertEquals( stringValue( "Malmö" ), ((MapValue) decoded.get( "address" )).get( "city" ) );
+        assertEquals( MapValueContent.STORABLE, decoded.getContent() );
+    }
+
+    @Test
+    void shouldReadSameDecodedMapFromManyThreads() throws Exception
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            mv.add( "key" + i, intValue( i ) );
+        }
+        MapValue map = mv.build();
+        byte[] encoded = MapValueEncoding.encode( map );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try
+        {
+            for ( int round = 0; round < 100; round++ )
+            {
+                MapValue decoded = MapValueEncoding.decode( encoded );
+                CountDownLatch start = new CountDownLatch( 1 );
+                List<Future<?>> readers = new ArrayList<>();
+                for ( int thread = 0; thread < 4; thread++ )
+                {
+                    readers.add( executor.submit( () ->
+                    {
+                        start.await();
+                        for ( int i = 99; i >= 0; i-- )
+                        {
+                            assertEquals( intValue( i ), decoded.get( "key" + i ) );
+                        }
+                        assertEquals( map, decoded );
+                        return null;
+                    } ) );
+                }
+                start.countDown();
+                for ( Future<?> reader : readers )
+                {
+                    reader.get();
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldCopyDecodedMapToObjects()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "ints", intArray( new int[]{1, 2, 3} ) );
+        mv.add( "name", stringValue( "Alistair" ) );
+        MapValue map = mv.build();
+
+        assertEquals( map.asObjectCopy().keySet(), MapValueEncoding.decode( MapValueEncoding.encode( map ) ).asObjectCopy().keySet() );
+    }
+
+    @Test
+    void shouldDecodeValueAtPath()
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "city", stringValue( "Malmö" ) );
+        inner.add( "zip", intValue( 21119 ) );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "address", inner.build() );
+        outer.add( "name", stringValue( "Alistair" ) );
+        MapValue map = outer.build();
+        byte[] encoded = MapValueEncoding.encode( map );
+
+        assertEquals( stringValue( "Malmö" ), decodePath( encoded, "address", "city" ) );
+        assertEquals( intValue( 21119 ), decodePath( encoded, "address", "zip" ) );
+        assertEquals( inner.build(), decodePath( encoded, "address" ) );
+        assertEquals( map, decodePath( encoded ) );
+        assertEquals( Values.NO_VALUE, decodePath( encoded, "address", "street" ) );
+        assertEquals( Values.NO_VALUE, decodePath( encoded, "missing", "city" ) );
+        assertNull( decodePath( encoded, "name", "first" ) );
+    }
+
+    @Test
+    void shouldNotKeepReferenceToBufferWhenDecodingPath()
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "city", stringValue( "Malmö" ) );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "address", inner.build() );
+        byte[] encoded = MapValueEncoding.encode( outer.build() );
+
+        Value city = decodePath( encoded, "address", "city" );
+        Value address = decodePath( encoded, "address" );
+        Arrays.fill( encoded, (byte) 0 );
+
+        assertEquals( stringValue( "Malmö" ), city );
+        assertEquals( inner.build(), address );
+    }
+
+    @Test
+    void shouldReadKeysAtPathWithoutDecodingValues()
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "zip", intValue( 21118 ) );
+        inner.add( "city", stringValue( "Malmö" ) );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "name", stringValue( "Alistair" ) );
+        outer.add( "address", inner.build() );
+        MapValue map = outer.build();
+        byte[] encoded = MapValueEncoding.encode( map );
+
+        assertArrayEquals( new String[]{"address", "name"}, MapValueEncoding.keysAt( encoded, 0, encoded.length, new String[0] ) );
+        assertArrayEquals( new String[]{"city", "zip"}, MapValueEncoding.keysAt( encoded, 0, encoded.length, new String[]{"address"} ) );
+        assertNull( MapValueEncoding.keysAt( encoded, 0, encoded.length, new String[]{"name"} ) );
+        assertNull( MapValueEncoding.keysAt( encoded, 0, encoded.length, new String[]{"missing"} ) );
+        assertArrayEquals( new String[]{"city", "zip"}, MapValueEncoding.keysAt( map, new String[]{"address"} ) );
+    }
+
+    @Test
+    void shouldTellWhenKeyDirectoryIsLoaded()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "a", stringValue( "some longer value that comes after the directory" ) );
+        mv.add( "b", intValue( 1 ) );
+        byte[] encoded = MapValueEncoding.encode( mv.build() );
+        int directoryLength = MapValueEncoding.directoryLength( encoded, 0, encoded.length );
+
+        assertTrue( directoryLength > 0 && directoryLength < encoded.length );
+        for ( int available = 0; available < directoryLength; available++ )
+        {
+            assertEquals( -1, MapValueEncoding.directoryLength( encoded, 0, available ) );
+        }
+        assertEquals( directoryLength, MapValueEncoding.directoryLength( encoded, 0, directoryLength ) );
+        assertArrayEquals( new String[]{"a", "b"}, MapValueEncoding.keysAt( encoded, 0, directoryLength, new String[0] ) );
+    }
+
+    @Test
+    void shouldDecodeSingleValuesFoundInKeyDirectory()
+    {
+        MapValueBuilder inner = new MapValueBuilder();
+        inner.add( "zip", intValue( 21118 ) );
+        MapValueBuilder outer = new MapValueBuilder();
+        outer.add( "address", inner.build() );
+        outer.add( "name", stringValue( "Alistair" ) );
+        outer.add( "age", intValue( 42 ) );
+        byte[] encoded = MapValueEncoding.encode( outer.build() );
+        byte[] directory = Arrays.copyOf( encoded, MapValueEncoding.directoryLength( encoded, 0, encoded.length ) );
+
+        for ( String key : new String[]{"address", "age", "name"} )
+        {
+            int[] bounds = MapValueEncoding.valueBounds( directory, encoded.length, key );
+            byte[] value = Arrays.copyOfRange( encoded, bounds[0], bounds[1] );
+            assertEquals( MapValueEncoding.decode( encoded ).get( key ), MapValueEncoding.decodeValue( value, 0 ) );
+        }
+        assertEquals( encoded.length, MapValueEncoding.valueBounds( directory, encoded.length, "name" )[1] );
+        assertNull( MapValueEncoding.valueBounds( directory, encoded.length, "missing" ) );
+    }
+
+    @Test
+    void shouldDecodeValueAtPathOfLegacyJsonMaps()
+    {
+        byte[] legacy = "{\"address\":{\"city\":\"Malmö\"}}".getBytes( StandardCharsets.UTF_8 );
+
+        assertEquals( stringValue( "Malmö" ), decodePath( legacy, "address", "city" ) );
+        assertEquals( Values.NO_VALUE, decodePath( legacy, "address", "zip" ) );
+    }
+
+    @Test
+    void shouldEncodeAndDecodePoints()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "cartesian", Values.pointValue( CoordinateReferenceSystem.Cartesian, 1.0, -2.0 ) );
+        mv.add( "wgs84_3d", Values.pointValue( CoordinateReferenceSystem.WGS84_3D, 12.99, 55.6, 17.5 ) );
+        mv.add( "points", Values.pointArray( new PointValue[]{
+                Values.pointValue( CoordinateReferenceSystem.WGS84, 12.99, 55.6 ),
+                Values.pointValue( CoordinateReferenceSystem.Cartesian_3D, 1.0, 2.0, 3.0 )} ) );
+
+        assertRoundTrip( mv.build() );
+    }
+
+    @Test
+    void shouldNotEncodeNullValues()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add( "null", Values.NO_VALUE );
+
+        assertThrows( IllegalArgumentException.class, () -> MapValueEncoding.encode( mv.build() ) );
+    }
+
+    @Test
+    void shouldEstimateLengthWithoutEncoding()
+    {
+        // given
+        MapValueBuilder builder = new MapValueBuilder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            builder.add( "key" + i, stringValue( "value number " + i ) );
+        }
+        MapValue map = builder.build();
+        byte[] encoded = MapValueEncoding.encode( map );
+
+        // then
+        long estimate = MapValueEncoding.estimatedLength( map, Long.MAX_VALUE );
+        assertTrue( estimate >= encoded.length, estimate + " < " + encoded.length );
+        assertTrue( estimate < 2L * encoded.length, estimate + " >= 2 * " + encoded.length );
+        assertEquals( encoded.length, MapValueEncoding.estimatedLength( MapValueEncoding.decode( encoded ), Long.MAX_VALUE ) );
+    }
+
+    @Test
+    void shouldStopEstimatingLengthAtLimit()
+    {
+        // given
+        MapValueBuilder builder = new MapValueBuilder();
+        for ( int i = 0; i < 10_000; i++ )
+        {
+            builder.add( "key" + i, longValue( i ) );
+        }
+        MapValue map = builder.build();
+
+        // then
+        long estimate = MapValueEncoding.estimatedLength( map, 100 );
+        assertTrue( estimate >= 100 );
+        assertTrue( estimate < 200 );
+    }
+
+    private static Value decodePath( byte[] encoded, String... path )
+    {
+        return MapValueEncoding.decodePath( encoded, 0, encoded.length, path );
+    }
+
+    private static void assertRoundTrip( MapValue map )
+    {
+        MapValue decoded = MapValueEncoding.decode( MapValueEncoding.encode( map ) );
+        assertEquals( map, decoded );
+        assertEquals( map.size(), decoded.size() );
+    }
+}
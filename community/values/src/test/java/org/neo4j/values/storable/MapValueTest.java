@@ -26,11 +26,18 @@ import java.util.HashMap;
 
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.values.AnyValue;
+import org.neo4j.values.AnyValues;
+import org.neo4j.values.virtual.MapValueBuilder;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.neo4j.values.storable.Values.EMPTY_MAP;
 import static org.neo4j.values.storable.Values.floatValue;
 import static org.neo4j.values.storable.Values.intValue;
@@ -299,6 +306,127 @@ class MapValueTest
         assertEquals(expected, actual);
     }
 
+    @Test
+    void shouldHashEqualMapsAlikeRegardlessOfEntryOrder()
+    {
+        // Given
+        MapValue inner = mapValue( "zip", intValue( 21118 ), "city", stringValue( "Malmö" ) );
+        MapValue a = mapValue( "k1", stringValue( "v1" ), "k2", longValue( 2 ), "k3", inner );
+        MapValue b = mapValue( "k3", mapValue( "city", stringValue( "Malmö" ), "zip", longValue( 21118 ) ), "k2", intValue( 2 ),
+                "k1", stringValue( "v1" ) );
+        MapValue encoded = MapValueEncoding.decode( MapValueEncoding.encode( a ) );
+
+        // Then
+        assertEquals( a.hashCode(), b.hashCode() );
+        assertEquals( a.hashCode(), encoded.hashCode() );
+        assertEquals( a.hashCode64(), b.hashCode64() );
+        assertEquals( a.hashCode64(), encoded.hashCode64() );
+    }
+
+    @Test
+    void shouldHashMapsWithDifferentContentDifferently()
+    {
+        // Given
+        MapValue a = mapValue( "k1", stringValue( "v1" ), "k2", mapValue( "k", intValue( 1 ) ) );
+        MapValue b = mapValue( "k1", stringValue( "v1" ), "k2", mapValue( "k", intValue( 2 ) ) );
+        MapValue c = mapValue( "k1", stringValue( "v1" ), "k3", mapValue( "k", intValue( 1 ) ) );
+
+        // Then
+        assertNotEquals( a.hashCode64(), b.hashCode64() );
+        assertNotEquals( a.hashCode64(), c.hashCode64() );
+        assertNotEquals( a.hashCode64(), EMPTY_MAP.hashCode64() );
+    }
+
+    @Test
+    void shouldUpdateValueAtPath()
+    {
+        // Given
+        MapValue address = mapValue( "city", stringValue( "Malmö" ), "zip", intValue( 21118 ) );
+        MapValue base = MapValueEncoding.decode( MapValueEncoding.encode( mapValue( "address", address, "name", stringValue( "Alice" ) ) ) );
+
+        // Then
+        assertMapValueEquals( base.updatedAt( new String[]{"address", "zip"}, intValue( 21119 ) ),
+                mapValue( "address", mapValue( "city", stringValue( "Malmö" ), "zip", intValue( 21119 ) ), "name", stringValue( "Alice" ) ) );
+        assertMapValueEquals( base.updatedAt( new String[]{"visits", "count"}, intValue( 1 ) ),
+                mapValue( "address", address, "name", stringValue( "Alice" ), "visits", mapValue( "count", intValue( 1 ) ) ) );
+        assertMapValueEquals( base.updatedAt( new String[]{"address", "city"}, Values.NO_VALUE ),
+                mapValue( "address", mapValue( "zip", intValue( 21118 ) ), "name", stringValue( "Alice" ) ) );
+    }
+
+    @Test
+    void shouldNotChangeMapWhenRemovingMissingPath()
+    {
+        MapValue base = mapValue( "name", stringValue( "Alice" ) );
+
+        assertSame( base, base.updatedAt( new String[]{"address", "zip"}, Values.NO_VALUE ) );
+        assertSame( base, base.updatedAt( new String[]{"name", "first"}, Values.NO_VALUE ) );
+        assertSame( base, base.updatedAt( new String[]{"name"}, stringValue( "Alice" ) ) );
+    }
+
+    @Test
+    void shouldNotUpdateBelowValuesThatAreNotMaps()
+    {
+        MapValue base = mapValue( "name", stringValue( "Alice" ) );
+
+        assertThrows( IllegalArgumentException.class, () -> base.updatedAt( new String[]{"name", "first"}, stringValue( "A" ) ) );
+    }
+
+    @Test
+    void shouldCompareMapsByTheirSortedKeysRegardlessOfEntryOrder()
+    {
+        // Given
+        MapValue a = mapValue( "k2", intValue( 2 ), "k1", stringValue( "v1" ) );
+        MapValue b = mapValue( "k1", stringValue( "v1" ), "k2", intValue( 2 ) );
+        MapValue encoded = MapValueEncoding.decode( MapValueEncoding.encode( a ) );
+        MapValue larger = mapValue( "k1", stringValue( "v1" ), "k2", intValue( 3 ) );
+        MapValue otherKeys = mapValue( "k1", stringValue( "v1" ), "k3", intValue( 0 ) );
+
+        // Then
+        assertEquals( 0, a.compareTo( b, AnyValues.COMPARATOR ) );
+        assertEquals( 0, encoded.compareTo( b, AnyValues.COMPARATOR ) );
+        assertEquals( Boolean.TRUE, encoded.ternaryEquals( a ) );
+        assertTrue( a.compareTo( larger, AnyValues.COMPARATOR ) < 0 );
+        assertTrue( encoded.compareTo( larger, AnyValues.COMPARATOR ) < 0 );
+        assertTrue( otherKeys.compareTo( encoded, AnyValues.COMPARATOR ) > 0 );
+        assertEquals( Boolean.FALSE, otherKeys.ternaryEquals( encoded ) );
+    }
+
+    @Test
+    void shouldKeepSortedKeyLayout()
+    {
+        // Given
+        MapValue map = mapValue( "b", intValue( 2 ), "c", intValue( 3 ), "a", intValue( 1 ) );
+        MapValue encoded = MapValueEncoding.decode( MapValueEncoding.encode( map ) );
+
+        // Then
+        assertArrayEquals( new String[]{"a", "b", "c"}, map.sortedKeys() );
+        assertSame( map.sortedKeys(), map.sortedKeys() );
+        assertArrayEquals( new String[]{"a", "b", "c"}, encoded.sortedKeys() );
+        assertSame( encoded.sortedKeys(), encoded.sortedKeys() );
+        assertEquals( intValue( 3 ), encoded.sortedValue( 2 ) );
+    }
+
+    @Test
+    void shouldNotChangeBuiltMapWhenBuilderIsReused()
+    {
+        // Given
+        MapValueBuilder builder = new MapValueBuilder();
+        builder.add( "b", intValue( 2 ) );
+        MapValue first = builder.build();
+        first.sortedKeys();
+
+        // When
+        builder.add( "a", intValue( 1 ) );
+        MapValue second = builder.build();
+        builder.clear();
+
+        // Then
+        assertArrayEquals( new String[]{"b"}, first.sortedKeys() );
+        assertEquals( 1, first.size() );
+        assertArrayEquals( new String[]{"a", "b"}, second.sortedKeys() );
+        assertEquals( 2, second.size() );
+    }
+
     private void assertMapValueEquals( MapValue a, MapValue b )
     {
         assertThat( a, equalTo( b ) );
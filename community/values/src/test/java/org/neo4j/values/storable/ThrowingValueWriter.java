@@ -24,7 +24,6 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetTime;
 import java.time.ZonedDateTime;
-import java.util.HashMap;
 import java.util.function.Supplier;
 
 public abstract class ThrowingValueWriter<E extends Exception> implements ValueWriter<E>
@@ -178,12 +177,6 @@ public abstract class ThrowingValueWriter<E extends Exception> implements ValueW
         throw exception("beginMap");
     }
 
-    @Override
-    public void writeMap( HashMap<String, Object> map ) throws E
-    {
-        throw exception("writeMap");
-    }
-
     @Override
     public void endMap() throws E
     {
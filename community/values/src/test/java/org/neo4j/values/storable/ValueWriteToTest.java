@@ -26,9 +26,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 
+import org.neo4j.values.virtual.MapValueBuilder;
+
 import static org.neo4j.values.storable.BufferValueWriter.Specials.beginArray;
+import static org.neo4j.values.storable.BufferValueWriter.Specials.beginMap;
 import static org.neo4j.values.storable.BufferValueWriter.Specials.byteArray;
 import static org.neo4j.values.storable.BufferValueWriter.Specials.endArray;
+import static org.neo4j.values.storable.BufferValueWriter.Specials.endMap;
 import static org.neo4j.values.storable.ValueWriter.ArrayType.BOOLEAN;
 import static org.neo4j.values.storable.ValueWriter.ArrayType.CHAR;
 import static org.neo4j.values.storable.ValueWriter.ArrayType.DOUBLE;
@@ -79,10 +83,23 @@ public class ValueWriteToTest
                         beginArray( 2, LOCAL_DATE_TIME ), LocalDateTimeValue.localDateTime( 1991, 10, 18, 6, 37, 0, 0 ),
                         LocalDateTimeValue.localDateTime( 1992, 10, 18, 6, 37, 0, 0 ), endArray() ),
 
+                // map properties
+                shouldWrite( Values.EMPTY_MAP, beginMap( 0 ), endMap() ),
+                shouldWrite( nestedMap(), beginMap( 1 ), "address", beginMap( 1 ), "zip", 42, endMap(), endMap() ),
+
                 shouldWrite( new byte[]{1, 2, 3}, byteArray( new byte[]{1, 2, 3} ) )
         );
     }
 
+    private static MapValue nestedMap()
+    {
+        MapValueBuilder address = new MapValueBuilder();
+        address.add( "zip", Values.intValue( 42 ) );
+        MapValueBuilder document = new MapValueBuilder();
+        document.add( "address", address.build() );
+        return document.build();
+    }
+
     private WriteTest currentTest;
 
     public ValueWriteToTest( WriteTest currentTest )
@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.neo4j.values.utils.MapValueUtil;
 import org.neo4j.values.virtual.MapValueBuilder;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -111,6 +112,49 @@ class ValuesTest
         Assert.assertEquals(expectedMap, actualMap);
     }
 
+    @Test
+    void shouldParseMapFromUtf8Bytes()
+    {
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add("city", Values.of("Malmö"));
+        mv.add("zip", Values.of(21118));
+        mv.add("tags", Values.of(new String[]{"a", "b"}));
+
+        MapValue expectedMap = mv.build();
+
+        byte[] utf8 = ("  " + MapValueUtil.stringifyMap(expectedMap.asObjectCopy())).getBytes(StandardCharsets.UTF_8);
+        MapValue actualMap = Values.mapValue(utf8, 2, utf8.length - 2);
+
+        Assert.assertEquals(expectedMap, actualMap);
+    }
+
+    @Test
+    void shouldWriteMapValueAsUtf8AndParseItBack()
+    {
+        MapValueBuilder mvInner = new MapValueBuilder();
+        mvInner.add("zip", Values.of(21118));
+        mvInner.add("big", Values.of(Long.MAX_VALUE));
+        mvInner.add("since", Values.of(LocalDate.of(2018, 1, 1)));
+        MapValueBuilder mv = new MapValueBuilder();
+        mv.add("city", Values.of("Malmö"));
+        mv.add("ratio", Values.of(0.5d));
+        mv.add("tags", Values.of(new String[]{"a", "b"}));
+        mv.add("address", mvInner.build());
+
+        MapValue expectedMap = mv.build();
+
+        byte[] utf8 = MapValueUtil.utf8Map(expectedMap);
+
+        Assert.assertEquals(expectedMap, Values.mapValue(utf8, 0, utf8.length));
+        Assert.assertEquals(expectedMap, Values.mapValue(MapValueUtil.stringifyMap(expectedMap.asObjectCopy())));
+    }
+
+    @Test
+    void shouldFailToParseMalformedMap()
+    {
+        assertThrows(IllegalArgumentException.class, () -> Values.mapValue("{\"city\": "));
+    }
+
     @Test
     void shouldParseMapWithJustDurations()
     {
@@ -128,6 +172,21 @@ class ValuesTest
         Assert.assertEquals(expectedMap, actualMap);
     }
 
+    @Test
+    void shouldParseMapWithUnknownTypeFieldAsMap()
+    {
+        MapValueBuilder mvInner = new MapValueBuilder();
+        mvInner.add("__t__", Values.of("Invoice"));
+        mvInner.add("_year", Values.of(2018));
+        MapValueBuilder mvOuter  = new MapValueBuilder();
+        mvOuter.add("map", mvInner.build());
+        MapValue expectedMap = mvOuter.build();
+
+        MapValue actualMap = Values.mapValue("{\"map\": {\"__t__\": \"Invoice\", \"_year\": 2018}}");
+
+        Assert.assertEquals(expectedMap, actualMap);
+    }
+
     @Test
     void shouldParseMapWithArraysNested()
     {
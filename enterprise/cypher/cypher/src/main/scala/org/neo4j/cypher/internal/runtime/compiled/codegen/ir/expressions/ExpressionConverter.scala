@@ -23,6 +23,7 @@
 package org.neo4j.cypher.internal.runtime.compiled.codegen.ir.expressions
 
 import org.neo4j.cypher.internal.compiler.v3_5.planner.CantCompileQueryException
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.PropertyPath
 import org.neo4j.cypher.internal.runtime.compiled.codegen.CodeGenContext
 import org.neo4j.cypher.internal.runtime.compiled.codegen.ir.expressions
 import org.neo4j.cypher.internal.runtime.compiled.codegen.ir.functions.functionConverter
@@ -131,6 +132,14 @@ object ExpressionConverter {
       case rel@ast.Variable(name) if context.semanticTable.isRelationship(rel) =>
         RelationshipExpression(context.getVariable(name))
 
+      case PropertyPath(node@ast.Variable(name), propKey :: path)
+        if path.nonEmpty && context.semanticTable.isNode(node) && context.semanticTable.id(propKey).isDefined =>
+        NodePropertyPath(context.semanticTable.id(propKey).get.id, path.map(_.name), context.getVariable(name))
+
+      case PropertyPath(rel@ast.Variable(name), propKey :: path)
+        if path.nonEmpty && context.semanticTable.isRelationship(rel) && context.semanticTable.id(propKey).isDefined =>
+        RelPropertyPath(context.semanticTable.id(propKey).get.id, path.map(_.name), context.getVariable(name))
+
       case ast.Property(node@ast.Variable(name), propKey) if context.semanticTable.isNode(node) =>
         val token = context.semanticTable.id(propKey).map(_.id)
         NodeProperty(token, propKey.name, context.getVariable(name), context.namer.newVarName())
@@ -91,3 +91,39 @@ case class RelProperty(token: Option[Int], propName: String, relIdVar: Variable,
 
   override def codeGenType(implicit context: CodeGenContext) = CodeGenType.Value
 }
+
+/**
+  * Chained access like `n.a.b.c` on a map property, only the leaf of the map property `a` is decoded.
+  */
+abstract class ElementPropertyPath(elementIdVar: Variable) extends CodeGenExpression {
+  override def init[E](generator: MethodStructure[E])(implicit context: CodeGenContext) = {}
+
+  override def generateExpression[E](structure: MethodStructure[E])(implicit context: CodeGenContext): E = {
+    val localName = context.namer.newVarName()
+    structure.declareProperty(localName)
+    if (elementIdVar.nullable)
+      structure.ifNotStatement(structure.isNull(elementIdVar.name, elementIdVar.codeGenType)) { ifBody =>
+        propertyPath(ifBody, localName)
+      }
+    else
+      propertyPath(structure, localName)
+    structure.incrementDbHits()
+    structure.loadVariable(localName)
+  }
+
+  def propertyPath[E](body: MethodStructure[E], localName: String): Unit
+
+  override def nullable(implicit context: CodeGenContext) = true
+
+  override def codeGenType(implicit context: CodeGenContext) = CodeGenType.Value
+}
+
+case class NodePropertyPath(token: Int, path: Seq[String], nodeIdVar: Variable) extends ElementPropertyPath(nodeIdVar) {
+  override def propertyPath[E](body: MethodStructure[E], localName: String) =
+    body.nodeGetPropertyPathById(nodeIdVar.name, nodeIdVar.codeGenType, token, path, localName)
+}
+
+case class RelPropertyPath(token: Int, path: Seq[String], relIdVar: Variable) extends ElementPropertyPath(relIdVar) {
+  override def propertyPath[E](body: MethodStructure[E], localName: String) =
+    body.relationshipGetPropertyPathById(relIdVar.name, relIdVar.codeGenType, token, path, localName)
+}
@@ -1500,6 +1500,24 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
     }
   }
 
+  override def nodeGetPropertyPathById(nodeVar: String, nodeVarType: CodeGenType, propId: Int, path: Seq[String],
+                                       propValueVar: String) = {
+    val local = locals(propValueVar)
+    handleEntityNotFound(generator, fields, _finalizers) { body =>
+      body.assign(local,
+                    invoke(
+                      methodReference(typeRef[CompiledCursorUtils],
+                                      typeRef[Value], "nodeGetPropertyPath",
+                                      typeRef[Read], typeRef[NodeCursor], typeRef[Long],
+                                      typeRef[PropertyCursor], typeRef[Int], typeRef[Array[String]]),
+                      dataRead, nodeCursor, forceLong(nodeVar, nodeVarType), propertyCursor, constant(propId),
+                      Expression.newArray(typeRef[String], path.map(key => constant(key)): _*))
+      )
+    }{ fail =>
+      fail.assign(local, noValue())
+    }
+  }
+
   override def nodeIdSeek(nodeIdVar: String, expression: Expression, codeGenType: CodeGenType)(block: MethodStructure[Expression] => Unit) = {
     codeGenType match {
       case CypherCodeGenType(CTInteger, LongType) =>
@@ -1551,6 +1569,24 @@ class GeneratedMethodStructure(val fields: Fields, val generator: CodeBlock, aux
     }
   }
 
+  override def relationshipGetPropertyPathById(relIdVar: String, relVarType: CodeGenType, propId: Int, path: Seq[String],
+                                               propValueVar: String) = {
+    val local = locals(propValueVar)
+    handleEntityNotFound(generator, fields, _finalizers) { body =>
+      body.assign(local,
+                    invoke(
+                      methodReference(typeRef[CompiledCursorUtils],
+                                      typeRef[Value], "relationshipGetPropertyPath",
+                                      typeRef[Read], typeRef[RelationshipScanCursor], typeRef[Long],
+                                      typeRef[PropertyCursor], typeRef[Int], typeRef[Array[String]]),
+                      dataRead, relationshipScanCursor, forceLong(relIdVar, relVarType), propertyCursor, constant(propId),
+                      Expression.newArray(typeRef[String], path.map(key => constant(key)): _*))
+      )
+    }{ fail =>
+      fail.assign(local, noValue())
+    }
+  }
+
   override def lookupPropertyKey(propName: String, propIdVar: String) =
     generator.assign(typeRef[Int], propIdVar, invoke(tokenRead, propertyKeyGetForName, constant(propName)))
 
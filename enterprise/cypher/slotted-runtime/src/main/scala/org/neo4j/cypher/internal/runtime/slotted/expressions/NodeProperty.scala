@@ -20,18 +20,40 @@
 package org.neo4j.cypher.internal.runtime.slotted.expressions
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
-import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, Property, StoredMapKeys}
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
 
 
-case class NodeProperty(offset: Int, token: Int) extends Expression with SlottedExpression {
+case class NodeProperty(offset: Int, token: Int) extends Expression with SlottedExpression with StoredMapKeys {
 
   override def apply(ctx: ExecutionContext, state: QueryState): AnyValue =
     state.query.nodeOps.getProperty(ctx.getLongAt(offset), token)
+
+  override def storedMapKeys(ctx: ExecutionContext, state: QueryState): Either[Array[String], AnyValue] =
+    state.query.nodeOps.getPropertyMapKeys(ctx.getLongAt(offset), token, Array.empty)
+}
+
+case class NodePropertyPath(offset: Int, token: Int, path: Seq[KeyToken]) extends Expression with SlottedExpression
+  with StoredMapKeys {
+
+  private val pathKeys = path.map(_.name).toArray
+
+  override def apply(ctx: ExecutionContext, state: QueryState): AnyValue = {
+    val id = ctx.getLongAt(offset)
+    val leaf = state.query.nodeOps.getPropertyPath(id, token, pathKeys)
+    if (leaf != null) leaf
+    else path.foldLeft[AnyValue](state.query.nodeOps.getProperty(id, token))((value, key) => Property.lookup(value, key, state))
+  }
+
+  override def storedMapKeys(ctx: ExecutionContext, state: QueryState): Either[Array[String], AnyValue] = {
+    val keysOrValue = state.query.nodeOps.getPropertyMapKeys(ctx.getLongAt(offset), token, pathKeys)
+    if (keysOrValue != null) keysOrValue else Right(apply(ctx, state))
+  }
 }
 
 case class NodePropertyLate(offset: Int, propKey: String) extends Expression with SlottedExpression {
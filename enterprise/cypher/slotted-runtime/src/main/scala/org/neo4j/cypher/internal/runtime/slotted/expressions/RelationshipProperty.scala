@@ -20,17 +20,39 @@
 package org.neo4j.cypher.internal.runtime.slotted.expressions
 
 import org.neo4j.cypher.internal.runtime.interpreted.ExecutionContext
-import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.Expression
+import org.neo4j.cypher.internal.runtime.interpreted.commands.expressions.{Expression, Property, StoredMapKeys}
 import org.neo4j.cypher.internal.runtime.interpreted.commands.predicates.Predicate
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.KeyToken
 import org.neo4j.cypher.internal.runtime.interpreted.pipes.QueryState
 import org.neo4j.values.AnyValue
 import org.neo4j.values.storable.Values
 
-case class RelationshipProperty(offset: Int, token: Int) extends Expression with SlottedExpression {
+case class RelationshipProperty(offset: Int, token: Int) extends Expression with SlottedExpression with StoredMapKeys {
 
   override def apply(ctx: ExecutionContext, state: QueryState): AnyValue =
     state.query.relationshipOps.getProperty(ctx.getLongAt(offset), token)
 
+  override def storedMapKeys(ctx: ExecutionContext, state: QueryState): Either[Array[String], AnyValue] =
+    state.query.relationshipOps.getPropertyMapKeys(ctx.getLongAt(offset), token, Array.empty)
+
+}
+
+case class RelationshipPropertyPath(offset: Int, token: Int, path: Seq[KeyToken]) extends Expression with SlottedExpression
+  with StoredMapKeys {
+
+  private val pathKeys = path.map(_.name).toArray
+
+  override def apply(ctx: ExecutionContext, state: QueryState): AnyValue = {
+    val id = ctx.getLongAt(offset)
+    val leaf = state.query.relationshipOps.getPropertyPath(id, token, pathKeys)
+    if (leaf != null) leaf
+    else path.foldLeft[AnyValue](state.query.relationshipOps.getProperty(id, token))((value, key) => Property.lookup(value, key, state))
+  }
+
+  override def storedMapKeys(ctx: ExecutionContext, state: QueryState): Either[Array[String], AnyValue] = {
+    val keysOrValue = state.query.relationshipOps.getPropertyMapKeys(ctx.getLongAt(offset), token, pathKeys)
+    if (keysOrValue != null) keysOrValue else Right(apply(ctx, state))
+  }
 }
 
 case class RelationshipPropertyLate(offset: Int, propKey: String) extends Expression with SlottedExpression {
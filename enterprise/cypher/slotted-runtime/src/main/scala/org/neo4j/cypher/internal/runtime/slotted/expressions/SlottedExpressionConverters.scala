@@ -20,7 +20,8 @@
 package org.neo4j.cypher.internal.runtime.slotted.expressions
 
 import org.neo4j.cypher.internal.compatibility.v3_5.runtime.{ast => runtimeAst}
-import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.{ExpressionConverter, ExpressionConverters}
+import org.neo4j.cypher.internal.runtime.interpreted.commands.convert.{ExpressionConverter, ExpressionConverters, PropertyPath}
+import org.neo4j.cypher.internal.runtime.interpreted.commands.values.TokenType.PropertyKey
 import org.neo4j.cypher.internal.runtime.interpreted.commands.{expressions => commands}
 import org.neo4j.cypher.internal.runtime.slotted.{expressions => runtimeExpression}
 import org.neo4j.cypher.internal.runtime.slotted.expressions.SlottedProjectedPath._
@@ -36,6 +37,8 @@ object SlottedExpressionConverters extends ExpressionConverter {
         Some(runtimeExpression.RelationshipFromSlot(offset))
       case runtimeAst.ReferenceFromSlot(offset, _) =>
         Some(runtimeExpression.ReferenceFromSlot(offset))
+      case PropertyPath(root, path) if isStoredPropertyAccess(root) =>
+        Some(toCommandPropertyPath(root, path))
       case runtimeAst.NodeProperty(offset, token, _) =>
         Some(runtimeExpression.NodeProperty(offset, token))
       case runtimeAst.RelationshipProperty(offset, token, _) =>
@@ -77,6 +80,28 @@ object SlottedExpressionConverters extends ExpressionConverter {
         None
     }
 
+  private def isStoredPropertyAccess(expression: ast.Expression): Boolean = expression match {
+    case _: runtimeAst.NodeProperty | _: runtimeAst.RelationshipProperty => true
+    case runtimeAst.NullCheckProperty(_, inner) => isStoredPropertyAccess(inner)
+    case _ => false
+  }
+
+  /**
+    * Chained property access like `n.a.b.c`, where `n.a` has already been resolved to a slot and a token, is read as
+    * one path into the map property `n.a`, so that only the leaf is decoded.
+    */
+  private def toCommandPropertyPath(root: ast.Expression, path: List[ast.PropertyKeyName]): commands.Expression = {
+    val keys = path.map(key => PropertyKey(key.name))
+    root match {
+      case runtimeAst.NodeProperty(offset, token, _) =>
+        runtimeExpression.NodePropertyPath(offset, token, keys)
+      case runtimeAst.RelationshipProperty(offset, token, _) =>
+        runtimeExpression.RelationshipPropertyPath(offset, token, keys)
+      case runtimeAst.NullCheckProperty(offset, inner) =>
+        runtimeExpression.NullCheck(offset, toCommandPropertyPath(inner, path))
+    }
+  }
+
   def toCommandProjectedPath(e: ast.PathExpression, self: ExpressionConverters): SlottedProjectedPath = {
     def project(pathStep: PathStep): Projector = pathStep match {
 
@@ -22,12 +22,17 @@
  */
 package org.neo4j.kernel.impl.pagecache;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.BlockingQueue;
@@ -38,8 +43,10 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 import org.neo4j.graphdb.Resource;
+import org.neo4j.io.IOUtils;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
@@ -65,18 +72,25 @@ import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
  * that something is wrong with them.
  * <p>
  * These cacheprof files are compressed bitmaps where each raised bit indicates that the page identified by the
- * bit-index was in memory.
+ * bit-index was in memory. A profile is only written out when it differs from the previous profile of the same file,
+ * so profiling a page cache whose contents are mostly settled costs little IO.
+ * <p>
+ * Reheating happens while the database is serving queries. All files are reheated at the same time, and the pages of
+ * each file are loaded in ascending page id order, so the reads are as sequential as the profiles allow. Only half of
+ * the available IO parallelism is used for reheating, leaving the rest to the page faults of the queries.
  */
 public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
 {
     public static final String SUFFIX_CACHEPROF = ".cacheprof";
 
-    private static final int IO_PARALLELISM = Runtime.getRuntime().availableProcessors();
+    private static final int IO_PARALLELISM = Math.max( 1, Runtime.getRuntime().availableProcessors() / 2 );
 
     private final FileSystemAbstraction fs;
     private final PageCache pageCache;
     private final JobScheduler scheduler;
     private final ProfileRefCounts refCounts;
+    // The checksums of the bitmaps of the profiles most recently written for each mapped file. Guarded by `this`.
+    private final Map<File,Long> profileChecksums;
     private volatile boolean stopped;
     private ExecutorService executor;
     private PageLoaderFactory pageLoaderFactory;
@@ -87,6 +101,7 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         this.pageCache = pageCache;
         this.scheduler = scheduler;
         this.refCounts = new ProfileRefCounts();
+        this.profileChecksums = new HashMap<>();
     }
 
     @Override
@@ -146,17 +161,32 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         long pagesLoaded = 0;
         List<PagedFile> files = pageCache.listExistingMappings();
         Profile[] existingProfiles = findExistingProfiles( files );
-        for ( PagedFile file : files )
+        // Closing a loader waits for all of its pages to be loaded. We only do that once the pages of all the files
+        // have been handed to their loaders, so the files are reheated in parallel rather than one after the other.
+        List<PageLoader> loaders = new ArrayList<>( files.size() );
+        try
         {
-            try
-            {
-                pagesLoaded += reheat( file, existingProfiles );
-            }
-            catch ( FileIsNotMappedException ignore )
+            for ( PagedFile file : files )
             {
-                // The database is allowed to map and unmap files while we are trying to heat it up.
+                try
+                {
+                    pagesLoaded += reheat( file, existingProfiles, loaders );
+                }
+                catch ( FileIsNotMappedException ignore )
+                {
+                    // The database is allowed to map and unmap files while we are trying to heat it up.
+                }
+                if ( stopped )
+                {
+                    break;
+                }
             }
         }
+        finally
+        {
+            IOUtils.closeAll( loaders );
+            pageCache.reportEvents();
+        }
         return OptionalLong.of( pagesLoaded );
     }
 
@@ -199,7 +229,7 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
         return OptionalLong.of( pagesInMemory );
     }
 
-    private long reheat( PagedFile file, Profile[] existingProfiles ) throws IOException
+    private long reheat( PagedFile file, Profile[] existingProfiles, List<PageLoader> loaders ) throws IOException
     {
         Optional<Profile> savedProfile = filterRelevant( existingProfiles, file )
                 .sorted( Comparator.reverseOrder() ) // Try most recent profile first.
@@ -213,9 +243,10 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
 
         // The file contents checks out. Let's load it in.
         long pagesLoaded = 0;
-        try ( InputStream input = savedProfile.get().read( fs );
-              PageLoader loader = pageLoaderFactory.getLoader( file ) )
+        try ( InputStream input = savedProfile.get().read( fs ) )
         {
+            PageLoader loader = pageLoaderFactory.getLoader( file );
+            loaders.add( loader );
             long pageId = 0;
             int b;
             while ( (b = input.read()) != -1 )
@@ -224,7 +255,6 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
                 {
                     if ( stopped )
                     {
-                        pageCache.reportEvents();
                         return pagesLoaded;
                     }
                     if ( (b & 1) == 1 )
@@ -237,7 +267,6 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
                 }
             }
         }
-        pageCache.reportEvents();
         return pagesLoaded;
     }
 
@@ -263,13 +292,13 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
     private long profile( PagedFile file, Profile[] existingProfiles ) throws IOException
     {
         long pagesInMemory = 0;
-        Profile nextProfile = filterRelevant( existingProfiles, file )
-                .max( naturalOrder() )
+        Optional<Profile> lastProfile = filterRelevant( existingProfiles, file ).max( naturalOrder() );
+        Profile nextProfile = lastProfile
                 .map( Profile::next )
                 .orElse( Profile.first( file.file() ) );
 
-        try ( OutputStream output = nextProfile.write( fs );
-              PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try ( PageCursor cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_FAULT ) )
         {
             int stepper = 0;
             int b = 0;
@@ -289,15 +318,58 @@ public class PageCacheWarmer implements NeoStoreFileListing.StoreFileProvider
                 }
             }
             output.write( b );
-            output.flush();
         }
 
-        // Delete previous profile files.
+        byte[] bitmap = output.toByteArray();
+        CRC32 checksum = new CRC32();
+        checksum.update( bitmap, 0, bitmap.length );
+        Long lastChecksum = profileChecksums.get( file.file() );
+        if ( lastProfile.isPresent() && lastChecksum != null && lastChecksum == checksum.getValue() )
+        {
+            // Nothing has changed since we wrote the last profile, so there is no need to write it again.
+            if ( refCounts.contains( lastProfile.get() ) )
+            {
+                // The last profile is exposed via a file listing. Keep it, and move it along once it is released.
+                return pagesInMemory;
+            }
+            if ( moveProfile( lastProfile.get(), nextProfile ) )
+            {
+                deletePreviousProfiles( file, existingProfiles );
+                return pagesInMemory;
+            }
+        }
+
+        try ( OutputStream profileOutput = nextProfile.write( fs ) )
+        {
+            profileOutput.write( bitmap );
+            profileOutput.flush();
+        }
+        profileChecksums.put( file.file(), checksum.getValue() );
+        deletePreviousProfiles( file, existingProfiles );
+        return pagesInMemory;
+    }
+
+    private boolean moveProfile( Profile from, Profile to )
+    {
+        // Moving the profile, rather than keeping it where it is, retires the profile file names that file listings
+        // have exposed, in the same way as writing a new profile would.
+        try
+        {
+            from.renameTo( fs, to );
+            return true;
+        }
+        catch ( IOException e )
+        {
+            // Someone else may have removed the profile. Write out a new one instead.
+            return false;
+        }
+    }
+
+    private void deletePreviousProfiles( PagedFile file, Profile[] existingProfiles )
+    {
         filterRelevant( existingProfiles, file )
                 .filter( profile -> !refCounts.contains( profile ) )
                 .forEach( profile -> profile.delete( fs ) );
-
-        return pagesInMemory;
     }
 
     private ExecutorService buildExecutorService( JobScheduler scheduler )
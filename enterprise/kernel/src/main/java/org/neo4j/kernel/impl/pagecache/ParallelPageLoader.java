@@ -23,43 +23,72 @@
 package org.neo4j.kernel.impl.pagecache;
 
 import java.io.IOException;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
+/**
+ * Loads pages with the help of an executor. The page ids are handed to the executor in batches, and each batch is
+ * loaded with a single cursor, in the order the page ids were given, which is ascending page id order when reheating
+ * from a profile. This way the pages of a file are read mostly sequentially, even though many batches, of many files,
+ * are loaded at the same time.
+ */
 class ParallelPageLoader implements PageLoader
 {
+    // The number of page ids that are loaded, in order, by one executor task.
+    private static final int BATCH_SIZE = 512;
+
     private final PagedFile file;
-    private final Executor executor;
+    private final ExecutorService executor;
     private final PageCache pageCache;
     private final AtomicLong received;
     private final AtomicLong processed;
+    private long[] batch;
+    private int batchSize;
 
-    ParallelPageLoader( PagedFile file, Executor executor, PageCache pageCache )
+    ParallelPageLoader( PagedFile file, ExecutorService executor, PageCache pageCache )
     {
         this.file = file;
         this.executor = executor;
         this.pageCache = pageCache;
         received = new AtomicLong();
         processed = new AtomicLong();
+        batch = new long[BATCH_SIZE];
     }
 
     @Override
     public void load( long pageId )
     {
+        batch[batchSize++] = pageId;
+        if ( batchSize == BATCH_SIZE )
+        {
+            submitBatch();
+        }
+    }
+
+    private void submitBatch()
+    {
+        long[] pageIds = batch;
+        int count = batchSize;
+        batch = new long[BATCH_SIZE];
+        batchSize = 0;
         received.getAndIncrement();
         executor.execute( () ->
         {
             try
             {
-                try ( PageCursor cursor = file.io( pageId, PF_SHARED_READ_LOCK ) )
+                try ( PageCursor cursor = file.io( pageIds[0], PF_SHARED_READ_LOCK | PF_NO_READ_AHEAD ) )
                 {
-                    cursor.next();
+                    for ( int i = 0; i < count; i++ )
+                    {
+                        cursor.next( pageIds[i] );
+                    }
                 }
                 catch ( IOException ignore )
                 {
@@ -76,7 +105,13 @@ class ParallelPageLoader implements PageLoader
     @Override
     public void close()
     {
-        while ( processed.get() < received.get() )
+        if ( batchSize > 0 )
+        {
+            submitBatch();
+        }
+        // A batch that is submitted after the executor has been shut down is discarded, so we stop waiting for the
+        // batches once the executor has terminated.
+        while ( processed.get() < received.get() && !executor.isTerminated() )
         {
             Thread.yield();
         }
@@ -94,6 +94,11 @@ final class Profile implements Comparable<Profile>
         fs.deleteFile( profileFile );
     }
 
+    void renameTo( FileSystemAbstraction fs, Profile profile ) throws IOException
+    {
+        fs.renameFile( profileFile, profile.profileFile );
+    }
+
     InputStream read( FileSystemAbstraction fs ) throws IOException
     {
         InputStream source = fs.openAsInputStream( profileFile );
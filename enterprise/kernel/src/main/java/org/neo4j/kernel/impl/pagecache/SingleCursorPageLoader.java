@@ -27,6 +27,7 @@ import java.io.IOException;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
 
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
 class SingleCursorPageLoader implements PageLoader
@@ -35,7 +36,7 @@ class SingleCursorPageLoader implements PageLoader
 
     SingleCursorPageLoader( PagedFile file ) throws IOException
     {
-        cursor = file.io( 0, PF_SHARED_READ_LOCK );
+        cursor = file.io( 0, PF_SHARED_READ_LOCK | PF_NO_READ_AHEAD );
     }
 
     @Override
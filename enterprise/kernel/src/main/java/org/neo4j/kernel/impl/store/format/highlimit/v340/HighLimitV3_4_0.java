@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.kernel.impl.store.format.highlimit.v340;
+
+import org.neo4j.kernel.impl.store.format.Capability;
+import org.neo4j.kernel.impl.store.format.RecordFormats;
+import org.neo4j.kernel.impl.store.format.StoreVersion;
+import org.neo4j.kernel.impl.store.format.highlimit.HighLimit;
+
+/**
+ * Record format with very high limits, 50-bit per ID, while at the same time keeping store size small.
+ * <p>
+ * The records are the same as those of {@link HighLimit}, only map properties are stored as JSON text.
+ */
+public class HighLimitV3_4_0 extends HighLimit
+{
+    public static final String STORE_VERSION = StoreVersion.HIGH_LIMIT_V3_4_0.versionString();
+
+    public static final RecordFormats RECORD_FORMATS = new HighLimitV3_4_0();
+    public static final String NAME = "high_limitV3_4_0";
+
+    public HighLimitV3_4_0()
+    {
+        super( STORE_VERSION, StoreVersion.HIGH_LIMIT_V3_4_0.introductionVersion(), 5, Capability.DENSE_NODES,
+                Capability.RELATIONSHIP_TYPE_3BYTES, Capability.SCHEMA, Capability.LUCENE_5, Capability.POINT_PROPERTIES, Capability.TEMPORAL_PROPERTIES,
+                Capability.SECONDARY_RECORD_UNITS );
+    }
+
+    @Override
+    public String name()
+    {
+        return NAME;
+    }
+}
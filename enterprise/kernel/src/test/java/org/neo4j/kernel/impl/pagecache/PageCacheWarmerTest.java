@@ -33,6 +33,7 @@ import org.junit.rules.RuleChain;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -40,9 +41,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.OptionalLong;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.graphdb.Resource;
+import org.neo4j.graphdb.mockfs.DelegatingFileSystemAbstraction;
 import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PagedFile;
@@ -243,7 +247,8 @@ public class PageCacheWarmerTest
             pageCache.reportEvents();
             assertThat( cacheTracer.faults(), is( initialFaults + pageIds.length ) );
 
-            try ( PageCursor reader = pf.io( 0, PagedFile.PF_SHARED_READ_LOCK ) )
+            // Runs of consecutive page ids would otherwise make the page cache read ahead into the gaps between them.
+            try ( PageCursor reader = pf.io( 0, PagedFile.PF_SHARED_READ_LOCK | PagedFile.PF_NO_READ_AHEAD ) )
             {
                 for ( int pageId : pageIds )
                 {
@@ -257,6 +262,95 @@ public class PageCacheWarmerTest
         }
     }
 
+    @Test
+    public void mustReheatAllProfiledFiles() throws Exception
+    {
+        File otherFile = dir.file( "b" );
+        fs.create( otherFile );
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE );
+              PagedFile otherPf = pageCache.map( otherFile, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK );
+                  PageCursor otherWriter = otherPf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( writer.next( 1 ) );
+                assertTrue( writer.next( 3 ) );
+                assertTrue( otherWriter.next( 2 ) );
+            }
+            pf.flushAndForce();
+            otherPf.flushAndForce();
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler );
+            warmer.start();
+            warmer.profile();
+        }
+
+        clearTracerCounts();
+        long initialFaults = cacheTracer.faults();
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize() );
+              PagedFile otherPf = pageCache.map( otherFile, pageCache.pageSize() ) )
+        {
+            PageCacheWarmer warmer = new PageCacheWarmer( fs, pageCache, scheduler );
+            warmer.start();
+            assertThat( warmer.reheat().getAsLong(), is( 3L ) );
+
+            pageCache.reportEvents();
+            assertThat( cacheTracer.faults(), is( initialFaults + 3L ) );
+
+            try ( PageCursor reader = pf.io( 0, PagedFile.PF_SHARED_READ_LOCK );
+                  PageCursor otherReader = otherPf.io( 0, PagedFile.PF_SHARED_READ_LOCK ) )
+            {
+                assertTrue( reader.next( 1 ) );
+                assertTrue( reader.next( 3 ) );
+                assertTrue( otherReader.next( 2 ) );
+            }
+
+            // No additional faults must have been reported.
+            pageCache.reportEvents();
+            assertThat( cacheTracer.faults(), is( initialFaults + 3L ) );
+        }
+    }
+
+    @Test
+    public void profileMustOnlyBeWrittenWhenPageCacheContentsChange() throws Exception
+    {
+        AtomicInteger profilesWritten = new AtomicInteger();
+        FileSystemAbstraction countingFs = new DelegatingFileSystemAbstraction( fs )
+        {
+            @Override
+            public OutputStream openAsOutputStream( File fileName, boolean append ) throws IOException
+            {
+                if ( fileName.getName().endsWith( PageCacheWarmer.SUFFIX_CACHEPROF ) )
+                {
+                    profilesWritten.getAndIncrement();
+                }
+                return super.openAsOutputStream( fileName, append );
+            }
+        };
+        try ( PageCache pageCache = pageCacheRule.getPageCache( fs, cfg );
+              PagedFile pf = pageCache.map( file, pageCache.pageSize(), StandardOpenOption.CREATE ) )
+        {
+            try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( writer.next( 1 ) );
+            }
+            PageCacheWarmer warmer = new PageCacheWarmer( countingFs, pageCache, scheduler );
+            warmer.start();
+            assertThat( warmer.profile().getAsLong(), is( 1L ) );
+            assertThat( profilesWritten.get(), is( 1 ) );
+            assertThat( warmer.profile().getAsLong(), is( 1L ) );
+            assertThat( profilesWritten.get(), is( 1 ) );
+
+            try ( PageCursor writer = pf.io( 0, PagedFile.PF_SHARED_WRITE_LOCK ) )
+            {
+                assertTrue( writer.next( 3 ) );
+            }
+            assertThat( warmer.profile().getAsLong(), is( 2L ) );
+            assertThat( profilesWritten.get(), is( 2 ) );
+        }
+    }
+
     @SuppressWarnings( "unused" )
     @Test
     public void profileMustNotDeleteFilesCurrentlyExposedViaFileListing() throws Exception
@@ -80,6 +80,11 @@ public class MetricsSettings implements LoadableConfig
     public static final Setting<Boolean> neoCountsEnabled = buildSetting(
             "metrics.neo4j.counts.enabled", BOOLEAN ).inherits( neoEnabled ).build();
 
+    @Description( "Enable reporting metrics about map properties; how many are read and written, how much of the " +
+                  "string store that takes and how long reading them takes." )
+    public static final Setting<Boolean> neoMapPropertiesEnabled = buildSetting(
+            "metrics.neo4j.map_properties.enabled", BOOLEAN ).inherits( neoEnabled ).build();
+
     @Description( "Enable reporting metrics about the network usage." )
     public static final Setting<Boolean> neoNetworkEnabled = buildSetting(
             "metrics.neo4j.network.enabled", BOOLEAN ).inherits( neoEnabled ).build();
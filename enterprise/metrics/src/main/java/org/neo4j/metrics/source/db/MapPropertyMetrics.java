@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2002-2018 "Neo4j,"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j Enterprise Edition. The included source
+ * code can be redistributed and/or modified under the terms of the
+ * GNU AFFERO GENERAL PUBLIC LICENSE Version 3
+ * (http://www.fsf.org/licensing/licenses/agpl-3.0.html) with the
+ * Commons Clause, as found in the associated LICENSE.txt file.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * Neo4j object code can be licensed independently from the source
+ * under separate terms from the AGPL. Inquiries can be directed to:
+ * licensing@neo4j.com
+ *
+ * More information is also available at:
+ * https://neo4j.com/licensing/
+ */
+package org.neo4j.metrics.source.db;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.neo4j.kernel.impl.annotations.Documented;
+import org.neo4j.kernel.impl.store.stats.MapPropertyCounters;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+@Documented( ".Database Map Property Metrics" )
+public class MapPropertyMetrics extends LifecycleAdapter
+{
+    private static final String MAP_PROPERTY_PREFIX = "neo4j.map_properties";
+
+    @Documented( "The total number of times a whole map property was read" )
+    public static final String MAP_READS = name( MAP_PROPERTY_PREFIX, "reads" );
+    @Documented( "The total number of times a value at a path into a map property was read, without reading the whole map" )
+    public static final String MAP_PATH_READS = name( MAP_PROPERTY_PREFIX, "path_reads" );
+    @Documented( "The total number of path reads answered by the map path cache" )
+    public static final String MAP_PATH_CACHE_HITS = name( MAP_PROPERTY_PREFIX, "path_cache_hits" );
+    @Documented( "The total number of bytes of encoded maps read" )
+    public static final String MAP_BYTES_READ = name( MAP_PROPERTY_PREFIX, "bytes_read" );
+    @Documented( "The total number of string store records read for maps" )
+    public static final String MAP_RECORDS_READ = name( MAP_PROPERTY_PREFIX, "records_read" );
+    @Documented( "The total time spent reading and decoding maps, in milliseconds" )
+    public static final String MAP_READ_TIME = name( MAP_PROPERTY_PREFIX, "read_time" );
+    @Documented( "The total number of maps written to the string store" )
+    public static final String MAP_WRITES = name( MAP_PROPERTY_PREFIX, "writes" );
+    @Documented( "The total number of bytes of encoded maps written to the string store" )
+    public static final String MAP_BYTES_WRITTEN = name( MAP_PROPERTY_PREFIX, "bytes_written" );
+    @Documented( "The total number of string store records written for maps" )
+    public static final String MAP_RECORDS_WRITTEN = name( MAP_PROPERTY_PREFIX, "records_written" );
+
+    private final MetricRegistry registry;
+    private final Supplier<MapPropertyCounters> mapPropertyCountersSupplier;
+    private MapPropertyCounters counters;
+
+    public MapPropertyMetrics( MetricRegistry registry, Supplier<MapPropertyCounters> mapPropertyCountersSupplier )
+    {
+        this.registry = registry;
+        this.mapPropertyCountersSupplier = mapPropertyCountersSupplier;
+    }
+
+    @Override
+    public void start()
+    {
+        counters = mapPropertyCountersSupplier.get();
+        counters.trackReadTime( true );
+        registry.register( MAP_READS, (Gauge<Long>) counters::mapReads );
+        registry.register( MAP_PATH_READS, (Gauge<Long>) counters::mapPathReads );
+        registry.register( MAP_PATH_CACHE_HITS, (Gauge<Long>) counters::mapPathCacheHits );
+        registry.register( MAP_BYTES_READ, (Gauge<Long>) counters::bytesRead );
+        registry.register( MAP_RECORDS_READ, (Gauge<Long>) counters::dynamicRecordsRead );
+        registry.register( MAP_READ_TIME, (Gauge<Long>) () -> TimeUnit.NANOSECONDS.toMillis( counters.readTimeNanos() ) );
+        registry.register( MAP_WRITES, (Gauge<Long>) counters::mapWrites );
+        registry.register( MAP_BYTES_WRITTEN, (Gauge<Long>) counters::bytesWritten );
+        registry.register( MAP_RECORDS_WRITTEN, (Gauge<Long>) counters::dynamicRecordsWritten );
+    }
+
+    @Override
+    public void stop()
+    {
+        registry.remove( MAP_READS );
+        registry.remove( MAP_PATH_READS );
+        registry.remove( MAP_PATH_CACHE_HITS );
+        registry.remove( MAP_BYTES_READ );
+        registry.remove( MAP_RECORDS_READ );
+        registry.remove( MAP_READ_TIME );
+        registry.remove( MAP_WRITES );
+        registry.remove( MAP_BYTES_WRITTEN );
+        registry.remove( MAP_RECORDS_WRITTEN );
+        counters.trackReadTime( false );
+    }
+}
@@ -50,6 +50,10 @@ public class PageCacheMetrics extends LifecycleAdapter
     public static final String PC_PAGE_FAULTS = name( PAGE_CACHE_PREFIX, "page_faults" );
     @Documented( "The total number of page hits happened in the page cache" )
     public static final String PC_HITS = name( PAGE_CACHE_PREFIX, "hits" );
+    @Documented( "The total number of page faults of pages that had been evicted shortly before" )
+    public static final String PC_REFAULTS = name( PAGE_CACHE_PREFIX, "refaults" );
+    @Documented( "The number of pages in the page cache that belong to files with a page cache reservation" )
+    public static final String PC_RESERVED_PAGES = name( PAGE_CACHE_PREFIX, "reserved_pages" );
     @Documented( "The ratio of hits to the total number of lookups in the page cache" )
     public static final String PC_HIT_RATIO = name( PAGE_CACHE_PREFIX, "hit_ratio" );
     @Documented( "The ratio of number of used pages to total number of available pages" )
@@ -74,6 +78,8 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.register( PC_HITS, (Gauge<Long>) pageCacheCounters::hits );
         registry.register( PC_FLUSHES, (Gauge<Long>) pageCacheCounters::flushes );
         registry.register( PC_EVICTION_EXCEPTIONS, (Gauge<Long>) pageCacheCounters::evictionExceptions );
+        registry.register( PC_REFAULTS, (Gauge<Long>) pageCacheCounters::refaults );
+        registry.register( PC_RESERVED_PAGES, (Gauge<Long>) pageCacheCounters::reservedPages );
         registry.register( PC_HIT_RATIO, (Gauge<Double>) pageCacheCounters::hitRatio );
         registry.register( PC_USAGE_RATIO, (Gauge<Double>) pageCacheCounters::usageRatio );
     }
@@ -88,6 +94,8 @@ public class PageCacheMetrics extends LifecycleAdapter
         registry.remove( PC_HITS );
         registry.remove( PC_FLUSHES );
         registry.remove( PC_EVICTION_EXCEPTIONS );
+        registry.remove( PC_REFAULTS );
+        registry.remove( PC_RESERVED_PAGES );
         registry.remove( PC_HIT_RATIO );
         registry.remove( PC_USAGE_RATIO );
     }